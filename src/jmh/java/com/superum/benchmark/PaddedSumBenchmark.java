@@ -0,0 +1,112 @@
+package com.superum.benchmark;
+
+import com.superum.api.v2.table.PaddedSumField;
+import com.superum.api.v2.table.TableCell;
+import com.superum.api.v2.table.TableField;
+import org.jooq.Record;
+import org.jooq.lambda.Seq;
+import org.jooq.lambda.tuple.Tuple;
+import org.jooq.lambda.tuple.Tuple2;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static java.math.BigDecimal.ROUND_HALF_EVEN;
+
+/**
+ * <pre>
+ * Compares the way padded costs are handled by the app (using PaddedSum) against doing the same with BigDecimal
+ *
+ * Every benchmark is done both ways:
+ *      costs*      : the padding is removed from the cost of every record, like PaddedSumField.valueForRecord does
+ *                    for every TableReport
+ *      cells*      : the padded costs of lessons are merged by (customer, teacher) and then unpadded once, like
+ *                    TableCells are merged into TableFields by TableDataFetcher
+ *
+ * The data comes from SyntheticTable; before running, the setup checks that both ways give identical results,
+ * including the scale
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PaddedSumBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int lessons;
+
+    @Setup
+    public void setup() {
+        SyntheticTable table = SyntheticTable.ofSize(lessons);
+        paddedSumField = new PaddedSumField();
+        costRecords = table.costRecords(paddedSumField);
+        syntheticLessons = table.lessons();
+
+        assertIdentical(costsBigDecimal(), costsPaddedSumField());
+        assertIdentical(cellsBigDecimal(), Seq.seq(cellsTableCell()).map(TableField::getCost).toList());
+    }
+
+    @Benchmark
+    public List<BigDecimal> costsBigDecimal() {
+        List<BigDecimal> costs = new ArrayList<>(costRecords.size());
+        for (Record record : costRecords)
+            costs.add(paddedSumField.paddedValueForRecord(record).divide(PADDING, ROUND_HALF_EVEN));
+        return costs;
+    }
+
+    @Benchmark
+    public List<BigDecimal> costsPaddedSumField() {
+        List<BigDecimal> costs = new ArrayList<>(costRecords.size());
+        for (Record record : costRecords)
+            costs.add(paddedSumField.valueForRecord(record));
+        return costs;
+    }
+
+    @Benchmark
+    public List<BigDecimal> cellsBigDecimal() {
+        Map<Tuple2<Integer, Integer>, BigDecimal> sums = new LinkedHashMap<>();
+        for (SyntheticTable.Lesson lesson : syntheticLessons)
+            sums.merge(Tuple.tuple(lesson.customerId, lesson.teacherId), lesson.paddedCost, BigDecimal::add);
+
+        List<BigDecimal> costs = new ArrayList<>(sums.size());
+        for (BigDecimal sum : sums.values())
+            costs.add(sum.divide(PADDING, ROUND_HALF_EVEN));
+        return costs;
+    }
+
+    @Benchmark
+    public List<TableField> cellsTableCell() {
+        Map<Tuple2<Integer, Integer>, TableCell> cells = new LinkedHashMap<>();
+        for (SyntheticTable.Lesson lesson : syntheticLessons) {
+            TableCell cell = TableCell.valueOf(lesson.customerId, lesson.teacherId, lesson.duration, lesson.paddedCost);
+            cells.merge(cell.key(), cell, TableCell::merge);
+        }
+
+        List<TableField> fields = new ArrayList<>(cells.size());
+        for (TableCell cell : cells.values())
+            fields.add(cell.toField(null));
+        return fields;
+    }
+
+    // PRIVATE
+
+    private PaddedSumField paddedSumField;
+    private List<Record> costRecords;
+    private List<SyntheticTable.Lesson> syntheticLessons;
+
+    private static void assertIdentical(List<BigDecimal> expected, List<BigDecimal> actual) {
+        if (!expected.equals(actual))
+            throw new IllegalStateException("PaddedSum gave different results than BigDecimal");
+    }
+
+    private static final BigDecimal PADDING = BigDecimal.valueOf(180);
+
+}
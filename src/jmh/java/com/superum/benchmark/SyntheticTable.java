@@ -0,0 +1,194 @@
+package com.superum.benchmark;
+
+import com.superum.api.v2.customer.ValidCustomerDTO;
+import com.superum.api.v2.table.PaddedSumField;
+import com.superum.api.v2.teacher.FullTeacherDTO;
+import org.joda.time.LocalDate;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.jooq.lambda.Seq;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static eu.goodlike.misc.Constants.MYSQL_GROUP_CONCAT_SEPARATOR;
+import static timestar_v2.Tables.TEACHER;
+
+/**
+ * <pre>
+ * Generates synthetic lesson table data of given size, without a database
+ *
+ * The amount of teachers and customers grows with the amount of lessons, roughly as it does in production:
+ *      teachers            : one for every 100 lessons
+ *      customers           : one for every 200 lessons
+ *
+ * Records are created using a detached DSLContext, so they have the same fields and types as fetched records;
+ * the same seed always generates the same data
+ * </pre>
+ */
+public final class SyntheticTable {
+
+    /**
+     * @return teacher records, as read by TeacherFetcher (including the concatenated languages)
+     */
+    public List<Record> teacherRecords() {
+        Field<String> languages = DSL.field(DSL.name(FullTeacherDTO.getLanguagesFieldName()), String.class);
+        List<Field<?>> fields = new ArrayList<>(Seq.of(TEACHER.fields()).toList());
+        fields.add(languages);
+
+        List<Record> records = new ArrayList<>(teachers);
+        for (int id = 1; id <= teachers; id++) {
+            Record record = sql.newRecord(fields.toArray(new Field<?>[fields.size()]));
+            record.setValue(TEACHER.ID, id);
+            record.setValue(TEACHER.PARTITION_ID, 0);
+            record.setValue(TEACHER.EMAIL, "teacher" + id + "@superum.eu");
+            record.setValue(TEACHER.CREATED_AT, CREATED_AT);
+            record.setValue(TEACHER.UPDATED_AT, CREATED_AT);
+            record.setValue(TEACHER.PAYMENT_DAY, paymentDay(id));
+            record.setValue(TEACHER.HOURLY_WAGE, wage());
+            record.setValue(TEACHER.ACADEMIC_WAGE, wage());
+            record.setValue(TEACHER.NAME, "Name" + id);
+            record.setValue(TEACHER.SURNAME, "Surname" + id);
+            record.setValue(TEACHER.PHONE, "+3706" + (1000000 + id));
+            record.setValue(TEACHER.CITY, "Vilnius");
+            record.setValue(TEACHER.PICTURE, "picture" + id);
+            record.setValue(TEACHER.DOCUMENT, "document" + id);
+            record.setValue(TEACHER.COMMENT, "comment" + id);
+            record.setValue(languages, "en" + MYSQL_GROUP_CONCAT_SEPARATOR + "lt");
+            records.add(record);
+        }
+        return records;
+    }
+
+    public List<FullTeacherDTO> teachers() {
+        return Seq.seq(teacherRecords()).map(FullTeacherDTO::valueOf).toList();
+    }
+
+    public List<ValidCustomerDTO> customers() {
+        List<ValidCustomerDTO> customers = new ArrayList<>(this.customers);
+        for (int id = 1; id <= this.customers; id++)
+            customers.add(new ValidCustomerDTO(id, contractDate(id), "Customer" + id, "+3706" + (2000000 + id),
+                    "customer" + id + ".eu", "picture" + id, "comment" + id, null, null));
+        return customers;
+    }
+
+    /**
+     * @return records with the padded cost of a single (customer, teacher) pair, as read by the table queries
+     */
+    public List<Record> costRecords(PaddedSumField paddedSumField) {
+        Field<BigDecimal> cost = paddedSumField.field();
+        List<Record> records = new ArrayList<>(lessons);
+        for (int i = 0; i < lessons; i++) {
+            Record record = sql.newRecord(cost);
+            record.setValue(cost, paddedCost());
+            records.add(record);
+        }
+        return records;
+    }
+
+    /**
+     * @return (customerId, teacherId, lessonId, duration, paddedCost) of every lesson, ordered by customer and teacher,
+     * the same way as lesson ids are read for the table
+     */
+    public List<Lesson> lessons() {
+        List<Lesson> lessons = new ArrayList<>(this.lessons);
+        for (long id = 1; id <= this.lessons; id++)
+            lessons.add(new Lesson(1 + random.nextInt(customers), 1 + random.nextInt(teachers), id,
+                    1 + random.nextInt(MAX_DURATION), paddedCost()));
+        lessons.sort((l1, l2) -> l1.customerId != l2.customerId
+                ? Integer.compare(l1.customerId, l2.customerId)
+                : l1.teacherId != l2.teacherId
+                ? Integer.compare(l1.teacherId, l2.teacherId)
+                : Long.compare(l1.lessonId, l2.lessonId));
+        return lessons;
+    }
+
+    public int paymentDay(int id) {
+        return 1 + id % 31;
+    }
+
+    public LocalDate contractDate(int id) {
+        return CONTRACT_START.plusDays(id % 365);
+    }
+
+    public int lessonCount() {
+        return lessons;
+    }
+
+    public int teacherCount() {
+        return teachers;
+    }
+
+    public int customerCount() {
+        return customers;
+    }
+
+    /**
+     * A single lesson of the table
+     */
+    public static final class Lesson {
+
+        public final int customerId;
+        public final int teacherId;
+        public final long lessonId;
+        public final int duration;
+        public final BigDecimal paddedCost;
+
+        private Lesson(int customerId, int teacherId, long lessonId, int duration, BigDecimal paddedCost) {
+            this.customerId = customerId;
+            this.teacherId = teacherId;
+            this.lessonId = lessonId;
+            this.duration = duration;
+            this.paddedCost = paddedCost;
+        }
+
+    }
+
+    // CONSTRUCTORS
+
+    public static SyntheticTable ofSize(int lessons) {
+        return new SyntheticTable(lessons, Math.max(1, lessons / LESSONS_PER_TEACHER),
+                Math.max(1, lessons / LESSONS_PER_CUSTOMER));
+    }
+
+    private SyntheticTable(int lessons, int teachers, int customers) {
+        this.lessons = lessons;
+        this.teachers = teachers;
+        this.customers = customers;
+        this.sql = DSL.using(SQLDialect.MYSQL);
+        this.random = new Random(SEED);
+    }
+
+    // PRIVATE
+
+    private final int lessons;
+    private final int teachers;
+    private final int customers;
+    private final DSLContext sql;
+    private final Random random;
+
+    private BigDecimal wage() {
+        return BigDecimal.valueOf(random.nextInt(MAX_WAGE_UNSCALED), WAGE_SCALE);
+    }
+
+    private BigDecimal paddedCost() {
+        return wage().multiply(BigDecimal.valueOf((1 + random.nextInt(MAX_DURATION)) * (random.nextBoolean() ? 3 : 4)));
+    }
+
+    private static final int LESSONS_PER_TEACHER = 100;
+    private static final int LESSONS_PER_CUSTOMER = 200;
+
+    private static final long SEED = 180;
+    private static final long CREATED_AT = 1446336000000L;
+    private static final LocalDate CONTRACT_START = new LocalDate(2015, 1, 1);
+
+    private static final int WAGE_SCALE = 4;
+    private static final int MAX_WAGE_UNSCALED = 1000_0000;
+    private static final int MAX_DURATION = 240;
+
+}
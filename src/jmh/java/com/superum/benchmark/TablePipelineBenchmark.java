@@ -0,0 +1,136 @@
+package com.superum.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.io.ByteStreams;
+import com.superum.api.v2.customer.ValidCustomerDTO;
+import com.superum.api.v2.table.*;
+import com.superum.api.v2.teacher.FullTeacherDTO;
+import com.superum.helper.TimeResolver;
+import org.joda.time.LocalDate;
+import org.jooq.Record;
+import org.jooq.lambda.tuple.Tuple;
+import org.jooq.lambda.tuple.Tuple2;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <pre>
+ * Benchmarks the in-memory parts of the lesson table pipeline, i.e. everything that happens to the records after
+ * they are fetched and before the response is written:
+ *      fields              : TableCells are merged and turned into TableFields, as TableDataFetcher does
+ *      teachers            : FullTeacherDTO.valueOf for every teacher record
+ *      costs               : PaddedSumField.valueForRecord for every cost record
+ *      timeResolvers       : TimeResolver.from for the payment day of every teacher and contract date of every customer
+ *      serialization       : Jackson serialization of the whole FullTable
+ *
+ * The size is the amount of lessons; teachers and customers grow with it, see SyntheticTable; use it like this:
+ *      gradle jmh -PjmhArgs="TablePipelineBenchmark -p lessons=1000,1000000"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TablePipelineBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int lessons;
+
+    @Setup
+    public void setup() {
+        SyntheticTable table = SyntheticTable.ofSize(lessons);
+        paddedSumField = new PaddedSumField();
+        objectMapper = new ObjectMapper().findAndRegisterModules();
+
+        syntheticLessons = table.lessons();
+        lessonIds = lessonIds(syntheticLessons);
+        teacherRecords = table.teacherRecords();
+        costRecords = table.costRecords(paddedSumField);
+        paymentDays = new int[table.teacherCount()];
+        for (int i = 0; i < paymentDays.length; i++)
+            paymentDays[i] = table.paymentDay(i + 1);
+
+        List<FullTeacherDTO> teachers = table.teachers();
+        List<ValidCustomerDTO> customers = table.customers();
+        fullTable = new FullTable(teachers, customers, fields(), reports(teachers.size()), reports(customers.size()));
+    }
+
+    @Benchmark
+    public List<TableField> fields() {
+        Map<Tuple2<Integer, Integer>, TableCell> cells = new LinkedHashMap<>();
+        for (SyntheticTable.Lesson lesson : syntheticLessons) {
+            TableCell cell = TableCell.valueOf(lesson.customerId, lesson.teacherId, lesson.duration, lesson.paddedCost);
+            cells.merge(cell.key(), cell, TableCell::merge);
+        }
+
+        List<TableField> fields = new ArrayList<>(cells.size());
+        for (TableCell cell : cells.values())
+            fields.add(cell.toField(lessonIds.get(cell.key())));
+        return fields;
+    }
+
+    @Benchmark
+    public void teachers(Blackhole blackhole) {
+        for (Record record : teacherRecords)
+            blackhole.consume(FullTeacherDTO.valueOf(record));
+    }
+
+    @Benchmark
+    public void costs(Blackhole blackhole) {
+        for (Record record : costRecords)
+            blackhole.consume(paddedSumField.valueForRecord(record));
+    }
+
+    @Benchmark
+    public void timeResolvers(Blackhole blackhole) {
+        for (int paymentDay : paymentDays)
+            blackhole.consume(TimeResolver.from(paymentDay));
+        for (ValidCustomerDTO customer : fullTable.getCustomers())
+            blackhole.consume(TimeResolver.from(customer.getStartDate()));
+    }
+
+    @Benchmark
+    public void serialization() throws IOException {
+        objectMapper.writeValue(ByteStreams.nullOutputStream(), fullTable);
+    }
+
+    // PRIVATE
+
+    private PaddedSumField paddedSumField;
+    private ObjectMapper objectMapper;
+
+    private List<SyntheticTable.Lesson> syntheticLessons;
+    private Map<Tuple2<Integer, Integer>, long[]> lessonIds;
+    private List<Record> teacherRecords;
+    private List<Record> costRecords;
+    private int[] paymentDays;
+    private FullTable fullTable;
+
+    private static Map<Tuple2<Integer, Integer>, long[]> lessonIds(List<SyntheticTable.Lesson> lessons) {
+        Map<Tuple2<Integer, Integer>, List<Long>> ids = new HashMap<>();
+        for (SyntheticTable.Lesson lesson : lessons)
+            ids.computeIfAbsent(Tuple.tuple(lesson.customerId, lesson.teacherId), any -> new ArrayList<>())
+                    .add(lesson.lessonId);
+
+        Map<Tuple2<Integer, Integer>, long[]> lessonIds = new HashMap<>();
+        ids.forEach((key, list) -> lessonIds.put(key, list.stream().mapToLong(Long::longValue).toArray()));
+        return lessonIds;
+    }
+
+    private static List<TableReport> reports(int amount) {
+        List<TableReport> reports = new ArrayList<>(amount);
+        for (int id = 1; id <= amount; id++)
+            reports.add(new TableReport(id, REPORT_MONTH.plusDays(id % 28), BigDecimal.valueOf(id, 4)));
+        return reports;
+    }
+
+    private static final LocalDate REPORT_MONTH = new LocalDate(2015, 11, 1);
+
+}
@@ -0,0 +1,105 @@
+package com.superum.benchmark;
+
+import com.superum.api.v2.table.PaddedSumField;
+import com.superum.api.v2.table.TableReport;
+import com.superum.api.v2.table.TableReportFetcher;
+import com.superum.helper.TableReportFixture;
+import com.superum.helper.TimeResolver;
+import org.jooq.DSLContext;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import static timestar_v2.Tables.LESSON;
+
+/**
+ * <pre>
+ * Compares the derived table reports of TableReportFetcher against the OR-chained condition they replaced:
+ *      derivedTable        : TableReportFetcher.reportsFor, which joins lessons against a table of time windows
+ *      orChain             : a single query, with an (id AND time window) condition for every id, chained with OR
+ *
+ * Unlike other benchmarks, this one needs a database; it uses the one from persistence.properties, which must
+ * already have the schema and partition 0; the benchmark data is inserted in a transaction which is rolled back
+ * afterwards, so ids starting at 1000 must be free; use it like this:
+ *      gradle jmh -PjmhArgs="TableReportBenchmark -p ids=10,5000"
+ *
+ * The data, the windows and the OR-chained query come from TableReportFixture in the test source set, which is
+ * shared with TableReportFetcherIT; that test checks that both queries find the same costs
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TableReportBenchmark {
+
+    @Param({"10", "100", "1000", "5000"})
+    public int ids;
+
+    @Setup
+    public void setup() throws IOException, ClassNotFoundException, SQLException {
+        Properties properties = new Properties();
+        try (InputStream persistence = TableReportBenchmark.class.getResourceAsStream("/persistence.properties")) {
+            if (persistence == null)
+                throw new IllegalStateException("persistence.properties must be on the classpath");
+            properties.load(persistence);
+        }
+
+        Class.forName(properties.getProperty("db.driver"));
+        connection = DriverManager.getConnection(properties.getProperty("db.url"),
+                properties.getProperty("db.username"), properties.getProperty("db.password"));
+        connection.setAutoCommit(false);
+
+        sql = DSL.using(connection, SQLDialect.MYSQL);
+        paddedSumField = new PaddedSumField();
+        tableReportFetcher = new TableReportFetcher(sql, paddedSumField);
+        fixture = new TableReportFixture(sql, paddedSumField, PARTITION_ID);
+
+        idList = TableReportFixture.ids(ids);
+        timeResolvers = TableReportFixture.windowsFor(idList);
+        fixture.insert(ids);
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.rollback();
+        connection.close();
+    }
+
+    @Benchmark
+    public List<TableReport> derivedTable() {
+        return tableReportFetcher.reportsFor(LESSON.TEACHER_ID, idList, PARTITION_ID, timeResolvers);
+    }
+
+    @Benchmark
+    public Map<Integer, BigDecimal> orChain() {
+        return fixture.orChainCosts(timeResolvers);
+    }
+
+    // PRIVATE
+
+    private Connection connection;
+    private DSLContext sql;
+    private PaddedSumField paddedSumField;
+    private TableReportFetcher tableReportFetcher;
+    private TableReportFixture fixture;
+
+    private List<Integer> idList;
+    private Map<Integer, TimeResolver> timeResolvers;
+
+    private static final int PARTITION_ID = 0;
+
+}
@@ -4,6 +4,8 @@ import com.superum.api.exception.InvalidRequestException;
 import com.superum.helper.TimeResolver;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 @RestController
 public abstract class CommonControllerLogic {
 
@@ -12,6 +14,19 @@ public abstract class CommonControllerLogic {
             throw new InvalidRequestException(source + " id must be positive, not: " + id);
     }
 
+    /**
+     * Batches are handled in a single transaction, so their size is limited; a null element would only fail later
+     */
+    protected void validateBatch(String source, List<?> batch) {
+        if (batch == null || batch.isEmpty() || batch.size() > MAX_BATCH_SIZE)
+            throw new InvalidRequestException("Amount of " + source + " must be between 1 and " + MAX_BATCH_SIZE +
+                    ", not: " + (batch == null ? 0 : batch.size()));
+
+        if (batch.contains(null))
+            throw new InvalidRequestException("Batch of " + source + " cannot contain null, but index " +
+                    batch.indexOf(null) + " is null");
+    }
+
     /**
      * <pre>
      * Defaults are set up below rather than in annotation because otherwise
@@ -78,4 +93,6 @@ public abstract class CommonControllerLogic {
     private static final int DEFAULT_PAGE = 0;
     private static final int DEFAULT_PER_PAGE = 25;
 
+    private static final int MAX_BATCH_SIZE = 1000;
+
 }
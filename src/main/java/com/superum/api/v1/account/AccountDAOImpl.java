@@ -1,6 +1,7 @@
 package com.superum.api.v1.account;
 
 import com.superum.api.v2.account.AccountNotFoundException;
+import com.superum.config.VerifiedCredentialCache;
 import com.superum.exception.DatabaseException;
 import org.jooq.DSLContext;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,6 +9,8 @@ import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
+
 import static timestar_v2.Tables.ACCOUNT;
 
 @Repository
@@ -66,6 +69,7 @@ public class AccountDAOImpl implements AccountDAO {
                     .where(ACCOUNT.USERNAME.eq(username))
                     .execute();
 
+            verifiedCredentialCache.invalidate(Collections.singletonList(username));
             return old;
         } catch (DataAccessException|DatabaseException e) {
             throw new DatabaseException("An unexpected error occurred when trying to update account " + account, e);
@@ -83,6 +87,7 @@ public class AccountDAOImpl implements AccountDAO {
             if (deleteResult == 0)
                 throw new DatabaseException("Couldn't delete account with username: " + username);
 
+            verifiedCredentialCache.invalidate(Collections.singletonList(username));
             return old;
         } catch (DataAccessException|DatabaseException e) {
             throw new DatabaseException("An unexpected error occurred when trying to delete account for username " + username, e);
@@ -92,12 +97,14 @@ public class AccountDAOImpl implements AccountDAO {
 	// CONSTRUCTORS
 
 	@Autowired
-	public AccountDAOImpl(DSLContext sql) {
+	public AccountDAOImpl(DSLContext sql, VerifiedCredentialCache verifiedCredentialCache) {
 		this.sql = sql;
+		this.verifiedCredentialCache = verifiedCredentialCache;
 	}
 
 	// PRIVATE
 	
 	private final DSLContext sql;
+	private final VerifiedCredentialCache verifiedCredentialCache;
 
 }
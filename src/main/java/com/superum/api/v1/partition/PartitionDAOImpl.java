@@ -1,5 +1,6 @@
 package com.superum.api.v1.partition;
 
+import com.superum.config.PartitionRoutingDataSource;
 import com.superum.exception.DatabaseException;
 import org.jooq.DSLContext;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -7,6 +8,7 @@ import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import static com.superum.config.PartitionRoutingDataSource.PRIMARY_SHARD;
 import static timestar_v2.Tables.PARTITIONS;
 
 @Repository
@@ -19,10 +21,10 @@ public class PartitionDAOImpl implements PartitionDAO {
 			int id = partition.getId();
 			String name = partition.getName();
 
-			int createResult = sql.insertInto(PARTITIONS)
+			int createResult = partitionRoutingDataSource.onShard(PRIMARY_SHARD, () -> sql.insertInto(PARTITIONS)
 					.set(PARTITIONS.ID, id)
 					.set(PARTITIONS.NAME, name)
-					.execute();
+					.execute());
 			if (createResult == 0)
 				throw new DatabaseException("Couldn't insert partition: " + partition);
 
@@ -36,9 +38,9 @@ public class PartitionDAOImpl implements PartitionDAO {
 	@Override
 	public Partition read(int partitionId) {
         try {
-            return sql.selectFrom(PARTITIONS)
+            return partitionRoutingDataSource.onShard(PRIMARY_SHARD, () -> sql.selectFrom(PARTITIONS)
                     .where(PARTITIONS.ID.eq(partitionId))
-                    .fetch().stream()
+                    .fetch()).stream()
                     .findFirst()
                     .map(Partition::valueOf)
                     .orElseThrow(() -> new DatabaseException("Couldn't find partition with ID: " + partitionId));
@@ -50,12 +52,14 @@ public class PartitionDAOImpl implements PartitionDAO {
 	// CONSTRUCTORS
 
 	@Autowired
-	public PartitionDAOImpl(DSLContext sql) {
+	public PartitionDAOImpl(DSLContext sql, PartitionRoutingDataSource partitionRoutingDataSource) {
 		this.sql = sql;
+		this.partitionRoutingDataSource = partitionRoutingDataSource;
 	}
 
 	// PRIVATE
 	
 	private final DSLContext sql;
+	private final PartitionRoutingDataSource partitionRoutingDataSource;
 
 }
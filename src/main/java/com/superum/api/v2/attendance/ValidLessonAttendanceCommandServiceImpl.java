@@ -2,6 +2,9 @@ package com.superum.api.v2.attendance;
 
 import com.superum.api.v2.lesson.LessonNotFoundException;
 import com.superum.api.v2.student.StudentNotFoundException;
+import com.superum.api.v3.change.ChangeAction;
+import com.superum.api.v3.change.ChangeFeed;
+import com.superum.api.v3.change.ChangedTable;
 import com.superum.exception.DatabaseException;
 import com.superum.helper.jooq.CommandsForMany;
 import com.superum.helper.jooq.DefaultQueries;
@@ -30,6 +33,8 @@ public class ValidLessonAttendanceCommandServiceImpl implements ValidLessonAtten
 
         if (lessonAttendanceCommands.create(lessonAttendance, partitionId) == 0)
             throw new DatabaseException("Couldn't create lesson attendance: " + lessonAttendance);
+
+        changeFeed.publish(partitionId, ChangedTable.attendance, ChangeAction.created, lessonAttendance.primaryValue());
     }
 
     @Override
@@ -43,6 +48,8 @@ public class ValidLessonAttendanceCommandServiceImpl implements ValidLessonAtten
 
         if (lessonAttendanceCommands.update(lessonAttendance, partitionId) == 0)
             throw new DatabaseException("Couldn't update lesson attendance: " + lessonAttendance);
+
+        changeFeed.publish(partitionId, ChangedTable.attendance, ChangeAction.updated, lessonAttendance.primaryValue());
     }
 
     @Override
@@ -55,6 +62,8 @@ public class ValidLessonAttendanceCommandServiceImpl implements ValidLessonAtten
 
         if (lessonAttendanceCommands.deletePrimary(lessonId, partitionId) == 0)
             throw new DatabaseException("Couldn't delete lesson attendance for lesson with id : " + lessonId);
+
+        changeFeed.publish(partitionId, ChangedTable.attendance, ChangeAction.deleted, lessonId);
     }
 
     @Override
@@ -67,6 +76,8 @@ public class ValidLessonAttendanceCommandServiceImpl implements ValidLessonAtten
 
         if (lessonAttendanceCommands.deleteSecondary(studentId, partitionId) == 0)
             throw new DatabaseException("Couldn't delete lesson attendance for student with id : " + studentId);
+
+        changeFeed.publish(partitionId, ChangedTable.attendance, ChangeAction.deleted, "studentId", studentId);
     }
 
     // CONSTRUCTORS
@@ -76,12 +87,14 @@ public class ValidLessonAttendanceCommandServiceImpl implements ValidLessonAtten
                                                    CommandsForMany<Long, Integer> lessonAttendanceCommands,
                                                    DefaultQueries<LessonRecord, Long> defaultLessonQueries,
                                                    DefaultQueries<StudentRecord, Integer> defaultStudentQueries,
-                                                   QueriesForMany<Long, Integer> defaultLessonAttendanceQueries) {
+                                                   QueriesForMany<Long, Integer> defaultLessonAttendanceQueries,
+                                                   ChangeFeed changeFeed) {
         this.studentGroupChecker = studentGroupChecker;
         this.lessonAttendanceCommands = lessonAttendanceCommands;
         this.defaultLessonQueries = defaultLessonQueries;
         this.defaultStudentQueries = defaultStudentQueries;
         this.defaultLessonAttendanceQueries = defaultLessonAttendanceQueries;
+        this.changeFeed = changeFeed;
     }
 
     // PRIVATE
@@ -91,6 +104,7 @@ public class ValidLessonAttendanceCommandServiceImpl implements ValidLessonAtten
     private final DefaultQueries<LessonRecord, Long> defaultLessonQueries;
     private final DefaultQueries<StudentRecord, Integer> defaultStudentQueries;
     private final QueriesForMany<Long, Integer> defaultLessonAttendanceQueries;
+    private final ChangeFeed changeFeed;
 
     private void validateIdsInDB(ValidLessonAttendance lessonAttendance, int partitionId) {
         if (!defaultLessonQueries.exists(lessonAttendance.primaryValue(), partitionId))
@@ -1,10 +1,14 @@
 package com.superum.api.v2.customer;
 
+import com.superum.helper.Page;
+import org.jooq.Condition;
 import org.jooq.DSLContext;
 import org.jooq.SelectHavingStep;
 import org.jooq.SelectSelectStep;
+import org.jooq.impl.DSL;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -12,16 +16,17 @@ import static timestar_v2.Keys.*;
 import static timestar_v2.Tables.*;
 
 @Repository
+@Transactional(readOnly = true)
 public class CustomersForTeacherFetcher {
 
     /**
      * @return list of customers for given teacherId; only specified amount is returned, with offset
      */
-    public List<ValidCustomerDTO> fetch(int teacherId, int page, int amount, int partitionId) {
-        return customersForTeacher(sql.select(CUSTOMER.fields()), teacherId, partitionId)
+    public List<ValidCustomerDTO> fetch(int teacherId, Page page, int partitionId) {
+        return customersForTeacher(sql.select(CUSTOMER.fields()), teacherId, partitionId, page.seek(CUSTOMER.ID))
                 .orderBy(CUSTOMER.ID)
-                .limit(amount)
-                .offset(page * amount)
+                .limit(page.amount())
+                .offset(page.offset())
                 .fetch()
                 .map(ValidCustomerDTO::valueOf);
     }
@@ -30,7 +35,7 @@ public class CustomersForTeacherFetcher {
      * @return count of customers for given teacherId
      */
     public int count(int teacherId, int partitionId) {
-        return sql.fetchCount(customersForTeacher(sql.selectOne(), teacherId, partitionId));
+        return sql.fetchCount(customersForTeacher(sql.selectOne(), teacherId, partitionId, DSL.trueCondition()));
     }
 
     // CONSTRUCTORS
@@ -44,13 +49,15 @@ public class CustomersForTeacherFetcher {
 
     private final DSLContext sql;
 
-    private SelectHavingStep<?> customersForTeacher(SelectSelectStep<?> select, int teacherId, int partitionId) {
+    private SelectHavingStep<?> customersForTeacher(SelectSelectStep<?> select, int teacherId, int partitionId,
+                                                    Condition seek) {
         return select.from(CUSTOMER)
                 .join(STUDENT).onKey(STUDENT_IBFK_1)
                 .join(STUDENTS_IN_GROUPS).onKey(STUDENTS_IN_GROUPS_IBFK_1)
                 .join(GROUP_OF_STUDENTS).onKey(STUDENTS_IN_GROUPS_IBFK_2)
                 .where(GROUP_OF_STUDENTS.TEACHER_ID.eq(teacherId)
-                        .and(CUSTOMER.PARTITION_ID.eq(partitionId)))
+                        .and(CUSTOMER.PARTITION_ID.eq(partitionId))
+                        .and(seek))
                 .groupBy(CUSTOMER.ID);
     }
 
@@ -4,6 +4,9 @@ import com.superum.exception.DatabaseException;
 import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.Set;
+
 /**
  * <pre>
  * Responsible for handling customer commands
@@ -34,6 +37,22 @@ public interface ValidCustomerCommandService {
      */
     ValidCustomerDTO create(ValidCustomerDTO validCustomerDTO, int partitionId);
 
+    /**
+     * <pre>
+     * Creates new customers, all of them or none
+     *
+     * Every customer is checked the same way as by create(); then all of them are inserted together
+     *
+     * partitionId separates different app partitions (please refer to the API file or PartitionController)
+     * </pre>
+     * @return the created customers with id field now set, in the same order
+     *
+     * @throws InvalidCustomerException if any customer would fail create() for this reason
+     * @throws DatabaseException if database error occurred
+     * @throws DataAccessException if an unexpected database error occurred
+     */
+    List<ValidCustomerDTO> createAll(List<ValidCustomerDTO> validCustomerDTOs, int partitionId);
+
     /**
      * <pre>
      * Updates an existing customer
@@ -49,6 +68,21 @@ public interface ValidCustomerCommandService {
      */
     void update(ValidCustomerDTO validCustomerDTO, int partitionId);
 
+    /**
+     * <pre>
+     * Updates existing customers, all of them or none
+     *
+     * Every customer is checked the same way as by update(); then all of the updates are sent as a single batch
+     *
+     * partitionId separates different app partitions (please refer to the API file or PartitionController)
+     * </pre>
+     * @throws InvalidCustomerException if any customer would fail update() for this reason
+     * @throws CustomerNotFoundException if any customer would fail update() for this reason
+     * @throws DatabaseException if database error occurred
+     * @throws DataAccessException if an unexpected database error occurred
+     */
+    void updateAll(List<ValidCustomerDTO> validCustomerDTOs, int partitionId);
+
     /**
      * <pre>
      * Deletes a customer with specified id
@@ -62,4 +96,19 @@ public interface ValidCustomerCommandService {
      */
     void delete(int customerId, int partitionId);
 
+    /**
+     * <pre>
+     * Deletes customers with specified ids, all of them or none
+     *
+     * Every id is checked the same way as by delete(); then all of the customers are deleted with a single statement
+     *
+     * partitionId separates different app partitions (please refer to the API file or PartitionController)
+     * </pre>
+     * @throws CustomerNotFoundException if any customer would fail delete() for this reason
+     * @throws UnsafeCustomerDeleteException if any customer would fail delete() for this reason
+     * @throws DatabaseException if database error occurred
+     * @throws DataAccessException if an unexpected database error occurred
+     */
+    void deleteAll(Set<Integer> customerIds, int partitionId);
+
 }
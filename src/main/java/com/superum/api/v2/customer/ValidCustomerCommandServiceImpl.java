@@ -1,61 +1,101 @@
 package com.superum.api.v2.customer;
 
+import com.superum.api.v2.table.CustomerFetcher;
+import com.superum.api.v3.change.ChangeAction;
+import com.superum.api.v3.change.ChangeFeed;
+import com.superum.api.v3.change.ChangedTable;
 import com.superum.exception.DatabaseException;
 import com.superum.helper.jooq.DefaultCommands;
 import com.superum.helper.jooq.DefaultQueries;
 import com.superum.helper.jooq.ForeignQueries;
+import org.jooq.lambda.Seq;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import timestar_v2.tables.records.CustomerRecord;
 
+import java.util.List;
+import java.util.Set;
+
 @Service
 @Transactional
 public class ValidCustomerCommandServiceImpl implements ValidCustomerCommandService {
 
     @Override
     public ValidCustomerDTO create(ValidCustomerDTO validCustomerDTO, int partitionId) {
-        ValidCustomer validCustomer = new ValidCustomer(validCustomerDTO);
-
-        if (validCustomer.hasId())
-            throw new InvalidCustomerException("Provided customer has its id set; please unset it or use POST instead!");
+        ValidCustomer validCustomer = creatable(validCustomerDTO);
 
-        if (!validCustomer.canBeInserted())
-            throw new InvalidCustomerException("Provided customer does not have the following mandatory fields set: "
-                    + validCustomer.missingMandatoryFieldNames().join(", "));
-
-        return defaultCustomerCommands.create(validCustomer, partitionId, ValidCustomerDTO::valueOf)
+        customerFetcher.invalidate(partitionId);
+        ValidCustomerDTO createdCustomer = defaultCustomerCommands.create(validCustomer, partitionId, ValidCustomerDTO::valueOf)
                 .orElseThrow(() -> new DatabaseException("Couldn't return customer after inserting it: " + validCustomer));
+        changeFeed.publish(partitionId, ChangedTable.customer, ChangeAction.created, createdCustomer.getId());
+        return createdCustomer;
     }
 
     @Override
-    public void update(ValidCustomerDTO validCustomerDTO, int partitionId) {
-        ValidCustomer validCustomer = new ValidCustomer(validCustomerDTO);
-
-        if (!validCustomer.hasId())
-            throw new InvalidCustomerException("Provided customer doesn't have its id set; please set it or use PUT instead!");
-
-        if (!validCustomer.updateFields().filter(field -> field.notNameEquals("updatedAt")).findAny().isPresent())
-            throw new InvalidCustomerException("Provided customer only has its id set; to update this customer, set additional fields!");
+    public List<ValidCustomerDTO> createAll(List<ValidCustomerDTO> validCustomerDTOs, int partitionId) {
+        List<ValidCustomer> validCustomers = Seq.seq(validCustomerDTOs).map(this::creatable).toList();
+
+        customerFetcher.invalidate(partitionId);
+        List<ValidCustomerDTO> createdCustomers = defaultCustomerCommands.createAll(validCustomers, partitionId,
+                ValidCustomerDTO::valueOf);
+        createdCustomers.forEach(customer ->
+                changeFeed.publish(partitionId, ChangedTable.customer, ChangeAction.created, customer.getId()));
+        return createdCustomers;
+    }
 
-        if (!defaultCustomerQueries.exists(validCustomer.getId(), partitionId))
-            throw new CustomerNotFoundException("Couldn't find customer with id " + validCustomer.getId());
+    @Override
+    public void update(ValidCustomerDTO validCustomerDTO, int partitionId) {
+        ValidCustomer validCustomer = updatable(validCustomerDTO, partitionId);
 
+        customerFetcher.invalidate(partitionId);
         if (defaultCustomerCommands.update(validCustomer, partitionId) == 0)
             throw new DatabaseException("Couldn't update customer: " + validCustomer);
+
+        changeFeed.publish(partitionId, ChangedTable.customer, ChangeAction.updated, validCustomer.getId());
     }
 
     @Override
-    public void delete(int customerId, int partitionId) {
-        if (!defaultCustomerQueries.exists(customerId, partitionId))
-            throw new CustomerNotFoundException("Couldn't find customer with id " + customerId);
+    public void updateAll(List<ValidCustomerDTO> validCustomerDTOs, int partitionId) {
+        List<ValidCustomer> validCustomers = Seq.seq(validCustomerDTOs).map(this::updatable).toList();
+
+        Set<Integer> existingIds = defaultCustomerQueries.existingIds(
+                Seq.seq(validCustomers).map(ValidCustomer::getId).toSet(), partitionId);
+        for (ValidCustomer validCustomer : validCustomers)
+            if (!existingIds.contains(validCustomer.getId()))
+                throw new CustomerNotFoundException("Couldn't find customer with id " + validCustomer.getId());
+
+        customerFetcher.invalidate(partitionId);
+        int[] updated = defaultCustomerCommands.updateAll(validCustomers, partitionId);
+        for (int i = 0; i < updated.length; i++)
+            if (updated[i] == 0)
+                throw new DatabaseException("Couldn't update customer: " + validCustomers.get(i));
+
+        validCustomers.forEach(customer ->
+                changeFeed.publish(partitionId, ChangedTable.customer, ChangeAction.updated, customer.getId()));
+    }
 
-        if (foreignCustomerQueries.isUsed(customerId))
-            throw new UnsafeCustomerDeleteException("Cannot delete customer with id " + customerId +
-                    " while it still has entries in other tables");
+    @Override
+    public void delete(int customerId, int partitionId) {
+        checkDeletable(customerId, partitionId);
 
+        customerFetcher.invalidate(partitionId);
         if (defaultCustomerCommands.delete(customerId, partitionId) == 0)
             throw new DatabaseException("Couldn't delete customer with id: " + customerId);
+
+        changeFeed.publish(partitionId, ChangedTable.customer, ChangeAction.deleted, customerId);
+    }
+
+    @Override
+    public void deleteAll(Set<Integer> customerIds, int partitionId) {
+        checkDeletable(customerIds, partitionId);
+
+        customerFetcher.invalidate(partitionId);
+        if (defaultCustomerCommands.deleteAll(customerIds, partitionId) != customerIds.size())
+            throw new DatabaseException("Couldn't delete customers with ids: " + customerIds);
+
+        customerIds.forEach(customerId ->
+                changeFeed.publish(partitionId, ChangedTable.customer, ChangeAction.deleted, customerId));
     }
 
     // CONSTRUCTORS
@@ -63,10 +103,14 @@ public class ValidCustomerCommandServiceImpl implements ValidCustomerCommandServ
     @Autowired
     public ValidCustomerCommandServiceImpl(DefaultCommands<CustomerRecord, Integer> defaultCustomerCommands,
                                            DefaultQueries<CustomerRecord, Integer> defaultCustomerQueries,
-                                           ForeignQueries<Integer> foreignCustomerQueries) {
+                                           ForeignQueries<Integer> foreignCustomerQueries,
+                                           CustomerFetcher customerFetcher,
+                                           ChangeFeed changeFeed) {
         this.defaultCustomerCommands = defaultCustomerCommands;
         this.defaultCustomerQueries = defaultCustomerQueries;
         this.foreignCustomerQueries = foreignCustomerQueries;
+        this.customerFetcher = customerFetcher;
+        this.changeFeed = changeFeed;
     }
 
     // PRIVATE
@@ -75,4 +119,66 @@ public class ValidCustomerCommandServiceImpl implements ValidCustomerCommandServ
     private final DefaultQueries<CustomerRecord, Integer> defaultCustomerQueries;
     private final ForeignQueries<Integer> foreignCustomerQueries;
 
+    private final CustomerFetcher customerFetcher;
+    private final ChangeFeed changeFeed;
+
+    private ValidCustomer creatable(ValidCustomerDTO validCustomerDTO) {
+        ValidCustomer validCustomer = new ValidCustomer(validCustomerDTO);
+
+        if (validCustomer.hasId())
+            throw new InvalidCustomerException("Provided customer has its id set; please unset it or use POST instead!");
+
+        if (!validCustomer.canBeInserted())
+            throw new InvalidCustomerException("Provided customer does not have the following mandatory fields set: "
+                    + validCustomer.missingMandatoryFieldNames().join(", "));
+
+        return validCustomer;
+    }
+
+    private ValidCustomer updatable(ValidCustomerDTO validCustomerDTO, int partitionId) {
+        ValidCustomer validCustomer = updatable(validCustomerDTO);
+
+        if (!defaultCustomerQueries.exists(validCustomer.getId(), partitionId))
+            throw new CustomerNotFoundException("Couldn't find customer with id " + validCustomer.getId());
+
+        return validCustomer;
+    }
+
+    private ValidCustomer updatable(ValidCustomerDTO validCustomerDTO) {
+        ValidCustomer validCustomer = new ValidCustomer(validCustomerDTO);
+
+        if (!validCustomer.hasId())
+            throw new InvalidCustomerException("Provided customer doesn't have its id set; please set it or use PUT instead!");
+
+        if (!validCustomer.updateFields().filter(field -> field.notNameEquals("updatedAt")).findAny().isPresent())
+            throw new InvalidCustomerException("Provided customer only has its id set; to update this customer, set additional fields!");
+
+        return validCustomer;
+    }
+
+    private void checkDeletable(int customerId, int partitionId) {
+        if (!defaultCustomerQueries.exists(customerId, partitionId))
+            throw new CustomerNotFoundException("Couldn't find customer with id " + customerId);
+
+        if (foreignCustomerQueries.isUsed(customerId))
+            throw new UnsafeCustomerDeleteException("Cannot delete customer with id " + customerId +
+                    " while it still has entries in other tables");
+    }
+
+    /**
+     * Same checks as checkDeletable(int, int), but every table is queried once for all of the ids
+     */
+    private void checkDeletable(Set<Integer> customerIds, int partitionId) {
+        Set<Integer> existingIds = defaultCustomerQueries.existingIds(customerIds, partitionId);
+        for (int customerId : customerIds)
+            if (!existingIds.contains(customerId))
+                throw new CustomerNotFoundException("Couldn't find customer with id " + customerId);
+
+        Set<Integer> usedIds = foreignCustomerQueries.usedIds(customerIds);
+        for (int customerId : customerIds)
+            if (usedIds.contains(customerId))
+                throw new UnsafeCustomerDeleteException("Cannot delete customer with id " + customerId +
+                        " while it still has entries in other tables");
+    }
+
 }
@@ -2,12 +2,15 @@ package com.superum.api.v2.customer;
 
 import com.superum.api.core.CommonControllerLogic;
 import com.superum.api.exception.InvalidRequestException;
+import com.superum.helper.Page;
 import com.superum.helper.PartitionAccount;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
+import java.util.LinkedHashSet;
 import java.util.List;
 
 import static eu.goodlike.misc.Constants.APPLICATION_JSON_UTF8;
@@ -64,6 +67,42 @@ public class ValidCustomerController extends CommonControllerLogic {
         LOG.info("Customer successfully deleted");
     }
 
+    @RequestMapping(value = "/batch", method = POST, produces = APPLICATION_JSON_UTF8, consumes = APPLICATION_JSON_UTF8)
+    @ResponseBody
+    public List<ValidCustomerDTO> createAll(PartitionAccount account, @RequestBody List<ValidCustomerDTO> customers) {
+        validateBatch("customers", customers);
+
+        LOG.info("User {} is creating {} customers", account, customers.size());
+
+        List<ValidCustomerDTO> createdCustomers = validCustomerCommandService.createAll(customers, account.partitionId());
+        LOG.info("Successfully created customers: {}", createdCustomers);
+
+        return createdCustomers;
+    }
+
+    @RequestMapping(value = "/batch", method = PUT, consumes = APPLICATION_JSON_UTF8)
+    @ResponseBody
+    public void updateAll(PartitionAccount account, @RequestBody List<ValidCustomerDTO> customers) {
+        validateBatch("customers", customers);
+
+        LOG.info("User {} is updating customers {}", account, customers);
+
+        validCustomerCommandService.updateAll(customers, account.partitionId());
+        LOG.info("Customers successfully updated");
+    }
+
+    @RequestMapping(value = "/batch/delete", method = POST, consumes = APPLICATION_JSON_UTF8)
+    @ResponseBody
+    public void deleteAll(PartitionAccount account, @RequestBody List<Integer> ids) {
+        validateBatch("customer ids", ids);
+        ids.forEach(id -> validateId("Customer", id));
+
+        LOG.info("User {} is deleting customers with ids {}", account, ids);
+
+        validCustomerCommandService.deleteAll(new LinkedHashSet<>(ids), account.partitionId());
+        LOG.info("Customers successfully deleted");
+    }
+
     // QUERIES
 
     @RequestMapping(value = "/{id:[\\d]+}", method = GET, produces = APPLICATION_JSON_UTF8)
@@ -82,34 +121,41 @@ public class ValidCustomerController extends CommonControllerLogic {
     @RequestMapping(value = "/teacher/{teacherId:[\\d]+}", method = GET, produces = APPLICATION_JSON_UTF8)
     @ResponseBody
     public List<ValidCustomerDTO> readForTeacher(PartitionAccount account, @PathVariable int teacherId,
+                                                 HttpServletResponse response,
                                                  @RequestParam(value="page", required=false) Integer page,
-                                                 @RequestParam(value="per_page", required=false) Integer per_page) {
+                                                 @RequestParam(value="per_page", required=false) Integer per_page,
+                                                 @RequestParam(value="cursor", required=false) String cursor) {
         validateId("Teacher", teacherId);
         page = validatePage(page);
         per_page = validatePerPage(per_page);
+        Page requestedPage = Page.of(page, per_page, cursor);
 
         LOG.info("User {} is reading customers for teacher with id {}, page {}, with {} entries per page",
                 account, teacherId, page, per_page);
 
-        List<ValidCustomerDTO> customers = validCustomerQueryService.readForTeacher(teacherId, page, per_page, account.partitionId());
+        List<ValidCustomerDTO> customers = validCustomerQueryService.readForTeacher(teacherId, requestedPage, account.partitionId());
         LOG.info("Customers retrieved: {}", customers);
+        requestedPage.nextCursor(response, customers, ValidCustomerDTO::getId);
 
         return customers;
     }
 
     @RequestMapping(method = GET, produces = APPLICATION_JSON_UTF8)
     @ResponseBody
-    public List<ValidCustomerDTO> readAll(PartitionAccount account,
+    public List<ValidCustomerDTO> readAll(PartitionAccount account, HttpServletResponse response,
                                           @RequestParam(value="page", required=false) Integer page,
-                                          @RequestParam(value="per_page", required=false) Integer per_page) {
+                                          @RequestParam(value="per_page", required=false) Integer per_page,
+                                          @RequestParam(value="cursor", required=false) String cursor) {
         page = validatePage(page);
         per_page = validatePerPage(per_page);
+        Page requestedPage = Page.of(page, per_page, cursor);
 
         LOG.info("User {} is reading all customers, page {}, with {} entries per page",
                 account, page, per_page);
 
-        List<ValidCustomerDTO> customers = validCustomerQueryService.readAll(page, per_page, account.partitionId());
+        List<ValidCustomerDTO> customers = validCustomerQueryService.readAll(requestedPage, account.partitionId());
         LOG.info("Customers retrieved: {}", customers);
+        requestedPage.nextCursor(response, customers, ValidCustomerDTO::getId);
 
         return customers;
     }
@@ -1,6 +1,7 @@
 package com.superum.api.v2.customer;
 
 import com.superum.api.v2.teacher.TeacherNotFoundException;
+import com.superum.helper.Page;
 import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 
@@ -33,7 +34,7 @@ public interface ValidCustomerQueryService {
      * <pre>
      * Reads all Customers for a teacher with specified id; reading is paged;
      *
-     * Pages start at 0, whereas the maximum amount is 100
+     * Pages start at 0, whereas the maximum amount is 100; if the page has a cursor, reading starts after it instead
      *
      * Customers are chosen in the following manner:
      * 1) Customers have students;
@@ -49,13 +50,13 @@ public interface ValidCustomerQueryService {
      * @throws TeacherNotFoundException if no teacher with this id exists
      * @throws DataAccessException if an unexpected database error occurred
      */
-    List<ValidCustomerDTO> readForTeacher(int teacherId, int page, int amount, int partitionId);
+    List<ValidCustomerDTO> readForTeacher(int teacherId, Page page, int partitionId);
 
     /**
      * <pre>
      * Reads all Customers; reading is paged;
      *
-     * Pages start at 0, whereas the maximum amount is 100
+     * Pages start at 0, whereas the maximum amount is 100; if the page has a cursor, reading starts after it instead
      *
      * partitionId separates different app partitions (please refer to the API file or PartitionController)
      * </pre>
@@ -63,7 +64,7 @@ public interface ValidCustomerQueryService {
      *
      * @throws DataAccessException if an unexpected database error occurred
      */
-    List<ValidCustomerDTO> readAll(int page, int amount, int partitionId);
+    List<ValidCustomerDTO> readAll(Page page, int partitionId);
 
     /**
      * <pre>
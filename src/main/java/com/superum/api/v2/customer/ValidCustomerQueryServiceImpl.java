@@ -1,15 +1,18 @@
 package com.superum.api.v2.customer;
 
 import com.superum.api.v2.teacher.TeacherNotFoundException;
+import com.superum.helper.Page;
 import com.superum.helper.jooq.DefaultQueries;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import timestar_v2.tables.records.CustomerRecord;
 import timestar_v2.tables.records.TeacherRecord;
 
 import java.util.List;
 
 @Service
+@Transactional(readOnly = true)
 public class ValidCustomerQueryServiceImpl implements ValidCustomerQueryService {
 
     @Override
@@ -19,16 +22,16 @@ public class ValidCustomerQueryServiceImpl implements ValidCustomerQueryService
     }
 
     @Override
-    public List<ValidCustomerDTO> readForTeacher(int teacherId, int page, int amount, int partitionId) {
+    public List<ValidCustomerDTO> readForTeacher(int teacherId, Page page, int partitionId) {
         if (!defaultTeacherQueries.exists(teacherId, partitionId))
             throw new TeacherNotFoundException("No teacher with given id exists: " + teacherId);
 
-        return customersForTeacher.fetch(teacherId, page, amount, partitionId);
+        return customersForTeacher.fetch(teacherId, page, partitionId);
     }
 
     @Override
-    public List<ValidCustomerDTO> readAll(int page, int amount, int partitionId) {
-        return defaultCustomerQueries.readAll(page, amount, partitionId, ValidCustomerDTO::valueOf);
+    public List<ValidCustomerDTO> readAll(Page page, int partitionId) {
+        return defaultCustomerQueries.readAll(page, partitionId, ValidCustomerDTO::valueOf);
     }
 
     @Override
@@ -0,0 +1,294 @@
+package com.superum.api.v2.group;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.superum.api.v2.lesson.LessonIntervals;
+import com.superum.api.v2.table.TableRollup;
+import com.superum.api.v3.change.ChangeAction;
+import com.superum.api.v3.change.ChangeFeed;
+import com.superum.api.v3.change.ChangedTable;
+import com.superum.config.PartitionRoutingDataSource;
+import com.superum.exception.DatabaseException;
+import com.superum.helper.jooq.EntityCache;
+import org.jooq.Condition;
+import org.jooq.DSLContext;
+import org.jooq.Record2;
+import org.jooq.Record3;
+import org.jooq.Result;
+import org.jooq.lambda.Seq;
+import org.jooq.lambda.tuple.Tuple;
+import org.jooq.lambda.tuple.Tuple2;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static timestar_v2.Keys.LESSON_IBFK_2;
+import static timestar_v2.Tables.GROUP_OF_STUDENTS;
+import static timestar_v2.Tables.LESSON;
+
+/**
+ * <pre>
+ * Moves the lessons of a group to the current teacher of the group, in the background
+ *
+ * When the teacher of a group changes, only the group is updated by the request; its lessons are moved afterwards,
+ * in chunks, every chunk in its own short transaction, so that a group with a long history does not lock all of its
+ * lessons for the duration of the request; until the move is finished, some lessons of the group still belong to the
+ * previous teacher
+ *
+ * Every chunk reads the teacher of the group again, so if the teacher changes again during the move, the remaining
+ * lessons go straight to the latest teacher; all moves are done by a single thread, so they never compete with each
+ * other for the same lessons
+ *
+ * Every chunk refreshes the lesson table rollup and lesson intervals of the teachers it moved lessons between, and
+ * publishes a change for the lessons of the group, in the same transaction as the move itself
+ *
+ * Moves which were interrupted by a restart, or failed, are found and resumed when the app starts
+ * </pre>
+ */
+public final class GroupReassignment {
+
+    /**
+     * Moves the lessons of the group to its teacher after the current transaction commits, or right away, if there
+     * is no transaction; intended to be called after the teacher of the group was changed
+     */
+    public void reassign(int groupId, int partitionId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            submit(groupId, partitionId, true);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                submit(groupId, partitionId, true);
+            }
+        });
+    }
+
+    /**
+     * @return progress of moving the lessons of given group; the amount of remaining lessons is always read from
+     * the database, so it is correct even if the move was started before a restart
+     * @throws GroupNotFoundException if the group does not exist
+     */
+    public GroupReassignmentDTO progress(int groupId, int partitionId) {
+        int teacherId = groupTeacher(groupId, partitionId)
+                .orElseThrow(() -> new GroupNotFoundException("Couldn't find group with id " + groupId));
+
+        int remainingLessons = sql.fetchCount(LESSON, lessonsToMove(groupId, partitionId, teacherId));
+        Progress progress = moves.getIfPresent(Tuple.tuple(partitionId, groupId));
+        return progress == null
+                ? new GroupReassignmentDTO(groupId, teacherId, 0, remainingLessons, false)
+                : new GroupReassignmentDTO(groupId, teacherId, progress.movedLessons.get(), remainingLessons,
+                        progress.pendingMoves.get() > 0);
+    }
+
+    /**
+     * Finds every group which still has lessons of another teacher and moves them; intended to be called once, when
+     * the app starts
+     *
+     * Every shard is searched separately; rows of partitions which were moved away from a shard are ignored, and so
+     * are partitions which are being moved right now
+     */
+    public void resumeUnfinished() {
+        executor.execute(() -> {
+            for (String shard : partitionRoutingDataSource.shards()) {
+                try {
+                    Result<Record2<Integer, Integer>> groups = partitionRoutingDataSource.onShard(shard,
+                            () -> sql.selectDistinct(LESSON.GROUP_ID, LESSON.PARTITION_ID)
+                                    .from(LESSON)
+                                    .join(GROUP_OF_STUDENTS).onKey(LESSON_IBFK_2)
+                                    .where(LESSON.TEACHER_ID.ne(GROUP_OF_STUDENTS.TEACHER_ID)
+                                            .or(LESSON.TEACHER_ID.isNull()))
+                                    .fetch());
+                    groups.stream()
+                            .filter(group -> isOnShard(group.value2(), shard))
+                            .forEach(group -> submit(group.value1(), group.value2(), false));
+                } catch (RuntimeException e) {
+                    LOG.error("Couldn't find unfinished lesson moves in shard '" + shard + "'", e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Stops moving lessons; a move which is in progress is resumed the next time the app starts
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // CONSTRUCTORS
+
+    public GroupReassignment(DSLContext sql, PlatformTransactionManager transactionManager, TableRollup tableRollup,
+                             LessonIntervals lessonIntervals, ChangeFeed changeFeed, EntityCache entityCache,
+                             PartitionRoutingDataSource partitionRoutingDataSource) {
+        this.sql = sql;
+        this.chunks = new TransactionTemplate(transactionManager);
+        this.chunks.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.tableRollup = tableRollup;
+        this.lessonIntervals = lessonIntervals;
+        this.changeFeed = changeFeed;
+        this.entityCache = entityCache;
+        this.partitionRoutingDataSource = partitionRoutingDataSource;
+        this.moves = Caffeine.newBuilder()
+                .expireAfterAccess(PROGRESS_LIFETIME_HOURS, TimeUnit.HOURS)
+                .build();
+        this.executor = Executors.newSingleThreadExecutor(
+                new ThreadFactoryBuilder().setNameFormat("group-reassignment-%d").setDaemon(true).build());
+    }
+
+    // PRIVATE
+
+    private final DSLContext sql;
+    private final TransactionTemplate chunks;
+    private final TableRollup tableRollup;
+    private final LessonIntervals lessonIntervals;
+    private final ChangeFeed changeFeed;
+    private final EntityCache entityCache;
+    private final PartitionRoutingDataSource partitionRoutingDataSource;
+    private final Cache<Tuple2<Integer, Integer>, Progress> moves;
+    private final ExecutorService executor;
+
+    /**
+     * @param isNewTeacher true if the teacher of the group has just changed, so the progress should start over
+     */
+    private void submit(int groupId, int partitionId, boolean isNewTeacher) {
+        Progress progress = moves.get(Tuple.tuple(partitionId, groupId), any -> new Progress());
+        if (isNewTeacher)
+            progress.movedLessons.set(0);
+
+        progress.pendingMoves.incrementAndGet();
+        executor.execute(() -> move(groupId, partitionId, progress));
+    }
+
+    private void move(int groupId, int partitionId, Progress progress) {
+        try {
+            int movedLessons;
+            do {
+                movedLessons = partitionRoutingDataSource.forPartition(partitionId,
+                        () -> chunks.execute(status -> moveChunk(groupId, partitionId)));
+                progress.movedLessons.addAndGet(movedLessons);
+            } while (movedLessons == CHUNK_SIZE && !Thread.currentThread().isInterrupted());
+        } catch (RuntimeException e) {
+            LOG.error("Couldn't move lessons of group " + groupId + " in partition " + partitionId +
+                    "; the move will be resumed after a restart", e);
+        } finally {
+            progress.pendingMoves.decrementAndGet();
+        }
+    }
+
+    /**
+     * <pre>
+     * Moves the next chunk of lessons of the group to its teacher
+     *
+     * The group is locked for sharing, so that its teacher cannot change until the chunk is committed; the lessons of
+     * the chunk are locked for update, so they cannot be changed by a request in the meantime
+     * </pre>
+     * @return amount of lessons moved; less than CHUNK_SIZE if there are no more lessons to move
+     */
+    private int moveChunk(int groupId, int partitionId) {
+        Optional<Integer> groupTeacher = sql.select(GROUP_OF_STUDENTS.TEACHER_ID)
+                .from(GROUP_OF_STUDENTS)
+                .where(GROUP_OF_STUDENTS.ID.eq(groupId)
+                        .and(GROUP_OF_STUDENTS.PARTITION_ID.eq(partitionId)))
+                .forShare()
+                .fetch().stream().findAny()
+                .map(record -> record.getValue(GROUP_OF_STUDENTS.TEACHER_ID));
+        if (!groupTeacher.isPresent())
+            return 0;
+
+        int teacherId = groupTeacher.get();
+        Result<Record3<Long, Integer, Long>> lessons = sql.select(LESSON.ID, LESSON.TEACHER_ID, LESSON.TIME_OF_START)
+                .from(LESSON)
+                .where(lessonsToMove(groupId, partitionId, teacherId))
+                .orderBy(LESSON.ID)
+                .limit(CHUNK_SIZE)
+                .forUpdate()
+                .fetch();
+        if (lessons.isEmpty())
+            return 0;
+
+        lessons.getValues(LESSON.ID).forEach(lessonId -> entityCache.changed(LESSON, partitionId, lessonId));
+        sql.update(LESSON)
+                .set(LESSON.TEACHER_ID, teacherId)
+                .where(LESSON.ID.in(lessons.getValues(LESSON.ID)))
+                .execute();
+
+        Seq.seq(lessons)
+                .filter(lesson -> lesson.value2() != null)
+                .groupBy(Record3::value2)
+                .forEach((previousTeacherId, previousLessons) ->
+                        tableRollup.refresh(previousTeacherId, days(previousLessons), partitionId));
+        tableRollup.refresh(teacherId, days(lessons), partitionId);
+
+        lessonIntervals.lessonsMoved(partitionId, Seq.seq(lessons)
+                .map(Record3::value2)
+                .concat(teacherId)
+                .filter(id -> id != null)
+                .distinct()
+                .toList());
+
+        changeFeed.publish(partitionId, ChangedTable.lesson, ChangeAction.updated, GROUP_ID_KEY, groupId);
+        LOG.debug("Moved {} lessons of group {} in partition {} to teacher {}", lessons.size(), groupId, partitionId,
+                teacherId);
+        return lessons.size();
+    }
+
+    private boolean isOnShard(int partitionId, String shard) {
+        try {
+            return shard.equals(partitionRoutingDataSource.shardOf(partitionId));
+        } catch (DatabaseException e) {
+            LOG.warn("Lessons of partition {} will be moved after the next restart: {}", partitionId, e.getMessage());
+            return false;
+        }
+    }
+
+    private Condition lessonsToMove(int groupId, int partitionId, int teacherId) {
+        return LESSON.PARTITION_ID.eq(partitionId)
+                .and(LESSON.GROUP_ID.eq(groupId))
+                .and(LESSON.TEACHER_ID.ne(teacherId).or(LESSON.TEACHER_ID.isNull()));
+    }
+
+    private Optional<Integer> groupTeacher(int groupId, int partitionId) {
+        return sql.select(GROUP_OF_STUDENTS.TEACHER_ID)
+                .from(GROUP_OF_STUDENTS)
+                .where(GROUP_OF_STUDENTS.ID.eq(groupId)
+                        .and(GROUP_OF_STUDENTS.PARTITION_ID.eq(partitionId)))
+                .fetch().stream().findAny()
+                .map(record -> record.getValue(GROUP_OF_STUDENTS.TEACHER_ID));
+    }
+
+    private static List<Long> days(List<Record3<Long, Integer, Long>> lessons) {
+        return Seq.seq(lessons)
+                .map(lesson -> TableRollup.dayOf(lesson.value3()))
+                .distinct()
+                .toList();
+    }
+
+    private static final int CHUNK_SIZE = 500;
+    private static final int PROGRESS_LIFETIME_HOURS = 24;
+    private static final String GROUP_ID_KEY = "groupId";
+
+    private static final Logger LOG = LoggerFactory.getLogger(GroupReassignment.class);
+
+    private static final class Progress {
+
+        private final AtomicLong movedLessons = new AtomicLong();
+        private final AtomicInteger pendingMoves = new AtomicInteger();
+
+    }
+
+}
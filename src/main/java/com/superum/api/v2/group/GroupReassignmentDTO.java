@@ -0,0 +1,127 @@
+package com.superum.api.v2.group;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.MoreObjects;
+
+import java.util.Objects;
+
+/**
+ * <pre>
+ * Data Transport Object for the progress of moving the lessons of a group to its current teacher
+ *
+ * This object is only used to serialize JSON that is going out of the back end;
+ *
+ * Expect the following fields in JSON:
+ *      FIELD_NAME        : FIELD_DESCRIPTION
+ *      groupId           : id of the group
+ *      teacherId         : id of the current teacher of the group, which the lessons are being moved to
+ *      movedLessons      : amount of lessons moved since the teacher last changed, or since the app started
+ *      remainingLessons  : amount of lessons of the group which still belong to another teacher
+ *      isRunning         : true if the lessons are being moved right now, false otherwise
+ *
+ * Example of JSON to expect:
+ * {
+ *      "groupId": 1,
+ *      "teacherId": 2,
+ *      "movedLessons": 1500,
+ *      "remainingLessons": 340,
+ *      "isRunning": true
+ * }
+ * </pre>
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.ALWAYS)
+public final class GroupReassignmentDTO {
+
+    @JsonProperty(GROUP_ID_FIELD)
+    public int getGroupId() {
+        return groupId;
+    }
+
+    @JsonProperty(TEACHER_ID_FIELD)
+    public int getTeacherId() {
+        return teacherId;
+    }
+
+    @JsonProperty(MOVED_LESSONS_FIELD)
+    public long getMovedLessons() {
+        return movedLessons;
+    }
+
+    @JsonProperty(REMAINING_LESSONS_FIELD)
+    public int getRemainingLessons() {
+        return remainingLessons;
+    }
+
+    @JsonProperty(IS_RUNNING_FIELD)
+    public boolean isRunning() {
+        return isRunning;
+    }
+
+    // CONSTRUCTORS
+
+    @JsonCreator
+    public static GroupReassignmentDTO jsonInstance(@JsonProperty(GROUP_ID_FIELD) int groupId,
+                                                    @JsonProperty(TEACHER_ID_FIELD) int teacherId,
+                                                    @JsonProperty(MOVED_LESSONS_FIELD) long movedLessons,
+                                                    @JsonProperty(REMAINING_LESSONS_FIELD) int remainingLessons,
+                                                    @JsonProperty(IS_RUNNING_FIELD) boolean isRunning) {
+        return new GroupReassignmentDTO(groupId, teacherId, movedLessons, remainingLessons, isRunning);
+    }
+
+    public GroupReassignmentDTO(int groupId, int teacherId, long movedLessons, int remainingLessons, boolean isRunning) {
+        this.groupId = groupId;
+        this.teacherId = teacherId;
+        this.movedLessons = movedLessons;
+        this.remainingLessons = remainingLessons;
+        this.isRunning = isRunning;
+    }
+
+    // PRIVATE
+
+    private final int groupId;
+    private final int teacherId;
+    private final long movedLessons;
+    private final int remainingLessons;
+    private final boolean isRunning;
+
+    private static final String GROUP_ID_FIELD = "groupId";
+    private static final String TEACHER_ID_FIELD = "teacherId";
+    private static final String MOVED_LESSONS_FIELD = "movedLessons";
+    private static final String REMAINING_LESSONS_FIELD = "remainingLessons";
+    private static final String IS_RUNNING_FIELD = "isRunning";
+
+    // OBJECT OVERRIDES
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper("GroupReassignment")
+                .add(GROUP_ID_FIELD, groupId)
+                .add(TEACHER_ID_FIELD, teacherId)
+                .add(MOVED_LESSONS_FIELD, movedLessons)
+                .add(REMAINING_LESSONS_FIELD, remainingLessons)
+                .add(IS_RUNNING_FIELD, isRunning)
+                .toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof GroupReassignmentDTO)) return false;
+        GroupReassignmentDTO that = (GroupReassignmentDTO) o;
+        return Objects.equals(groupId, that.groupId) &&
+                Objects.equals(teacherId, that.teacherId) &&
+                Objects.equals(movedLessons, that.movedLessons) &&
+                Objects.equals(remainingLessons, that.remainingLessons) &&
+                Objects.equals(isRunning, that.isRunning);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(groupId, teacherId, movedLessons, remainingLessons, isRunning);
+    }
+
+}
@@ -1,8 +1,10 @@
 package com.superum.api.v2.group;
 
+import com.superum.helper.Page;
 import org.jooq.DSLContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -11,21 +13,23 @@ import static timestar_v2.Tables.GROUP_OF_STUDENTS;
 import static timestar_v2.Tables.STUDENTS_IN_GROUPS;
 
 @Repository
+@Transactional(readOnly = true)
 public class GroupsForStudentFetcher {
 
     /**
      * @return list of groups for given studentId; only specified amount is returned, with offset
      */
-    public List<ValidGroupDTO> fetch(int studentId, int page, int amount, int partitionId) {
+    public List<ValidGroupDTO> fetch(int studentId, Page page, int partitionId) {
         return sql.select(GROUP_OF_STUDENTS.fields())
                 .from(GROUP_OF_STUDENTS)
                 .join(STUDENTS_IN_GROUPS).onKey(STUDENTS_IN_GROUPS_IBFK_2)
                 .where(STUDENTS_IN_GROUPS.PARTITION_ID.eq(partitionId)
-                        .and(STUDENTS_IN_GROUPS.STUDENT_ID.eq(studentId)))
+                        .and(STUDENTS_IN_GROUPS.STUDENT_ID.eq(studentId))
+                        .and(page.seek(GROUP_OF_STUDENTS.ID)))
                 .groupBy(GROUP_OF_STUDENTS.ID)
                 .orderBy(GROUP_OF_STUDENTS.ID)
-                .limit(amount)
-                .offset(page * amount)
+                .limit(page.amount())
+                .offset(page.offset())
                 .fetch()
                 .map(ValidGroupDTO::valueOf);
     }
@@ -6,6 +6,9 @@ import com.superum.exception.DatabaseException;
 import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.Set;
+
 /**
  * <pre>
  * Responsible for handling group commands
@@ -38,6 +41,24 @@ public interface ValidGroupCommandService {
      */
     ValidGroupDTO create(ValidGroupDTO validGroupDTO, int partitionId);
 
+    /**
+     * <pre>
+     * Creates new groups, all of them or none
+     *
+     * Every group is checked the same way as by create(); then all of them are inserted together
+     *
+     * partitionId separates different app partitions (please refer to the API file or PartitionController)
+     * </pre>
+     * @return created groups with their ids set, in the same order
+     *
+     * @throws InvalidGroupException if any group would fail create() for this reason
+     * @throws CustomerNotFoundException if any group would fail create() for this reason
+     * @throws TeacherNotFoundException if any group would fail create() for this reason
+     * @throws DatabaseException if database error occurred
+     * @throws DataAccessException if an unexpected database error occurred
+     */
+    List<ValidGroupDTO> createAll(List<ValidGroupDTO> validGroupDTOs, int partitionId);
+
     /**
      * <pre>
      * Updates an existing group
@@ -69,4 +90,19 @@ public interface ValidGroupCommandService {
      */
     void delete(int groupId, int partitionId);
 
+    /**
+     * <pre>
+     * Deletes groups with specified ids, all of them or none
+     *
+     * Every id is checked the same way as by delete(); then all of the groups are deleted with a single statement
+     *
+     * partitionId separates different app partitions (please refer to the API file or PartitionController)
+     * </pre>
+     * @throws GroupNotFoundException if any group would fail delete() for this reason
+     * @throws UnsafeGroupDeleteException if any group would fail delete() for this reason
+     * @throws DatabaseException if database error occurred
+     * @throws DataAccessException if an unexpected database error occurred
+     */
+    void deleteAll(Set<Integer> groupIds, int partitionId);
+
 }
@@ -1,12 +1,18 @@
 package com.superum.api.v2.group;
 
 import com.superum.api.v2.customer.CustomerNotFoundException;
+import com.superum.api.v2.table.CustomerFetcher;
+import com.superum.api.v2.table.TableRollup;
 import com.superum.api.v2.teacher.TeacherNotFoundException;
+import com.superum.api.v3.change.ChangeAction;
+import com.superum.api.v3.change.ChangeFeed;
+import com.superum.api.v3.change.ChangedTable;
 import com.superum.exception.DatabaseException;
 import com.superum.helper.field.core.MappedField;
 import com.superum.helper.jooq.DefaultCommands;
 import com.superum.helper.jooq.DefaultQueries;
 import com.superum.helper.jooq.ForeignQueries;
+import org.jooq.lambda.Seq;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -14,29 +20,43 @@ import timestar_v2.tables.records.CustomerRecord;
 import timestar_v2.tables.records.GroupOfStudentsRecord;
 import timestar_v2.tables.records.TeacherRecord;
 
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
 @Service
 @Transactional
 public class ValidGroupCommandServiceImpl implements ValidGroupCommandService {
 
     @Override
     public ValidGroupDTO create(ValidGroupDTO validGroupDTO, int partitionId) {
-        ValidGroup group = new ValidGroup(validGroupDTO);
-
-        if (group.hasId())
-            throw new InvalidGroupException("Provided group has its id set; please unset it or use POST instead!");
-
-        if (!group.mandatoryFields().allMatch(MappedField::isSet))
-            throw new InvalidGroupException("Provided group does not have the following mandatory fields set: "
-                    + group.mandatoryFields().filter(MappedField::isNotSet).join(", "));
-
-        if (group.hasNonExistentCustomerId(id -> !defaultCustomerQueries.exists(id, partitionId)))
-            throw new CustomerNotFoundException("Couldn't find customer id for group: " + group);
-
-        if (group.hasNonExistentTeacherId(id -> !defaultTeacherQueries.exists(id, partitionId)))
-            throw new TeacherNotFoundException("Couldn't find teacher id for group: " + group);
+        ValidGroup group = creatable(validGroupDTO, partitionId);
 
-        return defaultGroupCommands.create(group, partitionId, ValidGroupDTO::valueOf)
+        customerFetcher.invalidate(partitionId);
+        ValidGroupDTO createdGroup = defaultGroupCommands.create(group, partitionId, ValidGroupDTO::valueOf)
                 .orElseThrow(() -> new DatabaseException("Couldn't return group after inserting it: " + group));
+        changeFeed.publish(partitionId, ChangedTable.group, ChangeAction.created, createdGroup.getId());
+        return createdGroup;
+    }
+
+    @Override
+    public List<ValidGroupDTO> createAll(List<ValidGroupDTO> validGroupDTOs, int partitionId) {
+        List<ValidGroup> groups = Seq.seq(validGroupDTOs).map(this::creatable).toList();
+
+        Set<Integer> existingCustomerIds = defaultCustomerQueries.existingIds(
+                referencedIds(validGroupDTOs, ValidGroupDTO::getCustomerId), partitionId);
+        Set<Integer> existingTeacherIds = defaultTeacherQueries.existingIds(
+                referencedIds(validGroupDTOs, ValidGroupDTO::getTeacherId), partitionId);
+        for (ValidGroup group : groups)
+            checkForeignIds(group, id -> !existingCustomerIds.contains(id), id -> !existingTeacherIds.contains(id));
+
+        customerFetcher.invalidate(partitionId);
+        List<ValidGroupDTO> createdGroups = defaultGroupCommands.createAll(groups, partitionId, ValidGroupDTO::valueOf);
+        createdGroups.forEach(group ->
+                changeFeed.publish(partitionId, ChangedTable.group, ChangeAction.created, group.getId()));
+        return createdGroups;
     }
 
     @Override
@@ -52,27 +72,41 @@ public class ValidGroupCommandServiceImpl implements ValidGroupCommandService {
         if (!defaultGroupQueries.exists(group.getId(), partitionId))
             throw new GroupNotFoundException("Couldn't find group with id " + group.getId());
 
-        if (group.hasNonExistentCustomerId(id -> !defaultCustomerQueries.exists(id, partitionId)))
-            throw new CustomerNotFoundException("Couldn't find customer id for group: " + group);
+        checkForeignIds(group, partitionId);
 
-        if (group.hasNonExistentTeacherId(id -> !defaultTeacherQueries.exists(id, partitionId)))
-            throw new TeacherNotFoundException("Couldn't find teacher id for group: " + group);
+        customerFetcher.invalidate(partitionId);
+        tableRollup.refreshGroup(group.getId(), partitionId, () -> {
+            if (defaultGroupCommands.update(group, partitionId) == 0)
+                throw new DatabaseException("Couldn't update group: " + group);
+        });
+        // lessons of the group are moved to the new teacher in the background, after this update commits
+        if (validGroupDTO.getTeacherId() != null)
+            groupReassignment.reassign(group.getId(), partitionId);
 
-        if (defaultGroupCommands.update(group, partitionId) == 0)
-            throw new DatabaseException("Couldn't update group: " + group);
+        changeFeed.publish(partitionId, ChangedTable.group, ChangeAction.updated, group.getId());
     }
 
     @Override
     public void delete(int groupId, int partitionId) {
-        if (!defaultGroupQueries.exists(groupId, partitionId))
-            throw new GroupNotFoundException("Couldn't find group with id " + groupId);
-
-        if (foreignGroupQueries.isUsed(groupId))
-            throw new UnsafeGroupDeleteException("Cannot delete group with id " + groupId +
-                    " while it still has entries in other tables");
+        checkDeletable(groupId, partitionId);
 
+        customerFetcher.invalidate(partitionId);
         if (defaultGroupCommands.delete(groupId, partitionId) == 0)
             throw new DatabaseException("Couldn't delete group with id: " + groupId);
+
+        changeFeed.publish(partitionId, ChangedTable.group, ChangeAction.deleted, groupId);
+    }
+
+    @Override
+    public void deleteAll(Set<Integer> groupIds, int partitionId) {
+        checkDeletable(groupIds, partitionId);
+
+        customerFetcher.invalidate(partitionId);
+        if (defaultGroupCommands.deleteAll(groupIds, partitionId) != groupIds.size())
+            throw new DatabaseException("Couldn't delete groups with ids: " + groupIds);
+
+        groupIds.forEach(groupId ->
+                changeFeed.publish(partitionId, ChangedTable.group, ChangeAction.deleted, groupId));
     }
 
     // CONSTRUCTORS
@@ -82,12 +116,19 @@ public class ValidGroupCommandServiceImpl implements ValidGroupCommandService {
                                         DefaultQueries<GroupOfStudentsRecord, Integer> defaultGroupQueries,
                                         ForeignQueries<Integer> foreignGroupQueries,
                                         DefaultQueries<CustomerRecord, Integer> defaultCustomerQueries,
-                                        DefaultQueries<TeacherRecord, Integer> defaultTeacherQueries) {
+                                        DefaultQueries<TeacherRecord, Integer> defaultTeacherQueries,
+                                        TableRollup tableRollup, CustomerFetcher customerFetcher,
+                                        GroupReassignment groupReassignment,
+                                        ChangeFeed changeFeed) {
         this.defaultGroupCommands = defaultGroupCommands;
         this.defaultGroupQueries = defaultGroupQueries;
         this.foreignGroupQueries = foreignGroupQueries;
         this.defaultCustomerQueries = defaultCustomerQueries;
         this.defaultTeacherQueries = defaultTeacherQueries;
+        this.tableRollup = tableRollup;
+        this.customerFetcher = customerFetcher;
+        this.groupReassignment = groupReassignment;
+        this.changeFeed = changeFeed;
     }
 
     // PRIVATE
@@ -99,4 +140,73 @@ public class ValidGroupCommandServiceImpl implements ValidGroupCommandService {
     private final DefaultQueries<CustomerRecord, Integer> defaultCustomerQueries;
     private final DefaultQueries<TeacherRecord, Integer> defaultTeacherQueries;
 
+    private final TableRollup tableRollup;
+    private final CustomerFetcher customerFetcher;
+    private final GroupReassignment groupReassignment;
+    private final ChangeFeed changeFeed;
+
+    private ValidGroup creatable(ValidGroupDTO validGroupDTO, int partitionId) {
+        ValidGroup group = creatable(validGroupDTO);
+        checkForeignIds(group, partitionId);
+        return group;
+    }
+
+    private ValidGroup creatable(ValidGroupDTO validGroupDTO) {
+        ValidGroup group = new ValidGroup(validGroupDTO);
+
+        if (group.hasId())
+            throw new InvalidGroupException("Provided group has its id set; please unset it or use POST instead!");
+
+        if (!group.mandatoryFields().allMatch(MappedField::isSet))
+            throw new InvalidGroupException("Provided group does not have the following mandatory fields set: "
+                    + group.mandatoryFields().filter(MappedField::isNotSet).join(", "));
+
+        return group;
+    }
+
+    private static Set<Integer> referencedIds(List<ValidGroupDTO> validGroupDTOs,
+                                              Function<ValidGroupDTO, Integer> foreignId) {
+        return Seq.seq(validGroupDTOs).map(foreignId).filter(Objects::nonNull).toSet();
+    }
+
+    private void checkForeignIds(ValidGroup group, int partitionId) {
+        checkForeignIds(group,
+                id -> !defaultCustomerQueries.exists(id, partitionId),
+                id -> !defaultTeacherQueries.exists(id, partitionId));
+    }
+
+    private void checkForeignIds(ValidGroup group, Predicate<Integer> customerIdCheck,
+                                 Predicate<Integer> teacherIdCheck) {
+        if (group.hasNonExistentCustomerId(customerIdCheck))
+            throw new CustomerNotFoundException("Couldn't find customer id for group: " + group);
+
+        if (group.hasNonExistentTeacherId(teacherIdCheck))
+            throw new TeacherNotFoundException("Couldn't find teacher id for group: " + group);
+    }
+
+    private void checkDeletable(int groupId, int partitionId) {
+        if (!defaultGroupQueries.exists(groupId, partitionId))
+            throw new GroupNotFoundException("Couldn't find group with id " + groupId);
+
+        if (foreignGroupQueries.isUsed(groupId))
+            throw new UnsafeGroupDeleteException("Cannot delete group with id " + groupId +
+                    " while it still has entries in other tables");
+    }
+
+    /**
+     * Same checks as checkDeletable(int, int), but every table is queried once for all of the ids
+     */
+    private void checkDeletable(Set<Integer> groupIds, int partitionId) {
+        Set<Integer> existingIds = defaultGroupQueries.existingIds(groupIds, partitionId);
+        for (int groupId : groupIds)
+            if (!existingIds.contains(groupId))
+                throw new GroupNotFoundException("Couldn't find group with id " + groupId);
+
+        Set<Integer> usedIds = foreignGroupQueries.usedIds(groupIds);
+        for (int groupId : groupIds)
+            if (usedIds.contains(groupId))
+                throw new UnsafeGroupDeleteException("Cannot delete group with id " + groupId +
+                        " while it still has entries in other tables");
+    }
+
 }
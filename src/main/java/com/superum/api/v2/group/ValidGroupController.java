@@ -3,12 +3,15 @@ package com.superum.api.v2.group;
 import com.superum.api.core.CommonControllerLogic;
 import com.superum.api.exception.InvalidRequestException;
 import com.superum.api.v2.Table;
+import com.superum.helper.Page;
 import com.superum.helper.PartitionAccount;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
+import java.util.LinkedHashSet;
 import java.util.List;
 
 import static eu.goodlike.misc.Constants.APPLICATION_JSON_UTF8;
@@ -65,6 +68,31 @@ public class ValidGroupController extends CommonControllerLogic {
         LOG.info("Group successfully deleted");
     }
 
+    @RequestMapping(value = "/batch", method = POST, produces = APPLICATION_JSON_UTF8, consumes = APPLICATION_JSON_UTF8)
+    @ResponseBody
+    public List<ValidGroupDTO> createAll(PartitionAccount account, @RequestBody List<ValidGroupDTO> groups) {
+        validateBatch("groups", groups);
+
+        LOG.info("User {} is creating {} groups", account, groups.size());
+
+        List<ValidGroupDTO> createdGroups = validGroupCommandService.createAll(groups, account.partitionId());
+        LOG.info("Successfully created groups: {}", createdGroups);
+
+        return createdGroups;
+    }
+
+    @RequestMapping(value = "/batch/delete", method = POST, consumes = APPLICATION_JSON_UTF8)
+    @ResponseBody
+    public void deleteAll(PartitionAccount account, @RequestBody List<Integer> ids) {
+        validateBatch("group ids", ids);
+        ids.forEach(id -> validateId("Group", id));
+
+        LOG.info("User {} is deleting groups with ids {}", account, ids);
+
+        validGroupCommandService.deleteAll(new LinkedHashSet<>(ids), account.partitionId());
+        LOG.info("Groups successfully deleted");
+    }
+
     // QUERIES
 
     @RequestMapping(value = "/{id:[\\d]+}", method = GET, produces = APPLICATION_JSON_UTF8)
@@ -80,18 +108,34 @@ public class ValidGroupController extends CommonControllerLogic {
         return group;
     }
 
+    @RequestMapping(value = "/{id:[\\d]+}/reassignment", method = GET, produces = APPLICATION_JSON_UTF8)
+    @ResponseBody
+    public GroupReassignmentDTO readReassignment(PartitionAccount account, @PathVariable int id) {
+        validateId("Group", id);
+
+        LOG.info("User {} is reading the progress of moving lessons of group with id: {}", account, id);
+
+        GroupReassignmentDTO reassignment = groupReassignment.progress(id, account.partitionId());
+        LOG.info("Progress retrieved: {}", reassignment);
+
+        return reassignment;
+    }
+
     @RequestMapping(method = GET, produces = APPLICATION_JSON_UTF8)
     @ResponseBody
-    public List<ValidGroupDTO> readAll(PartitionAccount account,
+    public List<ValidGroupDTO> readAll(PartitionAccount account, HttpServletResponse response,
                                        @RequestParam(value="page", required=false) Integer page,
-                                       @RequestParam(value="per_page", required=false) Integer per_page) {
+                                       @RequestParam(value="per_page", required=false) Integer per_page,
+                                       @RequestParam(value="cursor", required=false) String cursor) {
         page = validatePage(page);
         per_page = validatePerPage(per_page);
+        Page requestedPage = Page.of(page, per_page, cursor);
 
         LOG.info("User {} is reading all groups, page {}, with {} entries per page", account, page, per_page);
 
-        List<ValidGroupDTO> groups = validGroupQueryService.readAll(page, per_page, account.partitionId());
+        List<ValidGroupDTO> groups = validGroupQueryService.readAll(requestedPage, account.partitionId());
         LOG.info("Groups retrieved: {}", groups);
+        requestedPage.nextCursor(response, groups, ValidGroupDTO::getId);
 
         return groups;
     }
@@ -99,11 +143,14 @@ public class ValidGroupController extends CommonControllerLogic {
     @RequestMapping(value = "/{tableName:teacher|customer|student}/{id:[\\d]+}", method = GET, produces = APPLICATION_JSON_UTF8)
     @ResponseBody
     public List<ValidGroupDTO> readForTable(PartitionAccount account, @PathVariable String tableName, @PathVariable int id,
+                                              HttpServletResponse response,
                                               @RequestParam(value="page", required=false) Integer page,
-                                              @RequestParam(value="per_page", required=false) Integer per_page) {
+                                              @RequestParam(value="per_page", required=false) Integer per_page,
+                                              @RequestParam(value="cursor", required=false) String cursor) {
         validateId(tableName, id);
         page = validatePage(page);
         per_page = validatePerPage(per_page);
+        Page requestedPage = Page.of(page, per_page, cursor);
 
         LOG.info("User {} is reading groups for {} with id {}, page {}, with {} entries per page",
                 account, tableName, id, page, per_page);
@@ -114,35 +161,39 @@ public class ValidGroupController extends CommonControllerLogic {
         List<ValidGroupDTO> groups;
         switch (table) {
             case teacher:
-                groups = validGroupQueryService.readForTeacher(id, page, per_page, account.partitionId());
+                groups = validGroupQueryService.readForTeacher(id, requestedPage, account.partitionId());
                 break;
             case customer:
-                groups = validGroupQueryService.readForCustomer(id, page, per_page, account.partitionId());
+                groups = validGroupQueryService.readForCustomer(id, requestedPage, account.partitionId());
                 break;
             case student:
-                groups = validGroupQueryService.readForStudent(id, page, per_page, account.partitionId());
+                groups = validGroupQueryService.readForStudent(id, requestedPage, account.partitionId());
                 break;
             default:
                 throw new AssertionError("The regex filter should have filtered out invalid names");
         }
         LOG.info("Groups retrieved: {}", groups);
+        requestedPage.nextCursor(response, groups, ValidGroupDTO::getId);
 
         return groups;
     }
 
     @RequestMapping(value = "/customer/none", method = GET, produces = APPLICATION_JSON_UTF8)
     @ResponseBody
-    public List<ValidGroupDTO> readForTable(PartitionAccount account,
+    public List<ValidGroupDTO> readForTable(PartitionAccount account, HttpServletResponse response,
                                             @RequestParam(value="page", required=false) Integer page,
-                                            @RequestParam(value="per_page", required=false) Integer per_page) {
+                                            @RequestParam(value="per_page", required=false) Integer per_page,
+                                            @RequestParam(value="cursor", required=false) String cursor) {
         page = validatePage(page);
         per_page = validatePerPage(per_page);
+        Page requestedPage = Page.of(page, per_page, cursor);
 
         LOG.info("User {} is reading groups without a customer, page {}, with {} entries per page",
                 account, page, per_page);
 
-        List<ValidGroupDTO> groups = validGroupQueryService.readWithoutCustomer(page, per_page, account.partitionId());
+        List<ValidGroupDTO> groups = validGroupQueryService.readWithoutCustomer(requestedPage, account.partitionId());
         LOG.info("Groups retrieved: {}", groups);
+        requestedPage.nextCursor(response, groups, ValidGroupDTO::getId);
 
         return groups;
     }
@@ -151,15 +202,18 @@ public class ValidGroupController extends CommonControllerLogic {
 
     @Autowired
     public ValidGroupController(ValidGroupCommandService validGroupCommandService,
-                                ValidGroupQueryService validGroupQueryService) {
+                                ValidGroupQueryService validGroupQueryService,
+                                GroupReassignment groupReassignment) {
         this.validGroupCommandService = validGroupCommandService;
         this.validGroupQueryService = validGroupQueryService;
+        this.groupReassignment = groupReassignment;
     }
 
     // PRIVATE
 
     private final ValidGroupCommandService validGroupCommandService;
     private final ValidGroupQueryService validGroupQueryService;
+    private final GroupReassignment groupReassignment;
 
     private static final Logger LOG = LoggerFactory.getLogger(ValidGroupController.class);
 
@@ -3,6 +3,7 @@ package com.superum.api.v2.group;
 import com.superum.api.v2.customer.CustomerNotFoundException;
 import com.superum.api.v2.student.StudentNotFoundException;
 import com.superum.api.v2.teacher.TeacherNotFoundException;
+import com.superum.helper.Page;
 import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 
@@ -35,7 +36,7 @@ public interface ValidGroupQueryService {
      * <pre>
      * Reads all groups; reading is paged;
      *
-     * Pages start at 0, whereas the maximum amount is 100
+     * Pages start at 0, whereas the maximum amount is 100; if the page has a cursor, reading starts after it instead
      *
      * partitionId separates different app partitions (please refer to the API file or PartitionController)
      * </pre>
@@ -43,13 +44,13 @@ public interface ValidGroupQueryService {
      *
      * @throws DataAccessException if an unexpected database error occurred
      */
-    List<ValidGroupDTO> readAll(int page, int amount, int partitionId);
+    List<ValidGroupDTO> readAll(Page page, int partitionId);
 
     /**
      * <pre>
      * Reads groups for a teacher with specified id; reading is paged;
      *
-     * Pages start at 0, whereas the maximum amount is 100
+     * Pages start at 0, whereas the maximum amount is 100; if the page has a cursor, reading starts after it instead
      *
      * partitionId separates different app partitions (please refer to the API file or PartitionController)
      * </pre>
@@ -58,13 +59,13 @@ public interface ValidGroupQueryService {
      * @throws TeacherNotFoundException if no teacher with this id exists
      * @throws DataAccessException if an unexpected database error occurred
      */
-    List<ValidGroupDTO> readForTeacher(int teacherId, int page, int amount, int partitionId);
+    List<ValidGroupDTO> readForTeacher(int teacherId, Page page, int partitionId);
 
     /**
      * <pre>
      * Reads groups for a customer with specified id; reading is paged;
      *
-     * Pages start at 0, whereas the maximum amount is 100
+     * Pages start at 0, whereas the maximum amount is 100; if the page has a cursor, reading starts after it instead
      *
      * partitionId separates different app partitions (please refer to the API file or PartitionController)
      * </pre>
@@ -73,13 +74,13 @@ public interface ValidGroupQueryService {
      * @throws CustomerNotFoundException if no customer with this id exists
      * @throws DataAccessException if an unexpected database error occurred
      */
-    List<ValidGroupDTO> readForCustomer(int customerId, int page, int amount, int partitionId);
+    List<ValidGroupDTO> readForCustomer(int customerId, Page page, int partitionId);
 
     /**
      * <pre>
      * Reads groups for a student with specified id; reading is paged;
      *
-     * Pages start at 0, whereas the maximum amount is 100
+     * Pages start at 0, whereas the maximum amount is 100; if the page has a cursor, reading starts after it instead
      *
      * partitionId separates different app partitions (please refer to the API file or PartitionController)
      * </pre>
@@ -88,13 +89,13 @@ public interface ValidGroupQueryService {
      * @throws StudentNotFoundException if no student with this id exists
      * @throws DataAccessException if an unexpected database error occurred
      */
-    List<ValidGroupDTO> readForStudent(int studentId, int page, int amount, int partitionId);
+    List<ValidGroupDTO> readForStudent(int studentId, Page page, int partitionId);
 
     /**
      * <pre>
      * Reads groups which have no customer; reading is paged;
      *
-     * Pages start at 0, whereas the maximum amount is 100
+     * Pages start at 0, whereas the maximum amount is 100; if the page has a cursor, reading starts after it instead
      *
      * partitionId separates different app partitions (please refer to the API file or PartitionController)
      * </pre>
@@ -102,6 +103,6 @@ public interface ValidGroupQueryService {
      *
      * @throws DataAccessException if an unexpected database error occurred
      */
-    List<ValidGroupDTO> readWithoutCustomer(int page, int amount, int partitionId);
+    List<ValidGroupDTO> readWithoutCustomer(Page page, int partitionId);
 
 }
@@ -1,10 +1,12 @@
 package com.superum.api.v2.group;
 
 import com.superum.api.v2.teacher.TeacherNotFoundException;
+import com.superum.helper.Page;
 import com.superum.helper.jooq.DefaultQueries;
 import org.jooq.Condition;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import timestar_v2.tables.records.CustomerRecord;
 import timestar_v2.tables.records.GroupOfStudentsRecord;
 import timestar_v2.tables.records.StudentRecord;
@@ -15,6 +17,7 @@ import java.util.List;
 import static timestar_v2.Tables.GROUP_OF_STUDENTS;
 
 @Service
+@Transactional(readOnly = true)
 public class ValidGroupQueryServiceImpl implements ValidGroupQueryService {
 
     @Override
@@ -24,42 +27,42 @@ public class ValidGroupQueryServiceImpl implements ValidGroupQueryService {
     }
 
     @Override
-    public List<ValidGroupDTO> readAll(int page, int amount, int partitionId) {
-        return defaultGroupQueries.readAll(page, amount, partitionId, ValidGroupDTO::valueOf);
+    public List<ValidGroupDTO> readAll(Page page, int partitionId) {
+        return defaultGroupQueries.readAll(page, partitionId, ValidGroupDTO::valueOf);
     }
 
     @Override
-    public List<ValidGroupDTO> readForTeacher(int teacherId, int page, int amount, int partitionId) {
+    public List<ValidGroupDTO> readForTeacher(int teacherId, Page page, int partitionId) {
         if (!defaultTeacherQueries.exists(teacherId, partitionId))
             throw new TeacherNotFoundException("No teacher with given id exists: " + teacherId);
 
-        return defaultGroupQueries.readForForeignKey(page, amount, partitionId,
+        return defaultGroupQueries.readForForeignKey(page, partitionId,
                 GROUP_OF_STUDENTS.TEACHER_ID, teacherId, ValidGroupDTO::valueOf);
     }
 
     @Override
-    public List<ValidGroupDTO> readForCustomer(int customerId, int page, int amount, int partitionId) {
+    public List<ValidGroupDTO> readForCustomer(int customerId, Page page, int partitionId) {
         if (!defaultCustomerQueries.exists(customerId, partitionId))
             throw new TeacherNotFoundException("No customer with given id exists: " + customerId);
 
-        return defaultGroupQueries.readForForeignKey(page, amount, partitionId,
+        return defaultGroupQueries.readForForeignKey(page, partitionId,
                 GROUP_OF_STUDENTS.CUSTOMER_ID, customerId, ValidGroupDTO::valueOf);
     }
 
     @Override
-    public List<ValidGroupDTO> readForStudent(int studentId, int page, int amount, int partitionId) {
+    public List<ValidGroupDTO> readForStudent(int studentId, Page page, int partitionId) {
         if (!defaultStudentQueries.exists(studentId, partitionId))
             throw new TeacherNotFoundException("No student with given id exists: " + studentId);
 
-        return groupsForStudent.fetch(studentId, page, amount, partitionId);
+        return groupsForStudent.fetch(studentId, page, partitionId);
     }
 
     @Override
-    public List<ValidGroupDTO> readWithoutCustomer(int page, int amount, int partitionId) {
+    public List<ValidGroupDTO> readWithoutCustomer(Page page, int partitionId) {
         Condition condition = defaultGroupQueries.partitionId(partitionId)
                 .and(GROUP_OF_STUDENTS.CUSTOMER_ID.isNull());
 
-        return defaultGroupQueries.readForCondition(page, amount, condition, ValidGroupDTO::valueOf);
+        return defaultGroupQueries.readForCondition(page, condition, ValidGroupDTO::valueOf);
     }
 
     // CONSTRUCTORS
@@ -2,6 +2,9 @@ package com.superum.api.v2.grouping;
 
 import com.superum.api.v2.group.GroupNotFoundException;
 import com.superum.api.v2.student.StudentNotFoundException;
+import com.superum.api.v3.change.ChangeAction;
+import com.superum.api.v3.change.ChangeFeed;
+import com.superum.api.v3.change.ChangedTable;
 import com.superum.exception.DatabaseException;
 import com.superum.helper.jooq.CommandsForMany;
 import com.superum.helper.jooq.DefaultQueries;
@@ -29,6 +32,8 @@ public class ValidGroupingCommandServiceImpl implements ValidGroupingCommandServ
 
         if (groupingCommands.create(grouping, partitionId) == 0)
             throw new DatabaseException("Couldn't create grouping: " + grouping);
+
+        changeFeed.publish(partitionId, ChangedTable.grouping, ChangeAction.created, grouping.primaryValue());
     }
 
     @Override
@@ -41,6 +46,8 @@ public class ValidGroupingCommandServiceImpl implements ValidGroupingCommandServ
 
         if (groupingCommands.update(grouping, partitionId) == 0)
             throw new DatabaseException("Couldn't update grouping: " + grouping);
+
+        changeFeed.publish(partitionId, ChangedTable.grouping, ChangeAction.updated, grouping.primaryValue());
     }
 
     @Override
@@ -53,6 +60,8 @@ public class ValidGroupingCommandServiceImpl implements ValidGroupingCommandServ
 
         if (groupingCommands.deletePrimary(groupId, partitionId) == 0)
             throw new DatabaseException("Couldn't delete grouping for group with id: " + groupId);
+
+        changeFeed.publish(partitionId, ChangedTable.grouping, ChangeAction.deleted, groupId);
     }
 
     @Override
@@ -65,6 +74,8 @@ public class ValidGroupingCommandServiceImpl implements ValidGroupingCommandServ
 
         if (groupingCommands.deleteSecondary(studentId, partitionId) == 0)
             throw new DatabaseException("Couldn't delete grouping for student with id: " + studentId);
+
+        changeFeed.publish(partitionId, ChangedTable.grouping, ChangeAction.deleted, "studentId", studentId);
     }
 
     // CONSTRUCTORS
@@ -73,11 +84,13 @@ public class ValidGroupingCommandServiceImpl implements ValidGroupingCommandServ
     public ValidGroupingCommandServiceImpl(CommandsForMany<Integer, Integer> groupingCommands,
                                            DefaultQueries<GroupOfStudentsRecord, Integer> defaultGroupQueries,
                                            DefaultQueries<StudentRecord, Integer> defaultStudentQueries,
-                                           QueriesForMany<Integer, Integer> defaultGroupingQueries) {
+                                           QueriesForMany<Integer, Integer> defaultGroupingQueries,
+                                           ChangeFeed changeFeed) {
         this.groupingCommands = groupingCommands;
         this.defaultGroupQueries = defaultGroupQueries;
         this.defaultStudentQueries = defaultStudentQueries;
         this.defaultGroupingQueries = defaultGroupingQueries;
+        this.changeFeed = changeFeed;
     }
 
     // PRIVATE
@@ -86,6 +99,7 @@ public class ValidGroupingCommandServiceImpl implements ValidGroupingCommandServ
     private final DefaultQueries<GroupOfStudentsRecord, Integer> defaultGroupQueries;
     private final DefaultQueries<StudentRecord, Integer> defaultStudentQueries;
     private final QueriesForMany<Integer, Integer> defaultGroupingQueries;
+    private final ChangeFeed changeFeed;
 
     private void validateIdsInDB(ValidGrouping grouping, int partitionId) {
         if (!defaultGroupQueries.exists(grouping.primaryValue(), partitionId))
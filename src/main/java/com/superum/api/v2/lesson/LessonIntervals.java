@@ -0,0 +1,390 @@
+package com.superum.api.v2.lesson;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalNotification;
+import com.google.common.util.concurrent.Striped;
+import org.jooq.DSLContext;
+import org.jooq.Record3;
+import org.jooq.lambda.Seq;
+import org.jooq.lambda.tuple.Tuple;
+import org.jooq.lambda.tuple.Tuple2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.function.BooleanSupplier;
+
+import static timestar_v2.Tables.LESSON;
+
+/**
+ * <pre>
+ * Keeps the time intervals of lessons in memory, for every (partition, teacher) pair, so that overlap checks do not
+ * need to query the database
+ *
+ * The intervals of a teacher are loaded from the database the first time they are needed; afterwards, they are kept
+ * up to date by lesson commands and group reassignments, which must report every change they make; changes are only
+ * applied after the transaction commits, so the intervals only ever contain committed lessons
+ *
+ * Changes made by other instances of the app (or directly in the database) are never reported, so the intervals can
+ * be missing an overlapping lesson; such a false negative would let overlapping lessons be saved, so the intervals
+ * are only trusted to say "no overlap" if db.singleInstance is set to true in persistence.properties, which declares
+ * that this is the only instance which changes lessons; otherwise, every check uses the database, and reported changes
+ * are ignored, so that lesson commands do not pay for intervals which are never used
+ *
+ * Even when the intervals are trusted, the database remains the authority for everything else:
+ *      1) if the intervals say a lesson overlaps, the overlap is verified using the database, so a stale interval
+ *      can only cause an extra query, never a false overlap;
+ *      2) if the current transaction has changed the lessons of the teacher, the database is used directly, because
+ *      the intervals do not contain these changes yet;
+ *
+ * Intervals of different teachers can be read and changed concurrently; intervals of the same teacher are guarded by
+ * a read/write lock, taken from a fixed set of locks (striping) to bound the amount of locks
+ * </pre>
+ */
+@Component
+public class LessonIntervals {
+
+    /**
+     * <pre>
+     * Lessons overlap if they have at least one moment in common, i.e. start of one is not after the end of other and
+     * vice versa; this is equivalent to the BETWEEN conditions the database query uses
+     * </pre>
+     * @param excludedLessonId id of the lesson which is being updated (it cannot overlap with itself); null otherwise
+     * @param databaseCheck performs the same check using the database
+     * @return true if any lesson of the teacher overlaps with given time
+     */
+    public boolean isOverlapping(int partitionId, int teacherId, long startTime, long endTime, Long excludedLessonId,
+                                 BooleanSupplier databaseCheck) {
+        Tuple2<Integer, Integer> key = Tuple.tuple(partitionId, teacherId);
+        if (!singleInstance || changedInTransaction().contains(key))
+            return databaseCheck.getAsBoolean();
+
+        TeacherIntervals intervals = intervalsFor(key);
+        Lock lock = locks.get(key).readLock();
+        lock.lock();
+        try {
+            if (!intervals.overlaps(startTime, endTime, excludedLessonId))
+                return false;
+        } finally {
+            lock.unlock();
+        }
+        return databaseCheck.getAsBoolean();
+    }
+
+    /**
+     * Reports a lesson which was created or updated in the current transaction; its current values are read from
+     * the database
+     */
+    public void lessonSaved(long lessonId, int partitionId) {
+        if (!singleInstance)
+            return;
+
+        sql.select(LESSON.TEACHER_ID, LESSON.TIME_OF_START, LESSON.TIME_OF_END)
+                .from(LESSON)
+                .where(LESSON.ID.eq(lessonId)
+                        .and(LESSON.PARTITION_ID.eq(partitionId)))
+                .fetch().stream()
+                .filter(lesson -> lesson.value1() != null)
+                .findAny()
+                .ifPresent(lesson -> lessonSaved(lessonId, lesson.value1(), lesson.value2(), lesson.value3(),
+                        partitionId));
+    }
+
+    /**
+     * Reports a lesson which was created or updated in the current transaction
+     */
+    public void lessonSaved(long lessonId, int teacherId, long startTime, long endTime, int partitionId) {
+        if (!singleInstance)
+            return;
+
+        Tuple2<Integer, Integer> key = Tuple.tuple(partitionId, teacherId);
+        markChanged(key);
+        afterCommit(() -> {
+            removeLesson(lessonId, partitionId);
+            TeacherIntervals intervals = teachers.getIfPresent(key);
+            if (intervals != null)
+                write(key, () -> {
+                    intervals.add(new Interval(lessonId, startTime, endTime));
+                    lessonTeachers.put(Tuple.tuple(partitionId, lessonId), intervals);
+                });
+        });
+    }
+
+    /**
+     * Reports a lesson which was deleted in the current transaction
+     */
+    public void lessonDeleted(long lessonId, int partitionId) {
+        if (!singleInstance)
+            return;
+
+        // intervals which still contain the deleted lesson can only cause an extra query, so no need to mark anything
+        afterCommit(() -> removeLesson(lessonId, partitionId));
+    }
+
+    /**
+     * Reports lessons which were moved between teachers in the current transaction, i.e. when the teacher of their
+     * group changed; the intervals of every given teacher are loaded again the next time they are needed
+     */
+    public void lessonsMoved(int partitionId, Collection<Integer> teacherIds) {
+        if (!singleInstance)
+            return;
+
+        List<Tuple2<Integer, Integer>> keys = Seq.seq(teacherIds)
+                .map(teacherId -> Tuple.tuple(partitionId, teacherId))
+                .toList();
+        keys.forEach(this::markChanged);
+        afterCommit(() -> keys.forEach(key -> write(key, () -> teachers.invalidate(key))));
+    }
+
+    // CONSTRUCTORS
+
+    @Autowired
+    public LessonIntervals(DSLContext sql, PlatformTransactionManager transactionManager, Environment env) {
+        this.sql = sql;
+        // not read-only, so that it is not routed to the replica; a lagging replica could miss overlapping lessons
+        this.committedReads = new TransactionTemplate(transactionManager);
+        this.committedReads.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.singleInstance = env.getProperty("db.singleInstance", Boolean.class, false);
+        this.teachers = Caffeine.newBuilder()
+                .maximumSize(MAX_TEACHERS)
+                .expireAfterAccess(IDLE_TEACHER_LIFETIME_MINUTES, TimeUnit.MINUTES)
+                .<Tuple2<Integer, Integer>, TeacherIntervals>removalListener(this::forgetLessons)
+                .build();
+        this.lessonTeachers = new ConcurrentHashMap<>();
+        this.locks = Striped.readWriteLock(LOCK_STRIPES);
+        this.changes = new AtomicLong();
+    }
+
+    // PRIVATE
+
+    private final DSLContext sql;
+    private final TransactionTemplate committedReads;
+    private final boolean singleInstance;
+    private final Cache<Tuple2<Integer, Integer>, TeacherIntervals> teachers;
+    private final Map<Tuple2<Integer, Long>, TeacherIntervals> lessonTeachers;
+    private final Striped<ReadWriteLock> locks;
+    private final AtomicLong changes;
+
+    /**
+     * <pre>
+     * Loads the intervals in a separate transaction, so that only committed lessons are loaded, even if the current
+     * transaction has changed something
+     *
+     * Loaded intervals are only kept if no changes were applied while they were being loaded; otherwise they could
+     * be missing a lesson which was committed in the meantime; they are still good enough for the current check
+     * </pre>
+     */
+    private TeacherIntervals intervalsFor(Tuple2<Integer, Integer> key) {
+        TeacherIntervals intervals = teachers.getIfPresent(key);
+        if (intervals != null)
+            return intervals;
+
+        long changesBeforeLoad = changes.get();
+        TeacherIntervals loaded = committedReads.execute(status -> load(key));
+        write(key, () -> {
+            if (changes.get() == changesBeforeLoad) {
+                teachers.put(key, loaded);
+                loaded.lessonIds().forEach(lessonId -> lessonTeachers.put(Tuple.tuple(key.v1, lessonId), loaded));
+            }
+        });
+        return loaded;
+    }
+
+    private TeacherIntervals load(Tuple2<Integer, Integer> key) {
+        TeacherIntervals intervals = new TeacherIntervals(key);
+        sql.select(LESSON.ID, LESSON.TIME_OF_START, LESSON.TIME_OF_END)
+                .from(LESSON)
+                .where(LESSON.PARTITION_ID.eq(key.v1)
+                        .and(LESSON.TEACHER_ID.eq(key.v2)))
+                .fetch()
+                .forEach(record -> intervals.add(Interval.valueOf(record)));
+        return intervals;
+    }
+
+    /**
+     * The teacher the lesson belonged to is found using lessonTeachers; if it is not there, none of the loaded
+     * teachers contain the lesson
+     */
+    private void removeLesson(long lessonId, int partitionId) {
+        Tuple2<Integer, Long> lessonKey = Tuple.tuple(partitionId, lessonId);
+        TeacherIntervals intervals = lessonTeachers.get(lessonKey);
+        if (intervals != null)
+            write(intervals.key, () -> {
+                intervals.remove(lessonId);
+                lessonTeachers.remove(lessonKey, intervals);
+            });
+    }
+
+    /**
+     * Removes the lessons of intervals which are no longer loaded from lessonTeachers; lessons which were already
+     * moved to other (loaded) intervals are left alone
+     */
+    private void forgetLessons(RemovalNotification<Tuple2<Integer, Integer>, TeacherIntervals> removal) {
+        TeacherIntervals intervals = removal.getValue();
+        if (intervals == null)
+            return;
+
+        Lock lock = locks.get(intervals.key).writeLock();
+        lock.lock();
+        try {
+            intervals.lessonIds()
+                    .forEach(lessonId -> lessonTeachers.remove(Tuple.tuple(intervals.key.v1, lessonId), intervals));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void write(Tuple2<Integer, Integer> key, Runnable change) {
+        Lock lock = locks.get(key).writeLock();
+        lock.lock();
+        try {
+            changes.incrementAndGet();
+            change.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return teachers whose lessons were changed in the current transaction; empty if there is no transaction
+     */
+    private Set<Tuple2<Integer, Integer>> changedInTransaction() {
+        @SuppressWarnings("unchecked")
+        Set<Tuple2<Integer, Integer>> changed =
+                (Set<Tuple2<Integer, Integer>>) TransactionSynchronizationManager.getResource(this);
+        return changed == null ? Collections.emptySet() : changed;
+    }
+
+    private void markChanged(Tuple2<Integer, Integer> key) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive())
+            return;
+
+        @SuppressWarnings("unchecked")
+        Set<Tuple2<Integer, Integer>> changed =
+                (Set<Tuple2<Integer, Integer>>) TransactionSynchronizationManager.getResource(this);
+        if (changed == null) {
+            Set<Tuple2<Integer, Integer>> newChanged = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(this, newChanged);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void suspend() {
+                    TransactionSynchronizationManager.unbindResource(LessonIntervals.this);
+                }
+
+                @Override
+                public void resume() {
+                    TransactionSynchronizationManager.bindResource(LessonIntervals.this, newChanged);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(LessonIntervals.this);
+                }
+            });
+            changed = newChanged;
+        }
+        changed.add(key);
+    }
+
+    private void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    private static final int MAX_TEACHERS = 10000;
+    private static final int IDLE_TEACHER_LIFETIME_MINUTES = 60;
+    private static final int LOCK_STRIPES = 64;
+
+    /**
+     * <pre>
+     * Intervals of a single teacher, ordered by start; lessons of a teacher usually do not overlap each other, but
+     * there is no guarantee (i.e. a group can be given to another teacher), so the longest lesson is remembered to
+     * know how far back an overlapping lesson could start
+     *
+     * Not thread-safe; guarded by the lock of the teacher
+     * </pre>
+     */
+    private static final class TeacherIntervals {
+
+        TeacherIntervals(Tuple2<Integer, Integer> key) {
+            this.key = key;
+        }
+
+        boolean overlaps(long startTime, long endTime, Long excludedLessonId) {
+            Interval from = new Interval(Long.MIN_VALUE, startTime - longestLesson, 0);
+            Interval to = new Interval(Long.MAX_VALUE, endTime, 0);
+            for (Interval interval : byStart.subSet(from, true, to, true))
+                if (interval.endTime >= startTime && !Objects.equals(interval.lessonId, excludedLessonId))
+                    return true;
+
+            return false;
+        }
+
+        void add(Interval interval) {
+            remove(interval.lessonId);
+            byStart.add(interval);
+            byId.put(interval.lessonId, interval);
+            // never decreases when lessons are removed; this only makes the search range a bit wider
+            longestLesson = Math.max(longestLesson, interval.endTime - interval.startTime);
+        }
+
+        void remove(long lessonId) {
+            Interval interval = byId.remove(lessonId);
+            if (interval != null)
+                byStart.remove(interval);
+        }
+
+        Set<Long> lessonIds() {
+            return byId.keySet();
+        }
+
+        private final Tuple2<Integer, Integer> key;
+        private final NavigableSet<Interval> byStart = new TreeSet<>(Interval.ORDER);
+        private final Map<Long, Interval> byId = new HashMap<>();
+        private long longestLesson = 0;
+
+    }
+
+    private static final class Interval {
+
+        static Interval valueOf(Record3<Long, Long, Long> record) {
+            return new Interval(record.value1(), record.value2(), record.value3());
+        }
+
+        Interval(long lessonId, long startTime, long endTime) {
+            this.lessonId = lessonId;
+            this.startTime = startTime;
+            this.endTime = endTime;
+        }
+
+        private final long lessonId;
+        private final long startTime;
+        private final long endTime;
+
+        private static final Comparator<Interval> ORDER = Comparator.<Interval>comparingLong(i -> i.startTime)
+                .thenComparingLong(i -> i.lessonId);
+
+    }
+
+}
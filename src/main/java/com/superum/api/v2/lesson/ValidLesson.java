@@ -2,15 +2,18 @@ package com.superum.api.v2.lesson;
 
 import com.superum.exception.DatabaseException;
 import com.superum.helper.field.MappedClass;
+import com.superum.helper.field.core.MappedField;
 import com.superum.helper.field.steps.FieldDef;
 import eu.goodlike.v2.validate.Validate;
 import org.joda.time.Duration;
 import org.joda.time.Instant;
 import org.jooq.Condition;
 import org.jooq.DSLContext;
+import org.jooq.lambda.Seq;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.BooleanSupplier;
 import java.util.function.Predicate;
 
 import static com.superum.api.core.CommonValidators.*;
@@ -27,6 +30,15 @@ import static timestar_v2.Tables.LESSON;
  */
 public class ValidLesson extends MappedClass<ValidLesson, Long> {
 
+    /**
+     * Teacher id of a new lesson is the teacher of its group; it is resolved by isOverlapping, which must be called
+     * before the lesson is created
+     */
+    @Override
+    public Seq<MappedField<?>> createFields() {
+        return super.createFields().concat(TEACHER_ID_FIELD_DEF.toField(this));
+    }
+
     public static long calculateEndTime(long startTime, int length) {
         return new Instant(startTime).plus(Duration.standardMinutes(length)).getMillis();
     }
@@ -39,7 +51,10 @@ public class ValidLesson extends MappedClass<ValidLesson, Long> {
                 : calculateEndTime(startTime, length);
     }
 
-    public boolean isOverlapping(DSLContext sql, int partitionId) {
+    /**
+     * Also resolves the teacher id of the lesson, which is written when the lesson is created
+     */
+    public boolean isOverlapping(DSLContext sql, LessonIntervals lessonIntervals, int partitionId) {
         Long startTime = validLessonDTO.getStartTime();
         Integer length = validLessonDTO.getLength();
         if (startTime == null && length == null)
@@ -52,28 +67,12 @@ public class ValidLesson extends MappedClass<ValidLesson, Long> {
 
         Long endTime = calculateEndTime(startTime, length);
 
-        Integer teacherId = validLessonDTO.getTeacherId();
-        if (teacherId == null)
-            teacherId = findTeacherId(sql, partitionId);
-
-        Condition aLessonForSameTeacher = LESSON.TEACHER_ID.eq(teacherId)
-                .and(LESSON.PARTITION_ID.eq(partitionId));
-
-        Condition aLessonStartsBetweenThisLesson = LESSON.TIME_OF_START.between(startTime, endTime);
-        Condition aLessonEndsBetweenThisLesson = LESSON.TIME_OF_END.between(startTime, endTime);
-        Condition thisLessonStartsBetweenALesson = LESSON.TIME_OF_START.le(startTime)
-                .and(LESSON.TIME_OF_END.ge(startTime));
-        // No need to check for end time, because it is automatically caught by the first two conditions as well
-
-        Condition lessonIsOverlapping = aLessonForSameTeacher
-                .and(aLessonStartsBetweenThisLesson
-                        .or(aLessonEndsBetweenThisLesson)
-                        .or(thisLessonStartsBetweenALesson));
-
-        if (hasId())
-            lessonIsOverlapping = LESSON.ID.ne(getId()).and(lessonIsOverlapping);
+        // the teacher given in the DTO is ignored, because the lesson always belongs to the teacher of its group
+        teacherId = findTeacherId(sql, partitionId);
 
-        return sql.fetchExists(LESSON, lessonIsOverlapping);
+        Long excludedLessonId = hasId() ? getId() : null;
+        return lessonIntervals.isOverlapping(partitionId, teacherId, startTime, endTime, excludedLessonId,
+                isOverlappingInDatabase(sql, partitionId, teacherId, startTime, endTime));
     }
 
     public boolean hasNonExistentGroupId(Predicate<Integer> groupIdCheck) {
@@ -106,6 +105,31 @@ public class ValidLesson extends MappedClass<ValidLesson, Long> {
 
     private final ValidLessonDTO validLessonDTO;
 
+    private Integer teacherId;
+
+    private BooleanSupplier isOverlappingInDatabase(DSLContext sql, int partitionId, int teacherId, long startTime,
+                                                    long endTime) {
+        Condition aLessonForSameTeacher = LESSON.TEACHER_ID.eq(teacherId)
+                .and(LESSON.PARTITION_ID.eq(partitionId));
+
+        Condition aLessonStartsBetweenThisLesson = LESSON.TIME_OF_START.between(startTime, endTime);
+        Condition aLessonEndsBetweenThisLesson = LESSON.TIME_OF_END.between(startTime, endTime);
+        Condition thisLessonStartsBetweenALesson = LESSON.TIME_OF_START.le(startTime)
+                .and(LESSON.TIME_OF_END.ge(startTime));
+        // No need to check for end time, because it is automatically caught by the first two conditions as well
+
+        Condition overlapping = aLessonForSameTeacher
+                .and(aLessonStartsBetweenThisLesson
+                        .or(aLessonEndsBetweenThisLesson)
+                        .or(thisLessonStartsBetweenALesson));
+
+        Condition lessonIsOverlapping = hasId()
+                ? LESSON.ID.ne(getId()).and(overlapping)
+                : overlapping;
+
+        return () -> sql.fetchExists(LESSON, lessonIsOverlapping);
+    }
+
     private long findStartTime(DSLContext sql, int partitionId) {
         return sql.select(LESSON.TIME_OF_START)
                 .from(LESSON)
@@ -155,6 +179,7 @@ public class ValidLesson extends MappedClass<ValidLesson, Long> {
 
     private static final String ID_FIELD = "id";
     private static final String GROUP_ID_FIELD = "groupId";
+    private static final String TEACHER_ID_FIELD = "teacherId";
     private static final String START_TIME_FIELD = "startTime";
     private static final String END_TIME_FIELD = "endTime";
     private static final String LENGTH_FIELD = "length";
@@ -162,6 +187,12 @@ public class ValidLesson extends MappedClass<ValidLesson, Long> {
 
     // FIELD DEFINITIONS
 
+    private static final FieldDef<ValidLesson, Integer> TEACHER_ID_FIELD_DEF =
+            FieldDef.steps(ValidLesson.class, Integer.class)
+                    .fieldName(TEACHER_ID_FIELD)
+                    .tableField(LESSON.TEACHER_ID)
+                    .getter(lesson -> lesson.teacherId);
+
     private static final List<FieldDef<ValidLesson, ?>> FIELD_DEFINITION_LIST = Arrays.asList(
             FieldDef.steps(ValidLesson.class, Long.class)
                     .fieldName(ID_FIELD)
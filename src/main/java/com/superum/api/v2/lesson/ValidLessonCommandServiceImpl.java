@@ -1,11 +1,15 @@
 package com.superum.api.v2.lesson;
 
 import com.superum.api.v2.group.GroupNotFoundException;
+import com.superum.api.v2.table.TableRollup;
+import com.superum.api.v3.change.ChangeAction;
+import com.superum.api.v3.change.ChangeFeed;
+import com.superum.api.v3.change.ChangedTable;
 import com.superum.exception.DatabaseException;
 import com.superum.helper.field.core.MappedField;
 import com.superum.helper.jooq.DefaultCommands;
 import com.superum.helper.jooq.DefaultQueries;
-import com.superum.helper.jooq.ForeignQueries;
+import com.superum.helper.jooq.GuardedCommands;
 import org.jooq.DSLContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -31,11 +35,15 @@ public class ValidLessonCommandServiceImpl implements ValidLessonCommandService
         if (lesson.hasNonExistentGroupId(id -> !defaultGroupQueries.exists(id, partitionId)))
             throw new GroupNotFoundException("Couldn't find group id for lesson: " + lesson);
 
-        if (lesson.isOverlapping(sql, partitionId))
+        if (lesson.isOverlapping(sql, lessonIntervals, partitionId))
             throw new OverlappingLessonException("This teacher already has a lesson during this time, cannot create!");
 
-        return defaultLessonCommands.create(lesson, partitionId, ValidLessonDTO::valueOf)
+        ValidLessonDTO createdLesson = defaultLessonCommands.create(lesson, partitionId, ValidLessonDTO::valueOf)
                 .orElseThrow(() -> new DatabaseException("Couldn't return lesson after inserting it: " + lesson));
+        tableRollup.refreshLesson(createdLesson.getId(), partitionId);
+        lessonIntervals.lessonSaved(createdLesson.getId(), partitionId);
+        changeFeed.publish(partitionId, ChangedTable.lesson, ChangeAction.created, createdLesson.getId());
+        return createdLesson;
     }
 
     @Override
@@ -54,24 +62,25 @@ public class ValidLessonCommandServiceImpl implements ValidLessonCommandService
         if (lesson.hasNonExistentGroupId(id -> !defaultGroupQueries.exists(id, partitionId)))
             throw new GroupNotFoundException("Couldn't find group id for lesson: " + lesson);
 
-        if (lesson.isOverlapping(sql, partitionId))
+        if (lesson.isOverlapping(sql, lessonIntervals, partitionId))
             throw new OverlappingLessonException("This teacher already has a lesson during this time, cannot update!");
 
-        if (defaultLessonCommands.update(lesson, partitionId) == 0)
-            throw new DatabaseException("Couldn't update lesson: " + lesson);
+        tableRollup.refreshLesson(lesson.getId(), partitionId, () -> {
+            if (defaultLessonCommands.update(lesson, partitionId) == 0)
+                throw new DatabaseException("Couldn't update lesson: " + lesson);
+        });
+        lessonIntervals.lessonSaved(lesson.getId(), partitionId);
+        changeFeed.publish(partitionId, ChangedTable.lesson, ChangeAction.updated, lesson.getId());
     }
 
     @Override
     public void delete(long lessonId, int partitionId) {
-        if (!defaultLessonQueries.exists(lessonId, partitionId))
-            throw new LessonNotFoundException("Couldn't find lesson with id " + lessonId);
-
-        if (foreignLessonQueries.isUsed(lessonId))
-            throw new UnsafeLessonDeleteException("Cannot delete lesson with id " + lessonId +
-                    " while it still has entries in other tables");
-
-        if (defaultLessonCommands.delete(lessonId, partitionId) == 0)
-            throw new DatabaseException("Couldn't delete lesson with id: " + lessonId);
+        tableRollup.refreshLesson(lessonId, partitionId, () -> guardedLessonCommands.deleteUnused(lessonId, partitionId,
+                () -> new LessonNotFoundException("Couldn't find lesson with id " + lessonId),
+                () -> new UnsafeLessonDeleteException("Cannot delete lesson with id " + lessonId +
+                        " while it still has entries in other tables")));
+        lessonIntervals.lessonDeleted(lessonId, partitionId);
+        changeFeed.publish(partitionId, ChangedTable.lesson, ChangeAction.deleted, lessonId);
     }
 
     // CONSTRUCTORS
@@ -79,13 +88,18 @@ public class ValidLessonCommandServiceImpl implements ValidLessonCommandService
     @Autowired
     public ValidLessonCommandServiceImpl(DSLContext sql, DefaultCommands<LessonRecord, Long> defaultLessonCommands,
                                          DefaultQueries<LessonRecord, Long> defaultLessonQueries,
-                                         ForeignQueries<Long> foreignLessonQueries,
-                                         DefaultQueries<GroupOfStudentsRecord, Integer> defaultGroupQueries) {
+                                         GuardedCommands<LessonRecord, Long> guardedLessonCommands,
+                                         DefaultQueries<GroupOfStudentsRecord, Integer> defaultGroupQueries,
+                                         TableRollup tableRollup, LessonIntervals lessonIntervals,
+                                         ChangeFeed changeFeed) {
         this.sql = sql;
         this.defaultLessonCommands = defaultLessonCommands;
         this.defaultLessonQueries = defaultLessonQueries;
-        this.foreignLessonQueries = foreignLessonQueries;
+        this.guardedLessonCommands = guardedLessonCommands;
         this.defaultGroupQueries = defaultGroupQueries;
+        this.tableRollup = tableRollup;
+        this.lessonIntervals = lessonIntervals;
+        this.changeFeed = changeFeed;
     }
 
     // PRIVATE
@@ -93,8 +107,12 @@ public class ValidLessonCommandServiceImpl implements ValidLessonCommandService
     private final DSLContext sql;
     private final DefaultCommands<LessonRecord, Long> defaultLessonCommands;
     private final DefaultQueries<LessonRecord, Long> defaultLessonQueries;
-    private final ForeignQueries<Long> foreignLessonQueries;
+    private final GuardedCommands<LessonRecord, Long> guardedLessonCommands;
 
     private final DefaultQueries<GroupOfStudentsRecord, Integer> defaultGroupQueries;
 
+    private final TableRollup tableRollup;
+    private final LessonIntervals lessonIntervals;
+    private final ChangeFeed changeFeed;
+
 }
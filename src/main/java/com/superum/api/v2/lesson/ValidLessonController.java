@@ -3,6 +3,7 @@ package com.superum.api.v2.lesson;
 import com.superum.api.core.CommonControllerLogic;
 import com.superum.api.exception.InvalidRequestException;
 import com.superum.api.v2.Table;
+import com.superum.helper.Page;
 import com.superum.helper.PartitionAccount;
 import com.superum.helper.TimeResolver;
 import org.slf4j.Logger;
@@ -10,6 +11,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
 
 import static eu.goodlike.misc.Constants.APPLICATION_JSON_UTF8;
@@ -83,9 +85,10 @@ public class ValidLessonController extends CommonControllerLogic {
 
     @RequestMapping(method = GET, produces = APPLICATION_JSON_UTF8)
     @ResponseBody
-    public List<ValidLessonDTO> readAll(PartitionAccount account,
+    public List<ValidLessonDTO> readAll(PartitionAccount account, HttpServletResponse response,
                                         @RequestParam(value="page", required=false) Integer page,
                                         @RequestParam(value="per_page", required=false) Integer per_page,
+                                        @RequestParam(value="cursor", required=false) String cursor,
                                         @RequestParam(value="time_zone", required=false) String timeZone,
                                         @RequestParam(value="start_date", required=false) String startDate,
                                         @RequestParam(value="end_date", required=false) String endDate,
@@ -93,14 +96,16 @@ public class ValidLessonController extends CommonControllerLogic {
                                         @RequestParam(value="end", required=false) Long end) {
         page = validatePage(page);
         per_page = validatePerPage(per_page);
+        Page requestedPage = Page.of(page, per_page, cursor);
         TimeResolver timeResolver = validateTime(timeZone, startDate, endDate, start, end);
         start = timeResolver.getStartTime();
         end = timeResolver.getEndTime();
         LOG.info("User {} is reading all lessons, from {} to {}, page {}, with {} entries per page",
                 account, start, end, page, per_page);
 
-        List<ValidLessonDTO> lessons = validLessonQueryService.readAll(page, per_page, start, end, account.partitionId());
+        List<ValidLessonDTO> lessons = validLessonQueryService.readAll(requestedPage, start, end, account.partitionId());
         LOG.info("Lessons retrieved: {}", lessons);
+        requestedPage.nextCursor(response, lessons, ValidLessonDTO::getId);
 
         return lessons;
     }
@@ -108,8 +113,10 @@ public class ValidLessonController extends CommonControllerLogic {
     @RequestMapping(value = "/{tableName:group|teacher|customer|student}/{id:[\\d]+}", method = GET, produces = APPLICATION_JSON_UTF8)
     @ResponseBody
     public List<ValidLessonDTO> readForTable(PartitionAccount account, @PathVariable String tableName, @PathVariable int id,
+                                             HttpServletResponse response,
                                              @RequestParam(value="page", required=false) Integer page,
                                              @RequestParam(value="per_page", required=false) Integer per_page,
+                                             @RequestParam(value="cursor", required=false) String cursor,
                                              @RequestParam(value="time_zone", required=false) String time_zone,
                                              @RequestParam(value="start_date", required=false) String start_date,
                                              @RequestParam(value="end_date", required=false) String end_date,
@@ -118,6 +125,7 @@ public class ValidLessonController extends CommonControllerLogic {
         validateId(tableName, id);
         page = validatePage(page);
         per_page = validatePerPage(per_page);
+        Page requestedPage = Page.of(page, per_page, cursor);
         TimeResolver timeResolver = validateTime(time_zone, start_date, end_date, start, end);
         start = timeResolver.getStartTime();
         end = timeResolver.getEndTime();
@@ -130,21 +138,22 @@ public class ValidLessonController extends CommonControllerLogic {
         List<ValidLessonDTO> lessons;
         switch (table) {
             case group:
-                lessons = validLessonQueryService.readForGroup(id, page, per_page, start, end, account.partitionId());
+                lessons = validLessonQueryService.readForGroup(id, requestedPage, start, end, account.partitionId());
                 break;
             case teacher:
-                lessons = validLessonQueryService.readForTeacher(id, page, per_page, start, end, account.partitionId());
+                lessons = validLessonQueryService.readForTeacher(id, requestedPage, start, end, account.partitionId());
                 break;
             case customer:
-                lessons = validLessonQueryService.readForCustomer(id, page, per_page, start, end, account.partitionId());
+                lessons = validLessonQueryService.readForCustomer(id, requestedPage, start, end, account.partitionId());
                 break;
             case student:
-                lessons = validLessonQueryService.readForStudent(id, page, per_page, start, end, account.partitionId());
+                lessons = validLessonQueryService.readForStudent(id, requestedPage, start, end, account.partitionId());
                 break;
             default:
                 throw new AssertionError("The regex filter should have filtered out invalid names");
         }
         LOG.info("Lessons retrieved: {}", lessons);
+        requestedPage.nextCursor(response, lessons, ValidLessonDTO::getId);
 
         return lessons;
     }
@@ -4,6 +4,7 @@ import com.superum.api.v2.customer.CustomerNotFoundException;
 import com.superum.api.v2.group.GroupNotFoundException;
 import com.superum.api.v2.student.StudentNotFoundException;
 import com.superum.api.v2.teacher.TeacherNotFoundException;
+import com.superum.helper.Page;
 import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 
@@ -36,7 +37,7 @@ public interface ValidLessonQueryService {
      * <pre>
      * Reads all lessons; reading is paged;
      *
-     * Pages start at 0, whereas the maximum amount is 100
+     * Pages start at 0, whereas the maximum amount is 100; if the page has a cursor, reading starts after it instead
      *
      * partitionId separates different app partitions (please refer to the API file or PartitionController)
      * </pre>
@@ -44,13 +45,13 @@ public interface ValidLessonQueryService {
      *
      * @throws DataAccessException if an unexpected database error occurred
      */
-    List<ValidLessonDTO> readAll(int page, int amount, long start, long end, int partitionId);
+    List<ValidLessonDTO> readAll(Page page, long start, long end, int partitionId);
 
     /**
      * <pre>
      * Reads all lessons for a group with specified id; reading is paged;
      *
-     * Pages start at 0, whereas the maximum amount is 100
+     * Pages start at 0, whereas the maximum amount is 100; if the page has a cursor, reading starts after it instead
      *
      * partitionId separates different app partitions (please refer to the API file or PartitionController)
      * </pre>
@@ -59,13 +60,13 @@ public interface ValidLessonQueryService {
      * @throws GroupNotFoundException if no group with this id exists
      * @throws DataAccessException if an unexpected database error occurred
      */
-    List<ValidLessonDTO> readForGroup(int groupId, int page, int amount, long start, long end, int partitionId);
+    List<ValidLessonDTO> readForGroup(int groupId, Page page, long start, long end, int partitionId);
 
     /**
      * <pre>
      * Reads all lessons for a teacher with specified id; reading is paged;
      *
-     * Pages start at 0, whereas the maximum amount is 100
+     * Pages start at 0, whereas the maximum amount is 100; if the page has a cursor, reading starts after it instead
      *
      * partitionId separates different app partitions (please refer to the API file or PartitionController)
      * </pre>
@@ -74,13 +75,13 @@ public interface ValidLessonQueryService {
      * @throws TeacherNotFoundException if no teacher with this id exists
      * @throws DataAccessException if an unexpected database error occurred
      */
-    List<ValidLessonDTO> readForTeacher(int teacherId, int page, int amount, long start, long end, int partitionId);
+    List<ValidLessonDTO> readForTeacher(int teacherId, Page page, long start, long end, int partitionId);
 
     /**
      * <pre>
      * Reads all lessons for a customer with specified id; reading is paged;
      *
-     * Pages start at 0, whereas the maximum amount is 100
+     * Pages start at 0, whereas the maximum amount is 100; if the page has a cursor, reading starts after it instead
      *
      * partitionId separates different app partitions (please refer to the API file or PartitionController)
      * </pre>
@@ -89,13 +90,13 @@ public interface ValidLessonQueryService {
      * @throws CustomerNotFoundException if no customer with this id exists
      * @throws DataAccessException if an unexpected database error occurred
      */
-    List<ValidLessonDTO> readForCustomer(int customerId, int page, int amount, long start, long end, int partitionId);
+    List<ValidLessonDTO> readForCustomer(int customerId, Page page, long start, long end, int partitionId);
 
     /**
      * <pre>
      * Reads all lessons that a student has attended; reading is paged;
      *
-     * Pages start at 0, whereas the maximum amount is 100
+     * Pages start at 0, whereas the maximum amount is 100; if the page has a cursor, reading starts after it instead
      *
      * partitionId separates different app partitions (please refer to the API file or PartitionController)
      * </pre>
@@ -104,6 +105,6 @@ public interface ValidLessonQueryService {
      * @throws StudentNotFoundException if no student with this id exists
      * @throws DataAccessException if an unexpected database error occurred
      */
-    List<ValidLessonDTO> readForStudent(int studentId, int page, int amount, long start, long end, int partitionId);
+    List<ValidLessonDTO> readForStudent(int studentId, Page page, long start, long end, int partitionId);
 
 }
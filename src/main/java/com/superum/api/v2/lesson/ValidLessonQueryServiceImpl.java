@@ -4,11 +4,13 @@ import com.superum.api.v2.customer.CustomerNotFoundException;
 import com.superum.api.v2.group.GroupNotFoundException;
 import com.superum.api.v2.student.StudentNotFoundException;
 import com.superum.api.v2.teacher.TeacherNotFoundException;
+import com.superum.helper.Page;
 import com.superum.helper.jooq.DefaultQueries;
 import org.jooq.Condition;
 import org.jooq.DSLContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import timestar_v2.tables.records.*;
 
 import java.util.List;
@@ -18,6 +20,7 @@ import static timestar_v2.Keys.LESSON_IBFK_2;
 import static timestar_v2.Tables.*;
 
 @Service
+@Transactional(readOnly = true)
 public class ValidLessonQueryServiceImpl implements ValidLessonQueryService {
 
     @Override
@@ -27,15 +30,15 @@ public class ValidLessonQueryServiceImpl implements ValidLessonQueryService {
     }
 
     @Override
-    public List<ValidLessonDTO> readAll(int page, int amount, long start, long end, int partitionId) {
+    public List<ValidLessonDTO> readAll(Page page, long start, long end, int partitionId) {
         Condition condition = defaultLessonQueries.partitionId(partitionId)
                 .and(withTime(start, end));
 
-        return defaultLessonQueries.readForCondition(page, amount, condition, ValidLessonDTO::valueOf);
+        return defaultLessonQueries.readForCondition(page, condition, ValidLessonDTO::valueOf);
     }
 
     @Override
-    public List<ValidLessonDTO> readForGroup(int groupId, int page, int amount, long start, long end, int partitionId) {
+    public List<ValidLessonDTO> readForGroup(int groupId, Page page, long start, long end, int partitionId) {
         if (!defaultGroupQueries.exists(groupId, partitionId))
             throw new GroupNotFoundException("No group with given id exists: " + groupId);
 
@@ -43,11 +46,11 @@ public class ValidLessonQueryServiceImpl implements ValidLessonQueryService {
                 .and(LESSON.GROUP_ID.eq(groupId))
                 .and(withTime(start, end));
 
-        return defaultLessonQueries.readForCondition(page, amount, condition, ValidLessonDTO::valueOf);
+        return defaultLessonQueries.readForCondition(page, condition, ValidLessonDTO::valueOf);
     }
 
     @Override
-    public List<ValidLessonDTO> readForTeacher(int teacherId, int page, int amount, long start, long end, int partitionId) {
+    public List<ValidLessonDTO> readForTeacher(int teacherId, Page page, long start, long end, int partitionId) {
         if (!defaultTeacherQueries.exists(teacherId, partitionId))
             throw new TeacherNotFoundException("No teacher with given id exists: " + teacherId);
 
@@ -55,17 +58,18 @@ public class ValidLessonQueryServiceImpl implements ValidLessonQueryService {
                 .and(LESSON.TEACHER_ID.eq(teacherId))
                 .and(withTime(start, end));
 
-        return defaultLessonQueries.readForCondition(page, amount, condition, ValidLessonDTO::valueOf);
+        return defaultLessonQueries.readForCondition(page, condition, ValidLessonDTO::valueOf);
     }
 
     @Override
-    public List<ValidLessonDTO> readForCustomer(int customerId, int page, int amount, long start, long end, int partitionId) {
+    public List<ValidLessonDTO> readForCustomer(int customerId, Page page, long start, long end, int partitionId) {
         if (!defaultCustomerQueries.exists(customerId, partitionId))
             throw new CustomerNotFoundException("No customer with given id exists: " + customerId);
 
         Condition condition = defaultLessonQueries.partitionId(partitionId)
                 .and(GROUP_OF_STUDENTS.CUSTOMER_ID.eq(customerId))
-                .and(withTime(start, end));
+                .and(withTime(start, end))
+                .and(page.seek(LESSON.ID));
 
         return sql.select(LESSON.fields())
                 .from(LESSON)
@@ -73,20 +77,21 @@ public class ValidLessonQueryServiceImpl implements ValidLessonQueryService {
                 .where(condition)
                 .groupBy(LESSON.ID)
                 .orderBy(LESSON.ID)
-                .limit(amount)
-                .offset(page * amount)
+                .limit(page.amount())
+                .offset(page.offset())
                 .fetch()
                 .map(ValidLessonDTO::valueOf);
     }
 
     @Override
-    public List<ValidLessonDTO> readForStudent(int studentId, int page, int amount, long start, long end, int partitionId) {
+    public List<ValidLessonDTO> readForStudent(int studentId, Page page, long start, long end, int partitionId) {
         if (!defaultStudentQueries.exists(studentId, partitionId))
             throw new StudentNotFoundException("No student with given id exists: " + studentId);
 
         Condition condition = defaultLessonQueries.partitionId(partitionId)
                 .and(LESSON_ATTENDANCE.STUDENT_ID.eq(studentId))
-                .and(withTime(start, end));
+                .and(withTime(start, end))
+                .and(page.seek(LESSON.ID));
 
         return sql.select(LESSON.fields())
                 .from(LESSON)
@@ -94,8 +99,8 @@ public class ValidLessonQueryServiceImpl implements ValidLessonQueryService {
                 .where(condition)
                 .groupBy(LESSON.ID)
                 .orderBy(LESSON.ID)
-                .limit(amount)
-                .offset(page * amount)
+                .limit(page.amount())
+                .offset(page.offset())
                 .fetch()
                 .map(ValidLessonDTO::valueOf);
     }
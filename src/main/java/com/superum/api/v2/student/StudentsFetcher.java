@@ -1,11 +1,13 @@
 package com.superum.api.v2.student;
 
+import com.superum.helper.Page;
 import org.jooq.DSLContext;
 import org.jooq.ForeignKey;
 import org.jooq.Table;
 import org.jooq.TableField;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -14,22 +16,23 @@ import static timestar_v2.Keys.STUDENTS_IN_GROUPS_IBFK_1;
 import static timestar_v2.Tables.*;
 
 @Repository
+@Transactional(readOnly = true)
 public class StudentsFetcher {
 
     /**
      * @return list of students for given groupId; only specified amount is returned, with offset
      */
-    public List<ValidStudentDTO> forGroup(int groupId, int page, int amount, int partitionId) {
+    public List<ValidStudentDTO> forGroup(int groupId, Page page, int partitionId) {
         return readFromJoin(STUDENTS_IN_GROUPS, STUDENTS_IN_GROUPS_IBFK_1, STUDENTS_IN_GROUPS.GROUP_ID,
-                groupId, page, amount, partitionId);
+                groupId, page, partitionId);
     }
 
     /**
      * @return list of students for given lessonId; only specified amount is returned, with offset
      */
-    public List<ValidStudentDTO> forLesson(long lessonId, int page, int amount, int partitionId) {
+    public List<ValidStudentDTO> forLesson(long lessonId, Page page, int partitionId) {
         return readFromJoin(LESSON_ATTENDANCE, LESSON_ATTENDANCE_IBFK_2, LESSON_ATTENDANCE.LESSON_ID,
-                lessonId, page, amount, partitionId);
+                lessonId, page, partitionId);
     }
 
     // CONSTRUCTORS
@@ -45,16 +48,17 @@ public class StudentsFetcher {
 
     private <V> List<ValidStudentDTO> readFromJoin(Table<?> table, ForeignKey<?, ?> key,
                                                    TableField<?, V> field, V value,
-                                                   int page, int amount, int partitionId) {
+                                                   Page page, int partitionId) {
         return sql.select(STUDENT.fields())
                 .from(STUDENT)
                 .join(table).onKey(key)
                 .where(STUDENT.PARTITION_ID.eq(partitionId)
-                        .and(field.eq(value)))
+                        .and(field.eq(value))
+                        .and(page.seek(STUDENT.ID)))
                 .groupBy(STUDENT.ID)
                 .orderBy(STUDENT.ID)
-                .limit(amount)
-                .offset(page * amount)
+                .limit(page.amount())
+                .offset(page.offset())
                 .fetch()
                 .map(ValidStudentDTO::valueOf);
     }
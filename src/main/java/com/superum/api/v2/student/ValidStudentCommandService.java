@@ -5,6 +5,9 @@ import com.superum.exception.DatabaseException;
 import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.Set;
+
 /**
  * <pre>
  * Responsible for handling student commands
@@ -40,6 +43,23 @@ public interface ValidStudentCommandService {
      */
     ValidStudentDTO create(ValidStudentDTO validStudentDTO, int partitionId);
 
+    /**
+     * <pre>
+     * Creates new students, all of them or none
+     *
+     * Every student is checked the same way as by create(); then all of them are inserted together
+     *
+     * partitionId separates different app partitions (please refer to the API file or PartitionController)
+     * </pre>
+     * @return the created students with id field now set, in the same order
+     *
+     * @throws InvalidStudentException if any student would fail create() for this reason
+     * @throws CustomerNotFoundException if any student would fail create() for this reason
+     * @throws DatabaseException if database error occurred
+     * @throws DataAccessException if an unexpected database error occurred
+     */
+    List<ValidStudentDTO> createAll(List<ValidStudentDTO> validStudentDTOs, int partitionId);
+
     /**
      * <pre>
      * Updates an existing student
@@ -58,6 +78,22 @@ public interface ValidStudentCommandService {
      */
     void update(ValidStudentDTO validStudentDTO, int partitionId);
 
+    /**
+     * <pre>
+     * Updates existing students, all of them or none
+     *
+     * Every student is checked the same way as by update(); then all of the updates are sent as a single batch
+     *
+     * partitionId separates different app partitions (please refer to the API file or PartitionController)
+     * </pre>
+     * @throws InvalidStudentException if any student would fail update() for this reason
+     * @throws StudentNotFoundException if any student would fail update() for this reason
+     * @throws CustomerNotFoundException if any student would fail update() for this reason
+     * @throws DatabaseException if database error occurred
+     * @throws DataAccessException if an unexpected database error occurred
+     */
+    void updateAll(List<ValidStudentDTO> validStudentDTOs, int partitionId);
+
     /**
      * <pre>
      * Deletes a student with specified id
@@ -71,4 +107,19 @@ public interface ValidStudentCommandService {
      */
     void delete(int studentId, int partitionId);
 
+    /**
+     * <pre>
+     * Deletes students with specified ids, all of them or none
+     *
+     * Every id is checked the same way as by delete(); then all of the students are deleted with a single statement
+     *
+     * partitionId separates different app partitions (please refer to the API file or PartitionController)
+     * </pre>
+     * @throws StudentNotFoundException if any student would fail delete() for this reason
+     * @throws UnsafeStudentDeleteException if any student would fail delete() for this reason
+     * @throws DatabaseException if database error occurred
+     * @throws DataAccessException if an unexpected database error occurred
+     */
+    void deleteAll(Set<Integer> studentIds, int partitionId);
+
 }
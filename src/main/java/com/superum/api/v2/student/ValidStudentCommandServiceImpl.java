@@ -5,18 +5,110 @@ import com.superum.exception.DatabaseException;
 import com.superum.helper.jooq.DefaultCommands;
 import com.superum.helper.jooq.DefaultQueries;
 import com.superum.helper.jooq.ForeignQueries;
+import org.jooq.lambda.Seq;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import timestar_v2.tables.records.CustomerRecord;
 import timestar_v2.tables.records.StudentRecord;
 
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
 @Service
 @Transactional
 public class ValidStudentCommandServiceImpl implements ValidStudentCommandService {
 
     @Override
     public ValidStudentDTO create(ValidStudentDTO validStudentDTO, int partitionId) {
+        ValidStudent student = creatable(validStudentDTO, partitionId);
+
+        return defaultStudentCommands.create(student, partitionId, ValidStudentDTO::valueOf)
+                .orElseThrow(() -> new DatabaseException("Couldn't return student after inserting it: " + student));
+    }
+
+    @Override
+    public List<ValidStudentDTO> createAll(List<ValidStudentDTO> validStudentDTOs, int partitionId) {
+        List<ValidStudent> students = Seq.seq(validStudentDTOs).map(this::creatable).toList();
+        checkCustomerIds(students, validStudentDTOs, partitionId);
+
+        return defaultStudentCommands.createAll(students, partitionId, ValidStudentDTO::valueOf);
+    }
+
+    @Override
+    public void update(ValidStudentDTO validStudentDTO, int partitionId) {
+        ValidStudent student = updatable(validStudentDTO, partitionId);
+
+        if (defaultStudentCommands.update(student, partitionId) == 0)
+            throw new DatabaseException("Couldn't update student: " + student);
+    }
+
+    @Override
+    public void updateAll(List<ValidStudentDTO> validStudentDTOs, int partitionId) {
+        List<ValidStudent> students = Seq.seq(validStudentDTOs).map(this::updatable).toList();
+
+        Set<Integer> existingIds = defaultStudentQueries.existingIds(
+                Seq.seq(students).map(ValidStudent::getId).toSet(), partitionId);
+        for (ValidStudent student : students)
+            if (!existingIds.contains(student.getId()))
+                throw new StudentNotFoundException("Couldn't find student with id " + student.getId());
+
+        checkCustomerIds(students, validStudentDTOs, partitionId);
+
+        int[] updated = defaultStudentCommands.updateAll(students, partitionId);
+        for (int i = 0; i < updated.length; i++)
+            if (updated[i] == 0)
+                throw new DatabaseException("Couldn't update student: " + students.get(i));
+    }
+
+    @Override
+    public void delete(int studentId, int partitionId) {
+        checkDeletable(studentId, partitionId);
+
+        if (defaultStudentCommands.delete(studentId, partitionId) == 0)
+            throw new DatabaseException("Couldn't delete student with id: " + studentId);
+    }
+
+    @Override
+    public void deleteAll(Set<Integer> studentIds, int partitionId) {
+        checkDeletable(studentIds, partitionId);
+
+        if (defaultStudentCommands.deleteAll(studentIds, partitionId) != studentIds.size())
+            throw new DatabaseException("Couldn't delete students with ids: " + studentIds);
+    }
+
+    // CONSTRUCTORS
+
+    @Autowired
+    public ValidStudentCommandServiceImpl(DefaultCommands<StudentRecord, Integer> defaultStudentCommands,
+                                          DefaultQueries<StudentRecord, Integer> defaultStudentQueries,
+                                          ForeignQueries<Integer> foreignStudentQueries,
+                                          DefaultQueries<CustomerRecord, Integer> defaultCustomerQueries) {
+        this.defaultStudentCommands = defaultStudentCommands;
+        this.defaultStudentQueries = defaultStudentQueries;
+        this.foreignStudentQueries = foreignStudentQueries;
+        this.defaultCustomerQueries = defaultCustomerQueries;
+    }
+
+    // PRIVATE
+
+    private final DefaultCommands<StudentRecord, Integer> defaultStudentCommands;
+    private final DefaultQueries<StudentRecord, Integer> defaultStudentQueries;
+    private final ForeignQueries<Integer> foreignStudentQueries;
+
+    private final DefaultQueries<CustomerRecord, Integer> defaultCustomerQueries;
+
+    private ValidStudent creatable(ValidStudentDTO validStudentDTO, int partitionId) {
+        ValidStudent student = creatable(validStudentDTO);
+
+        if (student.hasNonExistentCustomerId(id -> !defaultCustomerQueries.exists(id, partitionId)))
+            throw new CustomerNotFoundException("Couldn't find customer id for student: " + student);
+
+        return student;
+    }
+
+    private ValidStudent creatable(ValidStudentDTO validStudentDTO) {
         ValidStudent student = new ValidStudent(validStudentDTO);
 
         if (student.hasId())
@@ -34,15 +126,22 @@ public class ValidStudentCommandServiceImpl implements ValidStudentCommandServic
             throw new InvalidStudentException("Provided student has both customerId and startDate set; " +
                     "it can have only one of those!");
 
+        return student;
+    }
+
+    private ValidStudent updatable(ValidStudentDTO validStudentDTO, int partitionId) {
+        ValidStudent student = updatable(validStudentDTO);
+
+        if (!defaultStudentQueries.exists(student.getId(), partitionId))
+            throw new StudentNotFoundException("Couldn't find student with id " + student.getId());
+
         if (student.hasNonExistentCustomerId(id -> !defaultCustomerQueries.exists(id, partitionId)))
             throw new CustomerNotFoundException("Couldn't find customer id for student: " + student);
 
-        return defaultStudentCommands.create(student, partitionId, ValidStudentDTO::valueOf)
-                .orElseThrow(() -> new DatabaseException("Couldn't return student after inserting it: " + student));
+        return student;
     }
 
-    @Override
-    public void update(ValidStudentDTO validStudentDTO, int partitionId) {
+    private ValidStudent updatable(ValidStudentDTO validStudentDTO) {
         ValidStudent student = new ValidStudent(validStudentDTO);
 
         if (!student.hasId())
@@ -55,48 +154,45 @@ public class ValidStudentCommandServiceImpl implements ValidStudentCommandServic
             throw new InvalidStudentException("Provided student has both customerId and startDate set; " +
                     "it can have only one of those!");
 
-        if (!defaultStudentQueries.exists(student.getId(), partitionId))
-            throw new StudentNotFoundException("Couldn't find student with id " + student.getId());
-
-        if (student.hasNonExistentCustomerId(id -> !defaultCustomerQueries.exists(id, partitionId)))
-            throw new CustomerNotFoundException("Couldn't find customer id for student: " + student);
+        return student;
+    }
 
-        if (defaultStudentCommands.update(student, partitionId) == 0)
-            throw new DatabaseException("Couldn't update student: " + student);
+    /**
+     * Same check as creatable/updatable(ValidStudentDTO, int), but all of the customer ids are looked up at once
+     */
+    private void checkCustomerIds(List<ValidStudent> students, List<ValidStudentDTO> validStudentDTOs,
+                                  int partitionId) {
+        Set<Integer> existingCustomerIds = defaultCustomerQueries.existingIds(
+                Seq.seq(validStudentDTOs).map(ValidStudentDTO::getCustomerId).filter(Objects::nonNull).toSet(),
+                partitionId);
+        for (ValidStudent student : students)
+            if (student.hasNonExistentCustomerId(id -> !existingCustomerIds.contains(id)))
+                throw new CustomerNotFoundException("Couldn't find customer id for student: " + student);
     }
 
-    @Override
-    public void delete(int studentId, int partitionId) {
+    private void checkDeletable(int studentId, int partitionId) {
         if (!defaultStudentQueries.exists(studentId, partitionId))
             throw new StudentNotFoundException("Couldn't find student with id " + studentId);
 
         if (foreignStudentQueries.isUsed(studentId))
             throw new UnsafeStudentDeleteException("Cannot delete student with id " + studentId +
                     " while it still has entries in other tables");
-
-        if (defaultStudentCommands.delete(studentId, partitionId) == 0)
-            throw new DatabaseException("Couldn't delete student with id: " + studentId);
     }
 
-    // CONSTRUCTORS
-
-    @Autowired
-    public ValidStudentCommandServiceImpl(DefaultCommands<StudentRecord, Integer> defaultStudentCommands,
-                                          DefaultQueries<StudentRecord, Integer> defaultStudentQueries,
-                                          ForeignQueries<Integer> foreignStudentQueries,
-                                          DefaultQueries<CustomerRecord, Integer> defaultCustomerQueries) {
-        this.defaultStudentCommands = defaultStudentCommands;
-        this.defaultStudentQueries = defaultStudentQueries;
-        this.foreignStudentQueries = foreignStudentQueries;
-        this.defaultCustomerQueries = defaultCustomerQueries;
+    /**
+     * Same checks as checkDeletable(int, int), but every table is queried once for all of the ids
+     */
+    private void checkDeletable(Set<Integer> studentIds, int partitionId) {
+        Set<Integer> existingIds = defaultStudentQueries.existingIds(studentIds, partitionId);
+        for (int studentId : studentIds)
+            if (!existingIds.contains(studentId))
+                throw new StudentNotFoundException("Couldn't find student with id " + studentId);
+
+        Set<Integer> usedIds = foreignStudentQueries.usedIds(studentIds);
+        for (int studentId : studentIds)
+            if (usedIds.contains(studentId))
+                throw new UnsafeStudentDeleteException("Cannot delete student with id " + studentId +
+                        " while it still has entries in other tables");
     }
 
-    // PRIVATE
-
-    private final DefaultCommands<StudentRecord, Integer> defaultStudentCommands;
-    private final DefaultQueries<StudentRecord, Integer> defaultStudentQueries;
-    private final ForeignQueries<Integer> foreignStudentQueries;
-
-    private final DefaultQueries<CustomerRecord, Integer> defaultCustomerQueries;
-
 }
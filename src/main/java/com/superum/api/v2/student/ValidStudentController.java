@@ -3,12 +3,15 @@ package com.superum.api.v2.student;
 import com.superum.api.core.CommonControllerLogic;
 import com.superum.api.exception.InvalidRequestException;
 import com.superum.api.v2.Table;
+import com.superum.helper.Page;
 import com.superum.helper.PartitionAccount;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
+import java.util.LinkedHashSet;
 import java.util.List;
 
 import static eu.goodlike.misc.Constants.APPLICATION_JSON_UTF8;
@@ -65,6 +68,42 @@ public class ValidStudentController extends CommonControllerLogic {
         LOG.info("Student successfully deleted");
     }
 
+    @RequestMapping(value = "/batch", method = POST, produces = APPLICATION_JSON_UTF8, consumes = APPLICATION_JSON_UTF8)
+    @ResponseBody
+    public List<ValidStudentDTO> createAll(PartitionAccount account, @RequestBody List<ValidStudentDTO> students) {
+        validateBatch("students", students);
+
+        LOG.info("User {} is creating {} students", account, students.size());
+
+        List<ValidStudentDTO> createdStudents = validStudentCommandService.createAll(students, account.partitionId());
+        LOG.info("Successfully created students: {}", createdStudents);
+
+        return createdStudents;
+    }
+
+    @RequestMapping(value = "/batch", method = PUT, consumes = APPLICATION_JSON_UTF8)
+    @ResponseBody
+    public void updateAll(PartitionAccount account, @RequestBody List<ValidStudentDTO> students) {
+        validateBatch("students", students);
+
+        LOG.info("User {} is updating students {}", account, students);
+
+        validStudentCommandService.updateAll(students, account.partitionId());
+        LOG.info("Students successfully updated");
+    }
+
+    @RequestMapping(value = "/batch/delete", method = POST, consumes = APPLICATION_JSON_UTF8)
+    @ResponseBody
+    public void deleteAll(PartitionAccount account, @RequestBody List<Integer> ids) {
+        validateBatch("student ids", ids);
+        ids.forEach(id -> validateId("Student", id));
+
+        LOG.info("User {} is deleting students with ids {}", account, ids);
+
+        validStudentCommandService.deleteAll(new LinkedHashSet<>(ids), account.partitionId());
+        LOG.info("Students successfully deleted");
+    }
+
     // QUERIES
 
     @RequestMapping(value = "/{id:[\\d]+}", method = GET, produces = APPLICATION_JSON_UTF8)
@@ -82,17 +121,20 @@ public class ValidStudentController extends CommonControllerLogic {
 
     @RequestMapping(method = GET, produces = APPLICATION_JSON_UTF8)
     @ResponseBody
-    public List<ValidStudentDTO> readAll(PartitionAccount account,
+    public List<ValidStudentDTO> readAll(PartitionAccount account, HttpServletResponse response,
                                          @RequestParam(value="page", required=false) Integer page,
-                                         @RequestParam(value="per_page", required=false) Integer per_page) {
+                                         @RequestParam(value="per_page", required=false) Integer per_page,
+                                         @RequestParam(value="cursor", required=false) String cursor) {
         page = validatePage(page);
         per_page = validatePerPage(per_page);
+        Page requestedPage = Page.of(page, per_page, cursor);
 
         LOG.info("User {} is reading all students, page {}, with {} entries per page",
                 account, page, per_page);
 
-        List<ValidStudentDTO> students = validStudentQueryService.readAll(page, per_page, account.partitionId());
+        List<ValidStudentDTO> students = validStudentQueryService.readAll(requestedPage, account.partitionId());
         LOG.info("Students retrieved: {}", students);
+        requestedPage.nextCursor(response, students, ValidStudentDTO::getId);
 
         return students;
     }
@@ -100,11 +142,14 @@ public class ValidStudentController extends CommonControllerLogic {
     @RequestMapping(value = "/{tableName:group|lesson|customer}/{id:[\\d]+}", method = GET, produces = APPLICATION_JSON_UTF8)
     @ResponseBody
     public List<ValidStudentDTO> readForTable(PartitionAccount account, @PathVariable String tableName, @PathVariable long id,
+                                                 HttpServletResponse response,
                                                  @RequestParam(value="page", required=false) Integer page,
-                                                 @RequestParam(value="per_page", required=false) Integer per_page) {
+                                                 @RequestParam(value="per_page", required=false) Integer per_page,
+                                                 @RequestParam(value="cursor", required=false) String cursor) {
         validateId(tableName, id);
         page = validatePage(page);
         per_page = validatePerPage(per_page);
+        Page requestedPage = Page.of(page, per_page, cursor);
 
         LOG.info("User {} is reading students for teacher with id {}, page {}, with {} entries per page",
                 account, id, page, per_page);
@@ -118,7 +163,7 @@ public class ValidStudentController extends CommonControllerLogic {
                 students = validStudentQueryService.readForGroup((int)id, page, per_page, account.partitionId());
                 break;
             case lesson:
-                students = validStudentQueryService.readForLesson(id, page, per_page, account.partitionId());
+                students = validStudentQueryService.readForLesson(id, requestedPage, account.partitionId());
                 break;
             case customer:
                 students = validStudentQueryService.readForCustomer((int)id, page, per_page, account.partitionId());
@@ -127,6 +172,7 @@ public class ValidStudentController extends CommonControllerLogic {
                 throw new AssertionError("The regex filter should have filtered out invalid names");
         }
         LOG.info("Students retrieved: {}", students);
+        requestedPage.nextCursor(response, students, ValidStudentDTO::getId);
 
         return students;
     }
@@ -3,6 +3,7 @@ package com.superum.api.v2.student;
 import com.superum.api.v2.customer.CustomerNotFoundException;
 import com.superum.api.v2.group.GroupNotFoundException;
 import com.superum.api.v2.lesson.LessonNotFoundException;
+import com.superum.helper.Page;
 import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 
@@ -35,7 +36,7 @@ public interface ValidStudentQueryService {
      * <pre>
      * Reads all students; reading is paged;
      *
-     * Pages start at 0, whereas the maximum amount is 100
+     * Pages start at 0, whereas the maximum amount is 100; if the page has a cursor, reading starts after it instead
      *
      * partitionId separates different app partitions (please refer to the API file or PartitionController)
      * </pre>
@@ -43,13 +44,13 @@ public interface ValidStudentQueryService {
      *
      * @throws DataAccessException if an unexpected database error occurred
      */
-    List<ValidStudentDTO> readAll(int page, int amount, int partitionId);
+    List<ValidStudentDTO> readAll(Page page, int partitionId);
 
     /**
      * <pre>
      * Reads all students for a group; reading is paged;
      *
-     * Pages start at 0, whereas the maximum amount is 100
+     * Pages start at 0, whereas the maximum amount is 100; if the page has a cursor, reading starts after it instead
      *
      * partitionId separates different app partitions (please refer to the API file or PartitionController)
      * </pre>
@@ -58,13 +59,13 @@ public interface ValidStudentQueryService {
      * @throws GroupNotFoundException if no group with this id exists
      * @throws DataAccessException if an unexpected database error occurred
      */
-    List<ValidStudentDTO> readForGroup(int groupId, int page, int amount, int partitionId);
+    List<ValidStudentDTO> readForGroup(int groupId, Page page, int partitionId);
 
     /**
      * <pre>
      * Reads all students that attended a certain lesson; reading is paged;
      *
-     * Pages start at 0, whereas the maximum amount is 100
+     * Pages start at 0, whereas the maximum amount is 100; if the page has a cursor, reading starts after it instead
      *
      * partitionId separates different app partitions (please refer to the API file or PartitionController)
      * </pre>
@@ -73,13 +74,13 @@ public interface ValidStudentQueryService {
      * @throws LessonNotFoundException if no lesson with this id exists
      * @throws DataAccessException if an unexpected database error occurred
      */
-    List<ValidStudentDTO> readForLesson(long lessonId, int page, int amount, int partitionId);
+    List<ValidStudentDTO> readForLesson(long lessonId, Page page, int partitionId);
 
     /**
      * <pre>
      * Reads all students for a customer; reading is paged;
      *
-     * Pages start at 0, whereas the maximum amount is 100
+     * Pages start at 0, whereas the maximum amount is 100; if the page has a cursor, reading starts after it instead
      *
      * partitionId separates different app partitions (please refer to the API file or PartitionController)
      * </pre>
@@ -88,6 +89,6 @@ public interface ValidStudentQueryService {
      * @throws CustomerNotFoundException if no customer with this id exists
      * @throws DataAccessException if an unexpected database error occurred
      */
-    List<ValidStudentDTO> readForCustomer(int customerId, int page, int amount, int partitionId);
+    List<ValidStudentDTO> readForCustomer(int customerId, Page page, int partitionId);
 
 }
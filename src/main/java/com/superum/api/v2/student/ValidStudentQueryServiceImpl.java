@@ -3,9 +3,11 @@ package com.superum.api.v2.student;
 import com.superum.api.v2.customer.CustomerNotFoundException;
 import com.superum.api.v2.group.GroupNotFoundException;
 import com.superum.api.v2.lesson.LessonNotFoundException;
+import com.superum.helper.Page;
 import com.superum.helper.jooq.DefaultQueries;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import timestar_v2.tables.records.CustomerRecord;
 import timestar_v2.tables.records.GroupOfStudentsRecord;
 import timestar_v2.tables.records.LessonRecord;
@@ -16,6 +18,7 @@ import java.util.List;
 import static timestar_v2.Tables.STUDENT;
 
 @Service
+@Transactional(readOnly = true)
 public class ValidStudentQueryServiceImpl implements ValidStudentQueryService {
 
     @Override
@@ -25,32 +28,32 @@ public class ValidStudentQueryServiceImpl implements ValidStudentQueryService {
     }
 
     @Override
-    public List<ValidStudentDTO> readAll(int page, int amount, int partitionId) {
-        return defaultStudentQueries.readAll(page, amount, partitionId, ValidStudentDTO::valueOf);
+    public List<ValidStudentDTO> readAll(Page page, int partitionId) {
+        return defaultStudentQueries.readAll(page, partitionId, ValidStudentDTO::valueOf);
     }
 
     @Override
-    public List<ValidStudentDTO> readForGroup(int groupId, int page, int amount, int partitionId) {
+    public List<ValidStudentDTO> readForGroup(int groupId, Page page, int partitionId) {
         if (!defaultGroupQueries.exists(groupId, partitionId))
             throw new GroupNotFoundException("Couldn't find group with id " + groupId);
 
-        return students.forGroup(groupId, page, amount, partitionId);
+        return students.forGroup(groupId, page, partitionId);
     }
 
     @Override
-    public List<ValidStudentDTO> readForLesson(long lessonId, int page, int amount, int partitionId) {
+    public List<ValidStudentDTO> readForLesson(long lessonId, Page page, int partitionId) {
         if (!defaultLessonQueries.exists(lessonId, partitionId))
             throw new LessonNotFoundException("Couldn't find lesson with id " + lessonId);
 
-        return students.forLesson(lessonId, page, amount, partitionId);
+        return students.forLesson(lessonId, page, partitionId);
     }
 
     @Override
-    public List<ValidStudentDTO> readForCustomer(int customerId, int page, int amount, int partitionId) {
+    public List<ValidStudentDTO> readForCustomer(int customerId, Page page, int partitionId) {
         if (!defaultCustomerQueries.exists(customerId, partitionId))
             throw new CustomerNotFoundException("Couldn't find customer with id " + customerId);
 
-        return defaultStudentQueries.readForForeignKey(page, amount, partitionId,
+        return defaultStudentQueries.readForForeignKey(page, partitionId,
                 STUDENT.CUSTOMER_ID, customerId, ValidStudentDTO::valueOf);
     }
 
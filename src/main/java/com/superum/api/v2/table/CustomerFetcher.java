@@ -1,45 +1,107 @@
 package com.superum.api.v2.table;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
 import com.superum.api.v2.customer.ValidCustomerDTO;
+import com.superum.helper.CacheCounters;
 import org.jooq.DSLContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static timestar_v2.Tables.CUSTOMER;
 import static timestar_v2.Tables.GROUP_OF_STUDENTS;
 
+/**
+ * <pre>
+ * Keeps a snapshot of all customers for every partition, so that paging through the lesson table does not read all
+ * of the customers for every page
+ *
+ * Snapshots must be invalidated whenever customers change, or groups change their customer; snapshots also expire
+ * on their own, in case the database is changed directly
+ *
+ * Snapshots are never read or loaded within a transaction, because the transaction might see (or later make)
+ * changes which other callers should not see yet
+ * </pre>
+ */
 @Repository
 public class CustomerFetcher {
 
     /**
      * @return list of all customers; unlike the normal method call, there is no limit in this case; also, null
-     * customer is attached to the tail of this list if and only if there are groups which do not have a customer
+     * customer is attached to the tail of this list if and only if there are groups which do not have a customer;
+     * the list cannot be modified
      */
     public List<ValidCustomerDTO> getAllCustomers(int partitionId) {
-        List<ValidCustomerDTO> customers =  sql.selectFrom(CUSTOMER)
-                .where(CUSTOMER.PARTITION_ID.eq(partitionId))
-                .orderBy(CUSTOMER.ID)
-                .fetch()
-                .map(ValidCustomerDTO::valueOf);
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                ? readAllCustomers(partitionId)
+                : snapshots.get(partitionId);
+    }
 
-        if (sql.fetchExists(GROUP_OF_STUDENTS, GROUP_OF_STUDENTS.CUSTOMER_ID.isNull()))
-            // "null" in this case means that there exist groups without a customer; they must be considered
-            customers.add(null);
+    /**
+     * Invalidates the snapshot of given partition; if called within a transaction, the snapshot is invalidated
+     * again after the transaction completes, because a snapshot could have been loaded in the meantime without
+     * the changes of the transaction; lesson table of the partition is marked as changed as well, see TableVersions
+     */
+    public void invalidate(int partitionId) {
+        tableVersions.changed(partitionId);
+        snapshots.invalidate(partitionId);
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    snapshots.invalidate(partitionId);
+                }
+            });
+    }
 
-        return customers;
+    /**
+     * @return hit/miss/eviction counters of the snapshots since startup
+     */
+    public CacheCounters cacheCounters() {
+        return CacheCounters.from(snapshots.stats());
     }
 
     // CONSTRUCTORS
 
     @Autowired
-    public CustomerFetcher(DSLContext sql) {
+    public CustomerFetcher(DSLContext sql, TableVersions tableVersions) {
         this.sql = sql;
+        this.tableVersions = tableVersions;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(MAX_PARTITIONS)
+                .expireAfterWrite(SNAPSHOT_LIFETIME_MINUTES, TimeUnit.MINUTES)
+                .recordStats()
+                .build(this::readAllCustomers);
     }
 
     // PRIVATE
 
     private final DSLContext sql;
+    private final TableVersions tableVersions;
+    private final LoadingCache<Integer, List<ValidCustomerDTO>> snapshots;
+
+    private List<ValidCustomerDTO> readAllCustomers(int partitionId) {
+        List<ValidCustomerDTO> customers =  sql.selectFrom(CUSTOMER)
+                .where(CUSTOMER.PARTITION_ID.eq(partitionId))
+                .orderBy(CUSTOMER.ID)
+                .fetch()
+                .map(ValidCustomerDTO::valueOf);
+
+        if (sql.fetchExists(GROUP_OF_STUDENTS, GROUP_OF_STUDENTS.CUSTOMER_ID.isNull()
+                .and(GROUP_OF_STUDENTS.PARTITION_ID.eq(partitionId))))
+            // "null" in this case means that there exist groups without a customer; they must be considered
+            customers.add(null);
+
+        return Collections.unmodifiableList(customers);
+    }
+
+    private static final int MAX_PARTITIONS = 1000;
+    private static final int SNAPSHOT_LIFETIME_MINUTES = 10;
 
 }
@@ -0,0 +1,131 @@
+package com.superum.api.v2.table;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.superum.api.v2.customer.ValidCustomerDTO;
+import com.superum.api.v2.teacher.FullTeacherDTO;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <pre>
+ * Writes the lesson table as JSON incrementally, so that the whole table never has to be held in memory
+ *
+ * The JSON contains the same parts as FullTable, except that the parts which depend on teachers are split into
+ * chunks; every chunk is written (and flushed) as soon as it is available
+ *
+ * Customers must be written before any chunks; if they are not written at all, they will be empty
+ *
+ * Example of JSON to expect:
+ * {
+ *      "customers": [
+ *          ...
+ *      ],
+ *      "customerReports": [
+ *          ...
+ *      ],
+ *      "chunks": [
+ *          {
+ *              "teachers": [
+ *                  ...
+ *              ],
+ *              "fields": [
+ *                  ...
+ *              ],
+ *              "teacherReports": [
+ *                  ...
+ *              ]
+ *          },
+ *          ...
+ *      ]
+ * }
+ * </pre>
+ */
+public final class FullTableWriter implements Closeable {
+
+    /**
+     * Writes the customers and their reports; can only be called once, before any chunks are written
+     */
+    public void writeCustomers(List<ValidCustomerDTO> customers, List<TableReport> customerReports) throws IOException {
+        if (customersWritten)
+            throw new IllegalStateException("Customers have already been written");
+
+        json.writeObjectField(CUSTOMERS_FIELD, customers);
+        json.writeObjectField(CUSTOMER_REPORT_FIELD, customerReports);
+        json.writeArrayFieldStart(CHUNKS_FIELD);
+        json.flush();
+        customersWritten = true;
+    }
+
+    /**
+     * Writes a chunk of teachers, with the fields and reports for those teachers
+     */
+    public void writeChunk(List<FullTeacherDTO> teachers, List<TableField> fields, List<TableReport> teacherReports)
+            throws IOException {
+        if (!customersWritten)
+            writeCustomers(Collections.emptyList(), Collections.emptyList());
+
+        json.writeStartObject();
+        json.writeObjectField(TEACHERS_FIELD, teachers);
+        json.writeObjectField(FIELDS_FIELD, fields);
+        json.writeObjectField(TEACHER_REPORT_FIELD, teacherReports);
+        json.writeEndObject();
+        json.flush();
+    }
+
+    /**
+     * Finishes the JSON and flushes it; no more writing is allowed afterwards
+     */
+    public void finish() throws IOException {
+        if (!customersWritten)
+            writeCustomers(Collections.emptyList(), Collections.emptyList());
+
+        json.writeEndArray();
+        json.writeEndObject();
+        json.flush();
+    }
+
+    /**
+     * Closes the underlying stream; if finish() was not called, the JSON is left incomplete on purpose, so that
+     * a failure in the middle of writing cannot be mistaken for a complete table
+     */
+    @Override
+    public void close() throws IOException {
+        json.close();
+    }
+
+    // CONSTRUCTORS
+
+    public static FullTableWriter to(OutputStream output, ObjectMapper objectMapper) throws IOException {
+        return new FullTableWriter(objectMapper.getFactory().createGenerator(output, JsonEncoding.UTF8));
+    }
+
+    private FullTableWriter(JsonGenerator json) throws IOException {
+        this.json = json;
+        this.customersWritten = false;
+
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+        json.writeStartObject();
+    }
+
+    // PRIVATE
+
+    private final JsonGenerator json;
+
+    private boolean customersWritten;
+
+    // FIELD NAMES
+
+    private static final String TEACHERS_FIELD = "teachers";
+    private static final String CUSTOMERS_FIELD = "customers";
+    private static final String FIELDS_FIELD = "fields";
+    private static final String TEACHER_REPORT_FIELD = "teacherReports";
+    private static final String CUSTOMER_REPORT_FIELD = "customerReports";
+    private static final String CHUNKS_FIELD = "chunks";
+
+}
@@ -0,0 +1,147 @@
+package com.superum.api.v2.table;
+
+import com.google.common.base.MoreObjects;
+
+import java.math.BigDecimal;
+
+/**
+ * <pre>
+ * Accumulates padded costs (see PaddedSumField) in memory, as a scaled long rather than BigDecimal
+ *
+ * Wages have 4 digits after the comma, so a padded cost is wage * minutes * [3|4] with the same scale; such a value
+ * is exactly an unscaled long and a scale; summing unscaled longs and dividing the result by the padding with integer
+ * arithmetic avoids creating a BigDecimal for every row and every intermediate sum
+ *
+ * If any step would overflow a long, the sum switches to BigDecimal and stays there; either way, the results are
+ * identical (including scale) to adding the values up as BigDecimal and calling PaddedSumField.unpad()
+ *
+ * This object is not thread-safe; it is intended to be filled and read by a single thread
+ * </pre>
+ */
+public final class PaddedSum {
+
+    /**
+     * Adds a padded value, i.e. the value of PaddedSumField.field() for some record; nulls are ignored
+     */
+    public PaddedSum add(BigDecimal paddedValue) {
+        if (paddedValue == null)
+            return this;
+
+        if (overflow == null && fitsIntoLong(paddedValue))
+            return add(paddedValue.unscaledValue().longValue(), paddedValue.scale());
+
+        overflow = padded().add(paddedValue);
+        return this;
+    }
+
+    /**
+     * Adds the contents of another sum
+     */
+    public PaddedSum add(PaddedSum other) {
+        return other.overflow == null
+                ? add(other.unscaledSum, other.scale)
+                : add(other.overflow);
+    }
+
+    /**
+     * @return the sum, with the padding still in place
+     */
+    public BigDecimal padded() {
+        return overflow == null ? BigDecimal.valueOf(unscaledSum, scale) : overflow;
+    }
+
+    /**
+     * <pre>
+     * Divides the sum by the padding, rounding ROUND_HALF_EVEN at the scale of the sum, exactly like
+     * BigDecimal.divide(PADDING, ROUND_HALF_EVEN) does
+     * </pre>
+     * @return the sum, without the padding
+     */
+    public BigDecimal unpadded() {
+        if (overflow != null)
+            return overflow.divide(PADDING, BigDecimal.ROUND_HALF_EVEN);
+
+        long quotient = unscaledSum / PADDING_INT;
+        long remainder = unscaledSum % PADDING_INT;
+        // remainder has the sign of unscaledSum, so the quotient is moved away from zero in that direction
+        long twiceRemainder = Math.abs(remainder) * 2;
+        if (twiceRemainder > PADDING_INT || (twiceRemainder == PADDING_INT && quotient % 2 != 0))
+            quotient += Long.signum(unscaledSum);
+
+        return BigDecimal.valueOf(quotient, scale);
+    }
+
+    /**
+     * @return true if the sum no longer fits into a long, and is being summed as BigDecimal
+     */
+    public boolean isOverflow() {
+        return overflow != null;
+    }
+
+    // CONSTRUCTORS
+
+    public static PaddedSum empty() {
+        return new PaddedSum();
+    }
+
+    public static PaddedSum of(BigDecimal paddedValue) {
+        return new PaddedSum().add(paddedValue);
+    }
+
+    private PaddedSum() {
+        this.unscaledSum = 0;
+        this.scale = 0;
+        this.overflow = null;
+    }
+
+    // PRIVATE
+
+    private long unscaledSum;
+    private int scale;
+    private BigDecimal overflow;
+
+    private PaddedSum add(long unscaledValue, int valueScale) {
+        if (overflow == null)
+            try {
+                int newScale = Math.max(scale, valueScale);
+                long rescaledSum = rescale(unscaledSum, scale, newScale);
+                long rescaledValue = rescale(unscaledValue, valueScale, newScale);
+                unscaledSum = Math.addExact(rescaledSum, rescaledValue);
+                scale = newScale;
+                return this;
+            } catch (ArithmeticException e) {
+                // overflow; fall through to BigDecimal
+            }
+
+        overflow = padded().add(BigDecimal.valueOf(unscaledValue, valueScale));
+        return this;
+    }
+
+    private static boolean fitsIntoLong(BigDecimal value) {
+        return value.scale() >= 0 && value.unscaledValue().bitLength() < Long.SIZE;
+    }
+
+    /**
+     * @throws ArithmeticException if the value no longer fits into a long
+     */
+    private static long rescale(long unscaledValue, int scale, int newScale) {
+        for (int i = scale; i < newScale; i++)
+            unscaledValue = Math.multiplyExact(unscaledValue, 10);
+        return unscaledValue;
+    }
+
+    // LCM(45, 60); see PaddedSumField
+    private static final int PADDING_INT = 180;
+    private static final BigDecimal PADDING = BigDecimal.valueOf(PADDING_INT);
+
+    // OBJECT OVERRIDES
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper("PaddedSum")
+                .add("padded", padded())
+                .add("overflow", isOverflow())
+                .toString();
+    }
+
+}
@@ -7,7 +7,6 @@ import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 
-import static java.math.BigDecimal.ROUND_HALF_EVEN;
 import static org.jooq.impl.DSL.sum;
 import static timestar_v2.Tables.*;
 
@@ -62,12 +61,29 @@ public class PaddedSumField {
      * @return value of field, without the padding
      */
     public BigDecimal valueForRecord(Record record) {
-        return record == null ? null : record.getValue(COST_FIELD, BigDecimal.class).divide(PADDING, ROUND_HALF_EVEN);
+        return record == null ? null : unpad(paddedValueForRecord(record));
+    }
+
+    /**
+     * @return value of field, with the padding still in place; such values can be summed without losing accuracy
+     */
+    public BigDecimal paddedValueForRecord(Record record) {
+        return record == null ? null : record.getValue(COST_FIELD, BigDecimal.class);
+    }
+
+    /**
+     * <pre>
+     * The division is done with integer arithmetic whenever the value fits into a long, see PaddedSum; the result is
+     * the same as paddedValue.divide(PADDING, ROUND_HALF_EVEN)
+     * </pre>
+     * @return padded value (or a sum of them), without the padding
+     */
+    public BigDecimal unpad(BigDecimal paddedValue) {
+        return PaddedSum.of(paddedValue).unpadded();
     }
 
     // LCM(45, 60) = 60 * 45 / GCD(45, 60) = 60 * 45 / 15 = 60 * 3 = 180
     private static final int PADDING_INT = 180;
-    private static final BigDecimal PADDING = BigDecimal.valueOf(PADDING_INT);
 
     private static final String COST_FIELD = "cost * " + PADDING_INT;
 
@@ -0,0 +1,69 @@
+package com.superum.api.v2.table;
+
+import com.google.common.base.MoreObjects;
+import com.superum.helper.TimeResolver;
+import org.joda.time.LocalDate;
+
+import java.util.List;
+
+/**
+ * <pre>
+ * Describes which payment periods a series of reports should cover
+ *
+ * Every teacher/customer has their own payment day, so the periods themselves can only be resolved once the
+ * payment day is known; this object only stores the rule which applies to all of them:
+ *      1) the last few periods, ending with the current one;
+ *      2) all periods which overlap with a range of dates;
+ * </pre>
+ */
+public final class ReportPeriods {
+
+    /**
+     * @return payment periods for given payment day, in chronological order
+     */
+    public List<TimeResolver> forPaymentDay(int paymentDay) {
+        return count == null
+                ? TimeResolver.periods(paymentDay, firstDate, lastDate)
+                : TimeResolver.periods(paymentDay, count);
+    }
+
+    // CONSTRUCTORS
+
+    /**
+     * @return rule for the given amount of periods, ending with the current one
+     */
+    public static ReportPeriods last(int count) {
+        return new ReportPeriods(count, null, null);
+    }
+
+    /**
+     * @return rule for all periods from the one firstDate belongs to, up to the one lastDate belongs to
+     */
+    public static ReportPeriods between(LocalDate firstDate, LocalDate lastDate) {
+        return new ReportPeriods(null, firstDate, lastDate);
+    }
+
+    private ReportPeriods(Integer count, LocalDate firstDate, LocalDate lastDate) {
+        this.count = count;
+        this.firstDate = firstDate;
+        this.lastDate = lastDate;
+    }
+
+    // PRIVATE
+
+    private final Integer count;
+    private final LocalDate firstDate;
+    private final LocalDate lastDate;
+
+    // OBJECT OVERRIDES
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper("ReportPeriods")
+                .add("count", count)
+                .add("firstDate", firstDate)
+                .add("lastDate", lastDate)
+                .toString();
+    }
+
+}
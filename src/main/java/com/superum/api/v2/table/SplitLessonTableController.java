@@ -1,11 +1,15 @@
 package com.superum.api.v2.table;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.superum.api.core.CommonControllerLogic;
 import com.superum.api.exception.InvalidRequestException;
 import com.superum.api.v2.teacher.ValidTeacherController;
+import com.superum.helper.CacheCounters;
 import com.superum.helper.PartitionAccount;
 import com.superum.helper.TimeResolver;
+import eu.goodlike.libraries.joda.time.Time;
 import eu.goodlike.v2.validate.Validate;
+import org.joda.time.LocalDate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,8 +18,12 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.WebRequest;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -42,25 +50,28 @@ public class SplitLessonTableController extends CommonControllerLogic {
 
     @RequestMapping(value = "/data", method = GET, produces = APPLICATION_JSON_UTF8)
     @ResponseBody
-    public Table getTableData(PartitionAccount account,
+    public Table getTableData(PartitionAccount account, WebRequest request,
                             @RequestParam(value = "per_page", required = false) Integer per_page,
                             @RequestParam(value = "time_zone", required = false) String time_zone,
                             @RequestParam(value = "start_date", required = false) String start_date,
                             @RequestParam(value = "end_date", required = false) String end_date,
                             @RequestParam(value = "start", required = false) Long start,
-                            @RequestParam(value = "end", required = false) Long end) {
-        return getTableData(account, DEFAULT_HOME_PAGE, per_page, time_zone, start_date, end_date, start, end);
+                            @RequestParam(value = "end", required = false) Long end,
+                            @RequestParam(value = "lesson_ids", defaultValue = "true") boolean lesson_ids) {
+        return getTableData(account, request, DEFAULT_HOME_PAGE, per_page, time_zone, start_date, end_date, start, end,
+                lesson_ids);
     }
 
     @RequestMapping(value = "/data/{page:[\\d]+}", method = GET, produces = APPLICATION_JSON_UTF8)
     @ResponseBody
-    public Table getTableData(PartitionAccount account, @PathVariable int page,
+    public Table getTableData(PartitionAccount account, WebRequest request, @PathVariable int page,
                             @RequestParam(value = "per_page", required = false) Integer per_page,
                             @RequestParam(value = "time_zone", required = false) String time_zone,
                             @RequestParam(value = "start_date", required = false) String start_date,
                             @RequestParam(value = "end_date", required = false) String end_date,
                             @RequestParam(value = "start", required = false) Long start,
-                            @RequestParam(value = "end", required = false) Long end) {
+                            @RequestParam(value = "end", required = false) Long end,
+                            @RequestParam(value = "lesson_ids", defaultValue = "true") boolean lesson_ids) {
         page = validatePage(page);
         per_page = validatePerPage(per_page);
         TimeResolver timeResolver = validateTime(time_zone, start_date, end_date, start, end);
@@ -69,7 +80,14 @@ public class SplitLessonTableController extends CommonControllerLogic {
         LOG.info("User {} is reading lesson table data, from {} to {}, page {}, with {} entries per page",
                 account, start, end, page, per_page);
 
-        Table lessonTable = splitLessonTableQueryService.getLessonTable(page, per_page, start, end, account.partitionId());
+        if (request.checkNotModified(tableVersions.etag(account.partitionId(), "data", page, per_page, start, end,
+                lesson_ids))) {
+            LOG.info("Table has not changed since the last time it was read");
+            return null;
+        }
+
+        Table lessonTable = splitLessonTableQueryService.getLessonTable(page, per_page, start, end, lesson_ids,
+                account.partitionId());
         LOG.info("Table successfully read; please enable DEBUG logging to see its contents");
         LOG.debug("Table contents: {}", lessonTable);
 
@@ -78,7 +96,7 @@ public class SplitLessonTableController extends CommonControllerLogic {
 
     @RequestMapping(value = "/report/{source:teacher|customer}", method = GET, produces = APPLICATION_JSON_UTF8)
     @ResponseBody
-    public List<TableReport> getReportData(PartitionAccount account, @PathVariable String source,
+    public List<TableReport> getReportData(PartitionAccount account, WebRequest request, @PathVariable String source,
                              @RequestParam(value = "id") String id) {
         Validate.string().not().isNull().not().isBlank().isCommaSeparatedListOfIntegers().ifInvalid(id)
                 .thenThrow(() -> new InvalidRequestException("Parameter id must be a comma separated list of " +
@@ -86,6 +104,11 @@ public class SplitLessonTableController extends CommonControllerLogic {
 
         LOG.info("User {} is reading reports for {}s with ids: {}", account, source, id);
 
+        if (request.checkNotModified(tableVersions.etag(account.partitionId(), "report", source, id, today()))) {
+            LOG.info("Reports have not changed since the last time they were read");
+            return null;
+        }
+
         List<Integer> ids = Stream.of(id.split(",")).map(Integer::parseInt).collect(Collectors.toList());
         List<TableReport> reports;
         switch (source) {
@@ -104,6 +127,44 @@ public class SplitLessonTableController extends CommonControllerLogic {
         return reports;
     }
 
+    @RequestMapping(value = "/report/{source:teacher|customer}/series", method = GET, produces = APPLICATION_JSON_UTF8)
+    @ResponseBody
+    public List<TableReport> getReportSeriesData(PartitionAccount account, WebRequest request, @PathVariable String source,
+                                                 @RequestParam(value = "id") String id,
+                                                 @RequestParam(value = "periods", required = false) Integer periods,
+                                                 @RequestParam(value = "start_date", required = false) String start_date,
+                                                 @RequestParam(value = "end_date", required = false) String end_date) {
+        Validate.string().not().isNull().not().isBlank().isCommaSeparatedListOfIntegers().ifInvalid(id)
+                .thenThrow(() -> new InvalidRequestException("Parameter id must be a comma separated list of " +
+                        "positive integers, not: " + id));
+        ReportPeriods reportPeriods = validatePeriods(periods, start_date, end_date);
+
+        LOG.info("User {} is reading report series for {}s with ids: {}, for {}", account, source, id, reportPeriods);
+
+        if (request.checkNotModified(tableVersions.etag(account.partitionId(), "series", source, id,
+                periods, start_date, end_date, today()))) {
+            LOG.info("Reports have not changed since the last time they were read");
+            return null;
+        }
+
+        List<Integer> ids = Stream.of(id.split(",")).map(Integer::parseInt).collect(Collectors.toList());
+        List<TableReport> reports;
+        switch (source) {
+            case "teacher":
+                reports = splitLessonTableQueryService.teacherReportSeries(ids, reportPeriods, account.partitionId());
+                break;
+            case "customer":
+                reports = splitLessonTableQueryService.customerReportSeries(ids, reportPeriods, account.partitionId());
+                break;
+            default:
+                throw new AssertionError("The regex filter should have filtered out invalid names");
+        }
+        LOG.info("Report series successfully done; please enable DEBUG logging to see contents");
+        LOG.debug("Reports: {}", reports);
+
+        return reports;
+    }
+
     @RequestMapping(value = "/data/full", method = GET, produces = APPLICATION_JSON_UTF8)
     @ResponseBody
     public FullTable getTableDataFull(PartitionAccount account,
@@ -112,8 +173,10 @@ public class SplitLessonTableController extends CommonControllerLogic {
                                   @RequestParam(value = "start_date", required = false) String start_date,
                                   @RequestParam(value = "end_date", required = false) String end_date,
                                   @RequestParam(value = "start", required = false) Long start,
-                                  @RequestParam(value = "end", required = false) Long end) {
-        return getTableDataFull(account, DEFAULT_HOME_PAGE, per_page, time_zone, start_date, end_date, start, end);
+                                  @RequestParam(value = "end", required = false) Long end,
+                                  @RequestParam(value = "lesson_ids", defaultValue = "true") boolean lesson_ids) {
+        return getTableDataFull(account, DEFAULT_HOME_PAGE, per_page, time_zone, start_date, end_date, start, end,
+                lesson_ids);
     }
 
     @RequestMapping(value = "/data/full/{page:[\\d]+}", method = GET, produces = APPLICATION_JSON_UTF8)
@@ -124,7 +187,8 @@ public class SplitLessonTableController extends CommonControllerLogic {
                                   @RequestParam(value = "start_date", required = false) String start_date,
                                   @RequestParam(value = "end_date", required = false) String end_date,
                                   @RequestParam(value = "start", required = false) Long start,
-                                  @RequestParam(value = "end", required = false) Long end) {
+                                  @RequestParam(value = "end", required = false) Long end,
+                                  @RequestParam(value = "lesson_ids", defaultValue = "true") boolean lesson_ids) {
         page = validatePage(page);
         per_page = validatePerPage(per_page);
         TimeResolver timeResolver = validateTime(time_zone, start_date, end_date, start, end);
@@ -133,20 +197,68 @@ public class SplitLessonTableController extends CommonControllerLogic {
         LOG.info("User {} is reading lesson table data, from {} to {}, page {}, with {} entries per page",
                 account, start, end, page, per_page);
 
-        FullTable lessonTable = splitLessonTableQueryService.getLessonTableFull(page, per_page, start, end, account.partitionId());
+        FullTable lessonTable = splitLessonTableQueryService.getLessonTableFull(page, per_page, start, end, lesson_ids,
+                account.partitionId());
         LOG.info("Table successfully read; please enable DEBUG logging to see its contents");
         LOG.debug("Table contents: {}", lessonTable);
 
         return lessonTable;
     }
 
+    @RequestMapping(value = "/data/full/timings", method = GET, produces = APPLICATION_JSON_UTF8)
+    @ResponseBody
+    public Map<String, StageTiming> getTableDataFullTimings(PartitionAccount account) {
+        LOG.info("User {} is reading lesson table stage timings", account);
+
+        Map<String, StageTiming> timings = splitLessonTableQueryService.stageTimings();
+        LOG.info("Timings read: {}", timings);
+
+        return timings;
+    }
+
+    @RequestMapping(value = "/customers/cache", method = GET, produces = APPLICATION_JSON_UTF8)
+    @ResponseBody
+    public CacheCounters getCustomerCacheCounters(PartitionAccount account) {
+        LOG.info("User {} is reading lesson table customer cache counters", account);
+
+        CacheCounters counters = splitLessonTableQueryService.customerCacheCounters();
+        LOG.info("Counters read: {}", counters);
+
+        return counters;
+    }
+
+    @RequestMapping(value = "/data/full/export", method = GET, produces = APPLICATION_JSON_UTF8)
+    public void exportTableDataFull(PartitionAccount account, HttpServletResponse response,
+                                    @RequestParam(value = "time_zone", required = false) String time_zone,
+                                    @RequestParam(value = "start_date", required = false) String start_date,
+                                    @RequestParam(value = "end_date", required = false) String end_date,
+                                    @RequestParam(value = "start", required = false) Long start,
+                                    @RequestParam(value = "end", required = false) Long end,
+                                    @RequestParam(value = "lesson_ids", defaultValue = "true") boolean lesson_ids)
+            throws IOException {
+        TimeResolver timeResolver = validateTime(time_zone, start_date, end_date, start, end);
+        start = timeResolver.getStartTime();
+        end = timeResolver.getEndTime();
+        LOG.info("User {} is exporting lesson table data, from {} to {}", account, start, end);
+
+        response.setContentType(APPLICATION_JSON_UTF8);
+        try (FullTableWriter writer = FullTableWriter.to(response.getOutputStream(), objectMapper)) {
+            splitLessonTableQueryService.exportLessonTableFull(start, end, lesson_ids, account.partitionId(), writer);
+        }
+        LOG.info("Table successfully exported");
+    }
+
     // CONSTRUCTORS
 
     @Autowired
     public SplitLessonTableController(ValidTeacherController validTeacherController,
-                                      SplitLessonTableQueryService splitLessonTableQueryService) {
+                                      SplitLessonTableQueryService splitLessonTableQueryService,
+                                      ObjectMapper objectMapper,
+                                      TableVersions tableVersions) {
         this.validTeacherController = validTeacherController;
         this.splitLessonTableQueryService = splitLessonTableQueryService;
+        this.objectMapper = objectMapper;
+        this.tableVersions = tableVersions;
     }
 
     // PROTECTED
@@ -166,9 +278,57 @@ public class SplitLessonTableController extends CommonControllerLogic {
 
     private final ValidTeacherController validTeacherController;
     private final SplitLessonTableQueryService splitLessonTableQueryService;
+    private final ObjectMapper objectMapper;
+    private final TableVersions tableVersions;
+
+    /**
+     * Reports depend on the current date, because it decides which payment period is the current one; it must be a
+     * part of their ETag
+     */
+    private String today() {
+        return LocalDate.now(Time.defaultTimeZone()).toString();
+    }
+
+    /**
+     * Either the amount of periods, or both of the dates must be given; a range of dates is limited to the same
+     * amount of months as the amount of periods
+     */
+    private ReportPeriods validatePeriods(Integer periods, String start_date, String end_date) {
+        if (periods != null) {
+            if (start_date != null || end_date != null)
+                throw new InvalidRequestException("Either the amount of periods, or start_date and end_date can be " +
+                        "given, not both");
+
+            if (periods <= 0 || periods > MAX_PERIODS)
+                throw new InvalidRequestException("You can only request 1-" + MAX_PERIODS + " periods, not " + periods);
+
+            return ReportPeriods.last(periods);
+        }
+
+        if (start_date == null || end_date == null)
+            throw new InvalidRequestException("Either the amount of periods, or both start_date and end_date " +
+                    "must be given");
+
+        LocalDate firstDate;
+        LocalDate lastDate;
+        try {
+            firstDate = LocalDate.parse(start_date);
+            lastDate = LocalDate.parse(end_date);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Dates must be of format YYYY-MM-DD, not: " + start_date + ", " + end_date, e);
+        }
+        if (lastDate.isBefore(firstDate))
+            throw new InvalidRequestException("end_date cannot be before start_date");
+
+        if (firstDate.plusMonths(MAX_PERIODS).isBefore(lastDate))
+            throw new InvalidRequestException("You can only request up to " + MAX_PERIODS + " months of periods");
+
+        return ReportPeriods.between(firstDate, lastDate);
+    }
 
     private static final int DEFAULT_HOME_PAGE = 1;
     private static final Integer DEFAULT_PER_PAGE = 6;
+    private static final int MAX_PERIODS = 120;
 
     private static final Logger LOG = LoggerFactory.getLogger(SplitLessonTableController.class);
 
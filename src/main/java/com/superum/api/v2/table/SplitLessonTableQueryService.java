@@ -1,8 +1,11 @@
 package com.superum.api.v2.table;
 
+import com.superum.helper.CacheCounters;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Similar to OptimizedTableQueryService, however the method is split into multiple parts to allow better optimization
@@ -15,10 +18,12 @@ public interface SplitLessonTableQueryService {
      * @param per_page amount of teachers per page
      * @param startTime epoch milliseconds from which to start checking lessons for the table
      * @param endTime epoch milliseconds at which to stop checking lessons for the table
+     * @param withLessonIds false if lesson ids of the fields are not needed; they are left null, which avoids
+     *                      reading every lesson of the table
      * @param partitionId id of the partition of the caller
      * @return lesson table data for given parameters
      */
-    Table getLessonTable(int page, int per_page, long startTime, long endTime, int partitionId);
+    Table getLessonTable(int page, int per_page, long startTime, long endTime, boolean withLessonIds, int partitionId);
 
     /**
      * @return payment data for customers with certain ids
@@ -31,8 +36,50 @@ public interface SplitLessonTableQueryService {
     List<TableReport> teacherReport(List<Integer> teacherIds, int partitionId);
 
     /**
+     * @return payment data for customers with certain ids, for every given period; periods are resolved from the
+     * contract date of every customer
+     */
+    List<TableReport> customerReportSeries(List<Integer> customerIds, ReportPeriods periods, int partitionId);
+
+    /**
+     * @return payment data for teachers with certain ids, for every given period; periods are resolved from the
+     * payment day of every teacher
+     */
+    List<TableReport> teacherReportSeries(List<Integer> teacherIds, ReportPeriods periods, int partitionId);
+
+    /**
+     * <pre>
+     * Independent parts of the table are calculated concurrently; the time each of them took is accumulated, see
+     * stageTimings()
+     * </pre>
      * @return combination of methods getLessonTable, customerReport and teacherReport
      */
-    FullTable getLessonTableFull(int page, int per_page, long start, long end, int partitionId);
+    FullTable getLessonTableFull(int page, int per_page, long start, long end, boolean withLessonIds, int partitionId);
+
+    /**
+     * <pre>
+     * Writes the same data as getLessonTableFull, only for all teachers at once; teachers are walked in chunks, and
+     * every chunk is written as soon as it is calculated, so the memory used does not depend on the amount of teachers
+     *
+     * The writer is finished, but not closed
+     * </pre>
+     * @param startTime epoch milliseconds from which to start checking lessons for the table
+     * @param endTime epoch milliseconds at which to stop checking lessons for the table
+     * @param withLessonIds false if lesson ids of the fields are not needed, same as in getLessonTable
+     * @param partitionId id of the partition of the caller
+     * @throws IOException if writing failed
+     */
+    void exportLessonTableFull(long startTime, long endTime, boolean withLessonIds, int partitionId,
+                               FullTableWriter writer) throws IOException;
+
+    /**
+     * @return accumulated timings of every stage of getLessonTableFull, by stage name
+     */
+    Map<String, StageTiming> stageTimings();
+
+    /**
+     * @return hit/miss/eviction counters of the customer snapshots, which are shared by all table pages
+     */
+    CacheCounters customerCacheCounters();
 
 }
@@ -5,23 +5,30 @@ import com.superum.api.v2.customer.ValidCustomerDTO;
 import com.superum.api.v2.teacher.FullTeacherDTO;
 import com.superum.api.v2.teacher.TeacherNotFoundException;
 import com.superum.api.v2.teacher.ValidTeacherQueryService;
+import com.superum.helper.CacheCounters;
+import com.superum.helper.Page;
 import com.superum.helper.TimeResolver;
 import org.jooq.lambda.Seq;
+import org.jooq.lambda.Unchecked;
 import org.jooq.lambda.tuple.Tuple2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static timestar_v2.Tables.GROUP_OF_STUDENTS;
+import static timestar_v2.Tables.LESSON;
 
 @Service
 public class SplitLessonTableQueryServiceImpl implements SplitLessonTableQueryService {
 
     @Override
-    public Table getLessonTable(int page, int amount, long startTime, long endTime, int partitionId) {
-        List<FullTeacherDTO> teachers = validTeacherQueryService.readAll(page, amount, partitionId);
+    public Table getLessonTable(int page, int amount, long startTime, long endTime, boolean withLessonIds,
+                                int partitionId) {
+        List<FullTeacherDTO> teachers = validTeacherQueryService.readAll(Page.of(page, amount), partitionId);
         if (teachers.isEmpty())
             return Table.empty();
 
@@ -29,7 +36,8 @@ public class SplitLessonTableQueryServiceImpl implements SplitLessonTableQuerySe
         if (customers.isEmpty())
             return Table.empty();
 
-        List<TableField> fields = tableDataFetcher.getFieldData(teachers, startTime, endTime, partitionId);
+        List<TableField> fields = tableDataFetcher.getFieldData(teachers, startTime, endTime, withLessonIds,
+                partitionId);
         return new Table(teachers, customers, fields);
     }
 
@@ -41,22 +49,113 @@ public class SplitLessonTableQueryServiceImpl implements SplitLessonTableQuerySe
 
     @Override
     public List<TableReport> teacherReport(List<Integer> teacherIds, int partitionId) {
-        return tableReportFetcher.reportsFor(GROUP_OF_STUDENTS.TEACHER_ID, teacherIds, partitionId,
+        return tableReportFetcher.reportsFor(LESSON.TEACHER_ID, teacherIds, partitionId,
                 tableReportFetcher::fromPaymentDates, TeacherNotFoundException::new);
     }
 
     @Override
-    public FullTable getLessonTableFull(int page, int amount, long startTime, long endTime, int partitionId) {
-        List<FullTeacherDTO> teachers = validTeacherQueryService.readAll(page, amount, partitionId);
+    public List<TableReport> customerReportSeries(List<Integer> customerIds, ReportPeriods periods, int partitionId) {
+        return tableReportFetcher.seriesFor(GROUP_OF_STUDENTS.CUSTOMER_ID, customerIds, partitionId, periods,
+                tableReportFetcher::paymentDaysFromStartDates, CustomerNotFoundException::new);
+    }
+
+    @Override
+    public List<TableReport> teacherReportSeries(List<Integer> teacherIds, ReportPeriods periods, int partitionId) {
+        return tableReportFetcher.seriesFor(LESSON.TEACHER_ID, teacherIds, partitionId, periods,
+                tableReportFetcher::paymentDaysFromPaymentDates, TeacherNotFoundException::new);
+    }
+
+    @Override
+    public FullTable getLessonTableFull(int page, int amount, long startTime, long endTime, boolean withLessonIds,
+                                        int partitionId) {
+        return tableExecutor.time(FULL_TABLE_STAGE,
+                () -> getLessonTableFullConcurrently(page, amount, startTime, endTime, withLessonIds, partitionId));
+    }
+
+    @Override
+    public void exportLessonTableFull(long startTime, long endTime, boolean withLessonIds, int partitionId,
+                                      FullTableWriter writer) throws IOException {
+        List<ValidCustomerDTO> customers = customerFetcher.getAllCustomers(partitionId);
+        if (customers.isEmpty()) {
+            writer.finish();
+            return;
+        }
+
+        writer.writeCustomers(customers, customerReports(customers, partitionId));
+        validTeacherQueryService.readAllInChunks(EXPORT_CHUNK_SIZE, partitionId, Unchecked.consumer(teachers -> {
+            List<TableField> fields = tableDataFetcher.getFieldData(teachers, startTime, endTime, withLessonIds,
+                    partitionId);
+            writer.writeChunk(teachers, fields, teacherReports(teachers, partitionId));
+        }));
+        writer.finish();
+    }
+
+    @Override
+    public Map<String, StageTiming> stageTimings() {
+        return tableExecutor.timings();
+    }
+
+    @Override
+    public CacheCounters customerCacheCounters() {
+        return customerFetcher.cacheCounters();
+    }
+
+    // CONSTRUCTORS
+
+    @Autowired
+    public SplitLessonTableQueryServiceImpl(ValidTeacherQueryService validTeacherQueryService,
+                                            CustomerFetcher customerFetcher, TableDataFetcher tableDataFetcher,
+                                            TableReportFetcher tableReportFetcher, TableExecutor tableExecutor) {
+        this.customerFetcher = customerFetcher;
+        this.tableDataFetcher = tableDataFetcher;
+        this.tableReportFetcher = tableReportFetcher;
+        this.validTeacherQueryService = validTeacherQueryService;
+        this.tableExecutor = tableExecutor;
+    }
+
+    // PRIVATE
+
+    private final ValidTeacherQueryService validTeacherQueryService;
+    private final CustomerFetcher customerFetcher;
+    private final TableDataFetcher tableDataFetcher;
+    private final TableReportFetcher tableReportFetcher;
+    private final TableExecutor tableExecutor;
+
+    /**
+     * <pre>
+     * Teachers and customers do not depend on each other, so they are read concurrently; fields and teacher reports
+     * only depend on teachers, whereas customer reports only depend on customers, so each of them is started as
+     * soon as its dependency is available
+     * </pre>
+     */
+    private FullTable getLessonTableFullConcurrently(int page, int amount, long startTime, long endTime,
+                                                     boolean withLessonIds, int partitionId) {
+        CompletableFuture<List<FullTeacherDTO>> teachersStage = tableExecutor.supply(TEACHERS_STAGE,
+                () -> validTeacherQueryService.readAll(Page.of(page, amount), partitionId));
+        CompletableFuture<List<ValidCustomerDTO>> customersStage = tableExecutor.supply(CUSTOMERS_STAGE,
+                () -> customerFetcher.getAllCustomers(partitionId));
+
+        List<FullTeacherDTO> teachers = TableExecutor.join(teachersStage);
         if (teachers.isEmpty())
             return FullTable.empty();
 
-        List<ValidCustomerDTO> customers = customerFetcher.getAllCustomers(partitionId);
+        CompletableFuture<List<TableField>> fieldsStage = tableExecutor.supply(FIELDS_STAGE,
+                () -> tableDataFetcher.getFieldData(teachers, startTime, endTime, withLessonIds, partitionId));
+        CompletableFuture<List<TableReport>> teacherReportsStage = tableExecutor.supply(TEACHER_REPORTS_STAGE,
+                () -> teacherReports(teachers, partitionId));
+
+        List<ValidCustomerDTO> customers = TableExecutor.join(customersStage);
         if (customers.isEmpty())
             return FullTable.empty();
 
-        List<TableField> fields = tableDataFetcher.getFieldData(teachers, startTime, endTime, partitionId);
+        CompletableFuture<List<TableReport>> customerReportsStage = tableExecutor.supply(CUSTOMER_REPORTS_STAGE,
+                () -> customerReports(customers, partitionId));
 
+        return new FullTable(teachers, customers, TableExecutor.join(fieldsStage),
+                TableExecutor.join(teacherReportsStage), TableExecutor.join(customerReportsStage));
+    }
+
+    private List<TableReport> teacherReports(List<FullTeacherDTO> teachers, int partitionId) {
         List<Integer> teacherIds = Seq.seq(teachers).map(FullTeacherDTO::getId).toList();
         Map<Integer, TimeResolver> timeResolversForTeachers =
                 Seq.zip(teacherIds.stream(),
@@ -64,9 +163,11 @@ public class SplitLessonTableQueryServiceImpl implements SplitLessonTableQuerySe
                                 .map(FullTeacherDTO::getPaymentDay)
                                 .map(paymentDay -> paymentDay == null ? null : TimeResolver.from(paymentDay)))
                         .toMap(Tuple2::v1, Tuple2::v2);
-        List<TableReport> teacherReports = tableReportFetcher.reportsFor(GROUP_OF_STUDENTS.TEACHER_ID,
+        return tableReportFetcher.reportsFor(LESSON.TEACHER_ID,
                 teacherIds, partitionId, timeResolversForTeachers);
+    }
 
+    private List<TableReport> customerReports(List<ValidCustomerDTO> customers, int partitionId) {
         List<Integer> customerIds = Seq.seq(customers)
                 .filter(c -> c != null)
                 .map(ValidCustomerDTO::getId).toList();
@@ -77,29 +178,20 @@ public class SplitLessonTableQueryServiceImpl implements SplitLessonTableQuerySe
                                 .map(ValidCustomerDTO::getStartDate)
                                 .map(contractDate -> contractDate == null ? null : TimeResolver.from(contractDate)))
                         .toMap(Tuple2::v1, Tuple2::v2);
-        List<TableReport> customerReports = tableReportFetcher.reportsFor(GROUP_OF_STUDENTS.CUSTOMER_ID,
+        return tableReportFetcher.reportsFor(GROUP_OF_STUDENTS.CUSTOMER_ID,
                 customerIds, partitionId, timeResolversForCustomers);
-
-        return new FullTable(teachers, customers, fields, teacherReports, customerReports);
     }
 
-    // CONSTRUCTORS
-
-    @Autowired
-    public SplitLessonTableQueryServiceImpl(ValidTeacherQueryService validTeacherQueryService,
-                                            CustomerFetcher customerFetcher, TableDataFetcher tableDataFetcher,
-                                            TableReportFetcher tableReportFetcher) {
-        this.customerFetcher = customerFetcher;
-        this.tableDataFetcher = tableDataFetcher;
-        this.tableReportFetcher = tableReportFetcher;
-        this.validTeacherQueryService = validTeacherQueryService;
-    }
-
-    // PRIVATE
-
-    private final ValidTeacherQueryService validTeacherQueryService;
-    private final CustomerFetcher customerFetcher;
-    private final TableDataFetcher tableDataFetcher;
-    private final TableReportFetcher tableReportFetcher;
+    private static final String FULL_TABLE_STAGE = "fullTable";
+    private static final String TEACHERS_STAGE = "fullTable.teachers";
+    private static final String CUSTOMERS_STAGE = "fullTable.customers";
+    private static final String FIELDS_STAGE = "fullTable.fields";
+    private static final String TEACHER_REPORTS_STAGE = "fullTable.teacherReports";
+    private static final String CUSTOMER_REPORTS_STAGE = "fullTable.customerReports";
+
+    /**
+     * Amount of teachers (and thus their fields and reports) held in memory at once during export
+     */
+    private static final int EXPORT_CHUNK_SIZE = 50;
 
 }
@@ -0,0 +1,110 @@
+package com.superum.api.v2.table;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.MoreObjects;
+
+/**
+ * <pre>
+ * Data Transport Object for the timing of a single lesson table calculation stage
+ *
+ * This object is responsible for serialization; timings are a read-only construct, therefore de-serialization
+ * logic is not necessary
+ *
+ * When returning an instance of StageTiming with JSON, these fields will be present:
+ *      FIELD_NAME          : FIELD_DESCRIPTION
+ *      count               : amount of times this stage was executed since startup
+ *      totalMillis         : total time spent in this stage
+ *      averageMillis       : average time spent in this stage
+ *      maxMillis           : longest time spent in this stage
+ *      lastMillis          : time spent in this stage during the last execution
+ *
+ * Example of JSON to expect:
+ * {
+ *      "count": 12,
+ *      "totalMillis": 240,
+ *      "averageMillis": 20,
+ *      "maxMillis": 51,
+ *      "lastMillis": 14
+ * }
+ * </pre>
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.ALWAYS)
+public final class StageTiming {
+
+    @JsonProperty(COUNT_FIELD)
+    public long getCount() {
+        return count;
+    }
+
+    @JsonProperty(TOTAL_FIELD)
+    public long getTotalMillis() {
+        return totalMillis;
+    }
+
+    @JsonProperty(AVERAGE_FIELD)
+    public long getAverageMillis() {
+        return count == 0 ? 0 : totalMillis / count;
+    }
+
+    @JsonProperty(MAX_FIELD)
+    public long getMaxMillis() {
+        return maxMillis;
+    }
+
+    @JsonProperty(LAST_FIELD)
+    public long getLastMillis() {
+        return lastMillis;
+    }
+
+    /**
+     * @return timing which also includes another execution of the stage
+     */
+    public StageTiming record(long millis) {
+        return new StageTiming(count + 1, totalMillis + millis, Math.max(maxMillis, millis), millis);
+    }
+
+    // CONSTRUCTORS
+
+    public static StageTiming first(long millis) {
+        return new StageTiming(1, millis, millis, millis);
+    }
+
+    private StageTiming(long count, long totalMillis, long maxMillis, long lastMillis) {
+        this.count = count;
+        this.totalMillis = totalMillis;
+        this.maxMillis = maxMillis;
+        this.lastMillis = lastMillis;
+    }
+
+    // PRIVATE
+
+    private final long count;
+    private final long totalMillis;
+    private final long maxMillis;
+    private final long lastMillis;
+
+    // FIELD NAMES
+
+    private static final String COUNT_FIELD = "count";
+    private static final String TOTAL_FIELD = "totalMillis";
+    private static final String AVERAGE_FIELD = "averageMillis";
+    private static final String MAX_FIELD = "maxMillis";
+    private static final String LAST_FIELD = "lastMillis";
+
+    // OBJECT OVERRIDES
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper("StageTiming")
+                .add(COUNT_FIELD, count)
+                .add(TOTAL_FIELD, totalMillis)
+                .add(AVERAGE_FIELD, getAverageMillis())
+                .add(MAX_FIELD, maxMillis)
+                .add(LAST_FIELD, lastMillis)
+                .toString();
+    }
+
+}
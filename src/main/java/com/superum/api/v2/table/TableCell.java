@@ -0,0 +1,78 @@
+package com.superum.api.v2.table;
+
+import com.google.common.base.MoreObjects;
+import org.jooq.lambda.tuple.Tuple;
+import org.jooq.lambda.tuple.Tuple2;
+
+import java.math.BigDecimal;
+
+/**
+ * <pre>
+ * Intermediate form of TableField, used when the sums of the field are assembled from multiple parts, i.e. daily
+ * rollups and raw lessons at the edges of the requested time range
+ *
+ * The cost is kept padded (see PaddedSumField), so merging cells loses no accuracy; it is only divided once, when
+ * the final TableField is made; the padded cost is accumulated as PaddedSum, so merging does not create a new
+ * BigDecimal every time
+ *
+ * Merging changes the cell it is called on, rather than creating a new one
+ * </pre>
+ */
+public final class TableCell {
+
+    /**
+     * @return (customerId, teacherId) pair; cells with equal keys belong to the same TableField
+     */
+    public Tuple2<Integer, Integer> key() {
+        return Tuple.tuple(customerId, teacherId);
+    }
+
+    /**
+     * @return this cell, which now also contains the duration and cost of the other cell; keys are assumed to be equal
+     */
+    public TableCell merge(TableCell other) {
+        duration += other.duration;
+        paddedCost.add(other.paddedCost);
+        return this;
+    }
+
+    /**
+     * @return TableField for this cell, with the padding removed from cost
+     */
+    public TableField toField(long[] lessonIds) {
+        return new TableField(customerId, teacherId, lessonIds, duration, paddedCost.unpadded());
+    }
+
+    // CONSTRUCTORS
+
+    public static TableCell valueOf(Integer customerId, int teacherId, int duration, BigDecimal paddedCost) {
+        return new TableCell(customerId, teacherId, duration, PaddedSum.of(paddedCost));
+    }
+
+    private TableCell(Integer customerId, int teacherId, int duration, PaddedSum paddedCost) {
+        this.customerId = customerId;
+        this.teacherId = teacherId;
+        this.duration = duration;
+        this.paddedCost = paddedCost;
+    }
+
+    // PRIVATE
+
+    private final Integer customerId;
+    private final int teacherId;
+    private int duration;
+    private final PaddedSum paddedCost;
+
+    // OBJECT OVERRIDES
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper("TableCell")
+                .add("customerId", customerId)
+                .add("teacherId", teacherId)
+                .add("duration", duration)
+                .add("paddedCost", paddedCost.padded())
+                .toString();
+    }
+
+}
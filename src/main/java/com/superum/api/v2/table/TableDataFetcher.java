@@ -3,78 +3,156 @@ package com.superum.api.v2.table;
 import com.superum.api.v2.teacher.FullTeacherDTO;
 import org.jooq.*;
 import org.jooq.impl.DSL;
+import org.jooq.lambda.tuple.Tuple;
+import org.jooq.lambda.tuple.Tuple2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
-import static eu.goodlike.misc.Constants.MYSQL_GROUP_CONCAT_SEPARATOR;
-import static org.jooq.impl.DSL.groupConcat;
+import static com.superum.api.v2.table.TableRollup.DAY_MILLIS;
 import static org.jooq.impl.DSL.sum;
 import static timestar_v2.Keys.LESSON_IBFK_1;
 import static timestar_v2.Keys.LESSON_IBFK_2;
 import static timestar_v2.Tables.*;
 
 @Repository
+@Transactional(readOnly = true)
 public class TableDataFetcher {
 
     /**
+     * <pre>
+     * Sums are assembled from daily rollups, with only the partial days at the edges of the range read from lessons
+     *
+     * Lesson ids can only be found by reading every lesson of the range, so they are only read if requested; they
+     * are read as ordered rows, so there is no limit to how many of them a single field can have
+     * </pre>
+     * @param withLessonIds false if lesson ids are not needed; they are left null in every field
      * @return the field data (customerId, teacherId, lesson ids for both of them, the duration of those lessons
      * and cost of those lessons); the cost must consider whether the group uses teacher's hourly or academic wage
      */
-    public List<TableField> getFieldData(List<FullTeacherDTO> teachers, long start, long end, int partitionId) {
-        return select(fullCondition(teachers, start, end, partitionId))
-                .fetch()
-                .map(this::toField);
+    public List<TableField> getFieldData(List<FullTeacherDTO> teachers, long start, long end, boolean withLessonIds,
+                                         int partitionId) {
+        List<Integer> teacherIds = teachersWithWages(teachers);
+        if (teacherIds.isEmpty())
+            return Collections.emptyList();
+
+        Map<Tuple2<Integer, Integer>, TableCell> cells = new LinkedHashMap<>();
+        long firstFullDay = TableRollup.dayOf(start) == start ? start : TableRollup.dayOf(start) + DAY_MILLIS;
+        long endOfFullDays = end == Long.MAX_VALUE ? TableRollup.dayOf(end) : TableRollup.dayOf(end + 1);
+        if (firstFullDay >= endOfFullDays)
+            mergeInto(cells, rawCells(teacherIds, start, end, partitionId));
+        else {
+            mergeInto(cells, tableRollup.cellsFor(teacherIds, firstFullDay, endOfFullDays, partitionId));
+
+            if (start < firstFullDay)
+                mergeInto(cells, rawCells(teacherIds, start, firstFullDay - 1, partitionId));
+
+            if (endOfFullDays <= end)
+                mergeInto(cells, rawCells(teacherIds, endOfFullDays, end, partitionId));
+        }
+        if (cells.isEmpty())
+            return Collections.emptyList();
+
+        if (!withLessonIds)
+            return cells.values().stream()
+                    .map(cell -> cell.toField(null))
+                    .collect(Collectors.toList());
+
+        Map<Tuple2<Integer, Integer>, long[]> lessonIds = lessonIds(fullCondition(teacherIds, start, end, partitionId));
+        return cells.values().stream()
+                .map(cell -> cell.toField(lessonIds.getOrDefault(cell.key(), NO_LESSONS)))
+                .collect(Collectors.toList());
     }
 
     // CONSTRUCTORS
 
     @Autowired
-    public TableDataFetcher(DSLContext sql, PaddedSumField paddedSumField) {
+    public TableDataFetcher(DSLContext sql, PaddedSumField paddedSumField, TableRollup tableRollup) {
         this.sql = sql;
         this.paddedSumField = paddedSumField;
+        this.tableRollup = tableRollup;
     }
 
     // PRIVATE
 
     private final DSLContext sql;
     private final PaddedSumField paddedSumField;
+    private final TableRollup tableRollup;
+
+    private void mergeInto(Map<Tuple2<Integer, Integer>, TableCell> cells, List<TableCell> newCells) {
+        for (TableCell cell : newCells)
+            cells.merge(cell.key(), cell, TableCell::merge);
+    }
+
+    /**
+     * @return cells for lessons which are read directly, rather than from the rollup
+     */
+    private List<TableCell> rawCells(List<Integer> teacherIds, long start, long end, int partitionId) {
+        return select(fullCondition(teacherIds, start, end, partitionId))
+                .fetch()
+                .map(record -> TableCell.valueOf(
+                        record.getValue(GROUP_OF_STUDENTS.CUSTOMER_ID),
+                        record.getValue(LESSON.TEACHER_ID),
+                        record.getValue(DURATION_FIELD, BigDecimal.class).intValueExact(),
+                        paddedSumField.paddedValueForRecord(record)));
+    }
 
     /**
-     * @return the SQL records representing a TableField; the condition is usually some form of fullCondition()
+     * @return the SQL records representing a TableCell; the condition is usually some form of fullCondition()
      */
-    private SelectHavingStep<Record5<Integer, Integer, String, BigDecimal, BigDecimal>> select(Condition condition) {
-        return sql.select(GROUP_OF_STUDENTS.CUSTOMER_ID, GROUP_OF_STUDENTS.TEACHER_ID,
-                groupConcat(LESSON.ID).as(LESSON_IDS_FIELD),
+    private SelectHavingStep<Record4<Integer, Integer, BigDecimal, BigDecimal>> select(Condition condition) {
+        return sql.select(GROUP_OF_STUDENTS.CUSTOMER_ID, LESSON.TEACHER_ID,
                 sum(LESSON.DURATION_IN_MINUTES).as(DURATION_FIELD),
                 paddedSumField.field())
                 .from(LESSON)
                 .join(TEACHER).onKey(LESSON_IBFK_1)
                 .join(GROUP_OF_STUDENTS).onKey(LESSON_IBFK_2)
                 .where(condition)
-                .groupBy(GROUP_OF_STUDENTS.CUSTOMER_ID, GROUP_OF_STUDENTS.TEACHER_ID);
+                .groupBy(GROUP_OF_STUDENTS.CUSTOMER_ID, LESSON.TEACHER_ID);
+    }
+
+    /**
+     * <pre>
+     * Reads (customerId, teacherId, lessonId) rows, ordered so that rows of the same field are next to each other,
+     * and folds the lesson ids of every field into an array as the rows arrive; the ids in every array are sorted
+     * </pre>
+     * @return lesson ids for every (customerId, teacherId) pair; the condition is usually some form of fullCondition()
+     */
+    private Map<Tuple2<Integer, Integer>, long[]> lessonIds(Condition condition) {
+        LessonIdFolder folder = new LessonIdFolder();
+        sql.select(GROUP_OF_STUDENTS.CUSTOMER_ID, LESSON.TEACHER_ID, LESSON.ID)
+                .from(LESSON)
+                .join(TEACHER).onKey(LESSON_IBFK_1)
+                .join(GROUP_OF_STUDENTS).onKey(LESSON_IBFK_2)
+                .where(condition)
+                .orderBy(GROUP_OF_STUDENTS.CUSTOMER_ID, LESSON.TEACHER_ID, LESSON.ID)
+                .fetchInto(folder::add);
+        return folder.finish();
+    }
+
+    /**
+     * @return ids of teachers which have at least one wage set; lessons of other teachers have no cost, so they
+     * never show up in the table
+     */
+    private List<Integer> teachersWithWages(List<FullTeacherDTO> teachers) {
+        return teachers.stream()
+                .filter(teacher -> teacher.getAcademicWage() != null || teacher.getHourlyWage() != null)
+                .map(FullTeacherDTO::getId)
+                .collect(Collectors.toList());
     }
 
     /**
      * @return an SQL condition which gives: lessons in the correct partition; lessons that started between start and
      * end variables; only lessons that are assigned to the given list of teachers
-     * @throws AssertionError if teacher's list is empty; this method should NEVER be called if there are no
-     * teachers, because in that scenario the program can exit early.
      */
-    private Condition fullCondition(List<FullTeacherDTO> teachers, long start, long end, int partitionId) {
+    private Condition fullCondition(List<Integer> teacherIds, long start, long end, int partitionId) {
         Condition partitionCondition = LESSON.PARTITION_ID.eq(partitionId);
         Condition timeCondition = LESSON.TIME_OF_START.between(start, end);
-        Condition teacherCondition = teachers.stream()
-                .filter(teacher -> teacher.getAcademicWage() != null || teacher.getHourlyWage() != null)
-                .map(FullTeacherDTO::getId)
-                .map(GROUP_OF_STUDENTS.TEACHER_ID::eq)
-                .reduce(Condition::or)
-                .orElseThrow(() -> new AssertionError("If there were no teachers, this method would not " +
-                        "be called, because the caller method would exit early."));
+        Condition teacherCondition = LESSON.TEACHER_ID.in(teacherIds);
 
         return partitionCondition.and(timeCondition).and(teacherCondition)
                 .and(hourlyWageNotNull().or(academicWageNotNull()));
@@ -88,30 +166,45 @@ public class TableDataFetcher {
         return DSL.not(DSL.condition(GROUP_OF_STUDENTS.USE_HOURLY_WAGE)).and(TEACHER.ACADEMIC_WAGE.isNotNull());
     }
 
-    /**
-     * @return TableField from a Record returned by select(Condition)
-     */
-    private TableField toField(Record record) {
-        if (record == null)
-            return null;
-
-        Integer customerId = record.getValue(GROUP_OF_STUDENTS.CUSTOMER_ID);
-        int teacherId = record.getValue(GROUP_OF_STUDENTS.TEACHER_ID);
-
-        String ids = record.getValue(LESSON_IDS_FIELD, String.class);
-        List<Long> lessonIds = Stream.of(ids.split(MYSQL_GROUP_CONCAT_SEPARATOR))
-                .map(Long::parseLong)
-                .collect(Collectors.toList());
+    private static final String DURATION_FIELD = "duration";
 
-        BigDecimal durationSum = record.getValue(DURATION_FIELD, BigDecimal.class);
-        int duration = durationSum.intValueExact();
+    private static final long[] NO_LESSONS = new long[0];
 
-        BigDecimal cost = paddedSumField.valueForRecord(record);
+    /**
+     * Folds ordered (customerId, teacherId, lessonId) rows into an array of lesson ids for every pair
+     */
+    private static final class LessonIdFolder {
+
+        void add(Record3<Integer, Integer, Long> record) {
+            Tuple2<Integer, Integer> key = Tuple.tuple(record.value1(), record.value2());
+            if (!key.equals(currentKey)) {
+                flush();
+                currentKey = key;
+            }
+            if (size == ids.length)
+                ids = Arrays.copyOf(ids, ids.length * 2);
+            ids[size++] = record.value3();
+        }
+
+        Map<Tuple2<Integer, Integer>, long[]> finish() {
+            flush();
+            return lessonIds;
+        }
+
+        private final Map<Tuple2<Integer, Integer>, long[]> lessonIds = new HashMap<>();
+
+        private Tuple2<Integer, Integer> currentKey = null;
+        private long[] ids = new long[INITIAL_CAPACITY];
+        private int size = 0;
+
+        private void flush() {
+            if (currentKey != null)
+                lessonIds.put(currentKey, Arrays.copyOf(ids, size));
+            size = 0;
+        }
+
+        private static final int INITIAL_CAPACITY = 64;
 
-        return new TableField(customerId, teacherId, lessonIds, duration, cost);
     }
 
-    private static final String LESSON_IDS_FIELD = "lessonIds";
-    private static final String DURATION_FIELD = "duration";
-
 }
@@ -0,0 +1,151 @@
+package com.superum.api.v2.table;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * <pre>
+ * Executes independent stages of lesson table calculation concurrently
+ *
+ * The amount of threads is bounded by the size of the database connection pool, because every stage holds a
+ * connection while it runs; when all threads are busy and the queue is full, the stage is executed by the calling
+ * thread instead, so a burst of requests slows down rather than failing or queueing without bound
+ *
+ * Security context of the caller is propagated to the stages, so PartitionAccount resolves the same partition; request
+ * attributes are propagated as well, so that stages of a request which has written something read from the primary
+ *
+ * When the caller is in a transaction, stages are executed by the calling thread, because other threads would not
+ * be able to see the changes of that transaction
+ *
+ * Every stage is timed; the timings are accumulated for every stage name
+ * </pre>
+ */
+public final class TableExecutor {
+
+    /**
+     * @return future of the stage's result; the stage is timed under given name
+     */
+    public <T> CompletableFuture<T> supply(String stage, Supplier<T> supplier) {
+        Supplier<T> timedSupplier = () -> time(stage, supplier);
+        if (TransactionSynchronizationManager.isActualTransactionActive())
+            return inline(timedSupplier);
+
+        return CompletableFuture.supplyAsync(withCallerContext(timedSupplier), executorService);
+    }
+
+    /**
+     * @return result of a stage; if the stage failed with a RuntimeException, it is re-thrown as is, so that
+     * exception handlers treat it the same way as if it was thrown by the calling thread
+     */
+    public static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            if (e.getCause() instanceof Error)
+                throw (Error) e.getCause();
+            throw e;
+        }
+    }
+
+    /**
+     * Executes the stage on the calling thread, while still timing it
+     */
+    public <T> T time(String stage, Supplier<T> supplier) {
+        long start = System.nanoTime();
+        try {
+            return supplier.get();
+        } finally {
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            timings.merge(stage, StageTiming.first(millis), (timing, ignored) -> timing.record(millis));
+            LOG.debug("Lesson table stage {} took {} ms", stage, millis);
+        }
+    }
+
+    /**
+     * @return accumulated timings of every stage executed so far, sorted by stage name
+     */
+    public Map<String, StageTiming> timings() {
+        return new TreeMap<>(timings);
+    }
+
+    /**
+     * Stops accepting new stages; stages which are already running will finish
+     */
+    public void shutdown() {
+        executorService.shutdown();
+    }
+
+    // CONSTRUCTORS
+
+    /**
+     * @param connectionPoolSize maximum amount of connections in the database connection pool
+     */
+    public static TableExecutor forPool(int connectionPoolSize) {
+        // leave at least half of the pool for other requests
+        int threads = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), connectionPoolSize / 2));
+        return new TableExecutor(threads, threads * QUEUED_STAGES_PER_THREAD);
+    }
+
+    public TableExecutor(int threads, int queueSize) {
+        this.executorService = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                new ThreadFactoryBuilder().setNameFormat("lesson-table-%d").setDaemon(true).build(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.timings = new ConcurrentHashMap<>();
+    }
+
+    // PRIVATE
+
+    private final ExecutorService executorService;
+    private final ConcurrentMap<String, StageTiming> timings;
+
+    /**
+     * @return supplier which runs with the security context and request attributes of the calling thread, then
+     * restores the context of whichever thread ran it; restoring matters when the queue is full and the calling
+     * thread runs the stage itself
+     */
+    private <T> Supplier<T> withCallerContext(Supplier<T> supplier) {
+        SecurityContext callerContext = SecurityContextHolder.getContext();
+        RequestAttributes callerAttributes = RequestContextHolder.getRequestAttributes();
+        return () -> {
+            SecurityContext originalContext = SecurityContextHolder.getContext();
+            RequestAttributes originalAttributes = RequestContextHolder.getRequestAttributes();
+            SecurityContextHolder.setContext(callerContext);
+            RequestContextHolder.setRequestAttributes(callerAttributes);
+            try {
+                return supplier.get();
+            } finally {
+                SecurityContextHolder.setContext(originalContext);
+                RequestContextHolder.setRequestAttributes(originalAttributes);
+            }
+        };
+    }
+
+    private <T> CompletableFuture<T> inline(Supplier<T> supplier) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            future.complete(supplier.get());
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private static final int QUEUED_STAGES_PER_THREAD = 4;
+
+    private static final Logger LOG = LoggerFactory.getLogger(TableExecutor.class);
+
+}
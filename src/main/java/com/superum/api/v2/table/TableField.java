@@ -7,7 +7,7 @@ import com.google.common.base.MoreObjects;
 import eu.goodlike.misc.SpecialUtils;
 
 import java.math.BigDecimal;
-import java.util.List;
+import java.util.Arrays;
 import java.util.Objects;
 
 /**
@@ -21,7 +21,8 @@ import java.util.Objects;
  *      FIELD_NAME          : FIELD_DESCRIPTION
  *      customerId          : id of a customer
  *      teacherId           : id of a teacher
- *      count               : amount of lessons this teacher had for this customer
+ *      lessonIds           : ids of lessons this teacher had for this customer, in ascending order; null if they
+ *                            were not requested
  *      duration            : the total length of those lessons in minutes
  *      cost                : the total cost of those lessons (hourly/academic wage is considered in calculation)
  *
@@ -31,7 +32,7 @@ import java.util.Objects;
  * {
  *      "customerId": 1,
  *      "teacherId": 1,
- *      "count": 5,
+ *      "lessonIds": [1, 2, 3, 4, 5],
  *      "duration": 225,
  *      "cost": 150.2597
  * }
@@ -52,7 +53,7 @@ public class TableField {
     }
 
     @JsonProperty(LESSON_IDS_FIELD)
-    public List<Long> getLessonIds() {
+    public long[] getLessonIds() {
         return lessonIds;
     }
 
@@ -70,7 +71,7 @@ public class TableField {
 
     public TableField(@JsonProperty(CUSTOMER_ID_FIELD) Integer customerId,
                       @JsonProperty(TEACHER_ID_FIELD) int teacherId,
-                      @JsonProperty(LESSON_IDS_FIELD) List<Long> lessonIds,
+                      @JsonProperty(LESSON_IDS_FIELD) long[] lessonIds,
                       @JsonProperty(DURATION_FIELD) int duration,
                       @JsonProperty(COST_FIELD) BigDecimal cost) {
         this.customerId = customerId;
@@ -84,7 +85,7 @@ public class TableField {
 
     private final Integer customerId;
     private final int teacherId;
-    private final List<Long> lessonIds;
+    private final long[] lessonIds;
     private final int duration;
     private final BigDecimal cost;
 
@@ -103,7 +104,7 @@ public class TableField {
         return MoreObjects.toStringHelper("TableField")
                 .add(CUSTOMER_ID_FIELD, customerId)
                 .add(TEACHER_ID_FIELD, teacherId)
-                .add(LESSON_IDS_FIELD, lessonIds)
+                .add(LESSON_IDS_FIELD, Arrays.toString(lessonIds))
                 .add(DURATION_FIELD, duration)
                 .add(COST_FIELD, cost)
                 .toString();
@@ -117,13 +118,13 @@ public class TableField {
         return Objects.equals(teacherId, that.teacherId) &&
                 Objects.equals(duration, that.duration) &&
                 Objects.equals(customerId, that.customerId) &&
-                Objects.equals(lessonIds, that.lessonIds) &&
+                Arrays.equals(lessonIds, that.lessonIds) &&
                 SpecialUtils.equalsJavaMathBigDecimal(cost, that.cost);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(customerId, teacherId, lessonIds, duration, cost == null ? 0 : cost.doubleValue());
+        return Objects.hash(customerId, teacherId, Arrays.hashCode(lessonIds), duration, cost == null ? 0 : cost.doubleValue());
     }
 
 }
@@ -1,18 +1,21 @@
 package com.superum.api.v2.table;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.superum.helper.TimeResolver;
 import eu.goodlike.libraries.joda.time.Time;
 import org.joda.time.LocalDate;
 import org.jooq.*;
+import org.jooq.impl.DSL;
 import org.jooq.lambda.Seq;
+import org.jooq.lambda.tuple.Tuple;
+import org.jooq.lambda.tuple.Tuple2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -23,6 +26,7 @@ import static timestar_v2.Keys.LESSON_IBFK_2;
 import static timestar_v2.Tables.*;
 
 @Repository
+@Transactional(readOnly = true)
 public class TableReportFetcher {
 
     /**
@@ -46,25 +50,63 @@ public class TableReportFetcher {
      */
     public List<TableReport> reportsFor(Field<Integer> idField, List<Integer> ids, int partitionId,
                                          Map<Integer, TimeResolver> timeResolvers) {
-        Condition condition = forReport(idField, timeResolvers)
-                .and(LESSON.PARTITION_ID.eq(partitionId));
+        Map<Integer, List<TimeResolver>> periods = new HashMap<>();
+        timeResolvers.forEach((id, timeResolver) -> periods.put(id, timeResolver == null
+                ? Collections.emptyList()
+                : Collections.singletonList(timeResolver)));
+        return seriesFor(idField, ids, partitionId, periods);
+    }
+
+    /**
+     * Gets payment days using an SQL function for given ids, then resolves the periods of every id from them;
+     * missing ids are handled the same way as in reportsFor()
+     */
+    public <T extends Throwable> List<TableReport> seriesFor(Field<Integer> idField, List<Integer> ids, int partitionId,
+                                                              ReportPeriods reportPeriods,
+                                                              BiFunction<List<Integer>, Integer, Map<Integer, Integer>> paymentDayGetterSQL,
+                                                              Function<String, T> exceptionProvider) throws T {
+        Map<Integer, Integer> paymentDays = paymentDayGetterSQL.apply(ids, partitionId);
+        if (paymentDays.size() < Seq.seq(ids).distinct().count())
+            throw exceptionProvider.apply("Couldn't find these ids: " +
+                    Sets.difference(Seq.seq(ids).toSet(), paymentDays.keySet()));
+
+        Map<Integer, List<TimeResolver>> periods = new HashMap<>();
+        paymentDays.forEach((id, paymentDay) -> periods.put(id, paymentDay == null
+                ? Collections.emptyList()
+                : reportPeriods.forPaymentDay(paymentDay)));
+        return seriesFor(idField, ids, partitionId, periods);
+    }
+
+    /**
+     * <pre>
+     * Evaluates the amount which the teacher must be paid/customer must pay for every given period; all of the
+     * periods are summed up in a single pass over the lessons (or a few, if there are a lot of periods)
+     *
+     * The reports are ordered by id, in the same order as given ids, then by payment date; a report with zero cost
+     * is returned for every period without lessons; a single report without payment date is returned for every id
+     * without periods
+     * </pre>
+     */
+    public List<TableReport> seriesFor(Field<Integer> idField, List<Integer> ids, int partitionId,
+                                        Map<Integer, List<TimeResolver>> periods) {
+        Map<Tuple2<Integer, Long>, BigDecimal> costs = new HashMap<>();
+        for (List<Row3<Integer, Long, Long>> windows : Lists.partition(forReport(periods), WINDOW_BATCH_SIZE))
+            for (Record record : report(idField, windows, partitionId).fetch()) {
+                int id = record.getValue(ID_FIELD, Integer.class);
+                long windowEnd = record.getValue(WINDOW_END_FIELD, Long.class);
+                costs.put(Tuple.tuple(id, windowEnd), paddedSumField.valueForRecord(record));
+            }
+
         List<TableReport> reports = new ArrayList<>();
-        for (Record record : report(idField, condition).fetch()) {
-            int id = record.getValue(ID_FIELD, Integer.class);
-            BigDecimal cost = paddedSumField.valueForRecord(record);
-            LocalDate endDate = Time.convert(timeResolvers.get(id).getEndTime()).toJodaLocalDate()
-                    // endTime is inclusive, which means it points to the next day at 00:00:00
-                    .minusDays(1);
-            reports.add(new TableReport(id, endDate, cost));
-        }
-        // since we have the deadline even in the scenario where the amount to pay is 0, we add it to this list
-        for (int id : Sets.difference(Seq.seq(ids).toSet(), Seq.seq(reports).map(TableReport::getId).toSet())) {
-            LocalDate endDate = timeResolvers == null
-                    ? null
-                    : Time.convert(timeResolvers.get(id).getEndTime()).toJodaLocalDate()
-                    // endTime is inclusive, which means it points to the next day at 00:00:00
-                    .minusDays(1);
-            reports.add(new TableReport(id, endDate, ZERO));
+        for (int id : Seq.seq(ids).distinct().toList()) {
+            List<TimeResolver> periodsOfId = periods.getOrDefault(id, Collections.emptyList());
+            // since we have the deadline even in the scenario where the amount to pay is 0, we add it to this list
+            for (TimeResolver period : periodsOfId)
+                reports.add(new TableReport(id, paymentDateOf(period),
+                        costs.getOrDefault(Tuple.tuple(id, period.getEndTime()), ZERO)));
+
+            if (periodsOfId.isEmpty())
+                reports.add(new TableReport(id, null, ZERO));
         }
         return reports;
     }
@@ -107,6 +149,33 @@ public class TableReportFetcher {
                 : TimeResolver.from(record.getValue(TEACHER.PAYMENT_DAY));
     }
 
+    /**
+     * SQL function to retrieve the payment day for customers using their id; it is derived from the contract date
+     */
+    public Map<Integer, Integer> paymentDaysFromStartDates(List<Integer> customerIds, int partitionId) {
+        Map<Integer, Integer> paymentDays = new HashMap<>();
+        sql.select(CUSTOMER.ID, CUSTOMER.START_DATE)
+                .from(CUSTOMER)
+                .where(forField(CUSTOMER.ID, customerIds)
+                        .and(CUSTOMER.PARTITION_ID.eq(partitionId)))
+                .fetch()
+                .forEach(record -> paymentDays.put(record.value1(), record.value2() == null
+                        ? null
+                        : TimeResolver.paymentDayOf(Time.convert(record.value2()).toJodaLocalDate())));
+        return paymentDays;
+    }
+
+    /**
+     * SQL function to retrieve the payment day for teachers using their id
+     */
+    public Map<Integer, Integer> paymentDaysFromPaymentDates(List<Integer> teacherIds, int partitionId) {
+        return sql.select(TEACHER.ID, TEACHER.PAYMENT_DAY)
+                .from(TEACHER)
+                .where(forField(TEACHER.ID, teacherIds)
+                        .and(TEACHER.PARTITION_ID.eq(partitionId)))
+                .fetchMap(TEACHER.ID, TEACHER.PAYMENT_DAY);
+    }
+
     // CONSTRUCTORS
 
     @Autowired
@@ -125,37 +194,72 @@ public class TableReportFetcher {
      * @throws AssertionError if id list is empty; this should be filtered out at a much higher level than this
      */
     private Condition forField(Field<Integer> idField, List<Integer> ids) {
-        return ids.stream()
-                .map(idField::eq)
-                .reduce(Condition::or)
-                .orElseThrow(() -> new AssertionError("Empty list of ids should fail at the controller level"));
+        if (ids.isEmpty())
+            throw new AssertionError("Empty list of ids should fail at the controller level");
+
+        return idField.in(ids);
     }
 
     /**
-     * @return an SQL condition which is used by reports; it enforces unique time constraints for every id, because
-     * the deadline (and thus the period which is to be paid for) varies for every customer/teacher
-     * @throws AssertionError if id list is empty; this should be filtered out at a much higher level than this
+     * @return (id, windowStart, windowEnd) rows, which are used by reports; they enforce unique time constraints for
+     * every id, because the deadline (and thus the period which is to be paid for) varies for every customer/teacher
+     */
+    private List<Row3<Integer, Long, Long>> forReport(Map<Integer, List<TimeResolver>> periods) {
+        return Seq.seq(periods)
+                .flatMap(t2 -> Seq.seq(t2.v2).map(period -> DSL.row(t2.v1, period.getStartTime(), period.getEndTime())))
+                .toList();
+    }
+
+    /**
+     * @return the date at which the payment for given period should happen
      */
-    private Condition forReport(Field<Integer> idField, Map<Integer, TimeResolver> timeResolvers) {
-        return Seq.seq(timeResolvers)
-                .filter(t2 -> t2.v2 != null)
-                .map(t2 -> idField.eq(t2.v1).and(t2.v2.isBetween(LESSON.TIME_OF_START)))
-                .reduce(Condition::or)
-                .orElseThrow(() -> new AssertionError("Empty list of ids should fail at the controller level"));
+    private LocalDate paymentDateOf(TimeResolver period) {
+        return Time.convert(period.getEndTime()).toJodaLocalDate()
+                // endTime is exclusive, which means it points to the next day at 00:00:00
+                .minusDays(1);
     }
 
     /**
-     * @return the SQL records representing a TableReport; the condition is usually some form of forReport()
+     * <pre>
+     * Lessons are joined against a derived table, which contains the time window of every id; this way the shape of
+     * the query only depends on the amount of windows, rather than a chain of conditions for every one of them
+     *
+     * Every window is summed up separately, so windows can be split into batches without affecting the sums
+     *
+     * The end of a window is exclusive, because the end of every period is the start of the next one; otherwise a
+     * lesson which starts exactly at that time would be paid for in both periods
+     * </pre>
+     * @return the SQL records representing a TableReport; windows are usually a batch of forReport()
      */
-    private SelectHavingStep<Record2<Integer, BigDecimal>> report(Field<Integer> idField, Condition condition) {
-        return sql.select(idField.as(ID_FIELD), paddedSumField.field())
+    @SuppressWarnings("unchecked")
+    private SelectHavingStep<Record3<Integer, Long, BigDecimal>> report(Field<Integer> idField,
+                                                                 List<Row3<Integer, Long, Long>> windows,
+                                                                 int partitionId) {
+        Table<Record3<Integer, Long, Long>> window = DSL.values(windows.toArray(new Row3[windows.size()]))
+                .as(WINDOW_TABLE, ID_FIELD, WINDOW_START_FIELD, WINDOW_END_FIELD);
+        Field<Integer> windowId = window.field(ID_FIELD, Integer.class);
+        Field<Long> windowStart = window.field(WINDOW_START_FIELD, Long.class);
+        Field<Long> windowEnd = window.field(WINDOW_END_FIELD, Long.class);
+
+        return sql.select(windowId, windowEnd, paddedSumField.field())
                 .from(LESSON)
                 .join(TEACHER).onKey(LESSON_IBFK_1)
                 .join(GROUP_OF_STUDENTS).onKey(LESSON_IBFK_2)
-                .where(condition)
-                .groupBy(idField);
+                .join(window).on(idField.eq(windowId)
+                        .and(LESSON.TIME_OF_START.ge(windowStart))
+                        .and(LESSON.TIME_OF_START.lt(windowEnd)))
+                .where(LESSON.PARTITION_ID.eq(partitionId))
+                .groupBy(windowId, windowEnd);
     }
 
     private static final String ID_FIELD = "id";
+    private static final String WINDOW_TABLE = "report_window";
+    private static final String WINDOW_START_FIELD = "window_start";
+    private static final String WINDOW_END_FIELD = "window_end";
+
+    /**
+     * Keeps the amount of bind values well below MySQL's limit of 65535 per statement
+     */
+    private static final int WINDOW_BATCH_SIZE = 1000;
 
 }
@@ -0,0 +1,190 @@
+package com.superum.api.v2.table;
+
+import org.jooq.*;
+import org.jooq.impl.DSL;
+import org.jooq.lambda.Seq;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.jooq.impl.DSL.sum;
+import static timestar_v2.Keys.LESSON_IBFK_1;
+import static timestar_v2.Keys.LESSON_IBFK_2;
+import static timestar_v2.Tables.*;
+
+/**
+ * <pre>
+ * Maintains LESSON_TABLE_ROLLUP, which contains pre-aggregated lesson table sums for every
+ * (partition, teacher, customer, day) combination; days are UTC days, represented by epoch milliseconds of their start
+ *
+ * Lesson ids are not part of the rollup; they are read as rows when the table is calculated
+ *
+ * Every command which changes the outcome of lesson table calculation must refresh the affected cells, in the same
+ * transaction; a refresh always re-evaluates the whole cell from LESSON, so the rollup cannot drift from the lessons,
+ * regardless of how many times or in which order the refreshes happen
+ *
+ * Every refresh also marks the lesson table of the partition as changed, see TableVersions
+ * </pre>
+ */
+@Repository
+public class TableRollup {
+
+    /**
+     * @return pre-aggregated cells for given teachers, for every day in [startDay, endDay)
+     */
+    public List<TableCell> cellsFor(List<Integer> teacherIds, long startDay, long endDay, int partitionId) {
+        return sql.select(LESSON_TABLE_ROLLUP.CUSTOMER_ID, LESSON_TABLE_ROLLUP.TEACHER_ID,
+                LESSON_TABLE_ROLLUP.DURATION_IN_MINUTES, LESSON_TABLE_ROLLUP.PADDED_COST)
+                .from(LESSON_TABLE_ROLLUP)
+                .where(LESSON_TABLE_ROLLUP.PARTITION_ID.eq(partitionId)
+                        .and(LESSON_TABLE_ROLLUP.TEACHER_ID.in(teacherIds))
+                        .and(LESSON_TABLE_ROLLUP.DAY_OF_START.ge(startDay))
+                        .and(LESSON_TABLE_ROLLUP.DAY_OF_START.lt(endDay)))
+                .fetch()
+                .map(record -> TableCell.valueOf(
+                        record.getValue(LESSON_TABLE_ROLLUP.CUSTOMER_ID),
+                        record.getValue(LESSON_TABLE_ROLLUP.TEACHER_ID),
+                        record.getValue(LESSON_TABLE_ROLLUP.DURATION_IN_MINUTES),
+                        record.getValue(LESSON_TABLE_ROLLUP.PADDED_COST)));
+    }
+
+    /**
+     * Refreshes the cell of an existing lesson; intended to be called after the lesson was created
+     */
+    public void refreshLesson(long lessonId, int partitionId) {
+        tableVersions.changed(partitionId);
+        lessonCell(lessonId, partitionId)
+                .ifPresent(cell -> refresh(cell.value1(), Seq.of(cell.value2()).toList(), partitionId));
+    }
+
+    /**
+     * Executes a change to a lesson (i.e. update or delete), then refreshes both the cell the lesson was in before
+     * the change and the cell it is in after the change
+     */
+    public void refreshLesson(long lessonId, int partitionId, Runnable lessonChange) {
+        tableVersions.changed(partitionId);
+        Optional<Record2<Integer, Long>> before = lessonCell(lessonId, partitionId);
+        lessonChange.run();
+        Optional<Record2<Integer, Long>> after = lessonCell(lessonId, partitionId);
+
+        Seq.of(before, after)
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .groupBy(Record2::value1)
+                .forEach((teacherId, cells) -> refresh(teacherId, Seq.seq(cells).map(Record2::value2).toList(), partitionId));
+    }
+
+    /**
+     * Executes a change to a group (i.e. update of its customer or wage type), then refreshes the cells of every day
+     * the group had lessons in, for every teacher its lessons belong to; when the teacher of the group changes, its
+     * lessons are moved (and their cells refreshed) separately, see GroupReassignment
+     */
+    public void refreshGroup(int groupId, int partitionId, Runnable groupChange) {
+        tableVersions.changed(partitionId);
+        groupChange.run();
+
+        Seq.seq(sql.selectDistinct(LESSON.TEACHER_ID, DAY_OF_START)
+                .from(LESSON)
+                .where(LESSON.GROUP_ID.eq(groupId)
+                        .and(LESSON.PARTITION_ID.eq(partitionId))
+                        .and(LESSON.TEACHER_ID.isNotNull()))
+                .fetch())
+                .groupBy(Record2::value1)
+                .forEach((teacherId, cells) -> refresh(teacherId, Seq.seq(cells).map(Record2::value2).toList(), partitionId));
+    }
+
+    /**
+     * Refreshes every cell of a teacher; intended to be called after the teacher's wages were changed
+     */
+    public void refreshTeacher(int teacherId, int partitionId) {
+        tableVersions.changed(partitionId);
+        Condition teacherCondition = LESSON_TABLE_ROLLUP.PARTITION_ID.eq(partitionId)
+                .and(LESSON_TABLE_ROLLUP.TEACHER_ID.eq(teacherId));
+        sql.deleteFrom(LESSON_TABLE_ROLLUP)
+                .where(teacherCondition)
+                .execute();
+
+        insertCells(LESSON.TEACHER_ID.eq(teacherId).and(LESSON.PARTITION_ID.eq(partitionId)));
+    }
+
+    /**
+     * Refreshes the cells of a teacher for given days
+     */
+    public void refresh(int teacherId, Collection<Long> days, int partitionId) {
+        tableVersions.changed(partitionId);
+        sql.deleteFrom(LESSON_TABLE_ROLLUP)
+                .where(LESSON_TABLE_ROLLUP.PARTITION_ID.eq(partitionId)
+                        .and(LESSON_TABLE_ROLLUP.TEACHER_ID.eq(teacherId))
+                        .and(LESSON_TABLE_ROLLUP.DAY_OF_START.in(days)))
+                .execute();
+
+        insertCells(LESSON.TEACHER_ID.eq(teacherId)
+                .and(LESSON.PARTITION_ID.eq(partitionId))
+                .and(DAY_OF_START.in(days)));
+    }
+
+    /**
+     * @return epoch milliseconds of the start of the UTC day that contains given epoch milliseconds
+     */
+    public static long dayOf(long epochMillis) {
+        return epochMillis - Math.floorMod(epochMillis, DAY_MILLIS);
+    }
+
+    public static final long DAY_MILLIS = 24 * 60 * 60 * 1000L;
+
+    // CONSTRUCTORS
+
+    @Autowired
+    public TableRollup(DSLContext sql, PaddedSumField paddedSumField, TableVersions tableVersions) {
+        this.sql = sql;
+        this.paddedSumField = paddedSumField;
+        this.tableVersions = tableVersions;
+    }
+
+    // PRIVATE
+
+    private final DSLContext sql;
+    private final PaddedSumField paddedSumField;
+    private final TableVersions tableVersions;
+
+    /**
+     * Same aggregation as TableDataFetcher uses, only grouped by day as well, and restricted to lessons for which
+     * the wage in use is known
+     */
+    private void insertCells(Condition lessonCondition) {
+        Condition wageIsKnown = DSL.condition(GROUP_OF_STUDENTS.USE_HOURLY_WAGE).and(TEACHER.HOURLY_WAGE.isNotNull())
+                .or(DSL.not(DSL.condition(GROUP_OF_STUDENTS.USE_HOURLY_WAGE)).and(TEACHER.ACADEMIC_WAGE.isNotNull()));
+
+        Select<Record6<Integer, Integer, Integer, Long, Integer, BigDecimal>> cells =
+                sql.select(LESSON.PARTITION_ID, LESSON.TEACHER_ID, GROUP_OF_STUDENTS.CUSTOMER_ID, DAY_OF_START,
+                        sum(LESSON.DURATION_IN_MINUTES).cast(Integer.class),
+                        paddedSumField.field())
+                        .from(LESSON)
+                        .join(TEACHER).onKey(LESSON_IBFK_1)
+                        .join(GROUP_OF_STUDENTS).onKey(LESSON_IBFK_2)
+                        .where(lessonCondition.and(wageIsKnown))
+                        .groupBy(LESSON.PARTITION_ID, LESSON.TEACHER_ID, GROUP_OF_STUDENTS.CUSTOMER_ID, DAY_OF_START);
+
+        sql.insertInto(LESSON_TABLE_ROLLUP, LESSON_TABLE_ROLLUP.PARTITION_ID, LESSON_TABLE_ROLLUP.TEACHER_ID,
+                LESSON_TABLE_ROLLUP.CUSTOMER_ID, LESSON_TABLE_ROLLUP.DAY_OF_START,
+                LESSON_TABLE_ROLLUP.DURATION_IN_MINUTES, LESSON_TABLE_ROLLUP.PADDED_COST)
+                .select(cells)
+                .execute();
+    }
+
+    private Optional<Record2<Integer, Long>> lessonCell(long lessonId, int partitionId) {
+        return sql.select(LESSON.TEACHER_ID, DAY_OF_START)
+                .from(LESSON)
+                .where(LESSON.ID.eq(lessonId)
+                        .and(LESSON.PARTITION_ID.eq(partitionId)))
+                .fetch().stream().findAny();
+    }
+
+    private static final Field<Long> DAY_OF_START =
+            LESSON.TIME_OF_START.sub(LESSON.TIME_OF_START.mod(DAY_MILLIS)).as("dayOfStart");
+
+}
@@ -0,0 +1,156 @@
+package com.superum.api.v2.table;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.superum.config.ReadWriteRoutingDataSource;
+import org.jooq.DSLContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+
+import static timestar_v2.Tables.LESSON_TABLE_VERSION;
+
+/**
+ * <pre>
+ * Keeps a version of lesson table data for every partition; the version changes whenever anything that the lesson
+ * table or its reports are calculated from changes, i.e. lessons, groups, teachers or customers
+ *
+ * This allows lesson table endpoints to answer conditional requests (ETag/If-None-Match) without calculating
+ * anything; the ETag is made from the version and the parameters of the request
+ *
+ * Versions are kept in LESSON_TABLE_VERSION, so every instance of the app sees the changes made by the others; the
+ * version is incremented right before the changing transaction commits, so the new version becomes visible together
+ * with the changes; this also means the row of the partition is only locked for the duration of the commit; changes
+ * made directly to the database are not noticed
+ *
+ * The version is read from the primary database, so the data which is tagged with it must be read from the primary
+ * as well; otherwise a lagging replica could return data from before a change, tagged with the version after it,
+ * and it would be served as not modified until the next change; etag() pins the rest of the request to the primary
+ * </pre>
+ */
+@Component
+public class TableVersions {
+
+    /**
+     * @return current version of lesson table data for given partition
+     */
+    public long version(int partitionId) {
+        Long version = sql.select(LESSON_TABLE_VERSION.VERSION)
+                .from(LESSON_TABLE_VERSION)
+                .where(LESSON_TABLE_VERSION.PARTITION_ID.eq(partitionId))
+                .fetchOne(LESSON_TABLE_VERSION.VERSION);
+        return version == null ? 0 : version;
+    }
+
+    /**
+     * Marks lesson table data of given partition as changed; if called within a transaction, the version is
+     * incremented once, right before the transaction commits, no matter how many times this was called; if the
+     * transaction is rolled back, the version does not change
+     */
+    public void changed(int partitionId) {
+        if (TransactionSynchronizationManager.isActualTransactionActive())
+            changedInTransaction().add(partitionId);
+        else
+            increment(partitionId);
+    }
+
+    /**
+     * <pre>
+     * The version must be read before the data is calculated, so that any change which happens during the
+     * calculation results in a different ETag next time; the rest of the request reads from the primary database
+     *
+     * Parameters should be the resolved values the response depends on, i.e. epoch milliseconds instead of dates
+     * relative to today
+     * </pre>
+     * @return strong ETag for the lesson table data of given partition, calculated with given parameters; it
+     * contains a SHA-256 digest of the version and the parameters
+     */
+    public String etag(int partitionId, Object... parameters) {
+        readWriteRoutingDataSource.pinRequestToPrimary();
+
+        long version = version(partitionId);
+        Hasher hasher = Hashing.sha256().newHasher()
+                .putInt(partitionId)
+                .putLong(version);
+        for (Object parameter : parameters)
+            putParameter(hasher, parameter);
+
+        return "\"" + partitionId + "-" + version + "-" + hasher.hash() + "\"";
+    }
+
+    // CONSTRUCTORS
+
+    @Autowired
+    public TableVersions(DSLContext sql, ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        this.sql = sql;
+        this.readWriteRoutingDataSource = readWriteRoutingDataSource;
+    }
+
+    // PRIVATE
+
+    private final DSLContext sql;
+    private final ReadWriteRoutingDataSource readWriteRoutingDataSource;
+
+    private void increment(int partitionId) {
+        sql.insertInto(LESSON_TABLE_VERSION)
+                .set(LESSON_TABLE_VERSION.PARTITION_ID, partitionId)
+                .set(LESSON_TABLE_VERSION.VERSION, 1L)
+                .onDuplicateKeyUpdate()
+                .set(LESSON_TABLE_VERSION.VERSION, LESSON_TABLE_VERSION.VERSION.add(1))
+                .execute();
+    }
+
+    /**
+     * @return partitions changed in the current transaction; they are incremented before it commits
+     */
+    @SuppressWarnings("unchecked")
+    private Set<Integer> changedInTransaction() {
+        Set<Integer> partitions = (Set<Integer>) TransactionSynchronizationManager.getResource(this);
+        if (partitions != null)
+            return partitions;
+
+        Set<Integer> newPartitions = new HashSet<>();
+        TransactionSynchronizationManager.bindResource(this, newPartitions);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void suspend() {
+                TransactionSynchronizationManager.unbindResource(TableVersions.this);
+            }
+
+            @Override
+            public void resume() {
+                TransactionSynchronizationManager.bindResource(TableVersions.this, newPartitions);
+            }
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                newPartitions.forEach(TableVersions.this::increment);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TableVersions.this);
+            }
+        });
+        return newPartitions;
+    }
+
+    /**
+     * Every parameter is prefixed by its length, so that different parameters cannot result in the same input
+     */
+    private static void putParameter(Hasher hasher, Object parameter) {
+        if (parameter == null) {
+            hasher.putInt(-1);
+            return;
+        }
+
+        String value = String.valueOf(parameter);
+        hasher.putInt(value.length()).putString(value, StandardCharsets.UTF_8);
+    }
+
+}
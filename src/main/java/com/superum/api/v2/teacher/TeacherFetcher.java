@@ -1,15 +1,25 @@
 package com.superum.api.v2.teacher;
 
 import com.google.common.collect.ObjectArrays;
+import com.superum.helper.Page;
+import org.jooq.Cursor;
 import org.jooq.DSLContext;
 import org.jooq.Field;
 import org.jooq.Record;
 import org.jooq.SelectJoinStep;
+import org.jooq.lambda.Seq;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static org.jooq.impl.DSL.groupConcat;
 import static timestar_v2.Keys.TEACHER_LANGUAGE_IBFK_1;
@@ -17,6 +27,7 @@ import static timestar_v2.Tables.TEACHER;
 import static timestar_v2.Tables.TEACHER_LANGUAGE;
 
 @Repository
+@Transactional(readOnly = true)
 public class TeacherFetcher {
 
     /**
@@ -31,20 +42,59 @@ public class TeacherFetcher {
                 .map(FullTeacherDTO::valueOf);
     }
 
+    /**
+     * @return teachers with given ids, in the same order; teachers which do not exist are skipped
+     */
+    public List<FullTeacherDTO> forIds(List<Integer> teacherIds, int partitionId) {
+        Map<Integer, FullTeacherDTO> found = fullTeachers()
+                .where(TEACHER.ID.in(teacherIds)
+                        .and(TEACHER.PARTITION_ID.eq(partitionId)))
+                .groupBy(TEACHER.ID)
+                .fetch().stream()
+                .map(FullTeacherDTO::valueOf)
+                .collect(Collectors.toMap(FullTeacherDTO::getId, Function.identity()));
+
+        return Seq.seq(teacherIds).map(found::get).filter(Objects::nonNull).toList();
+    }
+
     /**
      * @return list of all teachers; only specified amount is returned, with offset
      */
-    public List<FullTeacherDTO> all(int page, int amount, int partitionId) {
+    public List<FullTeacherDTO> all(Page page, int partitionId) {
         return fullTeachers()
-                .where(TEACHER.PARTITION_ID.eq(partitionId))
+                .where(TEACHER.PARTITION_ID.eq(partitionId)
+                        .and(page.seek(TEACHER.ID)))
                 .groupBy(TEACHER.ID)
                 .orderBy(TEACHER.ID)
-                .limit(amount)
-                .offset(page * amount)
+                .limit(page.amount())
+                .offset(page.offset())
                 .fetch()
                 .map(FullTeacherDTO::valueOf);
     }
 
+    /**
+     * <pre>
+     * Walks all teachers with a lazy cursor, passing them to the consumer in chunks of given size; only a single
+     * chunk is held in memory at any time
+     *
+     * MySQL driver only streams the rows when fetch size is Integer.MIN_VALUE; while such a cursor is open, its
+     * connection cannot be used for other queries; this is why the cursor is never opened in a transaction, so that
+     * the transactions of the consumer (i.e. lesson table data for the chunk) do not end up on the same connection
+     * </pre>
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void allInChunks(int chunkSize, int partitionId, Consumer<List<FullTeacherDTO>> chunkConsumer) {
+        try (Cursor<Record> cursor = fullTeachers()
+                .where(TEACHER.PARTITION_ID.eq(partitionId))
+                .groupBy(TEACHER.ID)
+                .orderBy(TEACHER.ID)
+                .fetchSize(Integer.MIN_VALUE)
+                .fetchLazy()) {
+            while (cursor.hasNext())
+                chunkConsumer.accept(cursor.fetch(chunkSize).map(FullTeacherDTO::valueOf));
+        }
+    }
+
     // CONSTRUCTORS
 
     @Autowired
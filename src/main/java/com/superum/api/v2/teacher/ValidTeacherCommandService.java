@@ -5,6 +5,8 @@ import com.superum.helper.PartitionAccount;
 import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 /**
  * <pre>
  * Responsible for handling teacher commands
@@ -38,6 +40,25 @@ public interface ValidTeacherCommandService {
      */
     FullTeacherDTO create(FullTeacherDTO fullTeacherDTO, PartitionAccount account);
 
+    /**
+     * <pre>
+     * Creates new teachers, all of them or none
+     *
+     * Every teacher is checked the same way as by create(), and no two of them can have the same email; then all of
+     * them are inserted together, and their accounts are created asynchronously, one after another
+     *
+     * partitionId separates different app partitions (please refer to the API file or PartitionController)
+     * </pre>
+     * @return the created teachers with id field now set, in the same order
+     *
+     * @throws InvalidTeacherException if any teacher would fail create() for this reason
+     * @throws DuplicateTeacherException if any teacher would fail create() for this reason, or two teachers have the
+     * same email
+     * @throws DatabaseException if database error occurred
+     * @throws DataAccessException if an unexpected database error occurred
+     */
+    List<FullTeacherDTO> createAll(List<FullTeacherDTO> fullTeacherDTOs, PartitionAccount account);
+
     /**
      * <pre>
      * Updates an existing teacher
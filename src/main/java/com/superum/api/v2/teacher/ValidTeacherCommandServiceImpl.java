@@ -1,18 +1,36 @@
 package com.superum.api.v2.teacher;
 
 import com.superum.api.v2.account.ValidAccountService;
+import com.superum.api.v2.table.TableRollup;
+import com.superum.api.v2.table.TableVersions;
+import com.superum.api.v3.change.ChangeAction;
+import com.superum.api.v3.change.ChangeFeed;
+import com.superum.api.v3.change.ChangedTable;
 import com.superum.exception.DatabaseException;
 import com.superum.helper.PartitionAccount;
 import com.superum.helper.jooq.DefaultCommands;
 import com.superum.helper.jooq.DefaultQueries;
 import com.superum.helper.jooq.ForeignQueries;
 import eu.goodlike.libraries.jooq.CommandsMany;
+import org.jooq.DSLContext;
+import org.jooq.InsertValuesStep2;
+import org.jooq.Record1;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import timestar_v2.tables.records.TeacherLanguageRecord;
 import timestar_v2.tables.records.TeacherRecord;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 import static timestar_v2.Tables.TEACHER;
+import static timestar_v2.Tables.TEACHER_LANGUAGE;
 
 @Service
 @Transactional
@@ -20,30 +38,16 @@ public class ValidTeacherCommandServiceImpl implements ValidTeacherCommandServic
 
     @Override
     public FullTeacherDTO create(FullTeacherDTO fullTeacherDTO, PartitionAccount account) {
-        ValidTeacher validTeacher = new ValidTeacher(fullTeacherDTO);
-        ValidTeacherLanguages validTeacherLanguages = ValidTeacherLanguages.fromDTO(fullTeacherDTO);
-
-        if (validTeacher.hasId())
-            throw new InvalidTeacherException("Provided teacher has its id set; please unset it or use POST instead!");
-
-        if (!validTeacher.canBeInserted() || !validTeacherLanguages.hasLanguages())
-            throw new InvalidTeacherException("Provided teacher does not have the following mandatory fields set: "
-                    + validTeacher.missingMandatoryFieldNames().join(", ")
-                    + (validTeacherLanguages.hasLanguages() ? "" : ", languages"));
-
-        if (defaultTeacherQueries.existsForKey(account.partitionId(), TEACHER.EMAIL, fullTeacherDTO.getEmail()))
-            throw new DuplicateTeacherException("Cannot create teacher using this email, because it is duplicate: "
-                    + fullTeacherDTO.getEmail());
+        ValidTeacher validTeacher = creatable(fullTeacherDTO, account.partitionId());
 
         Integer teacherId = defaultTeacherCommands.create(validTeacher, account.partitionId(),
                 record -> record.getValue(TEACHER.ID))
                 .orElseThrow(() -> new DatabaseException("Couldn't return teacher after inserting it: " + validTeacher));
 
-        validTeacherLanguages = validTeacherLanguages.withId(teacherId);
+        createLanguages(fullTeacherDTO, teacherId);
 
-        if (teacherLanguageCommands.create(validTeacherLanguages.primaryValue(),
-                validTeacherLanguages.secondaryValues().toList()) == 0)
-            throw new DatabaseException("Couldn't create teacher languages: " + validTeacherLanguages);
+        tableVersions.changed(account.partitionId());
+        changeFeed.publish(account.partitionId(), ChangedTable.teacher, ChangeAction.created, teacherId);
 
         FullTeacherDTO insertedTeacher = validTeacherQueryService.readById(teacherId, account.partitionId());
 
@@ -52,6 +56,43 @@ public class ValidTeacherCommandServiceImpl implements ValidTeacherCommandServic
         return insertedTeacher;
     }
 
+    @Override
+    public List<FullTeacherDTO> createAll(List<FullTeacherDTO> fullTeacherDTOs, PartitionAccount account) {
+        List<ValidTeacher> validTeachers = new ArrayList<>(fullTeacherDTOs.size());
+        Set<String> emails = new HashSet<>();
+        for (FullTeacherDTO fullTeacherDTO : fullTeacherDTOs) {
+            validTeachers.add(insertable(fullTeacherDTO));
+            if (!emails.add(fullTeacherDTO.getEmail()))
+                throw new DuplicateTeacherException("Cannot create teachers using this email, because it is used " +
+                        "by more than one of them: " + fullTeacherDTO.getEmail());
+        }
+
+        Record1<String> usedEmail = sql.select(TEACHER.EMAIL)
+                .from(TEACHER)
+                .where(TEACHER.EMAIL.in(emails)
+                        .and(TEACHER.PARTITION_ID.eq(account.partitionId())))
+                .limit(1)
+                .fetchOne();
+        if (usedEmail != null)
+            throw new DuplicateTeacherException("Cannot create teacher using this email, because it is duplicate: "
+                    + usedEmail.value1());
+
+        List<Integer> teacherIds = defaultTeacherCommands.createAll(validTeachers, account.partitionId(),
+                record -> record.getValue(TEACHER.ID));
+
+        createLanguages(fullTeacherDTOs, teacherIds);
+
+        tableVersions.changed(account.partitionId());
+        teacherIds.forEach(teacherId ->
+                changeFeed.publish(account.partitionId(), ChangedTable.teacher, ChangeAction.created, teacherId));
+
+        List<FullTeacherDTO> insertedTeachers = validTeacherQueryService.readByIds(teacherIds, account.partitionId());
+
+        createAccountsAsync(insertedTeachers, account);
+
+        return insertedTeachers;
+    }
+
     @Override
     public void update(FullTeacherDTO fullTeacherDTO, int partitionId) {
         ValidTeacher validTeacher = new ValidTeacher(fullTeacherDTO);
@@ -75,9 +116,15 @@ public class ValidTeacherCommandServiceImpl implements ValidTeacherCommandServic
         if (validTeacher.updateFields().findAny().isPresent() && defaultTeacherCommands.update(validTeacher, partitionId) == 0)
             throw new DatabaseException("Couldn't update teacher: " + validTeacher);
 
+        tableVersions.changed(partitionId);
+        if (fullTeacherDTO.getHourlyWage() != null || fullTeacherDTO.getAcademicWage() != null)
+            tableRollup.refreshTeacher(validTeacher.getId(), partitionId);
+
         if (validTeacherLanguages.hasLanguages() && teacherLanguageCommands.update(validTeacherLanguages.primaryValue(),
                 validTeacherLanguages.secondaryValues().toList()) == 0)
             throw new DatabaseException("Couldn't update teacher languages: " + validTeacherLanguages);
+
+        changeFeed.publish(partitionId, ChangedTable.teacher, ChangeAction.updated, validTeacher.getId());
     }
 
     @Override
@@ -96,40 +143,128 @@ public class ValidTeacherCommandServiceImpl implements ValidTeacherCommandServic
         if (defaultTeacherCommands.delete(teacherId, account.partitionId()) == 0)
             throw new DatabaseException("Couldn't delete teacher with id: " + teacherId);
 
+        tableVersions.changed(account.partitionId());
+        changeFeed.publish(account.partitionId(), ChangedTable.teacher, ChangeAction.deleted, teacherId);
+
         validAccountService.deleteAccount(deletedTeacher, account);
     }
 
     // CONSTRUCTORS
 
     @Autowired
-    public ValidTeacherCommandServiceImpl(DefaultCommands<TeacherRecord, Integer> defaultTeacherCommands,
+    public ValidTeacherCommandServiceImpl(DSLContext sql,
+                                          DefaultCommands<TeacherRecord, Integer> defaultTeacherCommands,
                                           CommandsMany<Integer, String> teacherLanguageCommands,
                                           DefaultQueries<TeacherRecord, Integer> defaultTeacherQueries,
                                           ForeignQueries<Integer> foreignTeacherQueries,
                                           ValidAccountService validAccountService,
-                                          ValidTeacherQueryService validTeacherQueryService) {
+                                          ValidTeacherQueryService validTeacherQueryService,
+                                          TableRollup tableRollup,
+                                          TableVersions tableVersions,
+                                          ChangeFeed changeFeed) {
+        this.sql = sql;
         this.defaultTeacherCommands = defaultTeacherCommands;
         this.teacherLanguageCommands = teacherLanguageCommands;
         this.defaultTeacherQueries = defaultTeacherQueries;
         this.foreignTeacherQueries = foreignTeacherQueries;
         this.validTeacherQueryService = validTeacherQueryService;
         this.validAccountService = validAccountService;
+        this.tableRollup = tableRollup;
+        this.tableVersions = tableVersions;
+        this.changeFeed = changeFeed;
     }
 
     // PRIVATE
 
+    private final DSLContext sql;
     private final DefaultCommands<TeacherRecord, Integer> defaultTeacherCommands;
     private final CommandsMany<Integer, String> teacherLanguageCommands;
     private final DefaultQueries<TeacherRecord, Integer> defaultTeacherQueries;
     private final ForeignQueries<Integer> foreignTeacherQueries;
     private final ValidTeacherQueryService validTeacherQueryService;
     private final ValidAccountService validAccountService;
+    private final TableRollup tableRollup;
+    private final TableVersions tableVersions;
+    private final ChangeFeed changeFeed;
+
+    private ValidTeacher creatable(FullTeacherDTO fullTeacherDTO, int partitionId) {
+        ValidTeacher validTeacher = insertable(fullTeacherDTO);
+
+        if (defaultTeacherQueries.existsForKey(partitionId, TEACHER.EMAIL, fullTeacherDTO.getEmail()))
+            throw new DuplicateTeacherException("Cannot create teacher using this email, because it is duplicate: "
+                    + fullTeacherDTO.getEmail());
+
+        return validTeacher;
+    }
 
     /**
-     * To avoid long pauses when sending e-mails/generating passwords, accounts are created on a separate thread
+     * Same as creatable(), except the email is not checked, so no queries are made
+     */
+    private ValidTeacher insertable(FullTeacherDTO fullTeacherDTO) {
+        ValidTeacher validTeacher = new ValidTeacher(fullTeacherDTO);
+        ValidTeacherLanguages validTeacherLanguages = ValidTeacherLanguages.fromDTO(fullTeacherDTO);
+
+        if (validTeacher.hasId())
+            throw new InvalidTeacherException("Provided teacher has its id set; please unset it or use POST instead!");
+
+        if (!validTeacher.canBeInserted() || !validTeacherLanguages.hasLanguages())
+            throw new InvalidTeacherException("Provided teacher does not have the following mandatory fields set: "
+                    + validTeacher.missingMandatoryFieldNames().join(", ")
+                    + (validTeacherLanguages.hasLanguages() ? "" : ", languages"));
+
+        return validTeacher;
+    }
+
+    private void createLanguages(FullTeacherDTO fullTeacherDTO, int teacherId) {
+        ValidTeacherLanguages validTeacherLanguages = ValidTeacherLanguages.fromDTO(fullTeacherDTO).withId(teacherId);
+
+        if (teacherLanguageCommands.create(validTeacherLanguages.primaryValue(),
+                validTeacherLanguages.secondaryValues().toList()) == 0)
+            throw new DatabaseException("Couldn't create teacher languages: " + validTeacherLanguages);
+    }
+
+    /**
+     * Same as createLanguages() for every teacher, but the languages of all teachers are inserted together; teacher
+     * ids must be in the same order as the teachers
+     */
+    private void createLanguages(List<FullTeacherDTO> fullTeacherDTOs, List<Integer> teacherIds) {
+        InsertValuesStep2<TeacherLanguageRecord, Integer, String> insert =
+                sql.insertInto(TEACHER_LANGUAGE, TEACHER_LANGUAGE.TEACHER_ID, TEACHER_LANGUAGE.CODE);
+        int languageCount = 0;
+        for (int i = 0; i < teacherIds.size(); i++) {
+            for (String language : fullTeacherDTOs.get(i).getLanguages()) {
+                insert = insert.values(teacherIds.get(i), language);
+                languageCount++;
+            }
+        }
+
+        if (insert.execute() != languageCount)
+            throw new DatabaseException("Couldn't create teacher languages for teachers: " + teacherIds);
+    }
+
+    /**
+     * To avoid long pauses when sending e-mails/generating passwords, accounts are created on a separate thread; it
+     * runs as the current user, so that the account is created in the shard of the partition
      */
     private void createAccountAsync(FullTeacherDTO fullTeacherDTO, PartitionAccount account) {
-        new Thread(() -> validAccountService.createAccount(fullTeacherDTO, account)).start();
+        new Thread(new DelegatingSecurityContextRunnable(
+                () -> validAccountService.createAccount(fullTeacherDTO, account))).start();
+    }
+
+    /**
+     * Same as createAccountAsync(), but a single thread creates the accounts of all teachers, one after another; if
+     * an account cannot be created, the rest are still created
+     */
+    private void createAccountsAsync(List<FullTeacherDTO> fullTeacherDTOs, PartitionAccount account) {
+        new Thread(new DelegatingSecurityContextRunnable(() -> fullTeacherDTOs.forEach(fullTeacherDTO -> {
+            try {
+                validAccountService.createAccount(fullTeacherDTO, account);
+            } catch (RuntimeException e) {
+                LOG.error("Couldn't create account for teacher: " + fullTeacherDTO, e);
+            }
+        }))).start();
     }
 
+    private static final Logger LOG = LoggerFactory.getLogger(ValidTeacherCommandServiceImpl.class);
+
 }
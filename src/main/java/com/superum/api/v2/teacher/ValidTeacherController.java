@@ -2,12 +2,14 @@ package com.superum.api.v2.teacher;
 
 import com.superum.api.core.CommonControllerLogic;
 import com.superum.api.exception.InvalidRequestException;
+import com.superum.helper.Page;
 import com.superum.helper.PartitionAccount;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
 
 import static eu.goodlike.misc.Constants.APPLICATION_JSON_UTF8;
@@ -41,6 +43,19 @@ public class ValidTeacherController extends CommonControllerLogic {
         return createdTeacher;
     }
 
+    @RequestMapping(value = "/batch", method = POST, produces = APPLICATION_JSON_UTF8, consumes = APPLICATION_JSON_UTF8)
+    @ResponseBody
+    public List<FullTeacherDTO> createAll(PartitionAccount account, @RequestBody List<FullTeacherDTO> teachers) {
+        validateBatch("teachers", teachers);
+
+        LOG.info("User {} is creating {} teachers", account, teachers.size());
+
+        List<FullTeacherDTO> createdTeachers = validTeacherCommandService.createAll(teachers, account);
+        LOG.info("Successfully created teachers: {}", createdTeachers);
+
+        return createdTeachers;
+    }
+
     @RequestMapping(method = PUT, consumes = APPLICATION_JSON_UTF8)
     @ResponseBody
     public void update(PartitionAccount account, @RequestBody FullTeacherDTO teacher) {
@@ -83,18 +98,21 @@ public class ValidTeacherController extends CommonControllerLogic {
 
     @RequestMapping(method = GET, produces = APPLICATION_JSON_UTF8)
     @ResponseBody
-    public List<FullTeacherDTO> readAll(PartitionAccount account,
+    public List<FullTeacherDTO> readAll(PartitionAccount account, HttpServletResponse response,
                                                @RequestParam(value="page", required=false) Integer page,
-                                               @RequestParam(value="per_page", required=false) Integer per_page) {
+                                               @RequestParam(value="per_page", required=false) Integer per_page,
+                                               @RequestParam(value="cursor", required=false) String cursor) {
 
         page = validatePage(page);
         per_page = validatePerPage(per_page);
+        Page requestedPage = Page.of(page, per_page, cursor);
 
         LOG.info("User {} is reading all teachers, page {}, with {} entries per page",
                 account, page, per_page);
 
-        List<FullTeacherDTO> teachers = validTeacherQueryService.readAll(page, per_page, account.partitionId());
+        List<FullTeacherDTO> teachers = validTeacherQueryService.readAll(requestedPage, account.partitionId());
         LOG.info("Teachers retrieved: {}", teachers);
+        requestedPage.nextCursor(response, teachers, FullTeacherDTO::getId);
 
         return teachers;
     }
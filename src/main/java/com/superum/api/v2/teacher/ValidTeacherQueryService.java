@@ -1,9 +1,11 @@
 package com.superum.api.v2.teacher;
 
+import com.superum.helper.Page;
 import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * <pre>
@@ -28,11 +30,24 @@ public interface ValidTeacherQueryService {
      */
     FullTeacherDTO readById(int teacherId, int partitionId);
 
+    /**
+     * <pre>
+     * Reads teachers with specified ids, using a single query
+     *
+     * partitionId separates different app partitions (please refer to the API file or PartitionController)
+     * </pre>
+     * @return teachers that were read, in the same order as the ids
+     *
+     * @throws TeacherNotFoundException if no teacher exists for any of the ids
+     * @throws DataAccessException if an unexpected database error occurred
+     */
+    List<FullTeacherDTO> readByIds(List<Integer> teacherIds, int partitionId);
+
     /**
      * <pre>
      * Reads all teachers; reading is paged;
      *
-     * Pages start at 0, whereas the maximum amount is 100
+     * Pages start at 0, whereas the maximum amount is 100; if the page has a cursor, reading starts after it instead
      *
      * partitionId separates different app partitions (please refer to the API file or PartitionController)
      * </pre>
@@ -40,7 +55,21 @@ public interface ValidTeacherQueryService {
      *
      * @throws DataAccessException if an unexpected database error occurred
      */
-    List<FullTeacherDTO> readAll(int page, int amount, int partitionId);
+    List<FullTeacherDTO> readAll(Page page, int partitionId);
+
+    /**
+     * <pre>
+     * Reads all teachers; reading is not paged, instead the teachers are passed to the consumer in chunks, so that
+     * only a single chunk is held in memory at any time;
+     *
+     * The teachers are streamed from the database, so this method never runs in a transaction; a transaction of the
+     * caller is suspended, and any transaction started by the consumer uses a connection of its own
+     *
+     * partitionId separates different app partitions (please refer to the API file or PartitionController)
+     * </pre>
+     * @throws DataAccessException if an unexpected database error occurred
+     */
+    void readAllInChunks(int chunkSize, int partitionId, Consumer<List<FullTeacherDTO>> chunkConsumer);
 
     /**
      * <pre>
@@ -1,13 +1,18 @@
 package com.superum.api.v2.teacher;
 
+import com.superum.helper.Page;
 import com.superum.helper.jooq.DefaultQueries;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 import timestar_v2.tables.records.TeacherRecord;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
+@Transactional(readOnly = true)
 public class ValidTeacherQueryServiceImpl implements ValidTeacherQueryService {
 
     @Override
@@ -17,8 +22,23 @@ public class ValidTeacherQueryServiceImpl implements ValidTeacherQueryService {
     }
 
     @Override
-    public List<FullTeacherDTO> readAll(int page, int amount, int partitionId) {
-        return teachers.all(page, amount, partitionId);
+    public List<FullTeacherDTO> readByIds(List<Integer> teacherIds, int partitionId) {
+        List<FullTeacherDTO> found = teachers.forIds(teacherIds, partitionId);
+        if (found.size() != teacherIds.size())
+            throw new TeacherNotFoundException("Couldn't find all teachers with ids " + teacherIds);
+
+        return found;
+    }
+
+    @Override
+    public List<FullTeacherDTO> readAll(Page page, int partitionId) {
+        return teachers.all(page, partitionId);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void readAllInChunks(int chunkSize, int partitionId, Consumer<List<FullTeacherDTO>> chunkConsumer) {
+        teachers.allInChunks(chunkSize, partitionId, chunkConsumer);
     }
 
     @Override
@@ -1,11 +1,15 @@
 package com.superum.api.v3.account.impl;
 
 import com.superum.api.v3.account.AccountRepository;
+import com.superum.config.VerifiedCredentialCache;
+import org.jooq.Condition;
 import org.jooq.DSLContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collections;
+
 import static timestar_v2.Tables.ACCOUNT;
 
 @Repository
@@ -26,6 +30,7 @@ public class AccountRepositoryImpl implements AccountRepository {
 
     @Override
     public int updateUsername(String originalUsername, String newUsername, long updatedAt) {
+        verifiedCredentialCache.invalidate(Collections.singletonList(originalUsername));
         return sql.update(ACCOUNT)
                 .set(ACCOUNT.USERNAME, newUsername)
                 .set(ACCOUNT.UPDATED_AT, updatedAt)
@@ -35,20 +40,27 @@ public class AccountRepositoryImpl implements AccountRepository {
 
     @Override
     public int deleteAccount(int id, String accountType) {
+        Condition accountCondition = ACCOUNT.ID.eq(id).and(ACCOUNT.ACCOUNT_TYPE.eq(accountType));
+        verifiedCredentialCache.invalidate(sql.select(ACCOUNT.USERNAME)
+                .from(ACCOUNT)
+                .where(accountCondition)
+                .fetch(ACCOUNT.USERNAME));
         return sql.deleteFrom(ACCOUNT)
-                .where(ACCOUNT.ID.eq(id).and(ACCOUNT.ACCOUNT_TYPE.eq(accountType)))
+                .where(accountCondition)
                 .execute();
     }
 
     // CONSTRUCTORS
 
     @Autowired
-    public AccountRepositoryImpl(DSLContext sql) {
+    public AccountRepositoryImpl(DSLContext sql, VerifiedCredentialCache verifiedCredentialCache) {
         this.sql = sql;
+        this.verifiedCredentialCache = verifiedCredentialCache;
     }
 
     // PRIVATE
 
     private final DSLContext sql;
+    private final VerifiedCredentialCache verifiedCredentialCache;
 
 }
@@ -9,10 +9,14 @@ import com.superum.api.v3.account.AccountRepository;
 import com.superum.api.v3.account.AccountServiceExt;
 import com.superum.helper.PartitionAccount;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutor;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 @Service
 @Transactional
@@ -23,7 +27,7 @@ public class AccountServiceExtImpl implements AccountServiceExt {
         PartitionAccount partitionAccount = new PartitionAccount();
         String username = partitionAccount.usernameFor(email);
         CompletableFuture<Account> futureAccount = accountGenerator.generateForTeacher(id, username)
-                .thenApply(Account::create);
+                .thenApplyAsync(Account::create, asCurrentUser());
         CompletableFuture.completedFuture(partitionAccount.partitionId())
                 .thenApplyAsync(partitionService::findPartition)
                 .thenApply(Partition::getName)
@@ -35,12 +39,13 @@ public class AccountServiceExtImpl implements AccountServiceExt {
         PartitionAccount partitionAccount = new PartitionAccount();
         String originalUsername = partitionAccount.usernameFor(originalEmail);
         String newUsername = partitionAccount.usernameFor(newEmail);
-        CompletableFuture.runAsync(() -> accountRepository.updateUsername(originalUsername, newUsername, System.currentTimeMillis()));
+        CompletableFuture.runAsync(() -> accountRepository.updateUsername(originalUsername, newUsername, System.currentTimeMillis()),
+                asCurrentUser());
     }
 
     @Override
     public void deleteAccount(int id, AccountType accountType) {
-        CompletableFuture.runAsync(() -> accountRepository.deleteAccount(id, accountType.name()));
+        CompletableFuture.runAsync(() -> accountRepository.deleteAccount(id, accountType.name()), asCurrentUser());
     }
 
     // CONSTRUCTORS
@@ -58,4 +63,11 @@ public class AccountServiceExtImpl implements AccountServiceExt {
     private final AccountRepository accountRepository;
     private final PartitionService partitionService;
 
+    /**
+     * @return executor which runs as the current user, so that accounts are written to the shard of the partition
+     */
+    private static Executor asCurrentUser() {
+        return new DelegatingSecurityContextExecutor(ForkJoinPool.commonPool(), SecurityContextHolder.getContext());
+    }
+
 }
@@ -0,0 +1,135 @@
+package com.superum.api.v3.admin;
+
+import com.superum.api.exception.InvalidRequestException;
+import com.superum.config.PartitionShard;
+import com.superum.config.PoolStats;
+import com.superum.config.ReadWriteRoutingDataSource;
+import com.superum.config.SqlProfiler;
+import com.superum.config.SqlStats;
+import com.superum.helper.CacheCounters;
+import com.superum.helper.PartitionAccount;
+import com.superum.helper.jooq.EntityCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+import static eu.goodlike.misc.Constants.APPLICATION_JSON_UTF8;
+import static org.springframework.web.bind.annotation.RequestMethod.GET;
+import static org.springframework.web.bind.annotation.RequestMethod.POST;
+
+@RestController
+@RequestMapping(value = "/timestar/api/v3/admin")
+public class AdminController {
+
+    @RequestMapping(value = "/pools", method = GET, produces = APPLICATION_JSON_UTF8)
+    @ResponseBody
+    public List<PoolStats> getPoolStats(PartitionAccount account) {
+        LOG.info("User {} is reading connection pool stats", account);
+
+        List<PoolStats> stats = readWriteRoutingDataSource.stats();
+        LOG.info("Pool stats read: {}", stats);
+
+        return stats;
+    }
+
+    @RequestMapping(value = "/sql", method = GET, produces = APPLICATION_JSON_UTF8)
+    @ResponseBody
+    public List<SqlStats> getSlowestStatements(PartitionAccount account,
+                                               @RequestParam(value="top", required=false) Integer top) {
+        int limit = validateTop(top);
+        LOG.info("User {} is reading {} slowest statements", account, limit);
+
+        List<SqlStats> stats = sqlProfiler.slowestShapes(limit);
+        LOG.info("Statement stats read: {}", stats);
+
+        return stats;
+    }
+
+    @RequestMapping(value = "/sql/endpoints", method = GET, produces = APPLICATION_JSON_UTF8)
+    @ResponseBody
+    public List<SqlStats> getSlowestEndpoints(PartitionAccount account,
+                                              @RequestParam(value="top", required=false) Integer top) {
+        int limit = validateTop(top);
+        LOG.info("User {} is reading {} endpoints which spent the most time on statements", account, limit);
+
+        List<SqlStats> stats = sqlProfiler.slowestEndpoints(limit);
+        LOG.info("Endpoint stats read: {}", stats);
+
+        return stats;
+    }
+
+    @RequestMapping(value = "/entities", method = GET, produces = APPLICATION_JSON_UTF8)
+    @ResponseBody
+    public CacheCounters getEntityCacheCounters(PartitionAccount account) {
+        LOG.info("User {} is reading entity cache counters", account);
+
+        CacheCounters counters = entityCache.cacheCounters();
+        LOG.info("Entity cache counters read: {}", counters);
+
+        return counters;
+    }
+
+    @RequestMapping(value = "/partitions", method = GET, produces = APPLICATION_JSON_UTF8)
+    @ResponseBody
+    public List<PartitionShard> getPartitionShards(PartitionAccount account) {
+        LOG.info("User {} is reading the shards of partitions", account);
+
+        List<PartitionShard> partitions = partitionMover.partitions();
+        LOG.info("Partition shards read: {}", partitions);
+
+        return partitions;
+    }
+
+    @RequestMapping(value = "/partitions/{partitionId:[\\d]+}/move", method = POST, produces = APPLICATION_JSON_UTF8)
+    @ResponseBody
+    public PartitionShard movePartition(PartitionAccount account, @PathVariable int partitionId,
+                                        @RequestParam(value="shard") String shard) {
+        LOG.info("User {} is moving partition {} to shard '{}'", account, partitionId, shard);
+
+        PartitionShard movedPartition = partitionMover.move(partitionId, shard);
+        LOG.info("Partition moved: {}", movedPartition);
+
+        return movedPartition;
+    }
+
+    // CONSTRUCTORS
+
+    @Autowired
+    public AdminController(ReadWriteRoutingDataSource readWriteRoutingDataSource, SqlProfiler sqlProfiler,
+                           EntityCache entityCache, PartitionMover partitionMover) {
+        this.readWriteRoutingDataSource = readWriteRoutingDataSource;
+        this.sqlProfiler = sqlProfiler;
+        this.entityCache = entityCache;
+        this.partitionMover = partitionMover;
+    }
+
+    // PRIVATE
+
+    private final ReadWriteRoutingDataSource readWriteRoutingDataSource;
+    private final SqlProfiler sqlProfiler;
+    private final EntityCache entityCache;
+    private final PartitionMover partitionMover;
+
+    private int validateTop(Integer top) {
+        if (top == null)
+            return DEFAULT_TOP;
+
+        if (top <= 0 || top > MAX_TOP)
+            throw new InvalidRequestException("You can only request 1-" + MAX_TOP + " items, not " + top);
+
+        return top;
+    }
+
+    private static final int DEFAULT_TOP = 20;
+    private static final int MAX_TOP = 100;
+
+    private static final Logger LOG = LoggerFactory.getLogger(AdminController.class);
+
+}
@@ -0,0 +1,256 @@
+package com.superum.api.v3.admin;
+
+import com.google.common.collect.Lists;
+import com.superum.api.exception.InvalidRequestException;
+import com.superum.api.v1.account.AccountType;
+import com.superum.config.PartitionRoutingDataSource;
+import com.superum.config.PartitionShard;
+import com.superum.config.SecurityConfig.Role;
+import com.superum.exception.DatabaseException;
+import org.jooq.*;
+import org.jooq.impl.DSL;
+import org.jooq.lambda.tuple.Tuple;
+import org.jooq.lambda.tuple.Tuple2;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import timestar_v2.tables.records.PartitionsRecord;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.superum.config.PartitionRoutingDataSource.PRIMARY_SHARD;
+import static com.superum.config.PartitionRoutingDataSource.SHARD_MAP_LIFETIME_SECONDS;
+import static org.jooq.impl.DSL.select;
+import static timestar_v2.Tables.*;
+
+/**
+ * <pre>
+ * Moves all data of a partition from its shard to another one
+ *
+ * The move goes like this:
+ *      1) the partition is marked as moving in PARTITIONS, so its connections fail in every instance of the app;
+ *      2) the move waits until every instance has dropped the shard it had cached before 1);
+ *      3) rows of the partition which were left in the new shard by an earlier move are deleted;
+ *      4) all rows of the partition are copied from a single snapshot of the old shard, in one transaction, keeping
+ *         their ids and timestamps;
+ *      5) the partition is mapped to the new shard and is no longer marked as moving, in a single update;
+ *      6) rows of the partition are deleted from the old shard
+ * if anything fails before 5), the partition stays where it was and is no longer marked as moving; if 6) fails, the
+ * rows left in the old shard are not used anymore, and are deleted by the next move back to it; if the app stops
+ * during the move, the partition stays marked as moving until it is moved again
+ *
+ * Roles which are given by the account type are not copied, because the database creates them again when the account
+ * is inserted; every other role (i.e. SYSTEM) is copied after the accounts
+ * </pre>
+ */
+@Service
+public class PartitionMover {
+
+    /**
+     * @return every partition, with the shard which contains its data
+     */
+    public List<PartitionShard> partitions() {
+        return directory.selectFrom(PARTITIONS)
+                .orderBy(PARTITIONS.ID)
+                .fetch(partition -> new PartitionShard(partition.getId(), partition.getName(), partition.getShard()));
+    }
+
+    /**
+     * @return partition after it was moved to given shard
+     * @throws InvalidRequestException if the partition or the shard does not exist
+     */
+    public PartitionShard move(int partitionId, String shard) {
+        if (!partitionRoutingDataSource.shards().contains(shard))
+            throw new InvalidRequestException("Shard '" + shard + "' is not configured; configured shards: " +
+                    partitionRoutingDataSource.shards());
+
+        PartitionsRecord partition = directory.selectFrom(PARTITIONS)
+                .where(PARTITIONS.ID.eq(partitionId))
+                .fetchOne();
+        if (partition == null)
+            throw new InvalidRequestException("Partition " + partitionId + " does not exist");
+
+        String oldShard = partition.getShard();
+        if (oldShard.equals(shard)) {
+            if (partition.getMoving())
+                mapTo(partitionId, shard);
+            return new PartitionShard(partitionId, partition.getName(), shard);
+        }
+
+        directory.update(PARTITIONS)
+                .set(PARTITIONS.MOVING, true)
+                .where(PARTITIONS.ID.eq(partitionId))
+                .execute();
+        partitionRoutingDataSource.forget(partitionId);
+        boolean moved = false;
+        try {
+            waitForOtherInstances();
+            long movedRows = copy(partition, oldShard, shard);
+            mapTo(partitionId, shard);
+            moved = true;
+            LOG.info("Partition {} was moved from shard '{}' to shard '{}'; rows moved: {}", partitionId, oldShard,
+                    shard, movedRows);
+
+            try {
+                shard(oldShard).transaction(configuration -> delete(DSL.using(configuration), partitionId));
+            } catch (RuntimeException e) {
+                LOG.error("Couldn't delete partition " + partitionId + " from shard '" + oldShard + "'; the rows " +
+                        "are not used anymore, and will be deleted by the next move to that shard", e);
+            }
+        } finally {
+            if (!moved)
+                mapTo(partitionId, oldShard);
+        }
+        return new PartitionShard(partitionId, partition.getName(), shard);
+    }
+
+    // CONSTRUCTORS
+
+    @Autowired
+    public PartitionMover(PartitionRoutingDataSource partitionRoutingDataSource, DSLContext sql) {
+        this.partitionRoutingDataSource = partitionRoutingDataSource;
+        this.dialect = sql.configuration().dialect();
+        this.directory = shard(PRIMARY_SHARD);
+    }
+
+    // PRIVATE
+
+    private final PartitionRoutingDataSource partitionRoutingDataSource;
+    private final SQLDialect dialect;
+    private final DSLContext directory;
+
+    private DSLContext shard(String shard) {
+        return DSL.using(partitionRoutingDataSource.poolOf(shard), dialect);
+    }
+
+    /**
+     * Maps the partition to given shard and lets every instance of the app use it again
+     */
+    private void mapTo(int partitionId, String shard) {
+        directory.update(PARTITIONS)
+                .set(PARTITIONS.SHARD, shard)
+                .set(PARTITIONS.MOVING, false)
+                .where(PARTITIONS.ID.eq(partitionId))
+                .execute();
+        partitionRoutingDataSource.forget(partitionId);
+    }
+
+    /**
+     * Other instances keep a cached shard for SHARD_MAP_LIFETIME_SECONDS; a few more seconds are given to requests
+     * which took a connection right before their cached shard expired
+     */
+    private static void waitForOtherInstances() {
+        try {
+            TimeUnit.SECONDS.sleep(SHARD_MAP_LIFETIME_SECONDS + RUNNING_REQUEST_SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseException("Move was interrupted before the partition was copied", e);
+        }
+    }
+
+    /**
+     * @return amount of rows copied
+     */
+    private long copy(PartitionsRecord partition, String oldShard, String newShard) {
+        int partitionId = partition.getId();
+        return shard(oldShard).transactionResult(snapshot -> shard(newShard).transactionResult(configuration -> {
+            DSLContext target = DSL.using(configuration);
+            target.execute("SET @partition_move = 1");
+            try {
+                delete(target, partitionId);
+                target.insertInto(PARTITIONS)
+                        .set(PARTITIONS.ID, partitionId)
+                        .set(PARTITIONS.NAME, partition.getName())
+                        .onDuplicateKeyIgnore()
+                        .execute();
+
+                long copiedRows = 0;
+                for (Tuple2<Table<?>, Condition> data : partitionData(partitionId))
+                    copiedRows += copy(DSL.using(snapshot), target, data.v1, data.v2);
+                return copiedRows;
+            } finally {
+                target.execute("SET @partition_move = NULL");
+            }
+        }));
+    }
+
+    /**
+     * MySQL driver only streams the rows when fetch size is Integer.MIN_VALUE, otherwise the whole table of the
+     * partition is read into memory before the first chunk is copied; the snapshot connection is not used for
+     * anything else while the rows are streamed
+     */
+    private static <R extends Record> long copy(DSLContext source, DSLContext target, Table<R> table,
+                                                Condition ofPartition) {
+        long copiedRows = 0;
+        Cursor<R> rows = source.selectFrom(table)
+                .where(ofPartition)
+                .fetchSize(Integer.MIN_VALUE)
+                .fetchLazy();
+        try {
+            while (rows.hasNext()) {
+                Iterator<R> chunk = rows.fetch(COPY_CHUNK_SIZE).iterator();
+                InsertSetMoreStep<R> insert = target.insertInto(table).set(chunk.next());
+                while (chunk.hasNext())
+                    insert = insert.newRecord().set(chunk.next());
+
+                copiedRows += insert.execute();
+            }
+        } finally {
+            rows.close();
+        }
+        return copiedRows;
+    }
+
+    /**
+     * Deletes all rows of the partition, except the PARTITIONS row itself; it is harmless to keep, and in the primary
+     * database it is the shard map
+     */
+    private static void delete(DSLContext sql, int partitionId) {
+        for (Tuple2<Table<?>, Condition> data : Lists.reverse(partitionData(partitionId)))
+            sql.deleteFrom(data.v1).where(data.v2).execute();
+    }
+
+    /**
+     * @return every table which contains data of the partition, with the condition for that data; tables are in the
+     * order of their foreign keys, so they can be copied in this order, and deleted in the reverse order
+     */
+    private static List<Tuple2<Table<?>, Condition>> partitionData(int partitionId) {
+        return Arrays.asList(
+                Tuple.tuple(ACCOUNT, ACCOUNT.USERNAME.like(partitionId + ".%")),
+                Tuple.tuple(ROLES, ROLES.USERNAME.like(partitionId + ".%").and(notFromAccountType())),
+                Tuple.tuple(TEACHER, TEACHER.PARTITION_ID.eq(partitionId)),
+                Tuple.tuple(TEACHER_LANGUAGE, TEACHER_LANGUAGE.TEACHER_ID.in(select(TEACHER.ID)
+                        .from(TEACHER)
+                        .where(TEACHER.PARTITION_ID.eq(partitionId)))),
+                Tuple.tuple(CUSTOMER, CUSTOMER.PARTITION_ID.eq(partitionId)),
+                Tuple.tuple(GROUP_OF_STUDENTS, GROUP_OF_STUDENTS.PARTITION_ID.eq(partitionId)),
+                Tuple.tuple(STUDENT, STUDENT.PARTITION_ID.eq(partitionId)),
+                Tuple.tuple(STUDENTS_IN_GROUPS, STUDENTS_IN_GROUPS.PARTITION_ID.eq(partitionId)),
+                Tuple.tuple(LESSON, LESSON.PARTITION_ID.eq(partitionId)),
+                Tuple.tuple(LESSON_ATTENDANCE, LESSON_ATTENDANCE.PARTITION_ID.eq(partitionId)),
+                Tuple.tuple(LESSON_TABLE_ROLLUP, LESSON_TABLE_ROLLUP.PARTITION_ID.eq(partitionId)),
+                Tuple.tuple(LESSON_TABLE_VERSION, LESSON_TABLE_VERSION.PARTITION_ID.eq(partitionId)));
+    }
+
+    /**
+     * @return condition for roles which were not created by the "automatic_roles" trigger: TEACHER is given to every
+     * account, ADMIN to every account of type ADMIN
+     */
+    private static Condition notFromAccountType() {
+        return ROLES.ROLE.ne(Role.TEACHER.fullName())
+                .and(ROLES.ROLE.ne(Role.ADMIN.fullName())
+                        .or(ROLES.USERNAME.notIn(select(ACCOUNT.USERNAME)
+                                .from(ACCOUNT)
+                                .where(ACCOUNT.ACCOUNT_TYPE.eq(AccountType.ADMIN.name())))));
+    }
+
+    private static final int COPY_CHUNK_SIZE = 500;
+    private static final int RUNNING_REQUEST_SECONDS = 10;
+
+    private static final Logger LOG = LoggerFactory.getLogger(PartitionMover.class);
+
+}
@@ -0,0 +1,140 @@
+package com.superum.api.v3.change;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.MoreObjects;
+
+import java.util.Objects;
+
+/**
+ * <pre>
+ * DTO which represents a single change, as it is sent by the change feed
+ *
+ * Changes only say what was changed; the changed records should be read using the usual endpoints
+ *
+ * Expect the following fields in JSON:
+ *      FIELD_NAME  : FIELD_DESCRIPTION
+ *      id          : resume token of this change; pass it back when reconnecting to continue after this change
+ *      table       : lesson, attendance, grouping, group, teacher or customer
+ *      action      : created, updated or deleted
+ *      keyName     : name of the field that key refers to, i.e. "id", "lessonId" or "studentId"
+ *      key         : value of that field for the changed record(s)
+ *      changedAt   : timestamp, taken at the time the change was committed
+ *
+ * Example of JSON to expect:
+ * {
+ *      "id": "150e3c2a1b8-42",
+ *      "table": "attendance",
+ *      "action": "updated",
+ *      "keyName": "lessonId",
+ *      "key": 1,
+ *      "changedAt": 1442997541588
+ * }
+ * </pre>
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.ALWAYS)
+public final class Change {
+
+    @JsonProperty(ID_FIELD)
+    public String getId() {
+        return id;
+    }
+
+    @JsonProperty(TABLE_FIELD)
+    public ChangedTable getTable() {
+        return table;
+    }
+
+    @JsonProperty(ACTION_FIELD)
+    public ChangeAction getAction() {
+        return action;
+    }
+
+    @JsonProperty(KEY_NAME_FIELD)
+    public String getKeyName() {
+        return keyName;
+    }
+
+    @JsonProperty(KEY_FIELD)
+    public long getKey() {
+        return key;
+    }
+
+    @JsonProperty(CHANGED_AT_FIELD)
+    public long getChangedAt() {
+        return changedAt;
+    }
+
+    // CONSTRUCTORS
+
+    @JsonCreator
+    public static Change jsonInstance(@JsonProperty(ID_FIELD) String id,
+                                      @JsonProperty(TABLE_FIELD) ChangedTable table,
+                                      @JsonProperty(ACTION_FIELD) ChangeAction action,
+                                      @JsonProperty(KEY_NAME_FIELD) String keyName,
+                                      @JsonProperty(KEY_FIELD) long key,
+                                      @JsonProperty(CHANGED_AT_FIELD) long changedAt) {
+        return new Change(id, table, action, keyName, key, changedAt);
+    }
+
+    public Change(String id, ChangedTable table, ChangeAction action, String keyName, long key, long changedAt) {
+        this.id = id;
+        this.table = table;
+        this.action = action;
+        this.keyName = keyName;
+        this.key = key;
+        this.changedAt = changedAt;
+    }
+
+    // PRIVATE
+
+    private final String id;
+    private final ChangedTable table;
+    private final ChangeAction action;
+    private final String keyName;
+    private final long key;
+    private final long changedAt;
+
+    private static final String ID_FIELD = "id";
+    private static final String TABLE_FIELD = "table";
+    private static final String ACTION_FIELD = "action";
+    private static final String KEY_NAME_FIELD = "keyName";
+    private static final String KEY_FIELD = "key";
+    private static final String CHANGED_AT_FIELD = "changedAt";
+
+    // OBJECT OVERRIDES
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("id", id)
+                .add("table", table)
+                .add("action", action)
+                .add("keyName", keyName)
+                .add("key", key)
+                .add("changedAt", changedAt)
+                .toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Change)) return false;
+        Change change = (Change) o;
+        return Objects.equals(id, change.id) &&
+                Objects.equals(table, change.table) &&
+                Objects.equals(action, change.action) &&
+                Objects.equals(keyName, change.keyName) &&
+                Objects.equals(key, change.key) &&
+                Objects.equals(changedAt, change.changedAt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, table, action, keyName, key, changedAt);
+    }
+
+}
@@ -0,0 +1,7 @@
+package com.superum.api.v3.change;
+
+public enum ChangeAction {
+
+    created, updated, deleted
+
+}
@@ -0,0 +1,60 @@
+package com.superum.api.v3.change;
+
+import com.superum.helper.PartitionAccount;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.web.bind.annotation.RequestMethod.GET;
+
+@RestController
+@RequestMapping(value = "/timestar/api/v3/changes")
+public class ChangeController {
+
+    @RequestMapping(method = GET, produces = EVENT_STREAM)
+    public void stream(PartitionAccount account, HttpServletRequest request, HttpServletResponse response,
+                       @RequestHeader(value="Last-Event-ID", required=false) String lastEventId,
+                       @RequestParam(value="resume", required=false) String resume) throws IOException {
+        String lastChangeId = lastEventId == null ? resume : lastEventId;
+        LOG.info("User {} is subscribing to changes, resuming after {}", account, lastChangeId);
+
+        response.setContentType(EVENT_STREAM);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader("Cache-Control", "no-cache");
+        response.setHeader("X-Accel-Buffering", "no");
+        response.flushBuffer();
+
+        AsyncContext asyncContext = request.startAsync(request, response);
+        asyncContext.setTimeout(STREAM_TIMEOUT_MILLIS);
+        changeFeed.subscribe(account.partitionId(), lastChangeId, asyncContext);
+    }
+
+    // CONSTRUCTORS
+
+    @Autowired
+    public ChangeController(ChangeFeed changeFeed) {
+        this.changeFeed = changeFeed;
+    }
+
+    // PRIVATE
+
+    private final ChangeFeed changeFeed;
+
+    private static final String EVENT_STREAM = "text/event-stream";
+    // clients reconnect by themselves, resuming from the last change, so streams do not need to last forever
+    private static final long STREAM_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private static final Logger LOG = LoggerFactory.getLogger(ChangeController.class);
+
+}
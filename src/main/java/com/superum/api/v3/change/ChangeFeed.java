@@ -0,0 +1,356 @@
+package com.superum.api.v3.change;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <pre>
+ * Publishes changes made by command services to the clients which are subscribed to the partition of the change,
+ * as server-sent events
+ *
+ * Changes are published only after the transaction which made them commits, so clients never see changes which
+ * were rolled back, and can read the changed records as soon as they receive the change
+ *
+ * Every partition keeps its latest changes in memory; a client which reconnects with the id of the last change it
+ * received (EventSource does this using Last-Event-ID header) gets the changes it missed, as long as they are still
+ * kept; otherwise, it gets a "reset" event, after which it should read everything it shows again
+ *
+ * Every subscriber has a bounded buffer; changes are written to subscribers by a single thread at a fixed rate, so a
+ * slow subscriber never slows down the command which made the change; if a subscriber falls so far behind that its
+ * buffer fills up, its stream is closed, and it can resume from its last change by reconnecting
+ *
+ * Changes are kept in memory, so they start over after a restart; ids include the time this instance started at,
+ * so an id from before the restart always results in a reset; changes made directly to the database are not noticed
+ *
+ * The feed only knows about the changes made by this instance of the app; with more than one instance, a subscriber
+ * misses the changes committed by the others, and its resume token is only understood by the instance which gave it
+ * out (any other instance answers with a reset); so the feed is only complete for single instance deployments, and
+ * clients of other deployments must still read everything again from time to time
+ * </pre>
+ */
+public final class ChangeFeed {
+
+    /**
+     * Publishes a change of given table, identified by its default key; if called within a transaction, the change
+     * is published after the transaction commits
+     */
+    public void publish(int partitionId, ChangedTable table, ChangeAction action, long key) {
+        publish(partitionId, table, action, table.defaultKeyName(), key);
+    }
+
+    /**
+     * Publishes a change of given table, identified by given key, i.e. attendance of all lessons of a student is
+     * identified by "studentId"; if called within a transaction, the change is published after the transaction
+     * commits
+     */
+    public void publish(int partitionId, ChangedTable table, ChangeAction action, String keyName, long key) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publishNow(partitionId, table, action, keyName, key);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                publishNow(partitionId, table, action, keyName, key);
+            }
+        });
+    }
+
+    /**
+     * <pre>
+     * Subscribes an asynchronous SSE response to the changes of given partition
+     *
+     * If lastChangeId is given, the changes after it are sent first; if they are no longer kept, or the id is not
+     * one that this feed has given out, a "reset" event is sent instead
+     * </pre>
+     * @param lastChangeId id of the last change the client received; null if it is a new client
+     */
+    public void subscribe(int partitionId, String lastChangeId, AsyncContext asyncContext) {
+        Subscriber subscriber = new Subscriber(asyncContext);
+        asyncContext.addListener(subscriber);
+
+        PartitionFeed feed = feeds.computeIfAbsent(partitionId, any -> new PartitionFeed());
+        synchronized (feed) {
+            if (lastChangeId != null) {
+                List<Change> missed = feed.changesAfter(lastChangeId);
+                if (missed == null || missed.size() > SUBSCRIBER_BUFFER_SIZE)
+                    subscriber.reset();
+                else
+                    missed.forEach(subscriber::offer);
+            }
+            feed.subscribers.add(subscriber);
+        }
+        LOG.debug("Subscribed to changes of partition {}, resuming after {}", partitionId, lastChangeId);
+    }
+
+    /**
+     * @return amount of streams which are subscribed to the changes of given partition; closed streams are removed
+     * the next time changes are written
+     */
+    public int subscriberCount(int partitionId) {
+        PartitionFeed feed = feeds.get(partitionId);
+        return feed == null ? 0 : feed.subscribers.size();
+    }
+
+    /**
+     * Closes every stream and stops writing changes
+     */
+    public void shutdown() {
+        writer.shutdown();
+        feeds.values().forEach(feed -> feed.subscribers.forEach(Subscriber::close));
+    }
+
+    // CONSTRUCTORS
+
+    public ChangeFeed() {
+        this.startedAt = Long.toHexString(System.currentTimeMillis());
+        this.sequence = new AtomicLong();
+        this.feeds = new ConcurrentHashMap<>();
+        this.objectMapper = new ObjectMapper();
+        this.writer = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("change-feed-%d").setDaemon(true).build());
+        this.writer.scheduleWithFixedDelay(this::writeAll, WRITE_INTERVAL_MILLIS, WRITE_INTERVAL_MILLIS,
+                TimeUnit.MILLISECONDS);
+    }
+
+    // PRIVATE
+
+    private final String startedAt;
+    private final AtomicLong sequence;
+    private final ConcurrentMap<Integer, PartitionFeed> feeds;
+    private final ObjectMapper objectMapper;
+    private final ScheduledExecutorService writer;
+
+    private long lastHeartbeat = System.currentTimeMillis();
+
+    private void publishNow(int partitionId, ChangedTable table, ChangeAction action, String keyName, long key) {
+        PartitionFeed feed = feeds.computeIfAbsent(partitionId, any -> new PartitionFeed());
+        synchronized (feed) {
+            Change change = new Change(startedAt + ID_SEPARATOR + sequence.incrementAndGet(), table, action, keyName,
+                    key, System.currentTimeMillis());
+            feed.add(change);
+            feed.subscribers.forEach(subscriber -> subscriber.offer(change));
+        }
+    }
+
+    private void writeAll() {
+        try {
+            boolean heartbeat = System.currentTimeMillis() - lastHeartbeat >= HEARTBEAT_INTERVAL_MILLIS;
+            if (heartbeat)
+                lastHeartbeat = System.currentTimeMillis();
+
+            for (PartitionFeed feed : feeds.values()) {
+                List<Subscriber> closed = new ArrayList<>();
+                for (Subscriber subscriber : feed.subscribers)
+                    if (!subscriber.write(objectMapper, heartbeat))
+                        closed.add(subscriber);
+
+                if (!closed.isEmpty())
+                    synchronized (feed) {
+                        feed.subscribers.removeAll(closed);
+                    }
+            }
+        } catch (RuntimeException e) {
+            LOG.error("Unexpected error while writing changes", e);
+        }
+    }
+
+    private static final String ID_SEPARATOR = "-";
+
+    private static final int HISTORY_SIZE = 1000;
+    private static final int SUBSCRIBER_BUFFER_SIZE = 256;
+    private static final long WRITE_INTERVAL_MILLIS = 250;
+    private static final long HEARTBEAT_INTERVAL_MILLIS = 15000;
+
+    private static final Logger LOG = LoggerFactory.getLogger(ChangeFeed.class);
+
+    /**
+     * Latest changes and subscribers of a single partition; changes to either must be synchronized on this object,
+     * so that a subscriber never misses a change between reading the history and being added
+     */
+    private final class PartitionFeed {
+
+        void add(Change change) {
+            if (history.size() == HISTORY_SIZE)
+                lastDropped = sequenceOf(history.removeFirst().getId());
+            history.addLast(change);
+        }
+
+        /**
+         * @return changes after the change with given id; null if that change is not kept anymore, or was not made
+         * by this instance of the feed
+         */
+        List<Change> changesAfter(String changeId) {
+            long lastSequence = sequenceOf(changeId);
+            if (lastSequence < 0)
+                return null;
+
+            // sequence is shared by all partitions, so only the dropped changes of this partition matter
+            if (lastSequence < lastDropped || lastSequence > sequence.get())
+                return null;
+
+            List<Change> changes = new ArrayList<>();
+            for (Change change : history)
+                if (sequenceOf(change.getId()) > lastSequence)
+                    changes.add(change);
+            return changes;
+        }
+
+        /**
+         * @return sequence number of a change with given id; -1 if the id was not made by this instance of the feed
+         */
+        private long sequenceOf(String changeId) {
+            String prefix = startedAt + ID_SEPARATOR;
+            if (!changeId.startsWith(prefix))
+                return -1;
+
+            try {
+                return Long.parseLong(changeId.substring(prefix.length()));
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+
+        private final Deque<Change> history = new ArrayDeque<>();
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+        private long lastDropped;
+
+    }
+
+    /**
+     * A single SSE stream; changes are buffered until the writer thread writes them
+     */
+    private static final class Subscriber implements AsyncListener {
+
+        /**
+         * Buffers a change; if the buffer is full, the stream will be closed instead, because the subscriber has
+         * fallen behind
+         */
+        synchronized void offer(Change change) {
+            if (buffer.size() == SUBSCRIBER_BUFFER_SIZE)
+                overflowed = true;
+            else
+                buffer.addLast(change);
+        }
+
+        /**
+         * Tells the subscriber to read everything again before anything else is written
+         */
+        synchronized void reset() {
+            isReset = true;
+        }
+
+        /**
+         * @return false if the stream is closed and the subscriber should be removed; true otherwise
+         */
+        boolean write(ObjectMapper objectMapper, boolean heartbeat) {
+            List<Change> changes;
+            boolean writeReset;
+            synchronized (this) {
+                if (isClosed)
+                    return false;
+
+                if (overflowed) {
+                    close();
+                    return false;
+                }
+
+                changes = new ArrayList<>(buffer);
+                buffer.clear();
+                writeReset = isReset;
+                isReset = false;
+            }
+
+            if (changes.isEmpty() && !writeReset && !heartbeat)
+                return true;
+
+            try {
+                PrintWriter writer = asyncContext.getResponse().getWriter();
+                if (writeReset)
+                    writer.write("event: reset\ndata: {}\n\n");
+                for (Change change : changes)
+                    writer.write("id: " + change.getId() + "\nevent: change\ndata: " +
+                            objectMapper.writeValueAsString(change) + "\n\n");
+                if (heartbeat && changes.isEmpty() && !writeReset)
+                    writer.write(": heartbeat\n\n");
+
+                writer.flush();
+                if (writer.checkError()) {
+                    close();
+                    return false;
+                }
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                LOG.debug("Couldn't write changes, closing the stream", e);
+                close();
+                return false;
+            }
+        }
+
+        synchronized void close() {
+            if (isClosed)
+                return;
+
+            isClosed = true;
+            try {
+                asyncContext.complete();
+            } catch (IllegalStateException e) {
+                LOG.debug("Stream was already completed", e);
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            markClosed();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+
+        Subscriber(AsyncContext asyncContext) {
+            this.asyncContext = asyncContext;
+        }
+
+        private final AsyncContext asyncContext;
+        private final Deque<Change> buffer = new ArrayDeque<>();
+
+        private boolean overflowed;
+        private boolean isReset;
+        private boolean isClosed;
+
+        private synchronized void markClosed() {
+            isClosed = true;
+        }
+
+    }
+
+}
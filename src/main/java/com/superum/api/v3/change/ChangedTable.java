@@ -0,0 +1,26 @@
+package com.superum.api.v3.change;
+
+/**
+ * Tables whose changes are published to the change feed; every table has a default key, which identifies the
+ * changed record(s) when no other key is given
+ */
+public enum ChangedTable {
+
+    lesson("id"),
+    attendance("lessonId"),
+    grouping("groupId"),
+    group("id"),
+    teacher("id"),
+    customer("id");
+
+    public String defaultKeyName() {
+        return defaultKeyName;
+    }
+
+    ChangedTable(String defaultKeyName) {
+        this.defaultKeyName = defaultKeyName;
+    }
+
+    private final String defaultKeyName;
+
+}
@@ -3,6 +3,7 @@ package com.superum.api.v3.customer;
 import com.superum.api.exception.InvalidRequestException;
 import com.superum.api.v3.customer.dto.FetchedCustomer;
 import com.superum.api.v3.customer.dto.SuppliedCustomer;
+import com.superum.helper.Page;
 import eu.goodlike.misc.CommonControllerLogic;
 import eu.goodlike.neat.Null;
 import org.slf4j.Logger;
@@ -10,6 +11,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
 
 import static eu.goodlike.misc.Constants.APPLICATION_JSON_UTF8;
@@ -69,30 +71,38 @@ public class CustomerController implements CommonControllerLogic {
 
     @RequestMapping(value = "/teacher/{teacherId:[\\d]+}", method = GET, produces = APPLICATION_JSON_UTF8)
     @ResponseBody
-    public List<FetchedCustomer> readForTeacher(@PathVariable int teacherId,
+    public List<FetchedCustomer> readForTeacher(HttpServletResponse response,
+                                                 @PathVariable int teacherId,
                                                  @RequestParam(value="page", required=false) Integer page,
-                                                 @RequestParam(value="per_page", required=false) Integer per_page) {
+                                                 @RequestParam(value="per_page", required=false) Integer per_page,
+                                                 @RequestParam(value="cursor", required=false) String cursor) {
         validateId("Teacher", teacherId, InvalidRequestException::new);
         page = validatePage(page, InvalidRequestException::new);
         per_page = validatePerPage(per_page, InvalidRequestException::new);
+        Page requestedPage = Page.of(page, per_page, cursor);
         LOG.info("Reading customers for teacher with id {}; page: {}, per_page: {}", teacherId, page, per_page);
 
-        List<FetchedCustomer> customers = customerQueries.readForTeacher(teacherId, page, per_page);
+        List<FetchedCustomer> customers = customerQueries.readForTeacher(teacherId, requestedPage);
         LOG.info("Customers retrieved: {}", customers);
+        requestedPage.nextCursor(response, customers, FetchedCustomer::getId);
 
         return customers;
     }
 
     @RequestMapping(method = GET, produces = APPLICATION_JSON_UTF8)
     @ResponseBody
-    public List<FetchedCustomer> readAll(@RequestParam(value="page", required=false) Integer page,
-                                          @RequestParam(value="per_page", required=false) Integer per_page) {
+    public List<FetchedCustomer> readAll(HttpServletResponse response,
+                                          @RequestParam(value="page", required=false) Integer page,
+                                          @RequestParam(value="per_page", required=false) Integer per_page,
+                                          @RequestParam(value="cursor", required=false) String cursor) {
         page = validatePage(page, InvalidRequestException::new);
         per_page = validatePerPage(per_page, InvalidRequestException::new);
+        Page requestedPage = Page.of(page, per_page, cursor);
         LOG.info("Reading all customers; page: {}, per_page: {}", page, per_page);
 
-        List<FetchedCustomer> customers = customerQueries.readAll(page, per_page);
+        List<FetchedCustomer> customers = customerQueries.readAll(requestedPage);
         LOG.info("Customers retrieved: {}", customers);
+        requestedPage.nextCursor(response, customers, FetchedCustomer::getId);
 
         return customers;
     }
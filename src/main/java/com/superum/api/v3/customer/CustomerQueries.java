@@ -1,6 +1,7 @@
 package com.superum.api.v3.customer;
 
 import com.superum.api.v3.customer.dto.FetchedCustomer;
+import com.superum.helper.Page;
 
 import java.util.List;
 
@@ -8,9 +9,9 @@ public interface CustomerQueries {
 
     FetchedCustomer readById(int id);
 
-    List<FetchedCustomer> readForTeacher(int teacherId, int page, int amount);
+    List<FetchedCustomer> readForTeacher(int teacherId, Page page);
 
-    List<FetchedCustomer> readAll(int page, int amount);
+    List<FetchedCustomer> readAll(Page page);
 
     int countForTeacher(int teacherId);
 
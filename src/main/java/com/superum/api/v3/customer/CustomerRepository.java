@@ -12,6 +12,4 @@ public interface CustomerRepository {
     int update(long updatedAt, java.sql.Date startDate, String name, String phone, String website, String picture,
                String comment, int id);
 
-    int delete(int id);
-
 }
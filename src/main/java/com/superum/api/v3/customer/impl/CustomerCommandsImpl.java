@@ -1,12 +1,16 @@
 package com.superum.api.v3.customer.impl;
 
 import com.superum.api.v2.customer.UnsafeCustomerDeleteException;
+import com.superum.api.v2.table.CustomerFetcher;
+import com.superum.api.v3.change.ChangeAction;
+import com.superum.api.v3.change.ChangeFeed;
+import com.superum.api.v3.change.ChangedTable;
 import com.superum.api.v3.customer.*;
 import com.superum.api.v3.customer.dto.FetchedCustomer;
 import com.superum.api.v3.customer.dto.SuppliedCustomer;
 import com.superum.exception.DatabaseException;
-import eu.goodlike.libraries.jooq.Queries;
-import eu.goodlike.libraries.jooq.QueriesForeign;
+import com.superum.helper.PartitionAccount;
+import com.superum.helper.jooq.GuardedCommands;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,47 +23,55 @@ public class CustomerCommandsImpl implements CustomerCommands {
     @Override
     public FetchedCustomer create(SuppliedCustomer suppliedCustomer) {
         Customer customer = customerDeserializer.toCreatable(suppliedCustomer);
-        return customer.create()
+        int partitionId = new PartitionAccount().partitionId();
+        customerFetcher.invalidate(partitionId);
+        FetchedCustomer createdCustomer = customer.create()
                 .orElseThrow(() -> new DatabaseException("Couldn't create customer: " + customer));
+
+        changeFeed.publish(partitionId, ChangedTable.customer, ChangeAction.created, createdCustomer.getId());
+        return createdCustomer;
     }
 
     @Override
     public void update(SuppliedCustomer suppliedCustomer, int id) {
         Customer customer = customerDeserializer.toUpdatable(suppliedCustomer, id);
+        int partitionId = new PartitionAccount().partitionId();
+        customerFetcher.invalidate(partitionId);
         if (customer.update(id) == 0)
             throw new DatabaseException("Couldn't update customer: " + customer);
+
+        changeFeed.publish(partitionId, ChangedTable.customer, ChangeAction.updated, id);
     }
 
     @Override
     public void delete(int id) {
-        if (!customerQueries.exists(id))
-            throw CustomerErrors.customerIdError(id);
-
-        if (customerForeignQueries.isUsed(id))
-            throw new UnsafeCustomerDeleteException("Customer with id " + id + " still has entries in other tables!");
+        int partitionId = new PartitionAccount().partitionId();
+        customerFetcher.invalidate(partitionId);
+        guardedCustomerCommands.deleteUnused(id, partitionId,
+                () -> CustomerErrors.customerIdError(id),
+                () -> new UnsafeCustomerDeleteException("Customer with id " + id + " still has entries in other tables!"));
 
-        if (customerRepository.delete(id) == 0)
-            throw new DatabaseException("Couldn't update customer with id: " + id);
+        changeFeed.publish(partitionId, ChangedTable.customer, ChangeAction.deleted, id);
     }
 
     // CONSTRUCTORS
 
     @Autowired
     public CustomerCommandsImpl(CustomerDeserializer customerDeserializer,
-                                Queries<CustomerRecord, Integer> customerQueries,
-                                QueriesForeign<Integer> customerForeignQueries,
-                                CustomerRepository customerRepository) {
+                                GuardedCommands<CustomerRecord, Integer> guardedCustomerCommands,
+                                CustomerFetcher customerFetcher,
+                                ChangeFeed changeFeed) {
         this.customerDeserializer = customerDeserializer;
-        this.customerQueries = customerQueries;
-        this.customerForeignQueries = customerForeignQueries;
-        this.customerRepository = customerRepository;
+        this.guardedCustomerCommands = guardedCustomerCommands;
+        this.customerFetcher = customerFetcher;
+        this.changeFeed = changeFeed;
     }
 
     // PRIVATE
 
     private final CustomerDeserializer customerDeserializer;
-    private final Queries<CustomerRecord, Integer> customerQueries;
-    private final QueriesForeign<Integer> customerForeignQueries;
-    private final CustomerRepository customerRepository;
+    private final GuardedCommands<CustomerRecord, Integer> guardedCustomerCommands;
+    private final CustomerFetcher customerFetcher;
+    private final ChangeFeed changeFeed;
 
 }
@@ -6,15 +6,20 @@ import com.superum.api.v3.customer.CustomerSerializer;
 import com.superum.api.v3.customer.dto.FetchedCustomer;
 import com.superum.api.v3.customer.sql.CustomersForTeacher;
 import com.superum.api.v3.teacher.TeacherErrors;
+import com.superum.helper.Page;
 import eu.goodlike.libraries.jooq.Queries;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import timestar_v2.tables.records.CustomerRecord;
 import timestar_v2.tables.records.TeacherRecord;
 
 import java.util.List;
 
+import static timestar_v2.Tables.CUSTOMER;
+
 @Service
+@Transactional(readOnly = true)
 public class CustomerQueriesImpl implements CustomerQueries {
 
     @Override
@@ -24,7 +29,7 @@ public class CustomerQueriesImpl implements CustomerQueries {
     }
 
     @Override
-    public List<FetchedCustomer> readForTeacher(int teacherId, int page, int amount) {
+    public List<FetchedCustomer> readForTeacher(int teacherId, Page page) {
         if (!teacherQueries.exists(teacherId))
             throw TeacherErrors.teacherIdError(teacherId);
 
@@ -32,8 +37,9 @@ public class CustomerQueriesImpl implements CustomerQueries {
     }
 
     @Override
-    public List<FetchedCustomer> readAll(int page, int amount) {
-        return customerQueries.readAll(page, amount, customerSerializer::toReturnable);
+    public List<FetchedCustomer> readAll(Page page) {
+        return customerQueries.read(page.number(), page.amount(), page.seek(CUSTOMER.ID),
+                customerSerializer::toReturnable);
     }
 
     @Override
@@ -4,6 +4,7 @@ import com.superum.api.v3.customer.CustomerRepository;
 import com.superum.api.v3.customer.CustomerSerializer;
 import com.superum.api.v3.customer.dto.FetchedCustomer;
 import com.superum.helper.PartitionAccount;
+import com.superum.helper.jooq.EntityCache;
 import org.jooq.Condition;
 import org.jooq.DSLContext;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,8 +22,9 @@ public class CustomerRepositoryImpl implements CustomerRepository {
     @Override
     public Optional<FetchedCustomer> create(long createdAt, long updatedAt, java.sql.Date startDate, String name,
                                             String phone, String website, String picture, String comment) {
-        return sql.insertInto(CUSTOMER)
-                .set(CUSTOMER.PARTITION_ID, new PartitionAccount().partitionId())
+        int partitionId = new PartitionAccount().partitionId();
+        Optional<FetchedCustomer> created = sql.insertInto(CUSTOMER)
+                .set(CUSTOMER.PARTITION_ID, partitionId)
                 .set(CUSTOMER.CREATED_AT, createdAt)
                 .set(CUSTOMER.UPDATED_AT, updatedAt)
                 .set(CUSTOMER.START_DATE, startDate)
@@ -34,11 +36,15 @@ public class CustomerRepositoryImpl implements CustomerRepository {
                 .returning()
                 .fetch().stream().findAny()
                 .map(customerSerializer::toReturnable);
+
+        created.ifPresent(customer -> entityCache.changed(CUSTOMER, partitionId, customer.getId()));
+        return created;
     }
 
     @Override
     public int update(long updatedAt, java.sql.Date startDate, String name, String phone, String website,
                       String picture, String comment, int id) {
+        entityCache.changed(CUSTOMER, new PartitionAccount().partitionId(), id);
         return sql.update(CUSTOMER)
                 .set(CUSTOMER.UPDATED_AT, updatedAt)
                 .set(CUSTOMER.START_DATE, startDate)
@@ -51,25 +57,20 @@ public class CustomerRepositoryImpl implements CustomerRepository {
                 .execute();
     }
 
-    @Override
-    public int delete(int id) {
-        return sql.deleteFrom(CUSTOMER)
-                .where(primaryKey(id))
-                .execute();
-    }
-
     // CONSTRUCTORS
 
     @Autowired
-    public CustomerRepositoryImpl(DSLContext sql, CustomerSerializer customerSerializer) {
+    public CustomerRepositoryImpl(DSLContext sql, CustomerSerializer customerSerializer, EntityCache entityCache) {
         this.sql = sql;
         this.customerSerializer = customerSerializer;
+        this.entityCache = entityCache;
     }
 
     // PRIVATE
 
     private final DSLContext sql;
     private final CustomerSerializer customerSerializer;
+    private final EntityCache entityCache;
 
     private Condition primaryKey(int id) {
         return CUSTOMER.ID.eq(id).and(CUSTOMER.PARTITION_ID.eq(new PartitionAccount().partitionId()));
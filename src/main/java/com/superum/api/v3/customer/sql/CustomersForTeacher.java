@@ -2,6 +2,7 @@ package com.superum.api.v3.customer.sql;
 
 import com.superum.api.v3.customer.CustomerSerializer;
 import com.superum.api.v3.customer.dto.FetchedCustomer;
+import com.superum.helper.Page;
 import com.superum.helper.PartitionAccount;
 import eu.goodlike.libraries.jooq.Queries;
 import org.jooq.*;
@@ -20,8 +21,8 @@ public class CustomersForTeacher {
     /**
      * @return list of customers for given teacherId; only specified amount is returned, with offset
      */
-    public List<FetchedCustomer> fetch(int teacherId, int page, int amount) {
-        return customerQueries.readJoin(page, amount, teacherId(teacherId),
+    public List<FetchedCustomer> fetch(int teacherId, Page page) {
+        return customerQueries.readJoin(page.number(), page.amount(), teacherId(teacherId).and(page.seek(CUSTOMER.ID)),
                 customerSerializer::toReturnable, this::customerJoin);
     }
 
@@ -51,6 +51,30 @@ public class Lesson {
         return lessonRepository.update(lessonId, groupId, teacherId, startTime, endTime, length, comment);
     }
 
+    public int getGroupId() {
+        return groupId;
+    }
+
+    public int getTeacherId() {
+        return teacherId;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public long getEndTime() {
+        return endTime;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public String getComment() {
+        return comment;
+    }
+
     // CONSTRUCTORS
 
     public static Lesson valueOf(int groupId, int teacherId, long startTime, long endTime, int length,
@@ -5,11 +5,16 @@ import com.superum.api.v2.lesson.InvalidLessonException;
 import com.superum.api.v2.lesson.LessonNotFoundException;
 import com.superum.api.v2.lesson.OverlappingLessonException;
 import com.superum.api.v2.lesson.UnsafeLessonDeleteException;
+import com.superum.api.v3.lesson.dto.BatchLessonResult;
 import com.superum.api.v3.lesson.dto.FetchedLesson;
+import com.superum.api.v3.lesson.dto.SuppliedLesson;
+import com.superum.api.v3.lesson.dto.SuppliedLessonSeries;
 import com.superum.api.v3.lesson.dto.SuppliedLessonWithTimestamp;
 import com.superum.exception.DatabaseException;
 import org.springframework.dao.DataAccessException;
 
+import java.util.List;
+
 /**
  * <pre>
  * Defines operations which allow to change the state of the system in regards to lessons, i.e. create a new lesson
@@ -35,6 +40,39 @@ public interface LessonCommands {
      */
     FetchedLesson create(SuppliedLessonWithTimestamp suppliedLesson, int partitionId);
 
+    /**
+     * <pre>
+     * Creates new lessons in the database, all at once
+     *
+     * Every lesson is checked the same way as it would be when creating it by itself, as well as against the other
+     * lessons of the batch; lessons which fail any check are not created, but do not prevent other lessons from being
+     * created
+     *
+     * Please refer to APIv2.md for explanation on partitionId
+     * </pre>
+     * @return result for every supplied lesson, in the same order
+     * @throws DatabaseException if database error occurred
+     * @throws DataAccessException if an unexpected database error occurred
+     */
+    List<BatchLessonResult> createAll(List<SuppliedLesson> suppliedLessons, int partitionId);
+
+    /**
+     * <pre>
+     * Creates a new lesson for every date of the series, all at once
+     *
+     * Unlike createAll, either every lesson of the series is created, or none of them are
+     *
+     * Please refer to APIv2.md for explanation on partitionId
+     * </pre>
+     * @return the created lessons, ordered by start time
+     * @throws InvalidLessonException if supplied series is invalid
+     * @throws GroupNotFoundException if supplied series has groupId which does not exist in the database
+     * @throws OverlappingLessonException if any lesson of the series overlaps with others for its teacher
+     * @throws DatabaseException if database error occurred
+     * @throws DataAccessException if an unexpected database error occurred
+     */
+    List<FetchedLesson> createSeries(SuppliedLessonSeries series, int partitionId);
+
     /**
      * <pre>
      * Updates a lesson in the database
@@ -2,9 +2,13 @@ package com.superum.api.v3.lesson;
 
 import com.superum.api.exception.InvalidRequestException;
 import com.superum.api.v2.Table;
+import com.superum.api.v3.lesson.dto.BatchLessonResult;
+import com.superum.api.v3.lesson.dto.CalendarLesson;
 import com.superum.api.v3.lesson.dto.FetchedLesson;
 import com.superum.api.v3.lesson.dto.SuppliedLesson;
+import com.superum.api.v3.lesson.dto.SuppliedLessonSeries;
 import com.superum.api.v3.lesson.dto.SuppliedLessonWithTimestamp;
+import com.superum.helper.Page;
 import com.superum.helper.PartitionAccount;
 import eu.goodlike.misc.CommonControllerLogic;
 import eu.goodlike.neat.Null;
@@ -14,7 +18,9 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static eu.goodlike.misc.Constants.APPLICATION_JSON_UTF8;
 import static org.springframework.web.bind.annotation.RequestMethod.*;
@@ -38,6 +44,33 @@ public class LessonController implements CommonControllerLogic {
         return createdLesson;
     }
 
+    @RequestMapping(value = "/batch", method = POST, produces = APPLICATION_JSON_UTF8, consumes = APPLICATION_JSON_UTF8)
+    @ResponseBody
+    public List<BatchLessonResult> createAll(PartitionAccount account, @RequestBody List<SuppliedLesson> lessons) {
+        Null.check(lessons).ifAny(() -> new InvalidRequestException("Lessons cannot be null"));
+        if (lessons.isEmpty() || lessons.size() > MAX_BATCH_SIZE)
+            throw new InvalidRequestException("Amount of lessons must be between 1 and " + MAX_BATCH_SIZE + ", not: "
+                    + lessons.size());
+        LOG.info("User {} is creating {} lessons: {}", account, lessons.size(), lessons);
+
+        List<BatchLessonResult> results = lessonCommands.createAll(lessons, account.partitionId());
+        LOG.info("Lesson batch results: {}", results);
+
+        return results;
+    }
+
+    @RequestMapping(value = "/series", method = POST, produces = APPLICATION_JSON_UTF8, consumes = APPLICATION_JSON_UTF8)
+    @ResponseBody
+    public List<FetchedLesson> createSeries(PartitionAccount account, @RequestBody SuppliedLessonSeries series) {
+        Null.check(series).ifAny(() -> new InvalidRequestException("Lesson series cannot be null"));
+        LOG.info("User {} is creating a lesson series: {}", account, series);
+
+        List<FetchedLesson> createdLessons = lessonCommands.createSeries(series, account.partitionId());
+        LOG.info("Successfully created {} lessons for series: {}", createdLessons.size(), series);
+
+        return createdLessons;
+    }
+
     @RequestMapping(value = "/{id:[\\d]+}", method = PUT, consumes = APPLICATION_JSON_UTF8)
     @ResponseBody
     public void update(PartitionAccount account, @PathVariable long id, @RequestBody SuppliedLesson lesson) {
@@ -76,9 +109,10 @@ public class LessonController implements CommonControllerLogic {
 
     @RequestMapping(method = GET, produces = APPLICATION_JSON_UTF8)
     @ResponseBody
-    public List<FetchedLesson> readAll(PartitionAccount account,
+    public List<FetchedLesson> readAll(PartitionAccount account, HttpServletResponse response,
                                         @RequestParam(value="page", required=false) Integer page,
                                         @RequestParam(value="per_page", required=false) Integer per_page,
+                                        @RequestParam(value="cursor", required=false) String cursor,
                                         @RequestParam(value="time_zone", required=false) String timeZone,
                                         @RequestParam(value="start_date", required=false) String startDate,
                                         @RequestParam(value="end_date", required=false) String endDate,
@@ -86,14 +120,16 @@ public class LessonController implements CommonControllerLogic {
                                         @RequestParam(value="end", required=false) Long end) {
         page = validatePage(page, InvalidRequestException::new);
         per_page = validatePerPage(per_page, InvalidRequestException::new);
+        Page requestedPage = Page.of(page, per_page, cursor);
         TimeResolver timeResolver = validateTime(timeZone, startDate, endDate, start, end, InvalidRequestException::new);
         start = timeResolver.getStartTime();
         end = timeResolver.getEndTime();
         LOG.info("User {} is reading all lessons, from {} to {}, page {}, with {} entries per page",
                 account, start, end, page, per_page);
 
-        List<FetchedLesson> lessons = lessonQueries.readAll(page, per_page, start, end);
+        List<FetchedLesson> lessons = lessonQueries.readAll(requestedPage, start, end);
         LOG.info("Lessons retrieved: {}", lessons);
+        requestedPage.nextCursor(response, lessons, FetchedLesson::getId);
 
         return lessons;
     }
@@ -101,8 +137,10 @@ public class LessonController implements CommonControllerLogic {
     @RequestMapping(value = "/{tableName:group|teacher|customer|student}/{id:[\\d]+}", method = GET, produces = APPLICATION_JSON_UTF8)
     @ResponseBody
     public List<FetchedLesson> readForTable(PartitionAccount account, @PathVariable String tableName, @PathVariable int id,
+                                             HttpServletResponse response,
                                              @RequestParam(value="page", required=false) Integer page,
                                              @RequestParam(value="per_page", required=false) Integer per_page,
+                                             @RequestParam(value="cursor", required=false) String cursor,
                                              @RequestParam(value="time_zone", required=false) String time_zone,
                                              @RequestParam(value="start_date", required=false) String start_date,
                                              @RequestParam(value="end_date", required=false) String end_date,
@@ -111,6 +149,7 @@ public class LessonController implements CommonControllerLogic {
         validateId(tableName, id, InvalidRequestException::new);
         page = validatePage(page, InvalidRequestException::new);
         per_page = validatePerPage(per_page, InvalidRequestException::new);
+        Page requestedPage = Page.of(page, per_page, cursor);
         TimeResolver timeResolver = validateTime(time_zone, start_date, end_date, start, end, InvalidRequestException::new);
         start = timeResolver.getStartTime();
         end = timeResolver.getEndTime();
@@ -123,21 +162,60 @@ public class LessonController implements CommonControllerLogic {
         List<FetchedLesson> lessons;
         switch (table) {
             case group:
-                lessons = lessonQueries.readForGroup(id, page, per_page, start, end);
+                lessons = lessonQueries.readForGroup(id, requestedPage, start, end);
                 break;
             case teacher:
-                lessons = lessonQueries.readForTeacher(id, page, per_page, start, end);
+                lessons = lessonQueries.readForTeacher(id, requestedPage, start, end);
                 break;
             case customer:
-                lessons = lessonQueries.readForCustomer(id, page, per_page, start, end);
+                lessons = lessonQueries.readForCustomer(id, requestedPage, start, end);
                 break;
             case student:
-                lessons = lessonQueries.readForStudent(id, page, per_page, start, end);
+                lessons = lessonQueries.readForStudent(id, requestedPage, start, end);
                 break;
             default:
                 throw new AssertionError("The regex filter should have filtered out invalid names");
         }
         LOG.info("Lessons retrieved: {}", lessons);
+        requestedPage.nextCursor(response, lessons, FetchedLesson::getId);
+
+        return lessons;
+    }
+
+    @RequestMapping(value = "/calendar/{tableName:group|teacher|customer}/{id:[\\d]+}", method = GET, produces = APPLICATION_JSON_UTF8)
+    @ResponseBody
+    public List<CalendarLesson> readCalendar(PartitionAccount account, @PathVariable String tableName, @PathVariable int id,
+                                             @RequestParam(value="time_zone", required=false) String time_zone,
+                                             @RequestParam(value="start_date", required=false) String start_date,
+                                             @RequestParam(value="end_date", required=false) String end_date,
+                                             @RequestParam(value="start", required=false) Long start,
+                                             @RequestParam(value="end", required=false) Long end) {
+        validateId(tableName, id, InvalidRequestException::new);
+        TimeResolver timeResolver = validateTime(time_zone, start_date, end_date, start, end, InvalidRequestException::new);
+        start = timeResolver.getStartTime();
+        end = timeResolver.getEndTime();
+        if (end - start > MAX_CALENDAR_RANGE)
+            throw new InvalidRequestException("Calendar cannot be longer than " + MAX_CALENDAR_DAYS + " days");
+        LOG.info("User {} is reading calendar for {} with id {}, from {} to {}", account, tableName, id, start, end);
+
+        Table table = Table.forName(tableName)
+                .orElseThrow(() -> new AssertionError("The regex filter should have filtered out impossible names"));
+
+        List<CalendarLesson> lessons;
+        switch (table) {
+            case group:
+                lessons = lessonQueries.readCalendarForGroup(id, start, end);
+                break;
+            case teacher:
+                lessons = lessonQueries.readCalendarForTeacher(id, start, end);
+                break;
+            case customer:
+                lessons = lessonQueries.readCalendarForCustomer(id, start, end);
+                break;
+            default:
+                throw new AssertionError("The regex filter should have filtered out invalid names");
+        }
+        LOG.info("Calendar retrieved: {}", lessons);
 
         return lessons;
     }
@@ -158,5 +236,9 @@ public class LessonController implements CommonControllerLogic {
     private final LessonQueries lessonQueries;
     private final LessonTransformer lessonTransformer;
 
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final int MAX_CALENDAR_DAYS = 62;
+    private static final long MAX_CALENDAR_RANGE = TimeUnit.DAYS.toMillis(MAX_CALENDAR_DAYS);
+
     private static final Logger LOG = LoggerFactory.getLogger(LessonController.class);
 }
@@ -5,7 +5,9 @@ import com.superum.api.v2.group.GroupNotFoundException;
 import com.superum.api.v2.lesson.LessonNotFoundException;
 import com.superum.api.v2.student.StudentNotFoundException;
 import com.superum.api.v2.teacher.TeacherNotFoundException;
+import com.superum.api.v3.lesson.dto.CalendarLesson;
 import com.superum.api.v3.lesson.dto.FetchedLesson;
+import com.superum.helper.Page;
 import org.springframework.dao.DataAccessException;
 
 import java.util.List;
@@ -27,45 +29,70 @@ public interface LessonQueries {
     FetchedLesson readById(long lessonId);
 
     /**
-     * @return lessons between start and end, starting at (page * amount); the amount of them is returned
+     * @return lessons between start and end, for given page; at most page.amount() of them are returned
      * @throws DataAccessException if an unexpected database error occurred
      */
-    List<FetchedLesson> readAll(int page, int amount, long start, long end);
+    List<FetchedLesson> readAll(Page page, long start, long end);
 
     /**
      * Every lesson is for a certain group, which is its groupId
-     * @return lessons with given groupId between start and end, starting at (page * amount);
-     * the amount of them is returned
+     * @return lessons with given groupId between start and end, for given page;
+     * at most page.amount() of them are returned
      * @throws GroupNotFoundException if no group with this id exists
      * @throws DataAccessException if an unexpected database error occurred
      */
-    List<FetchedLesson> readForGroup(int groupId, int page, int amount, long start, long end);
+    List<FetchedLesson> readForGroup(int groupId, Page page, long start, long end);
 
     /**
      * Every lesson is done by a certain teacher, which is its teacherId
-     * @return lessons with given teacherId between start and end, starting at (page * amount);
-     * the amount of them is returned
+     * @return lessons with given teacherId between start and end, for given page;
+     * at most page.amount() of them are returned
      * @throws TeacherNotFoundException if no teacher with this id exists
      * @throws DataAccessException if an unexpected database error occurred
      */
-    List<FetchedLesson> readForTeacher(int teacherId, int page, int amount, long start, long end);
+    List<FetchedLesson> readForTeacher(int teacherId, Page page, long start, long end);
 
     /**
      * Every lesson has a group, and members of this group can belong to customers, which are its customerIds
-     * @return lessons with given customerId between start and end, starting at (page * amount);
-     * the amount of them is returned
+     * @return lessons with given customerId between start and end, for given page;
+     * at most page.amount() of them are returned
      * @throws CustomerNotFoundException if no customer with this id exists
      * @throws DataAccessException if an unexpected database error occurred
      */
-    List<FetchedLesson> readForCustomer(int customerId, int page, int amount, long start, long end);
+    List<FetchedLesson> readForCustomer(int customerId, Page page, long start, long end);
 
     /**
      * Every lesson can be attended by students, which are its studentIds
-     * @return lessons with given studentId between start and end, starting at (page * amount);
-     * the amount of them is returned
+     * @return lessons with given studentId between start and end, for given page;
+     * at most page.amount() of them are returned
      * @throws StudentNotFoundException if no student with this id exists
      * @throws DataAccessException if an unexpected database error occurred
      */
-    List<FetchedLesson> readForStudent(int studentId, int page, int amount, long start, long end);
+    List<FetchedLesson> readForStudent(int studentId, Page page, long start, long end);
+
+
+    /**
+     * @return lessons with given groupId between start and end, with group names and attendee ids, ordered by start
+     * time; not paged, so the time range should be that of a calendar view, i.e. a week
+     * @throws GroupNotFoundException if no group with this id exists
+     * @throws DataAccessException if an unexpected database error occurred
+     */
+    List<CalendarLesson> readCalendarForGroup(int groupId, long start, long end);
+
+    /**
+     * @return lessons with given teacherId between start and end, with group names and attendee ids, ordered by
+     * start time; not paged, so the time range should be that of a calendar view, i.e. a week
+     * @throws TeacherNotFoundException if no teacher with this id exists
+     * @throws DataAccessException if an unexpected database error occurred
+     */
+    List<CalendarLesson> readCalendarForTeacher(int teacherId, long start, long end);
+
+    /**
+     * @return lessons with given customerId between start and end, with group names and attendee ids, ordered by
+     * start time; not paged, so the time range should be that of a calendar view, i.e. a week
+     * @throws CustomerNotFoundException if no customer with this id exists
+     * @throws DataAccessException if an unexpected database error occurred
+     */
+    List<CalendarLesson> readCalendarForCustomer(int customerId, long start, long end);
 
 }
@@ -1,9 +1,14 @@
 package com.superum.api.v3.lesson;
 
 import com.superum.api.v3.lesson.dto.FetchedLesson;
+import com.superum.exception.DatabaseException;
 import org.jooq.Record;
+import org.jooq.lambda.tuple.Tuple2;
 import org.springframework.dao.DataAccessException;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
 
@@ -25,6 +30,20 @@ public interface LessonRepository {
     Optional<FetchedLesson> insert(int groupId, int teacherId, long startTime, long endTime, int length,
                                    String comment, Function<Record, FetchedLesson> mapper);
 
+    /**
+     * <pre>
+     * Inserts records into LESSON table using the values of given lessons, with a single statement for every
+     * chunk of lessons
+     *
+     * Partition id is taken from the current account, same as for a single lesson
+     * </pre>
+     * @return inserted lessons, in the same order as given lessons
+     * @throws DatabaseException if retrieval of inserted lessons failed
+     * @throws NullPointerException if mapper is null
+     * @throws DataAccessException if an unexpected database error occurred
+     */
+    List<FetchedLesson> insertAll(List<Lesson> lessons, Function<Record, FetchedLesson> mapper);
+
     /**
      * <pre>
      * Updates a record in LESSON table with id of lessonId using given field values
@@ -56,4 +75,17 @@ public interface LessonRepository {
      */
     boolean isOverlapping(int teacherId, long startTime, long endTime);
 
+    /**
+     * @return teacher ids of groups with given ids, mapped by group id; groups which do not exist are not included
+     * @throws DataAccessException if an unexpected database error occurred
+     */
+    Map<Integer, Integer> readTeacherIds(Collection<Integer> groupIds);
+
+    /**
+     * @return (startTime, endTime) of every lesson of teachers with given ids which overlaps with the time between
+     * startTime and endTime, mapped by teacher id; teachers without such lessons are not included
+     * @throws DataAccessException if an unexpected database error occurred
+     */
+    Map<Integer, List<Tuple2<Long, Long>>> readLessonTimes(Collection<Integer> teacherIds, long startTime, long endTime);
+
 }
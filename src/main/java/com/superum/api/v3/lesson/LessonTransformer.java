@@ -5,10 +5,13 @@ import com.superum.api.v2.lesson.InvalidLessonException;
 import com.superum.api.v2.lesson.LessonNotFoundException;
 import com.superum.api.v3.lesson.dto.FetchedLesson;
 import com.superum.api.v3.lesson.dto.SuppliedLesson;
+import com.superum.api.v3.lesson.dto.SuppliedLessonSeries;
 import com.superum.api.v3.lesson.dto.SuppliedLessonWithTimestamp;
 import com.superum.api.v3.lesson.dto.SuppliedLessonWithTimezone;
 import org.jooq.Record;
 
+import java.util.List;
+
 /**
  * Transforms various lesson representations to others
  */
@@ -57,9 +60,23 @@ public interface LessonTransformer {
      */
     SuppliedLessonWithTimestamp from(SuppliedLesson lesson, boolean toCreate);
 
+    /**
+     * <pre>
+     * JSON -> JSON
+     *
+     * Expands the series into a lesson for every date it has, with timestamp values computed the same way as for
+     * a single lesson; the lessons are ordered by start time
+     * </pre>
+     * @throws InvalidLessonException if the series is invalid, or has no dates at all, or has more than
+     * MAX_SERIES_SIZE dates
+     */
+    List<SuppliedLesson> from(SuppliedLessonSeries series);
+
     /**
      * Database -> JSON
      */
     FetchedLesson from(Record record);
 
+    int MAX_SERIES_SIZE = 1000;
+
 }
@@ -0,0 +1,143 @@
+package com.superum.api.v3.lesson.dto;
+
+import com.fasterxml.jackson.annotation.*;
+import com.google.common.base.MoreObjects;
+
+import java.util.Objects;
+
+import static javax.servlet.http.HttpServletResponse.SC_OK;
+
+/**
+ * <pre>
+ * DTO which represents the result of creating a single lesson of a batch
+ *
+ * Instances of this class are created for every lesson of a batch, in the same order as the lessons were sent
+ *
+ * Expect the following fields in JSON:
+ *      FIELD_NAME  : FIELD_DESCRIPTION
+ *      index       : index of the lesson in the batch, starting at 0
+ *      status      : HTTP status that creating this lesson by itself would have returned
+ *      lesson      : (can be null) the created lesson; null if it was not created
+ *      error       : (can be null) the reason the lesson was not created; null if it was created
+ *
+ * Example of JSON to expect:
+ * {
+ *      "index": 0,
+ *      "status": 200,
+ *      "lesson": {
+ *          "id": 1,
+ *          "groupId": 1,
+ *          "teacherId": 1,
+ *          "startTime": 1442997507129,
+ *          "endTime": 1443000207129,
+ *          "length" : 45,
+ *          "comment": "What a lesson",
+ *          "createdAt":1442955600000,
+ *          "updatedAt":1442997541588
+ *      },
+ *      "error": null
+ * }
+ * or
+ * {
+ *      "index": 1,
+ *      "status": 409,
+ *      "lesson": null,
+ *      "error": "This teacher already has a lesson during this time, cannot create!"
+ * }
+ * </pre>
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.ALWAYS)
+public final class BatchLessonResult {
+
+    @JsonProperty(INDEX_FIELD)
+    public int getIndex() {
+        return index;
+    }
+
+    @JsonProperty(STATUS_FIELD)
+    public int getStatus() {
+        return status;
+    }
+
+    @JsonProperty(LESSON_FIELD)
+    public FetchedLesson getLesson() {
+        return lesson;
+    }
+
+    @JsonProperty(ERROR_FIELD)
+    public String getError() {
+        return error;
+    }
+
+    @JsonIgnore
+    public boolean isCreated() {
+        return lesson != null;
+    }
+
+    // CONSTRUCTORS
+
+    @JsonCreator
+    public static BatchLessonResult jsonInstance(@JsonProperty(INDEX_FIELD) int index,
+                                                 @JsonProperty(STATUS_FIELD) int status,
+                                                 @JsonProperty(LESSON_FIELD) FetchedLesson lesson,
+                                                 @JsonProperty(ERROR_FIELD) String error) {
+        return new BatchLessonResult(index, status, lesson, error);
+    }
+
+    public static BatchLessonResult created(int index, FetchedLesson lesson) {
+        return new BatchLessonResult(index, SC_OK, lesson, null);
+    }
+
+    public static BatchLessonResult failed(int index, int status, String error) {
+        return new BatchLessonResult(index, status, null, error);
+    }
+
+    public BatchLessonResult(int index, int status, FetchedLesson lesson, String error) {
+        this.index = index;
+        this.status = status;
+        this.lesson = lesson;
+        this.error = error;
+    }
+
+    // PRIVATE
+
+    private final int index;
+    private final int status;
+    private final FetchedLesson lesson;
+    private final String error;
+
+    private static final String INDEX_FIELD = "index";
+    private static final String STATUS_FIELD = "status";
+    private static final String LESSON_FIELD = "lesson";
+    private static final String ERROR_FIELD = "error";
+
+    // OBJECT OVERRIDES
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("index", index)
+                .add("status", status)
+                .add("lesson", lesson)
+                .add("error", error)
+                .toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof BatchLessonResult)) return false;
+        BatchLessonResult that = (BatchLessonResult) o;
+        return Objects.equals(index, that.index) &&
+                Objects.equals(status, that.status) &&
+                Objects.equals(lesson, that.lesson) &&
+                Objects.equals(error, that.error);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(index, status, lesson, error);
+    }
+
+}
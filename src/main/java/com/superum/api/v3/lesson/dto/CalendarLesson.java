@@ -0,0 +1,111 @@
+package com.superum.api.v3.lesson.dto;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.MoreObjects;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * <pre>
+ * DTO which represents a lesson as it is shown in a calendar, together with the name of its group and the students
+ * which attended it
+ *
+ * Expect the following fields in JSON:
+ *      FIELD_NAME  : FIELD_DESCRIPTION
+ *      lesson      : the lesson itself, same as FetchedLesson
+ *      groupName   : name of the group that is having this lesson
+ *      attendeeIds : ids of students which attended this lesson, in ascending order; can be empty
+ *
+ * Example of JSON to expect:
+ * {
+ *      "lesson": {
+ *          "id": 1,
+ *          "groupId": 1,
+ *          "teacherId": 1,
+ *          "startTime": 1442997507129,
+ *          "endTime": 1443000207129,
+ *          "length" : 45,
+ *          "comment": "What a lesson",
+ *          "createdAt":1442955600000,
+ *          "updatedAt":1442997541588
+ *      },
+ *      "groupName": "Best Group",
+ *      "attendeeIds": [1, 2, 3]
+ * }
+ * </pre>
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.ALWAYS)
+public final class CalendarLesson {
+
+    @JsonProperty(LESSON_FIELD)
+    public FetchedLesson getLesson() {
+        return lesson;
+    }
+
+    @JsonProperty(GROUP_NAME_FIELD)
+    public String getGroupName() {
+        return groupName;
+    }
+
+    @JsonProperty(ATTENDEE_IDS_FIELD)
+    public List<Integer> getAttendeeIds() {
+        return attendeeIds;
+    }
+
+    // CONSTRUCTORS
+
+    @JsonCreator
+    public static CalendarLesson jsonInstance(@JsonProperty(LESSON_FIELD) FetchedLesson lesson,
+                                              @JsonProperty(GROUP_NAME_FIELD) String groupName,
+                                              @JsonProperty(ATTENDEE_IDS_FIELD) List<Integer> attendeeIds) {
+        return new CalendarLesson(lesson, groupName, attendeeIds);
+    }
+
+    public CalendarLesson(FetchedLesson lesson, String groupName, List<Integer> attendeeIds) {
+        this.lesson = lesson;
+        this.groupName = groupName;
+        this.attendeeIds = attendeeIds;
+    }
+
+    // PRIVATE
+
+    private final FetchedLesson lesson;
+    private final String groupName;
+    private final List<Integer> attendeeIds;
+
+    private static final String LESSON_FIELD = "lesson";
+    private static final String GROUP_NAME_FIELD = "groupName";
+    private static final String ATTENDEE_IDS_FIELD = "attendeeIds";
+
+    // OBJECT OVERRIDES
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("lesson", lesson)
+                .add("groupName", groupName)
+                .add("attendeeIds", attendeeIds)
+                .toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CalendarLesson)) return false;
+        CalendarLesson that = (CalendarLesson) o;
+        return Objects.equals(lesson, that.lesson) &&
+                Objects.equals(groupName, that.groupName) &&
+                Objects.equals(attendeeIds, that.attendeeIds);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(lesson, groupName, attendeeIds);
+    }
+
+}
@@ -0,0 +1,291 @@
+package com.superum.api.v3.lesson.dto;
+
+import com.fasterxml.jackson.annotation.*;
+import com.google.common.base.MoreObjects;
+import com.superum.api.v2.lesson.InvalidLessonException;
+import eu.goodlike.neat.Null;
+import eu.goodlike.v2.validate.Validate;
+import org.jooq.lambda.Seq;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+import static com.superum.api.core.CommonValidators.MANDATORY_JSON_ID;
+import static java.util.stream.Collectors.toSet;
+
+/**
+ * <pre>
+ * DTO which represents a rule for a series of lessons, i.e. every Monday and Wednesday at 18:00 for a semester
+ *
+ * Instances of this class are created directly from JSON in HTTP bodies
+ *
+ * The following JSON fields are parsed:
+ *      FIELD_NAME  : FIELD_DESCRIPTION                                         FIELD_CONSTRAINTS
+ *      groupId     : id of the group which is having these lessons             1 <= groupId
+ *      timezone    : time zone for dates and times of the series               time zone String
+ *      startDate   : first date of the series (inclusive)                      date String, "yyyy-MM-dd"
+ *      endDate     : last date of the series (inclusive)                       date String, "yyyy-MM-dd"; at most
+ *                                                                              366 days after startDate
+ *      weekdays    : days of week the lessons happen on                        non-empty List of "MONDAY" ... "SUNDAY"
+ *      startHour   : hour when every lesson starts                             0 <= startHour <= 23
+ *      startMinute : minute when every lesson starts                           0 <= startMinute <= 59
+ *      length      : duration of every lesson in minutes                       1 <= length
+ *      comment     : comment for every lesson                                  any String, max 500 chars
+ *      skipDates   : dates which have no lesson, i.e. holidays                 (can be null) List of date Strings
+ *
+ * You can find the list of supported timezones with the method:
+ *      /timestar/api/v2/misc/time/zones
+ *
+ * Example of JSON to send:
+ * {
+ *      "groupId": 1,
+ *      "timezone": "Europe/Vilnius",
+ *      "startDate": "2015-09-01",
+ *      "endDate": "2015-12-23",
+ *      "weekdays": ["MONDAY", "WEDNESDAY"],
+ *      "startHour": 18,
+ *      "startMinute": 0,
+ *      "length": 90,
+ *      "comment": "Autumn semester",
+ *      "skipDates": ["2015-11-02"]
+ * }
+ * </pre>
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.ALWAYS)
+public class SuppliedLessonSeries {
+
+    @JsonProperty(GROUP_ID_FIELD)
+    public Integer getGroupId() {
+        return groupId;
+    }
+
+    @JsonProperty(TIME_ZONE_FIELD)
+    public String getTimezoneString() {
+        return timezone == null ? null : timezone.toString();
+    }
+    @JsonIgnore
+    public ZoneId getTimezone() {
+        return timezone;
+    }
+
+    @JsonProperty(START_DATE_FIELD)
+    public String getStartDateString() {
+        return startDate == null ? null : startDate.toString();
+    }
+    @JsonIgnore
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    @JsonProperty(END_DATE_FIELD)
+    public String getEndDateString() {
+        return endDate == null ? null : endDate.toString();
+    }
+    @JsonIgnore
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    @JsonProperty(WEEKDAYS_FIELD)
+    public List<String> getWeekdayStrings() {
+        return Seq.seq(weekdays).sorted().map(DayOfWeek::name).toList();
+    }
+    @JsonIgnore
+    public Set<DayOfWeek> getWeekdays() {
+        return weekdays;
+    }
+
+    @JsonProperty(HOUR_FIELD)
+    public Integer getStartHour() {
+        return startHour;
+    }
+
+    @JsonProperty(MINUTE_FIELD)
+    public Integer getStartMinute() {
+        return startMinute;
+    }
+
+    @JsonProperty(LENGTH_FIELD)
+    public Integer getLength() {
+        return length;
+    }
+
+    @JsonProperty(COMMENT_FIELD)
+    public String getComment() {
+        return comment;
+    }
+
+    @JsonProperty(SKIP_DATES_FIELD)
+    public List<String> getSkipDateStrings() {
+        return Seq.seq(skipDates).sorted().map(LocalDate::toString).toList();
+    }
+    @JsonIgnore
+    public Set<LocalDate> getSkipDates() {
+        return skipDates;
+    }
+
+    /**
+     * @return every date of this series which has a lesson, in order
+     */
+    public List<LocalDate> dates() {
+        List<LocalDate> dates = new ArrayList<>();
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1))
+            if (weekdays.contains(date.getDayOfWeek()) && !skipDates.contains(date))
+                dates.add(date);
+        return dates;
+    }
+
+    public void validate() {
+        MANDATORY_JSON_ID.ifInvalid(groupId).thenThrow(this::groupIdError);
+        Null.check(timezone, startDate, endDate).ifAny(this::datesError);
+        if (endDate.isBefore(startDate) || ChronoUnit.DAYS.between(startDate, endDate) > MAX_DAYS)
+            throw datesError();
+
+        if (weekdays.isEmpty())
+            throw new InvalidLessonException("Lesson series must have at least one weekday");
+
+        Validate.integer().not().isNull().isHourOfDay().ifInvalid(startHour).thenThrow(this::startHourError);
+        Validate.integer().not().isNull().isMinuteOfHour().ifInvalid(startMinute).thenThrow(this::startMinuteError);
+        Validate.integer().not().isNull().isAtLeast(1).ifInvalid(length).thenThrow(this::lengthError);
+        Validate.string().isNull().or().isNoLargerThan(COMMENT_SIZE_LIMIT).ifInvalid(comment).thenThrow(this::commentError);
+    }
+
+    // CONSTRUCTORS
+
+    @JsonCreator
+    public static SuppliedLessonSeries jsonInstance(@JsonProperty(GROUP_ID_FIELD) Integer groupId,
+                                                    @JsonProperty(TIME_ZONE_FIELD) String timezoneString,
+                                                    @JsonProperty(START_DATE_FIELD) String startDateString,
+                                                    @JsonProperty(END_DATE_FIELD) String endDateString,
+                                                    @JsonProperty(WEEKDAYS_FIELD) List<String> weekdayStrings,
+                                                    @JsonProperty(HOUR_FIELD) Integer startHour,
+                                                    @JsonProperty(MINUTE_FIELD) Integer startMinute,
+                                                    @JsonProperty(LENGTH_FIELD) Integer length,
+                                                    @JsonProperty(COMMENT_FIELD) String comment,
+                                                    @JsonProperty(SKIP_DATES_FIELD) List<String> skipDateStrings) {
+        ZoneId timezone = timezoneString == null ? null : ZoneId.of(timezoneString);
+        LocalDate startDate = startDateString == null ? null : LocalDate.parse(startDateString);
+        LocalDate endDate = endDateString == null ? null : LocalDate.parse(endDateString);
+        Set<DayOfWeek> weekdays = weekdayStrings == null
+                ? Collections.emptySet()
+                : Seq.seq(weekdayStrings).map(day -> DayOfWeek.valueOf(day.toUpperCase(Locale.ENGLISH))).collect(toSet());
+        Set<LocalDate> skipDates = skipDateStrings == null
+                ? Collections.emptySet()
+                : Seq.seq(skipDateStrings).map(LocalDate::parse).collect(toSet());
+        return new SuppliedLessonSeries(groupId, timezone, startDate, endDate, weekdays, startHour, startMinute, length,
+                comment, skipDates);
+    }
+
+    public SuppliedLessonSeries(Integer groupId, ZoneId timezone, LocalDate startDate, LocalDate endDate,
+                                Set<DayOfWeek> weekdays, Integer startHour, Integer startMinute, Integer length,
+                                String comment, Set<LocalDate> skipDates) {
+        this.groupId = groupId;
+        this.timezone = timezone;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.weekdays = weekdays == null ? Collections.emptySet() : weekdays;
+        this.startHour = startHour;
+        this.startMinute = startMinute;
+        this.length = length;
+        this.comment = comment;
+        this.skipDates = skipDates == null ? Collections.emptySet() : skipDates;
+    }
+
+    // PRIVATE
+
+    private final Integer groupId;
+    private final ZoneId timezone;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final Set<DayOfWeek> weekdays;
+    private final Integer startHour;
+    private final Integer startMinute;
+    private final Integer length;
+    private final String comment;
+    private final Set<LocalDate> skipDates;
+
+    private InvalidLessonException groupIdError() {
+        return new InvalidLessonException("Group id for lesson series must be positive, not: " + groupId);
+    }
+
+    private InvalidLessonException datesError() {
+        return new InvalidLessonException("Lesson series must have a timezone and must not end before it starts or " +
+                "last more than " + MAX_DAYS + " days: " + timezone + ", " + startDate + ", " + endDate);
+    }
+
+    private InvalidLessonException startHourError() {
+        return new InvalidLessonException("Lesson start hour must be between 0 and 23, not: " + startHour);
+    }
+
+    private InvalidLessonException startMinuteError() {
+        return new InvalidLessonException("Lesson start minute must be between 0 and 59, not: " + startMinute);
+    }
+
+    private InvalidLessonException lengthError() {
+        return new InvalidLessonException("Lesson length must be positive, not: " + length);
+    }
+
+    private InvalidLessonException commentError() {
+        return new InvalidLessonException("Lesson comment must not exceed " + COMMENT_SIZE_LIMIT + " chars: " + comment);
+    }
+
+    private static final int MAX_DAYS = 366;
+    private static final int COMMENT_SIZE_LIMIT = 500;
+
+    private static final String GROUP_ID_FIELD = "groupId";
+    private static final String TIME_ZONE_FIELD = "timezone";
+    private static final String START_DATE_FIELD = "startDate";
+    private static final String END_DATE_FIELD = "endDate";
+    private static final String WEEKDAYS_FIELD = "weekdays";
+    private static final String HOUR_FIELD = "startHour";
+    private static final String MINUTE_FIELD = "startMinute";
+    private static final String LENGTH_FIELD = "length";
+    private static final String COMMENT_FIELD = "comment";
+    private static final String SKIP_DATES_FIELD = "skipDates";
+
+    // OBJECT OVERRIDES
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("groupId", groupId)
+                .add("timezone", timezone)
+                .add("startDate", startDate)
+                .add("endDate", endDate)
+                .add("weekdays", weekdays)
+                .add("startHour", startHour)
+                .add("startMinute", startMinute)
+                .add("length", length)
+                .add("comment", comment)
+                .add("skipDates", skipDates)
+                .toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof SuppliedLessonSeries)) return false;
+        SuppliedLessonSeries that = (SuppliedLessonSeries) o;
+        return Objects.equals(groupId, that.groupId) &&
+                Objects.equals(timezone, that.timezone) &&
+                Objects.equals(startDate, that.startDate) &&
+                Objects.equals(endDate, that.endDate) &&
+                Objects.equals(weekdays, that.weekdays) &&
+                Objects.equals(startHour, that.startHour) &&
+                Objects.equals(startMinute, that.startMinute) &&
+                Objects.equals(length, that.length) &&
+                Objects.equals(comment, that.comment) &&
+                Objects.equals(skipDates, that.skipDates);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(groupId, timezone, startDate, endDate, weekdays, startHour, startMinute, length, comment,
+                skipDates);
+    }
+
+}
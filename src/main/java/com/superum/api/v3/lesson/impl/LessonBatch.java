@@ -0,0 +1,235 @@
+package com.superum.api.v3.lesson.impl;
+
+import com.superum.api.v2.lesson.InvalidLessonException;
+import com.superum.api.v3.lesson.Lesson;
+import com.superum.api.v3.lesson.LessonRepository;
+import com.superum.api.v3.lesson.LessonTransformer;
+import com.superum.api.v3.lesson.dto.BatchLessonResult;
+import com.superum.api.v3.lesson.dto.FetchedLesson;
+import com.superum.api.v3.lesson.dto.SuppliedLesson;
+import com.superum.api.v3.lesson.dto.SuppliedLessonWithTimestamp;
+import org.jooq.lambda.Seq;
+import org.jooq.lambda.tuple.Tuple2;
+
+import java.time.Instant;
+import java.util.*;
+
+import static java.time.temporal.ChronoUnit.MINUTES;
+import static java.util.Comparator.comparingLong;
+import static java.util.stream.Collectors.toSet;
+import static javax.servlet.http.HttpServletResponse.SC_BAD_REQUEST;
+import static javax.servlet.http.HttpServletResponse.SC_CONFLICT;
+import static javax.servlet.http.HttpServletResponse.SC_NOT_FOUND;
+
+/**
+ * <pre>
+ * Lessons which are being created together; keeps the result of every lesson, in the order they were supplied
+ *
+ * Lessons go through these steps, any of which can reject a lesson without affecting the others:
+ *      1) validation, same as for a single lesson;
+ *      2) resolution of teacher ids, for the groups of all lessons at once;
+ *      3) overlap check, against existing lessons and against other lessons of the batch, once for every teacher;
+ * lessons which were not rejected are then inserted together
+ * </pre>
+ */
+final class LessonBatch {
+
+    static LessonBatch validate(List<SuppliedLesson> suppliedLessons, LessonTransformer lessonTransformer) {
+        List<Item> items = new ArrayList<>(suppliedLessons.size());
+        for (SuppliedLesson suppliedLesson : suppliedLessons) {
+            Item item = new Item(items.size());
+            items.add(item);
+            if (suppliedLesson == null) {
+                item.reject(SC_BAD_REQUEST, "Lesson cannot be null");
+                continue;
+            }
+
+            try {
+                SuppliedLessonWithTimestamp lesson = lessonTransformer.from(suppliedLesson, true);
+                lesson.validateForCreation();
+                item.suppliedLesson = lesson;
+            } catch (InvalidLessonException e) {
+                item.reject(SC_BAD_REQUEST, e.getMessage());
+            }
+        }
+        return new LessonBatch(items);
+    }
+
+    Set<Integer> groupIds() {
+        return pending().map(item -> item.suppliedLesson.getGroupId()).collect(toSet());
+    }
+
+    /**
+     * @param teacherIds teacher ids for every group id that exists
+     */
+    void resolveTeachers(Map<Integer, Integer> teacherIds, LessonRepository lessonRepository) {
+        for (Item item : pending().toList()) {
+            SuppliedLessonWithTimestamp lesson = item.suppliedLesson;
+            Integer teacherId = teacherIds.get(lesson.getGroupId());
+            if (teacherId == null)
+                item.reject(SC_NOT_FOUND, "Couldn't find group id for lesson: " + lesson);
+            else
+                item.lesson = Lesson.valueOf(lesson.getGroupId(), teacherId, lesson.getStartTime(),
+                        endTime(lesson.getStartTime(), lesson.getLength()), lesson.getLength(), lesson.getComment(),
+                        lessonRepository);
+        }
+    }
+
+    Set<Integer> teacherIds() {
+        return pending().map(item -> item.lesson.getTeacherId()).collect(toSet());
+    }
+
+    /**
+     * @return earliest start time of all lessons which are still pending; only valid if there are any
+     */
+    long startTime() {
+        return pending().mapToLong(item -> item.lesson.getStartTime()).min().orElse(0);
+    }
+
+    /**
+     * @return latest end time of all lessons which are still pending; only valid if there are any
+     */
+    long endTime() {
+        return pending().mapToLong(item -> item.lesson.getEndTime()).max().orElse(0);
+    }
+
+    /**
+     * <pre>
+     * Rejects every lesson which overlaps with an existing lesson of its teacher; then, for the remaining lessons
+     * of every teacher, rejects the lessons which overlap with an earlier starting lesson of the batch
+     *
+     * Both are done with a single pass over lessons of the teacher, sorted once
+     * </pre>
+     * @param existingLessons (startTime, endTime) of existing lessons for every teacher, which may overlap with the
+     *                        lessons of this batch
+     */
+    void rejectOverlapping(Map<Integer, List<Tuple2<Long, Long>>> existingLessons) {
+        pending().groupBy(item -> item.lesson.getTeacherId())
+                .forEach((teacherId, items) -> {
+                    rejectOverlappingExisting(items, existingLessons.getOrDefault(teacherId, Collections.emptyList()));
+                    rejectOverlappingEachOther(items);
+                });
+    }
+
+    boolean hasPending() {
+        return pending().findAny().isPresent();
+    }
+
+    List<Lesson> lessonsToCreate() {
+        return pending().map(item -> item.lesson).toList();
+    }
+
+    /**
+     * @param createdLessons lessons which were created, in the same order as lessonsToCreate() returned them
+     */
+    void created(List<FetchedLesson> createdLessons) {
+        Iterator<FetchedLesson> created = createdLessons.iterator();
+        for (Item item : pending().toList())
+            item.createdLesson = created.next();
+    }
+
+    List<BatchLessonResult> failures() {
+        return Seq.seq(items).filter(Item::isRejected).map(Item::result).toList();
+    }
+
+    List<BatchLessonResult> results() {
+        return Seq.seq(items).map(Item::result).toList();
+    }
+
+    // CONSTRUCTORS
+
+    private LessonBatch(List<Item> items) {
+        this.items = items;
+    }
+
+    // PRIVATE
+
+    private final List<Item> items;
+
+    private Seq<Item> pending() {
+        return Seq.seq(items).filter(Item::isPending);
+    }
+
+    /**
+     * A lesson overlaps with an existing lesson if that lesson starts before this one ends and ends after this one
+     * starts; when lessons are sorted by end time, every existing lesson which starts before a lesson ends also starts
+     * before every later lesson ends, so the latest end time of these existing lessons can be kept while moving on
+     */
+    private static void rejectOverlappingExisting(List<Item> items, List<Tuple2<Long, Long>> existingLessons) {
+        List<Tuple2<Long, Long>> existingByStart = Seq.seq(existingLessons)
+                .sorted(comparingLong(existing -> existing.v1))
+                .toList();
+        int nextExisting = 0;
+        long latestExistingEnd = Long.MIN_VALUE;
+        List<Item> byEnd = Seq.seq(items)
+                .sorted(comparingLong(item -> item.lesson.getEndTime()))
+                .toList();
+        for (Item item : byEnd) {
+            while (nextExisting < existingByStart.size()
+                    && existingByStart.get(nextExisting).v1 <= item.lesson.getEndTime())
+                latestExistingEnd = Math.max(latestExistingEnd, existingByStart.get(nextExisting++).v2);
+
+            if (latestExistingEnd >= item.lesson.getStartTime())
+                item.reject(SC_CONFLICT, "This teacher already has a lesson during this time, cannot create!");
+        }
+    }
+
+    /**
+     * Lessons which were accepted do not overlap, so a lesson can only overlap with the last accepted lesson when
+     * the lessons are sorted by start time; if start times are equal, the lesson which was supplied first is accepted
+     */
+    private static void rejectOverlappingEachOther(List<Item> items) {
+        Item lastAccepted = null;
+        List<Item> pendingByStart = Seq.seq(items)
+                .filter(Item::isPending)
+                .sorted(comparingLong(item -> item.lesson.getStartTime()))
+                .toList();
+        for (Item item : pendingByStart) {
+            if (lastAccepted != null && item.lesson.getStartTime() <= lastAccepted.lesson.getEndTime())
+                item.reject(SC_CONFLICT, "This lesson overlaps with lesson at index " + lastAccepted.index +
+                        " of the same batch, cannot create!");
+            else
+                lastAccepted = item;
+        }
+    }
+
+    private static long endTime(long startTime, int length) {
+        return Instant.ofEpochMilli(startTime).plus(length, MINUTES).toEpochMilli();
+    }
+
+    private static final class Item {
+
+        boolean isPending() {
+            return error == null && createdLesson == null;
+        }
+
+        boolean isRejected() {
+            return error != null;
+        }
+
+        void reject(int status, String error) {
+            this.status = status;
+            this.error = error;
+        }
+
+        BatchLessonResult result() {
+            return createdLesson == null
+                    ? BatchLessonResult.failed(index, status, error)
+                    : BatchLessonResult.created(index, createdLesson);
+        }
+
+        Item(int index) {
+            this.index = index;
+        }
+
+        private final int index;
+
+        private SuppliedLessonWithTimestamp suppliedLesson;
+        private Lesson lesson;
+        private FetchedLesson createdLesson;
+        private int status;
+        private String error;
+
+    }
+
+}
@@ -1,21 +1,39 @@
 package com.superum.api.v3.lesson.impl;
 
+import com.superum.api.v2.group.GroupNotFoundException;
+import com.superum.api.v2.lesson.InvalidLessonException;
 import com.superum.api.v2.lesson.LessonNotFoundException;
+import com.superum.api.v2.lesson.OverlappingLessonException;
 import com.superum.api.v2.lesson.UnsafeLessonDeleteException;
+import com.superum.api.v2.table.TableRollup;
+import com.superum.api.v3.change.ChangeAction;
+import com.superum.api.v3.change.ChangeFeed;
+import com.superum.api.v3.change.ChangedTable;
 import com.superum.api.v3.lesson.Lesson;
 import com.superum.api.v3.lesson.LessonCommands;
 import com.superum.api.v3.lesson.LessonRepository;
 import com.superum.api.v3.lesson.LessonTransformer;
+import com.superum.api.v3.lesson.dto.BatchLessonResult;
 import com.superum.api.v3.lesson.dto.FetchedLesson;
+import com.superum.api.v3.lesson.dto.SuppliedLesson;
+import com.superum.api.v3.lesson.dto.SuppliedLessonSeries;
 import com.superum.api.v3.lesson.dto.SuppliedLessonWithTimestamp;
 import com.superum.exception.DatabaseException;
 import eu.goodlike.libraries.jooq.Queries;
 import eu.goodlike.libraries.jooq.QueriesForeign;
+import org.jooq.lambda.Seq;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import timestar_v2.tables.records.LessonRecord;
 
+import java.time.Instant;
+import java.util.List;
+
+import static java.util.stream.Collectors.joining;
+import static javax.servlet.http.HttpServletResponse.SC_CONFLICT;
+import static javax.servlet.http.HttpServletResponse.SC_NOT_FOUND;
+
 @Service
 @Transactional
 public class LessonCommandsImpl implements LessonCommands {
@@ -23,15 +41,40 @@ public class LessonCommandsImpl implements LessonCommands {
     @Override
     public FetchedLesson create(SuppliedLessonWithTimestamp suppliedLesson, int partitionId) {
         Lesson lesson = lessonTransformer.from(suppliedLesson);
-        return lesson.create(partitionId, lessonTransformer::from)
+        FetchedLesson createdLesson = lesson.create(partitionId, lessonTransformer::from)
                 .orElseThrow(() -> new DatabaseException("Couldn't return lesson after inserting it: " + lesson));
+        tableRollup.refreshLesson(createdLesson.getId(), partitionId);
+        changeFeed.publish(partitionId, ChangedTable.lesson, ChangeAction.created, createdLesson.getId());
+        return createdLesson;
+    }
+
+    @Override
+    public List<BatchLessonResult> createAll(List<SuppliedLesson> suppliedLessons, int partitionId) {
+        LessonBatch batch = checkedBatch(suppliedLessons);
+        insert(batch, partitionId);
+        return batch.results();
+    }
+
+    @Override
+    public List<FetchedLesson> createSeries(SuppliedLessonSeries series, int partitionId) {
+        List<SuppliedLesson> suppliedLessons = lessonTransformer.from(series);
+        LessonBatch batch = checkedBatch(suppliedLessons);
+
+        List<BatchLessonResult> failures = batch.failures();
+        if (!failures.isEmpty())
+            throw seriesError(failures, suppliedLessons);
+
+        return insert(batch, partitionId);
     }
 
     @Override
     public void update(long lessonId, SuppliedLessonWithTimestamp suppliedLesson, int partitionId) {
         Lesson lesson = lessonTransformer.from(suppliedLesson, lessonId);
-        if (lesson.update(lessonId, partitionId) == 0)
-            throw new DatabaseException("Couldn't update lesson: " + lesson);
+        tableRollup.refreshLesson(lessonId, partitionId, () -> {
+            if (lesson.update(lessonId, partitionId) == 0)
+                throw new DatabaseException("Couldn't update lesson: " + lesson);
+        });
+        changeFeed.publish(partitionId, ChangedTable.lesson, ChangeAction.updated, lessonId);
     }
 
     @Override
@@ -43,19 +86,26 @@ public class LessonCommandsImpl implements LessonCommands {
             throw new UnsafeLessonDeleteException("Cannot delete lesson with id " + lessonId +
                     " while it still has entries in other tables");
 
-        if (lessonRepository.delete(lessonId) == 0)
-            throw new DatabaseException("Couldn't delete lesson with id: " + lessonId);
+        tableRollup.refreshLesson(lessonId, partitionId, () -> {
+            if (lessonRepository.delete(lessonId) == 0)
+                throw new DatabaseException("Couldn't delete lesson with id: " + lessonId);
+        });
+        changeFeed.publish(partitionId, ChangedTable.lesson, ChangeAction.deleted, lessonId);
     }
 
     // CONSTRUCTORS
 
     @Autowired
     public LessonCommandsImpl(LessonTransformer lessonTransformer, LessonRepository lessonRepository,
-                              Queries<LessonRecord, Long> lessonQueries, QueriesForeign<Long> lessonForeignQueries) {
+                              Queries<LessonRecord, Long> lessonQueries, QueriesForeign<Long> lessonForeignQueries,
+                              TableRollup tableRollup,
+                              ChangeFeed changeFeed) {
         this.lessonTransformer = lessonTransformer;
         this.lessonRepository = lessonRepository;
         this.lessonQueries = lessonQueries;
         this.lessonForeignQueries = lessonForeignQueries;
+        this.tableRollup = tableRollup;
+        this.changeFeed = changeFeed;
     }
 
     // PRIVATE
@@ -64,5 +114,49 @@ public class LessonCommandsImpl implements LessonCommands {
     private final LessonRepository lessonRepository;
     private final Queries<LessonRecord, Long> lessonQueries;
     private final QueriesForeign<Long> lessonForeignQueries;
+    private final TableRollup tableRollup;
+    private final ChangeFeed changeFeed;
+
+    private LessonBatch checkedBatch(List<SuppliedLesson> suppliedLessons) {
+        LessonBatch batch = LessonBatch.validate(suppliedLessons, lessonTransformer);
+        batch.resolveTeachers(lessonRepository.readTeacherIds(batch.groupIds()), lessonRepository);
+        if (batch.hasPending())
+            batch.rejectOverlapping(lessonRepository.readLessonTimes(batch.teacherIds(), batch.startTime(), batch.endTime()));
+        return batch;
+    }
+
+    private List<FetchedLesson> insert(LessonBatch batch, int partitionId) {
+        List<FetchedLesson> createdLessons = lessonRepository.insertAll(batch.lessonsToCreate(), lessonTransformer::from);
+        batch.created(createdLessons);
+
+        Seq.seq(createdLessons)
+                .groupBy(FetchedLesson::getTeacherId)
+                .forEach((teacherId, lessons) -> tableRollup.refresh(teacherId, Seq.seq(lessons)
+                        .map(lesson -> TableRollup.dayOf(lesson.getStartTime()))
+                        .distinct()
+                        .toList(), partitionId));
+        createdLessons.forEach(lesson ->
+                changeFeed.publish(partitionId, ChangedTable.lesson, ChangeAction.created, lesson.getId()));
+        return createdLessons;
+    }
+
+    /**
+     * Every lesson of a series is for the same group, so if the group does not exist, every lesson fails the same way
+     */
+    private DatabaseException seriesError(List<BatchLessonResult> failures, List<SuppliedLesson> suppliedLessons) {
+        BatchLessonResult firstFailure = failures.get(0);
+        if (firstFailure.getStatus() == SC_NOT_FOUND)
+            return new GroupNotFoundException(firstFailure.getError());
+
+        String message = "Couldn't create lesson series, " + failures.size() + " of its " + suppliedLessons.size() +
+                " lessons failed: " + Seq.seq(failures)
+                .map(failure -> Instant.ofEpochMilli(suppliedLessons.get(failure.getIndex()).getStartTime()) + " - " +
+                        failure.getError())
+                .collect(joining(", "));
+
+        return firstFailure.getStatus() == SC_CONFLICT
+                ? new OverlappingLessonException(message)
+                : new InvalidLessonException(message);
+    }
 
 }
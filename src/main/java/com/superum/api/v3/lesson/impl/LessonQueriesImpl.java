@@ -7,12 +7,16 @@ import com.superum.api.v2.student.StudentNotFoundException;
 import com.superum.api.v2.teacher.TeacherNotFoundException;
 import com.superum.api.v3.lesson.LessonQueries;
 import com.superum.api.v3.lesson.LessonTransformer;
+import com.superum.api.v3.lesson.dto.CalendarLesson;
 import com.superum.api.v3.lesson.dto.FetchedLesson;
+import com.superum.api.v3.lesson.sql.LessonCalendar;
+import com.superum.helper.Page;
 import eu.goodlike.libraries.jooq.Queries;
 import org.jooq.Condition;
 import org.jooq.Field;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import timestar_v2.tables.records.*;
 
 import java.util.List;
@@ -22,6 +26,7 @@ import static timestar_v2.Keys.LESSON_IBFK_2;
 import static timestar_v2.Tables.*;
 
 @Service
+@Transactional(readOnly = true)
 public class LessonQueriesImpl implements LessonQueries {
 
     @Override
@@ -31,46 +36,75 @@ public class LessonQueriesImpl implements LessonQueries {
     }
 
     @Override
-    public List<FetchedLesson> readAll(int page, int amount, long start, long end) {
-        return lessonQueries.readAll(page, amount, lessonTransformer::from);
+    public List<FetchedLesson> readAll(Page page, long start, long end) {
+        return lessonQueries.read(page.number(), page.amount(), page.seek(LESSON.ID), lessonTransformer::from);
     }
 
     @Override
-    public List<FetchedLesson> readForGroup(int groupId, int page, int amount, long start, long end) {
+    public List<FetchedLesson> readForGroup(int groupId, Page page, long start, long end) {
         if (!groupQueries.exists(groupId))
             throw new GroupNotFoundException("No group with given id exists: " + groupId);
 
-        return lessonQueries.read(page, amount, condition(LESSON.GROUP_ID, groupId, start, end),
+        return lessonQueries.read(page.number(), page.amount(), condition(LESSON.GROUP_ID, groupId, start, end, page),
                 lessonTransformer::from);
     }
 
     @Override
-    public List<FetchedLesson> readForTeacher(int teacherId, int page, int amount, long start, long end) {
+    public List<FetchedLesson> readForTeacher(int teacherId, Page page, long start, long end) {
         if (!teacherQueries.exists(teacherId))
             throw new TeacherNotFoundException("No teacher with given id exists: " + teacherId);
 
-        return lessonQueries.read(page, amount, condition(LESSON.TEACHER_ID, teacherId, start, end),
+        return lessonQueries.read(page.number(), page.amount(), condition(LESSON.TEACHER_ID, teacherId, start, end, page),
                 lessonTransformer::from);
     }
 
     @Override
-    public List<FetchedLesson> readForCustomer(int customerId, int page, int amount, long start, long end) {
+    public List<FetchedLesson> readForCustomer(int customerId, Page page, long start, long end) {
         if (!customerQueries.exists(customerId))
             throw new CustomerNotFoundException("No customer with given id exists: " + customerId);
 
-        return lessonQueries.readJoin(page, amount, condition(GROUP_OF_STUDENTS.CUSTOMER_ID, customerId, start, end),
+        return lessonQueries.readJoin(page.number(), page.amount(),
+                condition(GROUP_OF_STUDENTS.CUSTOMER_ID, customerId, start, end, page),
                 lessonTransformer::from, sql -> sql.join(GROUP_OF_STUDENTS).onKey(LESSON_IBFK_2));
     }
 
     @Override
-    public List<FetchedLesson> readForStudent(int studentId, int page, int amount, long start, long end) {
+    public List<FetchedLesson> readForStudent(int studentId, Page page, long start, long end) {
         if (!studentQueries.exists(studentId))
             throw new StudentNotFoundException("No student with given id exists: " + studentId);
 
-        return lessonQueries.readJoin(page, amount, condition(LESSON_ATTENDANCE.STUDENT_ID, studentId, start, end),
+        return lessonQueries.readJoin(page.number(), page.amount(),
+                condition(LESSON_ATTENDANCE.STUDENT_ID, studentId, start, end, page),
                 lessonTransformer::from, sql -> sql.join(LESSON_ATTENDANCE).onKey(LESSON_ATTENDANCE_IBFK_1));
     }
 
+    @Override
+    public List<CalendarLesson> readCalendarForGroup(int groupId, long start, long end) {
+        List<CalendarLesson> lessons = lessonCalendar.forGroup(groupId, start, end);
+        if (lessons.isEmpty() && !groupQueries.exists(groupId))
+            throw new GroupNotFoundException("No group with given id exists: " + groupId);
+
+        return lessons;
+    }
+
+    @Override
+    public List<CalendarLesson> readCalendarForTeacher(int teacherId, long start, long end) {
+        List<CalendarLesson> lessons = lessonCalendar.forTeacher(teacherId, start, end);
+        if (lessons.isEmpty() && !teacherQueries.exists(teacherId))
+            throw new TeacherNotFoundException("No teacher with given id exists: " + teacherId);
+
+        return lessons;
+    }
+
+    @Override
+    public List<CalendarLesson> readCalendarForCustomer(int customerId, long start, long end) {
+        List<CalendarLesson> lessons = lessonCalendar.forCustomer(customerId, start, end);
+        if (lessons.isEmpty() && !customerQueries.exists(customerId))
+            throw new CustomerNotFoundException("No customer with given id exists: " + customerId);
+
+        return lessons;
+    }
+
     // CONSTRUCTORS
 
     @Autowired
@@ -78,13 +112,14 @@ public class LessonQueriesImpl implements LessonQueries {
                              Queries<GroupOfStudentsRecord, Integer> groupQueries,
                              Queries<TeacherRecord, Integer> teacherQueries,
                              Queries<CustomerRecord, Integer> customerQueries,
-                             Queries<StudentRecord, Integer> studentQueries) {
+                             Queries<StudentRecord, Integer> studentQueries, LessonCalendar lessonCalendar) {
         this.lessonTransformer = lessonTransformer;
         this.lessonQueries = lessonQueries;
         this.groupQueries = groupQueries;
         this.teacherQueries = teacherQueries;
         this.customerQueries = customerQueries;
         this.studentQueries = studentQueries;
+        this.lessonCalendar = lessonCalendar;
     }
 
     // PRIVATE
@@ -95,9 +130,12 @@ public class LessonQueriesImpl implements LessonQueries {
     private final Queries<TeacherRecord, Integer> teacherQueries;
     private final Queries<CustomerRecord, Integer> customerQueries;
     private final Queries<StudentRecord, Integer> studentQueries;
+    private final LessonCalendar lessonCalendar;
 
-    private <T> Condition condition(Field<T> field, T value, long startTime, long endTime) {
-        return field.eq(value).and(LESSON.TIME_OF_START.between(startTime, endTime));
+    private <T> Condition condition(Field<T> field, T value, long startTime, long endTime, Page page) {
+        return field.eq(value)
+                .and(LESSON.TIME_OF_START.between(startTime, endTime))
+                .and(page.seek(LESSON.ID));
     }
 
 }
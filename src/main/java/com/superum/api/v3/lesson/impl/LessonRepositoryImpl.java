@@ -1,18 +1,27 @@
 package com.superum.api.v3.lesson.impl;
 
+import com.google.common.collect.Lists;
+import com.superum.api.v2.lesson.LessonIntervals;
+import com.superum.api.v3.lesson.Lesson;
 import com.superum.api.v3.lesson.LessonRepository;
 import com.superum.api.v3.lesson.dto.FetchedLesson;
+import com.superum.exception.DatabaseException;
 import com.superum.helper.PartitionAccount;
-import org.jooq.Condition;
-import org.jooq.DSLContext;
-import org.jooq.Record;
+import com.superum.helper.jooq.EntityCache;
+import org.jooq.*;
+import org.jooq.lambda.Seq;
+import org.jooq.lambda.tuple.Tuple;
+import org.jooq.lambda.tuple.Tuple2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
+import timestar_v2.tables.records.LessonRecord;
 
-import java.util.Optional;
+import java.util.*;
 import java.util.function.Function;
 
+import static java.util.stream.Collectors.*;
 import static org.jooq.impl.DSL.trueCondition;
+import static timestar_v2.Tables.GROUP_OF_STUDENTS;
 import static timestar_v2.Tables.LESSON;
 
 @Repository
@@ -21,65 +30,159 @@ public class LessonRepositoryImpl implements LessonRepository {
     @Override
     public Optional<FetchedLesson> insert(int groupId, int teacherId, long startTime, long endTime, int length,
                                           String comment, Function<Record, FetchedLesson> mapper) {
-        return sql.insertInto(LESSON)
+        int partitionId = new PartitionAccount().partitionId();
+        Optional<LessonRecord> inserted = sql.insertInto(LESSON)
                 .set(LESSON.GROUP_ID, groupId)
                 .set(LESSON.TEACHER_ID, teacherId)
                 .set(LESSON.TIME_OF_START, startTime)
                 .set(LESSON.TIME_OF_END, endTime)
                 .set(LESSON.DURATION_IN_MINUTES, length)
                 .set(LESSON.COMMENT, comment)
-                .set(LESSON.PARTITION_ID, new PartitionAccount().partitionId())
+                .set(LESSON.PARTITION_ID, partitionId)
                 .returning()
-                .fetch().stream().findAny()
-                .map(mapper);
+                .fetch().stream().findAny();
+
+        inserted.ifPresent(lesson -> {
+            entityCache.changed(LESSON, partitionId, lesson.getId());
+            lessonIntervals.lessonSaved(lesson.getId(), teacherId, startTime, endTime, partitionId);
+        });
+        return inserted.map(mapper);
+    }
+
+    @Override
+    public List<FetchedLesson> insertAll(List<Lesson> lessons, Function<Record, FetchedLesson> mapper) {
+        if (lessons.isEmpty())
+            return Collections.emptyList();
+
+        int partitionId = new PartitionAccount().partitionId();
+        List<Long> ids = new ArrayList<>(lessons.size());
+        for (List<Lesson> chunk : Lists.partition(lessons, INSERT_CHUNK_SIZE))
+            ids.addAll(insertChunk(chunk, partitionId));
+        ids.forEach(id -> entityCache.changed(LESSON, partitionId, id));
+
+        Map<Long, FetchedLesson> inserted = sql.selectFrom(LESSON)
+                .where(LESSON.ID.in(ids)
+                        .and(LESSON.PARTITION_ID.eq(partitionId)))
+                .fetch().stream()
+                .map(mapper)
+                .collect(toMap(FetchedLesson::getId, Function.identity()));
+        if (inserted.size() != lessons.size())
+            throw new DatabaseException("Couldn't return lessons after inserting them: " + lessons);
+
+        List<FetchedLesson> insertedLessons = Seq.seq(ids).map(inserted::get).toList();
+        insertedLessons.forEach(lesson -> lessonIntervals.lessonSaved(lesson.getId(), lesson.getTeacherId(),
+                lesson.getStartTime(), lesson.getEndTime(), partitionId));
+        return insertedLessons;
     }
 
     @Override
     public int update(long lessonId, int groupId, int teacherId, long startTime, long endTime, int length, String comment) {
-        return sql.update(LESSON)
+        int partitionId = new PartitionAccount().partitionId();
+        entityCache.changed(LESSON, partitionId, lessonId);
+        int updated = sql.update(LESSON)
                 .set(LESSON.GROUP_ID, groupId)
                 .set(LESSON.TEACHER_ID, teacherId)
                 .set(LESSON.TIME_OF_START, startTime)
                 .set(LESSON.TIME_OF_END, endTime)
                 .set(LESSON.DURATION_IN_MINUTES, length)
                 .set(LESSON.COMMENT, comment)
-                .where(idAndPartition(lessonId, new PartitionAccount().partitionId()))
+                .where(idAndPartition(lessonId, partitionId))
                 .execute();
-    }
 
+        if (updated > 0)
+            lessonIntervals.lessonSaved(lessonId, teacherId, startTime, endTime, partitionId);
+        return updated;
+    }
 
     @Override
     public int delete(long lessonId) {
-        return sql.delete(LESSON)
-                .where(idAndPartition(lessonId, new PartitionAccount().partitionId()))
+        int partitionId = new PartitionAccount().partitionId();
+        entityCache.changed(LESSON, partitionId, lessonId);
+        int deleted = sql.delete(LESSON)
+                .where(idAndPartition(lessonId, partitionId))
                 .execute();
+
+        if (deleted > 0)
+            lessonIntervals.lessonDeleted(lessonId, partitionId);
+        return deleted;
     }
 
     @Override
     public boolean isOverlapping(long lessonId, int teacherId, long startTime, long endTime) {
-        return isOverlapping(LESSON.ID.ne(lessonId), teacherId, startTime, endTime, new PartitionAccount().partitionId());
+        int partitionId = new PartitionAccount().partitionId();
+        return lessonIntervals.isOverlapping(partitionId, teacherId, startTime, endTime, lessonId,
+                () -> isOverlapping(LESSON.ID.ne(lessonId), teacherId, startTime, endTime, partitionId));
     }
 
     @Override
     public boolean isOverlapping(int teacherId, long startTime, long endTime) {
-        return isOverlapping(trueCondition(), teacherId, startTime, endTime, new PartitionAccount().partitionId());
+        int partitionId = new PartitionAccount().partitionId();
+        return lessonIntervals.isOverlapping(partitionId, teacherId, startTime, endTime, null,
+                () -> isOverlapping(trueCondition(), teacherId, startTime, endTime, partitionId));
+    }
+
+    @Override
+    public Map<Integer, Integer> readTeacherIds(Collection<Integer> groupIds) {
+        if (groupIds.isEmpty())
+            return Collections.emptyMap();
+
+        return sql.select(GROUP_OF_STUDENTS.ID, GROUP_OF_STUDENTS.TEACHER_ID)
+                .from(GROUP_OF_STUDENTS)
+                .where(GROUP_OF_STUDENTS.ID.in(groupIds)
+                        .and(GROUP_OF_STUDENTS.PARTITION_ID.eq(new PartitionAccount().partitionId())))
+                .fetchMap(GROUP_OF_STUDENTS.ID, GROUP_OF_STUDENTS.TEACHER_ID);
+    }
+
+    @Override
+    public Map<Integer, List<Tuple2<Long, Long>>> readLessonTimes(Collection<Integer> teacherIds, long startTime, long endTime) {
+        if (teacherIds.isEmpty())
+            return Collections.emptyMap();
+
+        return sql.select(LESSON.TEACHER_ID, LESSON.TIME_OF_START, LESSON.TIME_OF_END)
+                .from(LESSON)
+                .where(LESSON.TEACHER_ID.in(teacherIds)
+                        .and(LESSON.PARTITION_ID.eq(new PartitionAccount().partitionId()))
+                        .and(LESSON.TIME_OF_START.le(endTime))
+                        .and(LESSON.TIME_OF_END.ge(startTime)))
+                .fetch().stream()
+                .collect(groupingBy(Record3::value1,
+                        mapping(lesson -> Tuple.tuple(lesson.value2(), lesson.value3()), toList())));
     }
 
     // CONSTRUCTORS
 
     @Autowired
-    public LessonRepositoryImpl(DSLContext sql) {
+    public LessonRepositoryImpl(DSLContext sql, LessonIntervals lessonIntervals, EntityCache entityCache) {
         this.sql = sql;
+        this.lessonIntervals = lessonIntervals;
+        this.entityCache = entityCache;
     }
 
     // PRIVATE
 
     private final DSLContext sql;
+    private final LessonIntervals lessonIntervals;
+    private final EntityCache entityCache;
 
     private Condition idAndPartition(long lessonId, int partitionId) {
         return LESSON.ID.eq(lessonId).and(LESSON.PARTITION_ID.eq(partitionId));
     }
 
+    /**
+     * A single multi-row INSERT generates consecutive ids in the order of the rows, so the ids are returned in the
+     * same order as the lessons
+     */
+    private List<Long> insertChunk(List<Lesson> lessons, int partitionId) {
+        InsertValuesStep7<LessonRecord, Integer, Integer, Long, Long, Integer, String, Integer> insert =
+                sql.insertInto(LESSON, LESSON.GROUP_ID, LESSON.TEACHER_ID, LESSON.TIME_OF_START, LESSON.TIME_OF_END,
+                        LESSON.DURATION_IN_MINUTES, LESSON.COMMENT, LESSON.PARTITION_ID);
+        for (Lesson lesson : lessons)
+            insert = insert.values(lesson.getGroupId(), lesson.getTeacherId(), lesson.getStartTime(),
+                    lesson.getEndTime(), lesson.getLength(), lesson.getComment(), partitionId);
+
+        return insert.returning(LESSON.ID).fetch().getValues(LESSON.ID);
+    }
+
     private boolean isOverlapping(Condition prefixCondition, int teacherId, long startTime, long endTime, int partitionId) {
         Condition aLessonForSameTeacher = LESSON.TEACHER_ID.eq(teacherId)
                 .and(LESSON.PARTITION_ID.eq(partitionId));
@@ -98,4 +201,6 @@ public class LessonRepositoryImpl implements LessonRepository {
         return sql.fetchExists(LESSON, prefixCondition.and(lessonIsOverlapping));
     }
 
+    private static final int INSERT_CHUNK_SIZE = 250;
+
 }
@@ -1,17 +1,21 @@
 package com.superum.api.v3.lesson.impl;
 
 import com.superum.api.v2.group.GroupNotFoundException;
+import com.superum.api.v2.lesson.InvalidLessonException;
 import com.superum.api.v2.lesson.LessonNotFoundException;
 import com.superum.api.v3.lesson.Lesson;
 import com.superum.api.v3.lesson.LessonRepository;
 import com.superum.api.v3.lesson.LessonTransformer;
 import com.superum.api.v3.lesson.dto.FetchedLesson;
 import com.superum.api.v3.lesson.dto.SuppliedLesson;
+import com.superum.api.v3.lesson.dto.SuppliedLessonSeries;
 import com.superum.api.v3.lesson.dto.SuppliedLessonWithTimestamp;
 import com.superum.api.v3.lesson.dto.SuppliedLessonWithTimezone;
 import eu.goodlike.libraries.jooq.Queries;
 import eu.goodlike.time.Time;
+import eu.goodlike.time.TimeHandler;
 import org.jooq.Record;
+import org.jooq.lambda.Seq;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import timestar_v2.tables.records.GroupOfStudentsRecord;
@@ -20,6 +24,7 @@ import timestar_v2.tables.records.LessonRecord;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.List;
 import java.util.Optional;
 
 import static java.time.temporal.ChronoUnit.MINUTES;
@@ -107,6 +112,27 @@ public class LessonTransformerImpl implements LessonTransformer {
                 : lesson.timestampOnly();
     }
 
+    @Override
+    public List<SuppliedLesson> from(SuppliedLessonSeries series) {
+        series.validate();
+
+        List<LocalDate> dates = series.dates();
+        if (dates.isEmpty() || dates.size() > MAX_SERIES_SIZE)
+            throw new InvalidLessonException("Lesson series must have between 1 and " + MAX_SERIES_SIZE +
+                    " lessons, not: " + dates.size());
+
+        TimeHandler timeHandler = Time.at(series.getTimezone());
+        return Seq.seq(dates)
+                .map(date -> timeHandler.from(date, series.getStartHour(), series.getStartMinute()).toEpochMilli())
+                .map(startTime -> SuppliedLesson.builder()
+                        .withGroupId(series.getGroupId())
+                        .withStartTime(startTime)
+                        .withLength(series.getLength())
+                        .withComment(series.getComment())
+                        .build())
+                .toList();
+    }
+
     @Override
     public FetchedLesson from(Record record) {
         if (record == null)
@@ -0,0 +1,114 @@
+package com.superum.api.v3.lesson.sql;
+
+import com.superum.api.v3.lesson.LessonTransformer;
+import com.superum.api.v3.lesson.dto.CalendarLesson;
+import com.superum.api.v3.lesson.dto.FetchedLesson;
+import com.superum.helper.PartitionAccount;
+import org.jooq.*;
+import org.jooq.lambda.Seq;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.stream.Collectors.*;
+import static timestar_v2.Keys.LESSON_IBFK_2;
+import static timestar_v2.Tables.*;
+
+/**
+ * <pre>
+ * Reads lessons for a calendar, together with the names of their groups and the ids of their attendees
+ *
+ * Every calendar is read using at most three queries, no matter how many lessons it has:
+ *      1) lessons in the given time range;
+ *      2) attendance of all of these lessons, by their ids;
+ *      3) names of all of their groups, by their ids;
+ * if there are no lessons, the last two queries are skipped
+ * </pre>
+ */
+@Repository
+public class LessonCalendar {
+
+    /**
+     * @return lessons of group with groupId between start and end, ordered by start time
+     */
+    public List<CalendarLesson> forGroup(int groupId, long start, long end) {
+        return fetch(LESSON.GROUP_ID.eq(groupId), start, end, lessons -> lessons);
+    }
+
+    /**
+     * @return lessons of teacher with teacherId between start and end, ordered by start time
+     */
+    public List<CalendarLesson> forTeacher(int teacherId, long start, long end) {
+        return fetch(LESSON.TEACHER_ID.eq(teacherId), start, end, lessons -> lessons);
+    }
+
+    /**
+     * @return lessons of groups of customer with customerId between start and end, ordered by start time
+     */
+    public List<CalendarLesson> forCustomer(int customerId, long start, long end) {
+        return fetch(GROUP_OF_STUDENTS.CUSTOMER_ID.eq(customerId), start, end,
+                lessons -> lessons.join(GROUP_OF_STUDENTS).onKey(LESSON_IBFK_2));
+    }
+
+    // CONSTRUCTORS
+
+    @Autowired
+    public LessonCalendar(DSLContext sql, LessonTransformer lessonTransformer) {
+        this.sql = sql;
+        this.lessonTransformer = lessonTransformer;
+    }
+
+    // PRIVATE
+
+    private final DSLContext sql;
+    private final LessonTransformer lessonTransformer;
+
+    private List<CalendarLesson> fetch(Condition condition, long start, long end, LessonJoin join) {
+        int partitionId = new PartitionAccount().partitionId();
+        List<FetchedLesson> lessons = join.apply(sql.select(LESSON.fields()).from(LESSON))
+                .where(condition
+                        .and(LESSON.PARTITION_ID.eq(partitionId))
+                        .and(LESSON.TIME_OF_START.between(start, end)))
+                .orderBy(LESSON.TIME_OF_START, LESSON.ID)
+                .fetch()
+                .map(lessonTransformer::from);
+        if (lessons.isEmpty())
+            return Collections.emptyList();
+
+        Map<Long, List<Integer>> attendees = attendees(Seq.seq(lessons).map(FetchedLesson::getId).toSet(), partitionId);
+        Map<Integer, String> groupNames = groupNames(Seq.seq(lessons).map(FetchedLesson::getGroupId).toSet(), partitionId);
+        return Seq.seq(lessons)
+                .map(lesson -> new CalendarLesson(lesson, groupNames.get(lesson.getGroupId()),
+                        attendees.getOrDefault(lesson.getId(), Collections.emptyList())))
+                .toList();
+    }
+
+    private Map<Long, List<Integer>> attendees(Set<Long> lessonIds, int partitionId) {
+        return sql.select(LESSON_ATTENDANCE.LESSON_ID, LESSON_ATTENDANCE.STUDENT_ID)
+                .from(LESSON_ATTENDANCE)
+                .where(LESSON_ATTENDANCE.LESSON_ID.in(lessonIds)
+                        .and(LESSON_ATTENDANCE.PARTITION_ID.eq(partitionId)))
+                .orderBy(LESSON_ATTENDANCE.STUDENT_ID)
+                .fetch().stream()
+                .collect(groupingBy(Record2::value1, mapping(Record2::value2, toList())));
+    }
+
+    private Map<Integer, String> groupNames(Set<Integer> groupIds, int partitionId) {
+        return sql.select(GROUP_OF_STUDENTS.ID, GROUP_OF_STUDENTS.NAME)
+                .from(GROUP_OF_STUDENTS)
+                .where(GROUP_OF_STUDENTS.ID.in(groupIds)
+                        .and(GROUP_OF_STUDENTS.PARTITION_ID.eq(partitionId)))
+                .fetch().stream()
+                .collect(toMap(Record2::value1, Record2::value2));
+    }
+
+    @FunctionalInterface
+    private interface LessonJoin {
+        SelectJoinStep<Record> apply(SelectJoinStep<Record> lessons);
+    }
+
+}
@@ -3,6 +3,7 @@ package com.superum.api.v3.teacher;
 import com.superum.api.exception.InvalidRequestException;
 import com.superum.api.v3.teacher.dto.FetchedTeacher;
 import com.superum.api.v3.teacher.dto.SuppliedTeacher;
+import com.superum.helper.Page;
 import eu.goodlike.misc.CommonControllerLogic;
 import eu.goodlike.neat.Null;
 import org.slf4j.Logger;
@@ -10,6 +11,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
 
 import static eu.goodlike.misc.Constants.APPLICATION_JSON_UTF8;
@@ -71,14 +73,18 @@ public class TeacherController implements CommonControllerLogic {
 
     @RequestMapping(method = GET, produces = APPLICATION_JSON_UTF8)
     @ResponseBody
-    public List<FetchedTeacher> readAll(@RequestParam(value="page", required=false) Integer page,
-                                        @RequestParam(value="per_page", required=false) Integer per_page) {
+    public List<FetchedTeacher> readAll(HttpServletResponse response,
+                                         @RequestParam(value="page", required=false) Integer page,
+                                        @RequestParam(value="per_page", required=false) Integer per_page,
+                                        @RequestParam(value="cursor", required=false) String cursor) {
         page = validatePage(page, InvalidRequestException::new);
         per_page = validatePerPage(per_page, InvalidRequestException::new);
+        Page requestedPage = Page.of(page, per_page, cursor);
         LOG.info("Read all teachers request; page: {}, per_page: {}", page, per_page);
 
-        List<FetchedTeacher> teachers = teacherQueries.readAll(page, per_page);
+        List<FetchedTeacher> teachers = teacherQueries.readAll(requestedPage);
         LOG.info("Teachers retrieved: {}", teachers);
+        requestedPage.nextCursor(response, teachers, FetchedTeacher::getId);
 
         return teachers;
     }
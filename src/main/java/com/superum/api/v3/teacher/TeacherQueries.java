@@ -1,6 +1,7 @@
 package com.superum.api.v3.teacher;
 
 import com.superum.api.v3.teacher.dto.FetchedTeacher;
+import com.superum.helper.Page;
 
 import java.util.List;
 
@@ -8,7 +9,7 @@ public interface TeacherQueries {
 
     FetchedTeacher readById(int id);
 
-    List<FetchedTeacher> readAll(int page, int amount);
+    List<FetchedTeacher> readAll(Page page);
 
     int countAll();
 
@@ -12,6 +12,4 @@ public interface TeacherRepository {
     int update(int id, Integer paymentDay, BigDecimal hourlyWage, BigDecimal academicWage, String name, String surname,
                String phone, String city, String email, String picture, String document, String comment, long updatedAt);
 
-    int delete(int id);
-
 }
@@ -1,17 +1,21 @@
 package com.superum.api.v3.teacher.impl;
 
+import com.superum.api.v2.table.TableRollup;
+import com.superum.api.v2.table.TableVersions;
 import com.superum.api.v2.teacher.UnsafeTeacherDeleteException;
 import com.superum.api.v3.account.AccountServiceExt;
+import com.superum.api.v3.change.ChangeAction;
+import com.superum.api.v3.change.ChangeFeed;
+import com.superum.api.v3.change.ChangedTable;
 import com.superum.api.v3.teacher.Teacher;
 import com.superum.api.v3.teacher.TeacherCommands;
 import com.superum.api.v3.teacher.TeacherDeserializer;
-import com.superum.api.v3.teacher.TeacherRepository;
 import com.superum.api.v3.teacher.dto.FetchedTeacher;
 import com.superum.api.v3.teacher.dto.SuppliedTeacher;
 import com.superum.exception.DatabaseException;
+import com.superum.helper.PartitionAccount;
+import com.superum.helper.jooq.GuardedCommands;
 import eu.goodlike.libraries.jooq.CommandsMany;
-import eu.goodlike.libraries.jooq.Queries;
-import eu.goodlike.libraries.jooq.QueriesForeign;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -27,8 +31,13 @@ public class TeacherCommandsImpl implements TeacherCommands {
     @Override
     public FetchedTeacher create(SuppliedTeacher suppliedTeacher) {
         Teacher teacher = teacherDeserializer.toCreatable(suppliedTeacher);
-        return teacher.create()
+        FetchedTeacher createdTeacher = teacher.create()
                 .orElseThrow(() -> new DatabaseException("Couldn't create teacher: " + teacher));
+
+        int partitionId = new PartitionAccount().partitionId();
+        tableVersions.changed(partitionId);
+        changeFeed.publish(partitionId, ChangedTable.teacher, ChangeAction.created, createdTeacher.getId());
+        return createdTeacher;
     }
 
     @Override
@@ -36,20 +45,24 @@ public class TeacherCommandsImpl implements TeacherCommands {
         Teacher teacher = teacherDeserializer.toUpdatable(suppliedTeacher, id);
         if (teacher.update(id) == 0)
             throw new DatabaseException("Couldn't update teacher: " + teacher);
+
+        int partitionId = new PartitionAccount().partitionId();
+        tableRollup.refreshTeacher(id, partitionId);
+        changeFeed.publish(partitionId, ChangedTable.teacher, ChangeAction.updated, id);
     }
 
     @Override
     public void delete(int id) {
-        if (!teacherQueries.exists(id))
-            throw teacherIdError(id);
-
-        if (teacherForeignQueries.isUsed(id))
-            throw new UnsafeTeacherDeleteException("Teacher with id " + id + " still has entries in other tables!");
-
+        int partitionId = new PartitionAccount().partitionId();
+        // languages are deleted first, because they reference the teacher; if the teacher cannot be deleted, the
+        // exception rolls this back
         teacherLanguageCommands.deleteLeft(id);
+        guardedTeacherCommands.deleteUnused(id, partitionId,
+                () -> teacherIdError(id),
+                () -> new UnsafeTeacherDeleteException("Teacher with id " + id + " still has entries in other tables!"));
 
-        if (teacherRepository.delete(id) == 0)
-            throw new DatabaseException("Couldn't delete teacher with id: " + id);
+        tableVersions.changed(partitionId);
+        changeFeed.publish(partitionId, ChangedTable.teacher, ChangeAction.deleted, id);
 
         accountServiceExt.deleteAccount(id, TEACHER);
     }
@@ -58,26 +71,29 @@ public class TeacherCommandsImpl implements TeacherCommands {
 
     @Autowired
     public TeacherCommandsImpl(TeacherDeserializer teacherDeserializer,
-                               Queries<TeacherRecord, Integer> teacherQueries,
-                               QueriesForeign<Integer> teacherForeignQueries,
+                               GuardedCommands<TeacherRecord, Integer> guardedTeacherCommands,
                                CommandsMany<Integer, String> teacherLanguageCommands,
-                               TeacherRepository teacherRepository,
-                               AccountServiceExt accountServiceExt) {
+                               AccountServiceExt accountServiceExt,
+                               TableRollup tableRollup,
+                               TableVersions tableVersions,
+                               ChangeFeed changeFeed) {
         this.teacherDeserializer = teacherDeserializer;
-        this.teacherQueries = teacherQueries;
-        this.teacherForeignQueries = teacherForeignQueries;
+        this.guardedTeacherCommands = guardedTeacherCommands;
         this.teacherLanguageCommands = teacherLanguageCommands;
-        this.teacherRepository = teacherRepository;
         this.accountServiceExt = accountServiceExt;
+        this.tableRollup = tableRollup;
+        this.tableVersions = tableVersions;
+        this.changeFeed = changeFeed;
     }
 
     // PRIVATE
 
     private final TeacherDeserializer teacherDeserializer;
-    private final Queries<TeacherRecord, Integer> teacherQueries;
-    private final QueriesForeign<Integer> teacherForeignQueries;
+    private final GuardedCommands<TeacherRecord, Integer> guardedTeacherCommands;
     private final CommandsMany<Integer, String> teacherLanguageCommands;
-    private final TeacherRepository teacherRepository;
     private final AccountServiceExt accountServiceExt;
+    private final TableRollup tableRollup;
+    private final TableVersions tableVersions;
+    private final ChangeFeed changeFeed;
 
 }
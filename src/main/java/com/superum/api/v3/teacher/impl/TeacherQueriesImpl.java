@@ -4,11 +4,13 @@ import com.superum.api.v3.teacher.TeacherErrors;
 import com.superum.api.v3.teacher.TeacherQueries;
 import com.superum.api.v3.teacher.TeacherSerializer;
 import com.superum.api.v3.teacher.dto.FetchedTeacher;
+import com.superum.helper.Page;
 import com.superum.helper.PartitionAccount;
 import eu.goodlike.libraries.jooq.Queries;
 import org.jooq.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import timestar_v2.tables.records.TeacherRecord;
 
 import java.util.List;
@@ -18,6 +20,7 @@ import static timestar_v2.Tables.TEACHER;
 import static timestar_v2.Tables.TEACHER_LANGUAGE;
 
 @Service
+@Transactional(readOnly = true)
 public class TeacherQueriesImpl implements TeacherQueries {
 
     @Override
@@ -31,13 +34,14 @@ public class TeacherQueriesImpl implements TeacherQueries {
     }
 
     @Override
-    public List<FetchedTeacher> readAll(int page, int amount) {
+    public List<FetchedTeacher> readAll(Page page) {
         return fullTeachers()
-                .where(correctPartition())
+                .where(correctPartition()
+                        .and(page.seek(TEACHER.ID)))
                 .groupBy(TEACHER.ID)
                 .orderBy(TEACHER.ID)
-                .limit(amount)
-                .offset(page * amount)
+                .limit(page.amount())
+                .offset(page.offset())
                 .fetch()
                 .map(teacherSerializer::toReturnable);
     }
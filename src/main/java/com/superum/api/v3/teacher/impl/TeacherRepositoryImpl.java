@@ -2,6 +2,7 @@ package com.superum.api.v3.teacher.impl;
 
 import com.superum.api.v3.teacher.TeacherRepository;
 import com.superum.helper.PartitionAccount;
+import com.superum.helper.jooq.EntityCache;
 import org.jooq.Condition;
 import org.jooq.DSLContext;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,8 +23,9 @@ public class TeacherRepositoryImpl implements TeacherRepository {
     public Optional<Integer> create(Integer paymentDay, BigDecimal hourlyWage, BigDecimal academicWage, String name,
                                     String surname, String phone, String city, String email, String picture, String document,
                                     String comment, long createdAt, long updatedAt) {
-        return sql.insertInto(TEACHER)
-                .set(TEACHER.PARTITION_ID, new PartitionAccount().partitionId())
+        int partitionId = new PartitionAccount().partitionId();
+        Optional<Integer> created = sql.insertInto(TEACHER)
+                .set(TEACHER.PARTITION_ID, partitionId)
                 .set(TEACHER.PAYMENT_DAY, paymentDay)
                 .set(TEACHER.HOURLY_WAGE, hourlyWage)
                 .set(TEACHER.ACADEMIC_WAGE, academicWage)
@@ -40,12 +42,16 @@ public class TeacherRepositoryImpl implements TeacherRepository {
                 .returning(TEACHER.ID)
                 .fetch().stream().findAny()
                 .map(TeacherRecord::getId);
+
+        created.ifPresent(id -> entityCache.changed(TEACHER, partitionId, id));
+        return created;
     }
 
     @Override
     public int update(int id, Integer paymentDay, BigDecimal hourlyWage, BigDecimal academicWage, String name,
                       String surname, String phone, String city, String email, String picture, String document,
                       String comment, long updatedAt) {
+        entityCache.changed(TEACHER, new PartitionAccount().partitionId(), id);
         return sql.update(TEACHER)
                 .set(TEACHER.PAYMENT_DAY, paymentDay)
                 .set(TEACHER.HOURLY_WAGE, hourlyWage)
@@ -63,23 +69,18 @@ public class TeacherRepositoryImpl implements TeacherRepository {
                 .execute();
     }
 
-    @Override
-    public int delete(int id) {
-        return sql.deleteFrom(TEACHER)
-                .where(primaryKey(id))
-                .execute();
-    }
-
     // CONSTRUCTORS
 
     @Autowired
-    public TeacherRepositoryImpl(DSLContext sql) {
+    public TeacherRepositoryImpl(DSLContext sql, EntityCache entityCache) {
         this.sql = sql;
+        this.entityCache = entityCache;
     }
 
     // PRIVATE
 
     private final DSLContext sql;
+    private final EntityCache entityCache;
 
     private Condition primaryKey(int id) {
         return TEACHER.ID.eq(id).and(TEACHER.PARTITION_ID.eq(new PartitionAccount().partitionId()));
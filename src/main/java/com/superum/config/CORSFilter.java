@@ -21,7 +21,8 @@ public class CORSFilter implements Filter {
             response.setHeader("Access-Control-Allow-Origin", origin);
             response.setHeader("Access-Control-Allow-Methods", "POST, GET, PUT, DELETE, OPTIONS, PATCH");
             response.setHeader("Access-Control-Max-Age", "604800");
-            response.setHeader("Access-Control-Allow-Headers", "Origin, X-Requested-With, Content-Type, Accept, Authorization");
+            response.setHeader("Access-Control-Allow-Headers", "Origin, X-Requested-With, Content-Type, Accept, Authorization, Last-Event-ID");
+            response.setHeader("Access-Control-Expose-Headers", "X-Next-Cursor");
         }
         chain.doFilter(req, res);
     }
@@ -16,58 +16,76 @@ public class DefaultSqlConfig {
     @Autowired
     PersistenceContext persistenceContext;
 
+    /**
+     * Records which were read by id most recently; shared by all tables, so that they compete for the same space
+     */
+    @Bean
+    public EntityCache entityCache() {
+        return new EntityCache(persistenceContext.readWriteRoutingDataSource(), MAX_CACHED_RECORDS);
+    }
+
     // COMMANDS
 
     @Bean
     public DefaultCommands<TeacherRecord, Integer> defaultTeacherCommands() {
-        return new DefaultCommandsImpl<>(persistenceContext.dsl(), TEACHER, TEACHER.ID, TEACHER.PARTITION_ID);
+        return new DefaultCommandsImpl<>(persistenceContext.dsl(), TEACHER, TEACHER.ID, TEACHER.PARTITION_ID,
+                entityCache());
     }
 
     @Bean
     public DefaultCommands<CustomerRecord, Integer> defaultCustomerCommands() {
-        return new DefaultCommandsImpl<>(persistenceContext.dsl(), CUSTOMER, CUSTOMER.ID, CUSTOMER.PARTITION_ID);
+        return new DefaultCommandsImpl<>(persistenceContext.dsl(), CUSTOMER, CUSTOMER.ID, CUSTOMER.PARTITION_ID,
+                entityCache());
     }
 
     @Bean
     public DefaultCommands<GroupOfStudentsRecord, Integer> defaultGroupCommands() {
-        return new DefaultCommandsImpl<>(persistenceContext.dsl(), GROUP_OF_STUDENTS, GROUP_OF_STUDENTS.ID, GROUP_OF_STUDENTS.PARTITION_ID);
+        return new DefaultCommandsImpl<>(persistenceContext.dsl(), GROUP_OF_STUDENTS, GROUP_OF_STUDENTS.ID, GROUP_OF_STUDENTS.PARTITION_ID,
+                entityCache());
     }
 
     @Bean
     public DefaultCommands<LessonRecord, Long> defaultLessonCommands() {
-        return new DefaultCommandsImpl<>(persistenceContext.dsl(), LESSON, LESSON.ID, LESSON.PARTITION_ID);
+        return new DefaultCommandsImpl<>(persistenceContext.dsl(), LESSON, LESSON.ID, LESSON.PARTITION_ID,
+                entityCache());
     }
 
     @Bean
     public DefaultCommands<StudentRecord, Integer> defaultStudentCommands() {
-        return new DefaultCommandsImpl<>(persistenceContext.dsl(), STUDENT, STUDENT.ID, STUDENT.PARTITION_ID);
+        return new DefaultCommandsImpl<>(persistenceContext.dsl(), STUDENT, STUDENT.ID, STUDENT.PARTITION_ID,
+                entityCache());
     }
 
     // QUERIES
 
     @Bean
     public DefaultQueries<TeacherRecord, Integer> defaultTeacherQueries() {
-        return new DefaultQueriesImpl<>(persistenceContext.dsl(), TEACHER, TEACHER.ID, TEACHER.PARTITION_ID);
+        return new DefaultQueriesImpl<>(persistenceContext.dsl(), TEACHER, TEACHER.ID, TEACHER.PARTITION_ID,
+                entityCache());
     }
 
     @Bean
     public DefaultQueries<CustomerRecord, Integer> defaultCustomerQueries() {
-        return new DefaultQueriesImpl<>(persistenceContext.dsl(), CUSTOMER, CUSTOMER.ID, CUSTOMER.PARTITION_ID);
+        return new DefaultQueriesImpl<>(persistenceContext.dsl(), CUSTOMER, CUSTOMER.ID, CUSTOMER.PARTITION_ID,
+                entityCache());
     }
 
     @Bean
     public DefaultQueries<GroupOfStudentsRecord, Integer> defaultGroupQueries() {
-        return new DefaultQueriesImpl<>(persistenceContext.dsl(), GROUP_OF_STUDENTS, GROUP_OF_STUDENTS.ID, GROUP_OF_STUDENTS.PARTITION_ID);
+        return new DefaultQueriesImpl<>(persistenceContext.dsl(), GROUP_OF_STUDENTS, GROUP_OF_STUDENTS.ID, GROUP_OF_STUDENTS.PARTITION_ID,
+                entityCache());
     }
 
     @Bean
     public DefaultQueries<LessonRecord, Long> defaultLessonQueries() {
-        return new DefaultQueriesImpl<>(persistenceContext.dsl(), LESSON, LESSON.ID, LESSON.PARTITION_ID);
+        return new DefaultQueriesImpl<>(persistenceContext.dsl(), LESSON, LESSON.ID, LESSON.PARTITION_ID,
+                entityCache());
     }
 
     @Bean
     public DefaultQueries<StudentRecord, Integer> defaultStudentQueries() {
-        return new DefaultQueriesImpl<>(persistenceContext.dsl(), STUDENT, STUDENT.ID, STUDENT.PARTITION_ID);
+        return new DefaultQueriesImpl<>(persistenceContext.dsl(), STUDENT, STUDENT.ID, STUDENT.PARTITION_ID,
+                entityCache());
     }
 
     // FOREIGN
@@ -102,6 +120,26 @@ public class DefaultSqlConfig {
         return new ForeignQueriesImpl<Integer>(persistenceContext.dsl(), LESSON_ATTENDANCE.STUDENT_ID, STUDENTS_IN_GROUPS.STUDENT_ID);
     }
 
+    // GUARDED
+
+    @Bean
+    public GuardedCommands<TeacherRecord, Integer> guardedTeacherCommands() {
+        return new GuardedCommandsImpl<>(persistenceContext.dsl(), TEACHER, TEACHER.ID, TEACHER.PARTITION_ID,
+                foreignTeacherQueries(), entityCache());
+    }
+
+    @Bean
+    public GuardedCommands<CustomerRecord, Integer> guardedCustomerCommands() {
+        return new GuardedCommandsImpl<>(persistenceContext.dsl(), CUSTOMER, CUSTOMER.ID, CUSTOMER.PARTITION_ID,
+                foreignCustomerQueries(), entityCache());
+    }
+
+    @Bean
+    public GuardedCommands<LessonRecord, Long> guardedLessonCommands() {
+        return new GuardedCommandsImpl<>(persistenceContext.dsl(), LESSON, LESSON.ID, LESSON.PARTITION_ID,
+                foreignLessonQueries(), entityCache());
+    }
+
     // MANY
 
     @Bean
@@ -130,4 +168,8 @@ public class DefaultSqlConfig {
                 STUDENTS_IN_GROUPS.GROUP_ID, STUDENTS_IN_GROUPS.STUDENT_ID, STUDENTS_IN_GROUPS.PARTITION_ID);
     }
 
+    // PRIVATE
+
+    private static final long MAX_CACHED_RECORDS = 20000;
+
 }
@@ -1,10 +1,13 @@
 package com.superum.config;
 
 import com.superum.helper.PartitionAccount;
+import com.superum.helper.jooq.CachedQueries;
 import eu.goodlike.libraries.jooq.CommandsMany;
 import eu.goodlike.libraries.jooq.Queries;
 import eu.goodlike.libraries.jooq.QueriesForeign;
 import eu.goodlike.libraries.jooq.SQL;
+import org.jooq.Record;
+import org.jooq.Table;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -20,39 +23,42 @@ public class DefaultSqlConfigV3 {
     @Autowired
     PersistenceContext persistenceContext;
 
+    @Autowired
+    DefaultSqlConfig defaultSqlConfig;
+
     @Bean
     public Queries<LessonRecord, Long> lessonQueries() {
         Queries<LessonRecord, Long> queries = SQL.queriesFor(persistenceContext.dsl(), LESSON, LESSON.ID);
         queries.setUniversalCondition(() -> LESSON.PARTITION_ID.eq(new PartitionAccount().partitionId()));
-        return queries;
+        return cached(queries, LESSON);
     }
 
     @Bean
     public Queries<GroupOfStudentsRecord, Integer> groupQueries() {
         Queries<GroupOfStudentsRecord, Integer> queries = SQL.queriesFor(persistenceContext.dsl(), GROUP_OF_STUDENTS, GROUP_OF_STUDENTS.ID);
         queries.setUniversalCondition(() -> GROUP_OF_STUDENTS.PARTITION_ID.eq(new PartitionAccount().partitionId()));
-        return queries;
+        return cached(queries, GROUP_OF_STUDENTS);
     }
 
     @Bean
     public Queries<TeacherRecord, Integer> teacherQueries() {
         Queries<TeacherRecord, Integer> queries = SQL.queriesFor(persistenceContext.dsl(), TEACHER, TEACHER.ID);
         queries.setUniversalCondition(() -> TEACHER.PARTITION_ID.eq(new PartitionAccount().partitionId()));
-        return queries;
+        return cached(queries, TEACHER);
     }
 
     @Bean
     public Queries<CustomerRecord, Integer> customerQueries() {
         Queries<CustomerRecord, Integer> queries = SQL.queriesFor(persistenceContext.dsl(), CUSTOMER, CUSTOMER.ID);
         queries.setUniversalCondition(() -> CUSTOMER.PARTITION_ID.eq(new PartitionAccount().partitionId()));
-        return queries;
+        return cached(queries, CUSTOMER);
     }
 
     @Bean
     public Queries<StudentRecord, Integer> studentQueries() {
         Queries<StudentRecord, Integer> queries = SQL.queriesFor(persistenceContext.dsl(), STUDENT, STUDENT.ID);
         queries.setUniversalCondition(() -> STUDENT.PARTITION_ID.eq(new PartitionAccount().partitionId()));
-        return queries;
+        return cached(queries, STUDENT);
     }
 
     @Bean
@@ -81,4 +87,14 @@ public class DefaultSqlConfigV3 {
         return SQL.queriesFor(persistenceContext.dsl(), GROUP_OF_STUDENTS.CUSTOMER_ID, STUDENT.CUSTOMER_ID);
     }
 
+    // PRIVATE
+
+    /**
+     * @return queries which read by id through the entity cache
+     */
+    private <R extends Record, ID> Queries<R, ID> cached(Queries<R, ID> queries, Table<R> table) {
+        return new CachedQueries<>(queries, table, () -> new PartitionAccount().partitionId(),
+                defaultSqlConfig.entityCache());
+    }
+
 }
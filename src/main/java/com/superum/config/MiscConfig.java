@@ -1,7 +1,14 @@
 package com.superum.config;
 
+import com.superum.api.v2.group.GroupReassignment;
+import com.superum.api.v2.lesson.LessonIntervals;
 import com.superum.api.v2.table.PaddedSumField;
+import com.superum.api.v2.table.TableExecutor;
+import com.superum.api.v2.table.TableRollup;
+import com.superum.api.v3.change.ChangeFeed;
 import com.superum.api.v3.teacher.impl.TeacherLanguagesField;
+import com.superum.helper.jooq.EntityCache;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
@@ -15,9 +22,31 @@ public class MiscConfig {
         return new PaddedSumField();
     }
 
+    @Bean(destroyMethod = "shutdown")
+    public TableExecutor tableExecutor() {
+        return TableExecutor.forPool(persistenceContext.comboPooledDataSource().getMaxPoolSize());
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ChangeFeed changeFeed() {
+        return new ChangeFeed();
+    }
+
+    @Bean(initMethod = "resumeUnfinished", destroyMethod = "shutdown")
+    public GroupReassignment groupReassignment(TableRollup tableRollup, LessonIntervals lessonIntervals,
+                                               EntityCache entityCache) {
+        return new GroupReassignment(persistenceContext.dsl(), persistenceContext.transactionManager(), tableRollup,
+                lessonIntervals, changeFeed(), entityCache, persistenceContext.partitionRoutingDataSource());
+    }
+
     @Bean
     public TeacherLanguagesField teacherLanguagesField() {
         return new TeacherLanguagesField();
     }
 
+    // PRIVATE
+
+    @Autowired
+    private PersistenceContext persistenceContext;
+
 }
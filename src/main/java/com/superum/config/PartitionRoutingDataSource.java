@@ -0,0 +1,242 @@
+package com.superum.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mchange.v2.c3p0.ComboPooledDataSource;
+import com.superum.exception.DatabaseException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * <pre>
+ * Sends every connection to the shard which contains the data of the partition of the current user
+ *
+ * Partition is taken from the authenticated user, same as PartitionAccount; threads without a user (i.e. background
+ * jobs) and code which must use a particular shard can choose it explicitly with forPartition() or onShard(); if the
+ * partition is unknown, the primary shard is used
+ *
+ * The shard of every partition is stored in the "shard" column of PARTITIONS in the primary database, which is the
+ * only authoritative copy; the map is cached for a minute, so other instances of the app notice a moved partition
+ * within a minute
+ *
+ * While a partition is being moved, its "moving" column is set; its connections fail in every instance of the app,
+ * and its shard is not cached, so the new shard is read as soon as the move ends
+ *
+ * The primary shard is the original database, together with its replica; other shards are plain pools, each with
+ * the full schema, which contain the data of their partitions only; ids are generated by every shard separately, so
+ * every shard must use a different auto_increment_offset, otherwise moved rows can collide
+ *
+ * Like any routing DataSource, the shard is chosen when a connection is taken; a transaction which already has a
+ * connection keeps using it, so the shard must be chosen before the transaction runs its first statement
+ * </pre>
+ */
+public final class PartitionRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY_SHARD = "primary";
+
+    /**
+     * Longest time for which an instance of the app can keep routing a partition to a shard after the shard map
+     * changes
+     */
+    public static final int SHARD_MAP_LIFETIME_SECONDS = 60;
+
+    /**
+     * @return shard which contains the data of given partition; primary shard if the partition is unknown
+     * @throws DatabaseException if the partition is mapped to a shard which is not configured, or is being moved
+     */
+    public String shardOf(int partitionId) {
+        String shard = shardMap.get(partitionId, this::readShard);
+        if (!pools.containsKey(shard))
+            throw new DatabaseException("Partition " + partitionId + " is mapped to shard '" + shard +
+                    "', which is not configured");
+
+        return shard;
+    }
+
+    /**
+     * @return shard which a connection would be taken from, if it was needed right now
+     */
+    public String currentShard() {
+        String shard = chosenShard.get();
+        if (shard != null)
+            return shard;
+
+        Integer partitionId = currentPartitionId();
+        return partitionId == null ? PRIMARY_SHARD : shardOf(partitionId);
+    }
+
+    /**
+     * @return result of given work, which uses the shard of given partition, regardless of the current user
+     * @throws DatabaseException if the partition is being moved
+     */
+    public <T> T forPartition(int partitionId, Supplier<T> work) {
+        return onShard(shardOf(partitionId), work);
+    }
+
+    /**
+     * @return result of given work, which uses the shard of the partition of given account username; primary shard if
+     * the username has no partition prefix
+     */
+    public <T> T forAccount(String accountUsername, Supplier<T> work) {
+        Integer partitionId = partitionIdOf(accountUsername);
+        return partitionId == null
+                ? onShard(PRIMARY_SHARD, work)
+                : forPartition(partitionId, work);
+    }
+
+    /**
+     * @return result of given work, which uses given shard, regardless of the current user
+     */
+    public <T> T onShard(String shard, Supplier<T> work) {
+        if (!pools.containsKey(shard))
+            throw new DatabaseException("Shard '" + shard + "' is not configured");
+
+        String previousShard = chosenShard.get();
+        chosenShard.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previousShard == null)
+                chosenShard.remove();
+            else
+                chosenShard.set(previousShard);
+        }
+    }
+
+    /**
+     * @return names of all configured shards, primary first
+     */
+    public List<String> shards() {
+        return new ArrayList<>(pools.keySet());
+    }
+
+    /**
+     * @return pool of the primary database of given shard, bypassing the replica and the routing
+     */
+    public ComboPooledDataSource poolOf(String shard) {
+        ComboPooledDataSource pool = pools.get(shard);
+        if (pool == null)
+            throw new DatabaseException("Shard '" + shard + "' is not configured");
+
+        return pool;
+    }
+
+    /**
+     * Forgets the cached shard of given partition, so that the next connection reads it from PARTITIONS again
+     */
+    public void forget(int partitionId) {
+        shardMap.invalidate(partitionId);
+    }
+
+    /**
+     * Closes the pools of every shard, except primary, which is closed on its own
+     */
+    public void closeShards() {
+        pools.entrySet().stream()
+                .filter(shard -> !shard.getKey().equals(PRIMARY_SHARD))
+                .forEach(shard -> shard.getValue().close());
+    }
+
+    // CONSTRUCTORS
+
+    /**
+     * @param primary pool of the primary database, which also contains the shard map
+     * @param primaryRouting routing between the primary database and its replica
+     * @param shards pools of other shards, by their names
+     */
+    public PartitionRoutingDataSource(ComboPooledDataSource primary, ReadWriteRoutingDataSource primaryRouting,
+                                      Map<String, ComboPooledDataSource> shards) {
+        if (shards.containsKey(PRIMARY_SHARD))
+            throw new IllegalArgumentException("Shard name '" + PRIMARY_SHARD + "' is reserved for the primary database");
+
+        this.pools = new LinkedHashMap<>();
+        this.pools.put(PRIMARY_SHARD, primary);
+        this.pools.putAll(shards);
+        this.directory = new JdbcTemplate(primary);
+        this.shardMap = Caffeine.newBuilder()
+                .maximumSize(MAX_PARTITIONS)
+                .expireAfterWrite(SHARD_MAP_LIFETIME_SECONDS, TimeUnit.SECONDS)
+                .build();
+        this.chosenShard = new ThreadLocal<>();
+
+        Map<Object, Object> targets = new HashMap<>(shards);
+        targets.put(PRIMARY_SHARD, primaryRouting);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primaryRouting);
+        afterPropertiesSet();
+    }
+
+    // PROTECTED
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String shard = chosenShard.get();
+        if (shard != null)
+            return shard;
+
+        Integer partitionId = currentPartitionId();
+        return partitionId == null ? PRIMARY_SHARD : shardOf(partitionId);
+    }
+
+    // PRIVATE
+
+    private final Map<String, ComboPooledDataSource> pools;
+    private final JdbcTemplate directory;
+    private final Cache<Integer, String> shardMap;
+    private final ThreadLocal<String> chosenShard;
+
+    /**
+     * @throws DatabaseException if the partition is being moved; nothing is cached then
+     */
+    private String readShard(int partitionId) {
+        List<Map<String, Object>> partitions = directory.queryForList(
+                "SELECT shard, moving FROM partitions WHERE id = ?", partitionId);
+        if (partitions.isEmpty())
+            return PRIMARY_SHARD;
+
+        Map<String, Object> partition = partitions.get(0);
+        if (Boolean.TRUE.equals(partition.get("moving")))
+            throw new DatabaseException("Partition " + partitionId + " is being moved to another shard; " +
+                    "please try again later");
+
+        return (String) partition.get("shard");
+    }
+
+    /**
+     * @return partition of the authenticated user, parsed the same way as PartitionAccount does; null if there is no
+     * user, or the name of the user has no partition prefix
+     */
+    private static Integer currentPartitionId() {
+        Authentication user = SecurityContextHolder.getContext().getAuthentication();
+        return user == null ? null : partitionIdOf(user.getName());
+    }
+
+    /**
+     * @return partition prefix of given account username; null if it has none
+     */
+    private static Integer partitionIdOf(String accountUsername) {
+        if (accountUsername == null)
+            return null;
+
+        int separatorIndex = accountUsername.indexOf(SEPARATOR);
+        if (separatorIndex <= 0)
+            return null;
+
+        try {
+            return Integer.parseInt(accountUsername.substring(0, separatorIndex));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static final char SEPARATOR = '.';
+
+    private static final int MAX_PARTITIONS = 10000;
+
+}
@@ -0,0 +1,79 @@
+package com.superum.config;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.MoreObjects;
+
+/**
+ * <pre>
+ * Data Transport Object for the shard of a single partition
+ *
+ * This object is responsible for serialization; the shard map is a read-only construct, therefore de-serialization
+ * logic is not necessary
+ *
+ * When returning an instance of PartitionShard with JSON, these fields will be present:
+ *      FIELD_NAME          : FIELD_DESCRIPTION
+ *      partitionId         : id of the partition
+ *      name                : name of the partition
+ *      shard               : name of the shard which contains the data of the partition
+ *
+ * Example of JSON to expect:
+ * {
+ *      "partitionId": 1,
+ *      "name": "DEV",
+ *      "shard": "primary"
+ * }
+ * </pre>
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.ALWAYS)
+public final class PartitionShard {
+
+    @JsonProperty(PARTITION_ID_FIELD)
+    public int getPartitionId() {
+        return partitionId;
+    }
+
+    @JsonProperty(NAME_FIELD)
+    public String getName() {
+        return name;
+    }
+
+    @JsonProperty(SHARD_FIELD)
+    public String getShard() {
+        return shard;
+    }
+
+    // CONSTRUCTORS
+
+    public PartitionShard(int partitionId, String name, String shard) {
+        this.partitionId = partitionId;
+        this.name = name;
+        this.shard = shard;
+    }
+
+    // PRIVATE
+
+    private final int partitionId;
+    private final String name;
+    private final String shard;
+
+    // FIELD NAMES
+
+    private static final String PARTITION_ID_FIELD = "partitionId";
+    private static final String NAME_FIELD = "name";
+    private static final String SHARD_FIELD = "shard";
+
+    // OBJECT OVERRIDES
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper("PartitionShard")
+                .add(PARTITION_ID_FIELD, partitionId)
+                .add(NAME_FIELD, name)
+                .add(SHARD_FIELD, shard)
+                .toString();
+    }
+
+}
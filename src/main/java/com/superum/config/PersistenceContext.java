@@ -4,15 +4,13 @@ import com.mchange.v2.c3p0.ComboPooledDataSource;
 import org.jooq.ExecuteContext;
 import org.jooq.SQLDialect;
 import org.jooq.impl.*;
+import org.jooq.lambda.Seq;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.*;
 import org.springframework.core.env.Environment;
-import org.springframework.core.io.ClassPathResource;
 import org.springframework.jdbc.datasource.DataSourceTransactionManager;
 import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.jdbc.datasource.TransactionAwareDataSourceProxy;
-import org.springframework.jdbc.datasource.init.DataSourceInitializer;
-import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
 import org.springframework.jdbc.support.SQLErrorCodeSQLExceptionTranslator;
 import org.springframework.jdbc.support.SQLExceptionTranslator;
 import org.springframework.jdbc.support.SQLStateSQLExceptionTranslator;
@@ -20,6 +18,8 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 import javax.sql.DataSource;
 import java.beans.PropertyVetoException;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Configuration
 @EnableTransactionManagement
@@ -32,30 +32,61 @@ public class PersistenceContext {
 
     @Bean
     @Primary
-    @DependsOn("comboPooledDataSource")
+    @DependsOn("partitionRoutingDataSource")
     public DataSource dataSource() {
-        return comboPooledDataSource();
+        return partitionRoutingDataSource();
     }
 
     @Bean(destroyMethod = "close")
     public ComboPooledDataSource comboPooledDataSource() {
-    	ComboPooledDataSource dataSource = new ComboPooledDataSource();
- 
-        try {
-			dataSource.setDriverClass(env.getRequiredProperty("db.driver"));
-		} catch (PropertyVetoException e) {
-			throw new RuntimeException("Failed to load database driver.", e);
-		}
-        dataSource.setJdbcUrl(env.getRequiredProperty("db.url"));
-        dataSource.setUser(env.getRequiredProperty("db.username"));
-        dataSource.setPassword(env.getRequiredProperty("db.password"));
-        dataSource.setMaxIdleTime(14400);
-        dataSource.setMaxConnectionAge(25200);
-        dataSource.setPreferredTestQuery("SELECT 1");
-        dataSource.setTestConnectionOnCheckin(true);
-        dataSource.setTestConnectionOnCheckout(false);
-        dataSource.setIdleConnectionTestPeriod(300);
-        return dataSource;
+        return pooledDataSource(env.getRequiredProperty("db.url"),
+                env.getRequiredProperty("db.username"),
+                env.getRequiredProperty("db.password"));
+    }
+
+    /**
+     * <pre>
+     * Read-only transactions use the replica at "db.replica.url"; if it is not set, everything uses the primary
+     *
+     * Replica uses the same username and password as the primary, unless "db.replica.username" and
+     * "db.replica.password" are set; "db.replica.readYourWrites" can be set to false to allow requests to read from
+     * the replica after they have written something
+     * </pre>
+     */
+    @Bean(destroyMethod = "closeReplica")
+    @DependsOn("comboPooledDataSource")
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource() {
+        String replicaUrl = env.getProperty("db.replica.url");
+        ComboPooledDataSource replica = replicaUrl == null || replicaUrl.isEmpty()
+                ? comboPooledDataSource()
+                : pooledDataSource(replicaUrl,
+                        env.getProperty("db.replica.username", env.getRequiredProperty("db.username")),
+                        env.getProperty("db.replica.password", env.getRequiredProperty("db.password")));
+        boolean readYourWrites = env.getProperty("db.replica.readYourWrites", Boolean.class, true);
+        return new ReadWriteRoutingDataSource(comboPooledDataSource(), replica, readYourWrites);
+    }
+
+    /**
+     * <pre>
+     * Partitions are routed to the shards listed in "db.shards", separated by commas; the primary database (with its
+     * replica) is always the shard "primary", and contains the partitions which are not mapped to any other shard
+     *
+     * Every other shard is configured with "db.shard.{name}.url"; it uses the same username and password as the
+     * primary, unless "db.shard.{name}.username" and "db.shard.{name}.password" are set
+     * </pre>
+     */
+    @Bean(destroyMethod = "closeShards")
+    @DependsOn("readWriteRoutingDataSource")
+    public PartitionRoutingDataSource partitionRoutingDataSource() {
+        Map<String, ComboPooledDataSource> shards = new LinkedHashMap<>();
+        for (String shard : env.getProperty("db.shards", "").split(",")) {
+            String name = shard.trim();
+            if (!name.isEmpty())
+                shards.put(name, pooledDataSource(env.getRequiredProperty("db.shard." + name + ".url"),
+                        env.getProperty("db.shard." + name + ".username", env.getRequiredProperty("db.username")),
+                        env.getProperty("db.shard." + name + ".password", env.getRequiredProperty("db.password"))));
+        }
+        return new PartitionRoutingDataSource(comboPooledDataSource(), readWriteRoutingDataSource(), shards);
     }
  
     @Bean
@@ -88,15 +119,26 @@ public class PersistenceContext {
         return new JOOQToSpringExceptionTransformer();
     }
  
+    /**
+     * A request which runs the same statement "db.profiler.nPlusOneThreshold" times (10 by default) is flagged as
+     * a possible N+1
+     */
+    @Bean
+    public SqlProfiler sqlProfiler() {
+        return new SqlProfiler(env.getProperty("db.profiler.nPlusOneThreshold", Integer.class,
+                DEFAULT_N_PLUS_ONE_THRESHOLD));
+    }
+ 
     @Bean
     @DependsOn("dataSource")
     public DefaultConfiguration configuration() {
         DefaultConfiguration jooqConfiguration = new DefaultConfiguration();
  
         jooqConfiguration.set(connectionProvider());
-        jooqConfiguration.set(new DefaultExecuteListenerProvider(
-            jooqToSpringExceptionTransformer()
-        ));
+        jooqConfiguration.set(
+            new DefaultExecuteListenerProvider(jooqToSpringExceptionTransformer()),
+            new DefaultExecuteListenerProvider(sqlProfiler())
+        );
  
         String sqlDialectName = env.getRequiredProperty("jooq.sql.dialect");
         SQLDialect dialect = SQLDialect.valueOf(sqlDialectName);
@@ -106,27 +148,43 @@ public class PersistenceContext {
     }
  
     @Bean
-    @DependsOn("dataSource")
+    @DependsOn({"dataSource", "schemaMigrator"})
     public DefaultDSLContext dsl() {
         return new DefaultDSLContext(configuration());
     }
  
     @Bean
     @DependsOn("dataSource")
-    public DataSourceInitializer dataSourceInitializer() {
-        DataSourceInitializer initializer = new DataSourceInitializer();
-        initializer.setDataSource(dataSource());
- 
-        ResourceDatabasePopulator populator = new ResourceDatabasePopulator();
-        populator.addScript(
-                new ClassPathResource(env.getRequiredProperty("db.schema.script"))
-        );
+    public SchemaMigrator schemaMigrator() {
+        // migrations go to the primary of every shard; the replica receives them through replication
+        PartitionRoutingDataSource shards = partitionRoutingDataSource();
+        return new SchemaMigrator(Seq.seq(shards.shards()).map(shards::poolOf).toList(),
+                env.getProperty("db.migration.location", DEFAULT_MIGRATION_LOCATION));
+    }
+
+    private ComboPooledDataSource pooledDataSource(String url, String username, String password) {
+    	ComboPooledDataSource dataSource = new ComboPooledDataSource();
  
-        initializer.setDatabasePopulator(populator);
-        
-        return initializer;
+        try {
+			dataSource.setDriverClass(env.getRequiredProperty("db.driver"));
+		} catch (PropertyVetoException e) {
+			throw new RuntimeException("Failed to load database driver.", e);
+		}
+        dataSource.setJdbcUrl(url);
+        dataSource.setUser(username);
+        dataSource.setPassword(password);
+        dataSource.setMaxIdleTime(14400);
+        dataSource.setMaxConnectionAge(25200);
+        dataSource.setPreferredTestQuery("SELECT 1");
+        dataSource.setTestConnectionOnCheckin(true);
+        dataSource.setTestConnectionOnCheckout(false);
+        dataSource.setIdleConnectionTestPeriod(300);
+        return dataSource;
     }
-    
+
+    private static final String DEFAULT_MIGRATION_LOCATION = "classpath:sql/migration/";
+    private static final int DEFAULT_N_PLUS_ONE_THRESHOLD = 10;
+
     static class JOOQToSpringExceptionTransformer extends DefaultExecuteListener {
     	 
 		private static final long serialVersionUID = -2120575381798245613L;
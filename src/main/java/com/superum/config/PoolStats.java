@@ -0,0 +1,124 @@
+package com.superum.config;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.MoreObjects;
+
+/**
+ * <pre>
+ * Data Transport Object for the state of a single database connection pool
+ *
+ * This object is responsible for serialization; pool state is a read-only construct, therefore de-serialization
+ * logic is not necessary
+ *
+ * When returning an instance of PoolStats with JSON, these fields will be present:
+ *      FIELD_NAME          : FIELD_DESCRIPTION
+ *      pool                : name of the pool; "primary" or "replica"
+ *      checkouts           : amount of connections routed to this pool since startup
+ *      busyConnections     : amount of connections currently in use
+ *      idleConnections     : amount of connections currently waiting in the pool
+ *      totalConnections    : amount of connections currently open
+ *      threadsAwaiting     : amount of threads currently waiting for a connection
+ *      maxConnections      : maximum amount of connections the pool can open
+ *
+ * Example of JSON to expect:
+ * {
+ *      "pool": "replica",
+ *      "checkouts": 1520,
+ *      "busyConnections": 3,
+ *      "idleConnections": 7,
+ *      "totalConnections": 10,
+ *      "threadsAwaiting": 0,
+ *      "maxConnections": 50
+ * }
+ * </pre>
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.ALWAYS)
+public final class PoolStats {
+
+    @JsonProperty(POOL_FIELD)
+    public String getPool() {
+        return pool;
+    }
+
+    @JsonProperty(CHECKOUTS_FIELD)
+    public long getCheckouts() {
+        return checkouts;
+    }
+
+    @JsonProperty(BUSY_FIELD)
+    public int getBusyConnections() {
+        return busyConnections;
+    }
+
+    @JsonProperty(IDLE_FIELD)
+    public int getIdleConnections() {
+        return idleConnections;
+    }
+
+    @JsonProperty(TOTAL_FIELD)
+    public int getTotalConnections() {
+        return totalConnections;
+    }
+
+    @JsonProperty(AWAITING_FIELD)
+    public int getThreadsAwaiting() {
+        return threadsAwaiting;
+    }
+
+    @JsonProperty(MAX_FIELD)
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    // CONSTRUCTORS
+
+    public PoolStats(String pool, long checkouts, int busyConnections, int idleConnections, int totalConnections,
+                     int threadsAwaiting, int maxConnections) {
+        this.pool = pool;
+        this.checkouts = checkouts;
+        this.busyConnections = busyConnections;
+        this.idleConnections = idleConnections;
+        this.totalConnections = totalConnections;
+        this.threadsAwaiting = threadsAwaiting;
+        this.maxConnections = maxConnections;
+    }
+
+    // PRIVATE
+
+    private final String pool;
+    private final long checkouts;
+    private final int busyConnections;
+    private final int idleConnections;
+    private final int totalConnections;
+    private final int threadsAwaiting;
+    private final int maxConnections;
+
+    // FIELD NAMES
+
+    private static final String POOL_FIELD = "pool";
+    private static final String CHECKOUTS_FIELD = "checkouts";
+    private static final String BUSY_FIELD = "busyConnections";
+    private static final String IDLE_FIELD = "idleConnections";
+    private static final String TOTAL_FIELD = "totalConnections";
+    private static final String AWAITING_FIELD = "threadsAwaiting";
+    private static final String MAX_FIELD = "maxConnections";
+
+    // OBJECT OVERRIDES
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper("PoolStats")
+                .add(POOL_FIELD, pool)
+                .add(CHECKOUTS_FIELD, checkouts)
+                .add(BUSY_FIELD, busyConnections)
+                .add(IDLE_FIELD, idleConnections)
+                .add(TOTAL_FIELD, totalConnections)
+                .add(AWAITING_FIELD, threadsAwaiting)
+                .add(MAX_FIELD, maxConnections)
+                .toString();
+    }
+
+}
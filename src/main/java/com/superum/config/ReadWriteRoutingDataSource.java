@@ -0,0 +1,160 @@
+package com.superum.config;
+
+import com.mchange.v2.c3p0.ComboPooledDataSource;
+import com.superum.exception.DatabaseException;
+import org.jooq.lambda.Seq;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <pre>
+ * Sends read-only transactions to the replica pool, and everything else to the primary pool
+ *
+ * The pool is chosen when a connection is actually needed; the transaction manager uses LazyConnectionDataSourceProxy,
+ * so by that time the transaction has already declared whether it is read-only; queries outside of transactions
+ * always go to the primary, because they might write
+ *
+ * Replicas lag behind the primary, so a read-only transaction may not see a change which was just committed; with
+ * read-your-writes enabled, a request which has used a writing transaction sends all of its later read-only
+ * transactions to the primary as well; other requests can still see the lag
+ *
+ * If no replica is configured, both pools are the primary pool
+ * </pre>
+ */
+public final class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Pool {
+
+        primary,
+        replica
+
+    }
+
+    /**
+     * @return pool which a connection would be taken from, if it was needed right now
+     */
+    public Pool currentPool() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !isRequestPinned()
+                ? Pool.replica
+                : Pool.primary;
+    }
+
+    /**
+     * @return true if a connection would be taken from an actual replica right now, so the data might be lagging
+     * behind the primary; false if it would be taken from the primary, or no replica is configured
+     */
+    public boolean isReadingReplica() {
+        return hasReplica() && currentPool() == Pool.replica;
+    }
+
+    /**
+     * Sends every later read-only transaction of the current request to the primary, same as read-your-writes does
+     * after a writing transaction; intended for responses which are tagged with a version read from the primary, so
+     * that lagging data is never tagged with a newer version; does nothing outside of requests
+     */
+    public void pinRequestToPrimary() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null)
+            request.setAttribute(PINNED_TO_PRIMARY, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    /**
+     * @return current state of every pool; if no replica is configured, replica reports the state of the primary
+     */
+    public List<PoolStats> stats() {
+        return Seq.of(Pool.values())
+                .map(this::stats)
+                .toList();
+    }
+
+    /**
+     * Closes the replica pool, unless it is the primary pool, which is closed on its own
+     */
+    public void closeReplica() {
+        if (hasReplica())
+            pools.get(Pool.replica).close();
+    }
+
+    // CONSTRUCTORS
+
+    /**
+     * @param replica pool for read-only transactions; same as primary if there is no replica
+     * @param readYourWrites true if requests which write should only read from primary afterwards, false otherwise
+     */
+    public ReadWriteRoutingDataSource(ComboPooledDataSource primary, ComboPooledDataSource replica,
+                                      boolean readYourWrites) {
+        this.pools = new EnumMap<>(Pool.class);
+        this.pools.put(Pool.primary, primary);
+        this.pools.put(Pool.replica, replica);
+        this.checkouts = new EnumMap<>(Pool.class);
+        for (Pool pool : Pool.values())
+            this.checkouts.put(pool, new AtomicLong());
+        this.readYourWrites = readYourWrites;
+
+        Map<Object, Object> targets = new HashMap<>(pools);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    // PROTECTED
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Pool pool = currentPool();
+        checkouts.get(pool).incrementAndGet();
+        if (readYourWrites && isWritingTransaction())
+            pinRequestToPrimary();
+
+        return pool;
+    }
+
+    // PRIVATE
+
+    private final Map<Pool, ComboPooledDataSource> pools;
+    private final Map<Pool, AtomicLong> checkouts;
+    private final boolean readYourWrites;
+
+    private boolean hasReplica() {
+        return pools.get(Pool.replica) != pools.get(Pool.primary);
+    }
+
+    private PoolStats stats(Pool pool) {
+        ComboPooledDataSource dataSource = pools.get(pool);
+        try {
+            return new PoolStats(pool.name(), checkouts.get(pool).get(),
+                    dataSource.getNumBusyConnectionsDefaultUser(),
+                    dataSource.getNumIdleConnectionsDefaultUser(),
+                    dataSource.getNumConnectionsDefaultUser(),
+                    dataSource.getNumThreadsAwaitingCheckoutDefaultUser(),
+                    dataSource.getMaxPoolSize());
+        } catch (SQLException e) {
+            throw new DatabaseException("Couldn't read the state of " + pool + " connection pool", e);
+        }
+    }
+
+    private boolean isWritingTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    /**
+     * Requests are pinned using request attributes, so nothing is pinned outside of requests (i.e. background jobs)
+     */
+    private boolean isRequestPinned() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        return request != null && request.getAttribute(PINNED_TO_PRIMARY, RequestAttributes.SCOPE_REQUEST) != null;
+    }
+
+    private static final String PINNED_TO_PRIMARY = ReadWriteRoutingDataSource.class.getName() + ".PINNED_TO_PRIMARY";
+
+}
@@ -0,0 +1,215 @@
+package com.superum.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.util.StreamUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * <pre>
+ * Brings the database schema up to date by applying the migration scripts which were not applied yet
+ *
+ * Migration scripts are found at the given location and are named V{version}__{description}.sql, i.e.
+ *      V2__Query_indexes.sql
+ * they are applied in the order of their versions, each one exactly once; applied versions are recorded in the
+ * schema_version table, so a script must never be changed after it has been released; use a new version instead
+ *
+ * Databases which were created before migrations existed already have the schema of version 1; if the schema_version
+ * table does not exist, but the schema does, version 1 is recorded as applied without running it
+ *
+ * Scripts can use DELIMITER, same as in the MySQL client, to define triggers
+ *
+ * Migrations are done under a named lock, so only one instance of the app can run them at a time; every database
+ * (i.e. every shard) is migrated separately, in the given order
+ * </pre>
+ */
+public final class SchemaMigrator implements InitializingBean {
+
+    @Override
+    public void afterPropertiesSet() throws SQLException, IOException {
+        migrate();
+    }
+
+    /**
+     * Applies every pending migration to every database, in order
+     * @throws IllegalStateException if the scripts are named incorrectly, or the lock could not be acquired
+     */
+    public void migrate() throws SQLException, IOException {
+        List<Migration> migrations = migrations();
+        for (DataSource dataSource : dataSources)
+            migrate(dataSource, migrations);
+    }
+
+    /**
+     * @return statements of the script, without delimiters; DELIMITER lines change the delimiter, same as in MySQL
+     * client; lines which are comments are skipped; also used by tests which run parts of the scripts
+     */
+    public static List<String> statements(String script) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder statement = new StringBuilder();
+        String delimiter = DEFAULT_DELIMITER;
+        for (String line : script.split("\\r?\\n")) {
+            String trimmed = line.trim();
+            if (trimmed.regionMatches(true, 0, DELIMITER_COMMAND, 0, DELIMITER_COMMAND.length())) {
+                delimiter = trimmed.substring(DELIMITER_COMMAND.length()).trim();
+                continue;
+            }
+            if (trimmed.startsWith("--") || trimmed.startsWith("#"))
+                continue;
+
+            statement.append(line).append('\n');
+            if (trimmed.endsWith(delimiter)) {
+                String sql = statement.toString().trim();
+                statements.add(sql.substring(0, sql.length() - delimiter.length()).trim());
+                statement.setLength(0);
+            }
+        }
+
+        String lastStatement = statement.toString().trim();
+        if (!lastStatement.isEmpty())
+            statements.add(lastStatement);
+
+        return statements;
+    }
+
+    // CONSTRUCTORS
+
+    /**
+     * @param dataSources databases to migrate, i.e. the primary database of every shard
+     * @param location location of migration scripts, i.e. "classpath:sql/migration/"
+     */
+    public SchemaMigrator(List<? extends DataSource> dataSources, String location) {
+        this.dataSources = new ArrayList<>(dataSources);
+        this.location = location.endsWith("/") ? location : location + "/";
+    }
+
+    // PRIVATE
+
+    private final List<DataSource> dataSources;
+    private final String location;
+
+    private void migrate(DataSource dataSource, List<Migration> migrations) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            JdbcTemplate sql = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+            Integer isLocked = sql.queryForObject("SELECT GET_LOCK(?, ?)", Integer.class,
+                    LOCK_NAME, LOCK_TIMEOUT_SECONDS);
+            if (isLocked == null || isLocked != 1)
+                throw new IllegalStateException("Couldn't acquire schema migration lock in " +
+                        LOCK_TIMEOUT_SECONDS + " seconds");
+
+            try {
+                migrate(sql, migrations);
+            } finally {
+                sql.queryForObject("SELECT RELEASE_LOCK(?)", Integer.class, LOCK_NAME);
+            }
+        }
+    }
+
+    private void migrate(JdbcTemplate sql, List<Migration> migrations) {
+        if (!tableExists(sql, VERSION_TABLE)) {
+            sql.execute("CREATE TABLE " + VERSION_TABLE + " (" +
+                    "version INT NOT NULL, " +
+                    "description VARCHAR(180) NOT NULL, " +
+                    "applied_at BIGINT NOT NULL, " +
+                    "PRIMARY KEY(version))");
+
+            if (tableExists(sql, BASELINE_TABLE)) {
+                LOG.info("Existing schema found, recording it as version {}", BASELINE_VERSION);
+                recordVersion(sql, BASELINE_VERSION, "Baseline");
+            }
+        }
+
+        Set<Integer> appliedVersions = new HashSet<>(
+                sql.queryForList("SELECT version FROM " + VERSION_TABLE, Integer.class));
+        for (Migration migration : migrations)
+            if (!appliedVersions.contains(migration.version))
+                apply(sql, migration);
+    }
+
+    private void apply(JdbcTemplate sql, Migration migration) {
+        LOG.info("Applying schema migration V{}: {}", migration.version, migration.description);
+        for (String statement : statements(migration.script))
+            sql.execute(statement);
+
+        recordVersion(sql, migration.version, migration.description);
+    }
+
+    private void recordVersion(JdbcTemplate sql, int version, String description) {
+        sql.update("INSERT INTO " + VERSION_TABLE + " (version, description, applied_at) VALUES (?, ?, ?)",
+                version, description, Instant.now().toEpochMilli());
+    }
+
+    private boolean tableExists(JdbcTemplate sql, String tableName) {
+        Integer count = sql.queryForObject("SELECT COUNT(*) FROM information_schema.tables " +
+                "WHERE table_schema = DATABASE() AND table_name = ?", Integer.class, tableName);
+        return count != null && count > 0;
+    }
+
+    private List<Migration> migrations() throws IOException {
+        Map<Integer, Migration> migrations = new TreeMap<>();
+        for (Resource resource : new PathMatchingResourcePatternResolver().getResources(location + "*.sql")) {
+            Migration migration = Migration.from(resource);
+            Migration sameVersion = migrations.put(migration.version, migration);
+            if (sameVersion != null)
+                throw new IllegalStateException("Two migrations have the same version: " +
+                        sameVersion.description + ", " + migration.description);
+        }
+        return new ArrayList<>(migrations.values());
+    }
+
+    private static final String VERSION_TABLE = "schema_version";
+    private static final String BASELINE_TABLE = "partitions";
+    private static final int BASELINE_VERSION = 1;
+
+    private static final String LOCK_NAME = "timestar_schema_migration";
+    private static final int LOCK_TIMEOUT_SECONDS = 60;
+
+    private static final String DEFAULT_DELIMITER = ";";
+    private static final String DELIMITER_COMMAND = "DELIMITER ";
+
+    private static final Logger LOG = LoggerFactory.getLogger(SchemaMigrator.class);
+
+    private static final class Migration {
+
+        static Migration from(Resource resource) throws IOException {
+            String fileName = resource.getFilename();
+            Matcher matcher = FILE_NAME.matcher(fileName);
+            if (!matcher.matches())
+                throw new IllegalStateException("Migration script must be named V{version}__{description}.sql, " +
+                        "not: " + fileName);
+
+            int version = Integer.parseInt(matcher.group(1));
+            String description = matcher.group(2).replace('_', ' ');
+            String script = StreamUtils.copyToString(resource.getInputStream(), StandardCharsets.UTF_8);
+            return new Migration(version, description, script);
+        }
+
+        Migration(int version, String description, String script) {
+            this.version = version;
+            this.description = description;
+            this.script = script;
+        }
+
+        private final int version;
+        private final String description;
+        private final String script;
+
+        private static final Pattern FILE_NAME = Pattern.compile("V(\\d+)__(.+)\\.sql");
+
+    }
+
+}
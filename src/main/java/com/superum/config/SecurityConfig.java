@@ -8,6 +8,7 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.jdbc.JdbcDaoImpl;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
@@ -22,6 +23,9 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
 	@Autowired
 	private DataSource dataSource;
 
+	@Autowired
+	private PartitionRoutingDataSource partitionRoutingDataSource;
+
 	@Bean
 	public PasswordEncoder passwordEncoder() {
 		return new BCryptPasswordEncoder();
@@ -29,12 +33,19 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
 	@Autowired
 	public void configureGlobal(AuthenticationManagerBuilder auth) throws Exception {
-		auth
-				.jdbcAuthentication()
-				.dataSource(dataSource)
-				.passwordEncoder(passwordEncoder())
-				.usersByUsernameQuery(USERS_QUERY)
-				.authoritiesByUsernameQuery(AUTHORITIES_QUERY);
+		auth.authenticationProvider(verifiedCredentialCache());
+	}
+
+	/**
+	 * Every request is authenticated, so credentials are verified using BCrypt only when they are not in the cache;
+	 * the account is read from the database either way
+	 */
+	@Bean
+	public VerifiedCredentialCache verifiedCredentialCache() {
+		VerifiedCredentialCache provider = new VerifiedCredentialCache();
+		provider.setUserDetailsService(partitionUserDetailsService());
+		provider.setPasswordEncoder(passwordEncoder());
+		return provider;
 	}
 
 	@Override
@@ -43,6 +54,7 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
 				.authorizeRequests()
 				.antMatchers(HttpMethod.OPTIONS, "/**").permitAll()
 				.antMatchers(PERMISSION_ALL).permitAll()
+				.antMatchers(PERMISSION_SYSTEM).hasRole(Role.SYSTEM.name())
 				.antMatchers(HttpMethod.GET, "/**").hasRole(Role.TEACHER.name())
 				.antMatchers(PERMISSION_TEACHER).hasRole(Role.TEACHER.name())
 				.anyRequest().hasRole(Role.ADMIN.name())
@@ -55,13 +67,23 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
 	@Bean
 	@Override
 	public UserDetailsService userDetailsServiceBean() throws Exception {
-		return super.userDetailsServiceBean();
+		return partitionUserDetailsService();
 	}
 
+	/**
+	 * <pre>
+	 * ADMIN and TEACHER are roles within a partition, given by the account type when an account is created
+	 *
+	 * SYSTEM is the role of the operators of the whole app; it is never given by an account type, so it must be
+	 * inserted into the roles table manually; endpoints which read or change the state of the whole app (i.e. all
+	 * partitions, pools, caches) require it
+	 * </pre>
+	 */
 	public enum Role {
 
 		ADMIN,
-		TEACHER;
+		TEACHER,
+		SYSTEM;
 
 		public String fullName() {
 			return "ROLE_" + this.name();
@@ -77,12 +99,34 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
     // PRIVATE
 
+	/**
+	 * Nobody is authenticated yet when the account is read, so the shard is chosen from the partition prefix of the
+	 * username instead
+	 */
+	private UserDetailsService partitionUserDetailsService() {
+		JdbcDaoImpl jdbcUserDetailsService = jdbcUserDetailsService();
+		return username -> partitionRoutingDataSource.forAccount(username,
+				() -> jdbcUserDetailsService.loadUserByUsername(username));
+	}
+
+	private JdbcDaoImpl jdbcUserDetailsService() {
+		JdbcDaoImpl userDetailsService = new JdbcDaoImpl();
+		userDetailsService.setDataSource(dataSource);
+		userDetailsService.setUsersByUsernameQuery(USERS_QUERY);
+		userDetailsService.setAuthoritiesByUsernameQuery(AUTHORITIES_QUERY);
+		return userDetailsService;
+	}
+
     private static final String USERS_QUERY = "select username,password,enabled from account where username = ?";
     private static final String AUTHORITIES_QUERY = "select username,role from roles where username = ?";
 
     private static final String[] PERMISSION_ALL = {
             "/timestar/api/v2/misc/**"
     };
+    private static final String[] PERMISSION_SYSTEM = {
+            "/timestar/api/v3/admin/**",
+            "/timestar/api/v2/lesson/table/customers/cache"
+    };
     private static final String[] PERMISSION_TEACHER = {
             "/timestar/api/account/update",
             "/timestar/api/lesson/**"
@@ -0,0 +1,277 @@
+package com.superum.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.jooq.ExecuteContext;
+import org.jooq.impl.DefaultExecuteListener;
+import org.jooq.lambda.Seq;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * <pre>
+ * Records how long every statement takes to prepare, execute and fetch, and how many rows it returns or changes
+ *
+ * Statements are grouped by their shape: SQL with literals replaced by '?' and lists of parameters collapsed, so
+ * that the same query with different parameters, or a different amount of ids, is counted as one; statements are
+ * also grouped by the endpoint of the request which ran them, i.e. "GET /timestar/api/v2/lesson/{id}"
+ *
+ * When a single request runs the same shape N times, the request is flagged as a possible N+1 and logged once;
+ * usually it means that something is read one by one in a loop, instead of with a single query
+ *
+ * The overhead of every statement is a few clock reads and counter increments, so the profiler is always on; the
+ * amount of shapes and endpoints is bounded, anything beyond that is counted under OTHER
+ *
+ * The listener is shared by all executions, so everything about a single execution is kept in its ExecuteContext
+ * </pre>
+ */
+public final class SqlProfiler extends DefaultExecuteListener {
+
+    /**
+     * @return at most top shapes, which took the most time in total
+     */
+    public List<SqlStats> slowestShapes(int top) {
+        return slowest(shapeTotals, top);
+    }
+
+    /**
+     * @return at most top endpoints, which spent the most time running statements in total
+     */
+    public List<SqlStats> slowestEndpoints(int top) {
+        return slowest(endpointTotals, top);
+    }
+
+    @Override
+    public void start(ExecuteContext ctx) {
+        ctx.data(EXECUTION_KEY, new Execution(System.nanoTime()));
+    }
+
+    @Override
+    public void prepareStart(ExecuteContext ctx) {
+        Execution execution = execution(ctx);
+        if (execution != null)
+            execution.prepareStart = System.nanoTime();
+    }
+
+    @Override
+    public void prepareEnd(ExecuteContext ctx) {
+        Execution execution = execution(ctx);
+        if (execution != null)
+            execution.prepareNanos += System.nanoTime() - execution.prepareStart;
+    }
+
+    @Override
+    public void executeStart(ExecuteContext ctx) {
+        Execution execution = execution(ctx);
+        if (execution != null)
+            execution.executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void executeEnd(ExecuteContext ctx) {
+        Execution execution = execution(ctx);
+        if (execution != null) {
+            execution.executeEnd = System.nanoTime();
+            execution.executeNanos += execution.executeEnd - execution.executeStart;
+        }
+    }
+
+    @Override
+    public void recordEnd(ExecuteContext ctx) {
+        Execution execution = execution(ctx);
+        if (execution != null)
+            execution.rows++;
+    }
+
+    @Override
+    public void end(ExecuteContext ctx) {
+        Execution execution = execution(ctx);
+        if (execution == null || ctx.sql() == null)
+            return;
+
+        long end = System.nanoTime();
+        long fetchNanos = execution.executeEnd == 0 ? 0 : end - execution.executeEnd;
+        long rows = ctx.rows() > 0 ? ctx.rows() : execution.rows;
+
+        String shape = normalizedSql.get(ctx.sql(), this::normalize);
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        String endpoint = endpoint(request);
+        boolean isNPlusOne = request != null && countInRequest(request, shape) == nPlusOneThreshold;
+
+        Totals byShape = totalsFor(shapeTotals, shape);
+        byShape.add(end - execution.start, execution.prepareNanos, execution.executeNanos, fetchNanos, rows);
+        Totals byEndpoint = totalsFor(endpointTotals, endpoint);
+        byEndpoint.add(end - execution.start, execution.prepareNanos, execution.executeNanos, fetchNanos, rows);
+
+        if (isNPlusOne) {
+            byShape.nPlusOneRequests.increment();
+            byEndpoint.nPlusOneRequests.increment();
+            LOG.warn("Possible N+1: {} ran the same statement {} times; statement: {}", endpoint, nPlusOneThreshold,
+                    shape);
+        }
+    }
+
+    // CONSTRUCTORS
+
+    /**
+     * @param nPlusOneThreshold amount of times the same shape must be run by a single request to be flagged
+     */
+    public SqlProfiler(int nPlusOneThreshold) {
+        this.nPlusOneThreshold = nPlusOneThreshold;
+        this.normalizedSql = Caffeine.newBuilder()
+                .maximumSize(MAX_SQL_STRINGS)
+                .build();
+        this.shapeTotals = new ConcurrentHashMap<>();
+        this.endpointTotals = new ConcurrentHashMap<>();
+    }
+
+    // PRIVATE
+
+    private final int nPlusOneThreshold;
+    private final Cache<String, String> normalizedSql;
+    private final ConcurrentMap<String, Totals> shapeTotals;
+    private final ConcurrentMap<String, Totals> endpointTotals;
+
+    private static final long serialVersionUID = 4419052611983502431L;
+
+    private Execution execution(ExecuteContext ctx) {
+        return (Execution) ctx.data(EXECUTION_KEY);
+    }
+
+    private String normalize(String sql) {
+        String withoutLiterals = LITERALS.matcher(sql).replaceAll("?");
+        String withoutLists = PARAMETER_LISTS.matcher(withoutLiterals).replaceAll("(?...)");
+        return REPEATED_ROWS.matcher(withoutLists).replaceAll("$1...");
+    }
+
+    private String endpoint(RequestAttributes request) {
+        if (request == null)
+            return BACKGROUND;
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        String method = request instanceof ServletRequestAttributes
+                ? ((ServletRequestAttributes) request).getRequest().getMethod()
+                : "";
+        return method + " " + (pattern == null ? UNMAPPED : pattern);
+    }
+
+    /**
+     * @return amount of times given shape was run by the request, including this time
+     */
+    @SuppressWarnings("unchecked")
+    private int countInRequest(RequestAttributes request, String shape) {
+        ConcurrentMap<String, AtomicInteger> counts;
+        synchronized (request) {
+            counts = (ConcurrentMap<String, AtomicInteger>) request.getAttribute(COUNTS_ATTRIBUTE,
+                    RequestAttributes.SCOPE_REQUEST);
+            if (counts == null) {
+                counts = new ConcurrentHashMap<>();
+                request.setAttribute(COUNTS_ATTRIBUTE, counts, RequestAttributes.SCOPE_REQUEST);
+            }
+        }
+        return counts.computeIfAbsent(shape, any -> new AtomicInteger()).incrementAndGet();
+    }
+
+    private static Totals totalsFor(ConcurrentMap<String, Totals> totals, String name) {
+        Totals existing = totals.get(name);
+        if (existing != null)
+            return existing;
+
+        return totals.computeIfAbsent(totals.size() < MAX_NAMES ? name : OTHER, any -> new Totals());
+    }
+
+    private static List<SqlStats> slowest(ConcurrentMap<String, Totals> totals, int top) {
+        return Seq.seq(totals.entrySet())
+                .map(entry -> entry.getValue().stats(entry.getKey()))
+                .sorted(Comparator.comparing(SqlStats::getTotalMillis).reversed())
+                .limit(top)
+                .toList();
+    }
+
+    private static final String EXECUTION_KEY = SqlProfiler.class.getName() + ".EXECUTION";
+    private static final String COUNTS_ATTRIBUTE = SqlProfiler.class.getName() + ".COUNTS";
+
+    private static final String BACKGROUND = "BACKGROUND";
+    private static final String UNMAPPED = "UNMAPPED";
+    private static final String OTHER = "OTHER";
+
+    private static final int MAX_SQL_STRINGS = 10000;
+    private static final int MAX_NAMES = 1000;
+
+    private static final Pattern LITERALS = Pattern.compile("'(?:[^']|'')*'|\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern PARAMETER_LISTS = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern REPEATED_ROWS = Pattern.compile("(\\(\\?\\.\\.\\.\\))(?:\\s*,\\s*\\(\\?\\.\\.\\.\\))+");
+
+    private static final Logger LOG = LoggerFactory.getLogger(SqlProfiler.class);
+
+    /**
+     * Timing of a single execution; it is only accessed by the thread which runs the statement
+     */
+    private static final class Execution {
+
+        private final long start;
+
+        private long prepareStart;
+        private long prepareNanos;
+        private long executeStart;
+        private long executeEnd;
+        private long executeNanos;
+        private long rows;
+
+        Execution(long start) {
+            this.start = start;
+        }
+
+    }
+
+    /**
+     * Accumulated timing of a shape or an endpoint
+     */
+    private static final class Totals {
+
+        void add(long totalNanos, long prepareNanos, long executeNanos, long fetchNanos, long rows) {
+            executions.increment();
+            this.totalNanos.add(totalNanos);
+            this.prepareNanos.add(prepareNanos);
+            this.executeNanos.add(executeNanos);
+            this.fetchNanos.add(fetchNanos);
+            this.rows.add(rows);
+            maxNanos.accumulate(totalNanos);
+        }
+
+        SqlStats stats(String name) {
+            return new SqlStats(name, executions.sum(), rows.sum(), millis(totalNanos.sum()), millis(maxNanos.get()),
+                    millis(prepareNanos.sum()), millis(executeNanos.sum()), millis(fetchNanos.sum()),
+                    nPlusOneRequests.sum());
+        }
+
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder prepareNanos = new LongAdder();
+        private final LongAdder executeNanos = new LongAdder();
+        private final LongAdder fetchNanos = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder nPlusOneRequests = new LongAdder();
+
+        private static long millis(long nanos) {
+            return nanos / 1000000;
+        }
+
+    }
+
+}
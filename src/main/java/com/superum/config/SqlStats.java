@@ -0,0 +1,155 @@
+package com.superum.config;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.MoreObjects;
+
+/**
+ * <pre>
+ * Data Transport Object for the accumulated timing of statements with the same shape, or of the same endpoint
+ *
+ * This object is responsible for serialization; timings are a read-only construct, therefore de-serialization
+ * logic is not necessary
+ *
+ * When returning an instance of SqlStats with JSON, these fields will be present:
+ *      FIELD_NAME          : FIELD_DESCRIPTION
+ *      name                : shape of the statements, or the endpoint which ran them
+ *      executions          : amount of statements executed since startup
+ *      rows                : total amount of rows fetched or changed
+ *      totalMillis         : total time spent, from preparing to fetching the last row
+ *      averageMillis       : average time spent on a single statement
+ *      maxMillis           : longest time spent on a single statement
+ *      prepareMillis       : total time spent preparing the statements
+ *      executeMillis       : total time spent executing the statements
+ *      fetchMillis         : total time spent fetching the results
+ *      nPlusOneRequests    : amount of requests which ran the same shape too many times
+ *
+ * Example of JSON to expect:
+ * {
+ *      "name": "select `timestar_v2`.`lesson`.`id` from `timestar_v2`.`lesson` where `timestar_v2`.`lesson`.`id` in (?...)",
+ *      "executions": 120,
+ *      "rows": 2400,
+ *      "totalMillis": 360,
+ *      "averageMillis": 3,
+ *      "maxMillis": 41,
+ *      "prepareMillis": 12,
+ *      "executeMillis": 300,
+ *      "fetchMillis": 48,
+ *      "nPlusOneRequests": 0
+ * }
+ * </pre>
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.ALWAYS)
+public final class SqlStats {
+
+    @JsonProperty(NAME_FIELD)
+    public String getName() {
+        return name;
+    }
+
+    @JsonProperty(EXECUTIONS_FIELD)
+    public long getExecutions() {
+        return executions;
+    }
+
+    @JsonProperty(ROWS_FIELD)
+    public long getRows() {
+        return rows;
+    }
+
+    @JsonProperty(TOTAL_FIELD)
+    public long getTotalMillis() {
+        return totalMillis;
+    }
+
+    @JsonProperty(AVERAGE_FIELD)
+    public long getAverageMillis() {
+        return executions == 0 ? 0 : totalMillis / executions;
+    }
+
+    @JsonProperty(MAX_FIELD)
+    public long getMaxMillis() {
+        return maxMillis;
+    }
+
+    @JsonProperty(PREPARE_FIELD)
+    public long getPrepareMillis() {
+        return prepareMillis;
+    }
+
+    @JsonProperty(EXECUTE_FIELD)
+    public long getExecuteMillis() {
+        return executeMillis;
+    }
+
+    @JsonProperty(FETCH_FIELD)
+    public long getFetchMillis() {
+        return fetchMillis;
+    }
+
+    @JsonProperty(N_PLUS_ONE_FIELD)
+    public long getNPlusOneRequests() {
+        return nPlusOneRequests;
+    }
+
+    // CONSTRUCTORS
+
+    public SqlStats(String name, long executions, long rows, long totalMillis, long maxMillis, long prepareMillis,
+                    long executeMillis, long fetchMillis, long nPlusOneRequests) {
+        this.name = name;
+        this.executions = executions;
+        this.rows = rows;
+        this.totalMillis = totalMillis;
+        this.maxMillis = maxMillis;
+        this.prepareMillis = prepareMillis;
+        this.executeMillis = executeMillis;
+        this.fetchMillis = fetchMillis;
+        this.nPlusOneRequests = nPlusOneRequests;
+    }
+
+    // PRIVATE
+
+    private final String name;
+    private final long executions;
+    private final long rows;
+    private final long totalMillis;
+    private final long maxMillis;
+    private final long prepareMillis;
+    private final long executeMillis;
+    private final long fetchMillis;
+    private final long nPlusOneRequests;
+
+    // FIELD NAMES
+
+    private static final String NAME_FIELD = "name";
+    private static final String EXECUTIONS_FIELD = "executions";
+    private static final String ROWS_FIELD = "rows";
+    private static final String TOTAL_FIELD = "totalMillis";
+    private static final String AVERAGE_FIELD = "averageMillis";
+    private static final String MAX_FIELD = "maxMillis";
+    private static final String PREPARE_FIELD = "prepareMillis";
+    private static final String EXECUTE_FIELD = "executeMillis";
+    private static final String FETCH_FIELD = "fetchMillis";
+    private static final String N_PLUS_ONE_FIELD = "nPlusOneRequests";
+
+    // OBJECT OVERRIDES
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper("SqlStats")
+                .add(NAME_FIELD, name)
+                .add(EXECUTIONS_FIELD, executions)
+                .add(ROWS_FIELD, rows)
+                .add(TOTAL_FIELD, totalMillis)
+                .add(AVERAGE_FIELD, getAverageMillis())
+                .add(MAX_FIELD, maxMillis)
+                .add(PREPARE_FIELD, prepareMillis)
+                .add(EXECUTE_FIELD, executeMillis)
+                .add(FETCH_FIELD, fetchMillis)
+                .add(N_PLUS_ONE_FIELD, nPlusOneRequests)
+                .toString();
+    }
+
+}
@@ -0,0 +1,135 @@
+package com.superum.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <pre>
+ * Remembers which credentials were verified recently, so that requests with the same credentials are authenticated
+ * without running BCrypt again
+ *
+ * The account is still read for every request; a request is authenticated from the cache only if the password hash
+ * of the account is the same one its credentials were verified against. This way, a changed or deleted account is
+ * noticed right away, no matter which instance of the app changed it, and a verification which read the account
+ * before it was changed can never be used after the change
+ *
+ * Credentials are never kept as is; only a digest of the password, salted with a random key which is made every time
+ * the app starts, is kept for every username; a request is authenticated from the cache only if its digest matches
+ *
+ * Entries expire after a few minutes; they are also removed when an account is changed or deleted, which only frees
+ * the memory sooner
+ *
+ * Failed authentications are never cached
+ * </pre>
+ */
+public final class VerifiedCredentialCache extends DaoAuthenticationProvider {
+
+    /**
+     * Removes the verified credentials of given usernames; if called within a transaction, they are removed after
+     * the transaction commits
+     */
+    public void invalidate(Collection<String> usernames) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.invalidateAll(usernames);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                cache.invalidateAll(usernames);
+            }
+        });
+    }
+
+    // PROTECTED
+
+    /**
+     * Verifies the password using the password encoder only if these credentials were not verified against the
+     * current password hash of the account yet
+     */
+    @Override
+    protected void additionalAuthenticationChecks(UserDetails user, UsernamePasswordAuthenticationToken authentication)
+            throws AuthenticationException {
+        Object credentials = authentication.getCredentials();
+        if (credentials == null || user.getPassword() == null) {
+            super.additionalAuthenticationChecks(user, authentication);
+            return;
+        }
+
+        byte[] digest = digest(user.getUsername(), credentials.toString());
+        Verified verified = cache.getIfPresent(user.getUsername());
+        if (verified != null && verified.passwordHash.equals(user.getPassword())
+                && MessageDigest.isEqual(verified.digest, digest))
+            return;
+
+        super.additionalAuthenticationChecks(user, authentication);
+        cache.put(user.getUsername(), new Verified(user.getPassword(), digest));
+    }
+
+    // CONSTRUCTORS
+
+    /**
+     * The user details service and password encoder must be set, same as for DaoAuthenticationProvider
+     */
+    public VerifiedCredentialCache() {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(MAX_USERS)
+                .expireAfterWrite(LIFETIME_MINUTES, TimeUnit.MINUTES)
+                .build();
+
+        this.salt = new byte[SALT_LENGTH];
+        new SecureRandom().nextBytes(salt);
+    }
+
+    // PRIVATE
+
+    private final Cache<String, Verified> cache;
+    private final byte[] salt;
+
+    private byte[] digest(String username, String password) {
+        try {
+            Mac mac = Mac.getInstance(DIGEST_ALGORITHM);
+            mac.init(new SecretKeySpec(salt, DIGEST_ALGORITHM));
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Couldn't digest credentials using " + DIGEST_ALGORITHM, e);
+        }
+    }
+
+    private static final String DIGEST_ALGORITHM = "HmacSHA256";
+    private static final int SALT_LENGTH = 32;
+
+    private static final int MAX_USERS = 10000;
+    private static final int LIFETIME_MINUTES = 5;
+
+    private static final class Verified {
+
+        private final String passwordHash;
+        private final byte[] digest;
+
+        Verified(String passwordHash, byte[] digest) {
+            this.passwordHash = passwordHash;
+            this.digest = digest;
+        }
+
+    }
+
+}
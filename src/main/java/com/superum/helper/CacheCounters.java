@@ -0,0 +1,93 @@
+package com.superum.helper;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.google.common.base.MoreObjects;
+
+/**
+ * <pre>
+ * Data Transport Object for the counters of a cache
+ *
+ * This object is responsible for serialization; counters are a read-only construct, therefore de-serialization
+ * logic is not necessary
+ *
+ * When returning an instance of CacheCounters with JSON, these fields will be present:
+ *      FIELD_NAME          : FIELD_DESCRIPTION
+ *      hits                : amount of times a value was found in the cache
+ *      misses              : amount of times a value was not found in the cache, and had to be loaded
+ *      evictions           : amount of values which were removed from the cache due to size or age
+ *      hitRate             : hits / (hits + misses); 1.0 if there were no requests
+ *
+ * Example of JSON to expect:
+ * {
+ *      "hits": 95,
+ *      "misses": 5,
+ *      "evictions": 0,
+ *      "hitRate": 0.95
+ * }
+ * </pre>
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonInclude(JsonInclude.Include.ALWAYS)
+public final class CacheCounters {
+
+    @JsonProperty(HITS_FIELD)
+    public long getHits() {
+        return hits;
+    }
+
+    @JsonProperty(MISSES_FIELD)
+    public long getMisses() {
+        return misses;
+    }
+
+    @JsonProperty(EVICTIONS_FIELD)
+    public long getEvictions() {
+        return evictions;
+    }
+
+    @JsonProperty(HIT_RATE_FIELD)
+    public double getHitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 1.0 : (double) hits / requests;
+    }
+
+    // CONSTRUCTORS
+
+    public static CacheCounters from(CacheStats stats) {
+        return new CacheCounters(stats.hitCount(), stats.missCount(), stats.evictionCount());
+    }
+
+    public CacheCounters(long hits, long misses, long evictions) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    // PRIVATE
+
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+
+    // FIELD NAMES
+
+    private static final String HITS_FIELD = "hits";
+    private static final String MISSES_FIELD = "misses";
+    private static final String EVICTIONS_FIELD = "evictions";
+    private static final String HIT_RATE_FIELD = "hitRate";
+
+    // OBJECT OVERRIDES
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper("CacheCounters")
+                .add(HITS_FIELD, hits)
+                .add(MISSES_FIELD, misses)
+                .add(EVICTIONS_FIELD, evictions)
+                .toString();
+    }
+
+}
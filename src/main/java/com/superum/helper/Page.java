@@ -0,0 +1,164 @@
+package com.superum.helper;
+
+import com.google.common.base.MoreObjects;
+import com.superum.api.exception.InvalidRequestException;
+import org.jooq.Condition;
+import org.jooq.Field;
+import org.jooq.impl.DSL;
+
+import javax.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.ToLongFunction;
+
+/**
+ * <pre>
+ * Describes which part of a list should be read
+ *
+ * Every list is ordered by id, so a page can be found in two ways:
+ *      1) by page number, which skips (page * amount) records; the database still has to read all of the skipped
+ *         records, so reading later pages of a large list gets slower and slower;
+ *      2) by cursor, which seeks to the first record after the last one of the previous page using the primary key
+ *         index, so every page costs the same;
+ *
+ * Cursors are opaque to the clients; when a full page is read, the cursor for the next page is returned in the
+ * X-Next-Cursor header, and can be passed back using the "cursor" request parameter; if a cursor is given, the page
+ * number is ignored
+ * </pre>
+ */
+public final class Page {
+
+    /**
+     * @return amount of records in the page
+     */
+    public int amount() {
+        return amount;
+    }
+
+    /**
+     * @return page number, starting at 0; always 0 when a cursor is used, because the cursor points to the start
+     */
+    public int number() {
+        return afterId == null ? number : 0;
+    }
+
+    /**
+     * @return amount of records to skip before the page starts
+     */
+    public int offset() {
+        return number() * amount;
+    }
+
+    /**
+     * @return condition which seeks to the first record after the cursor; always true if there is no cursor
+     */
+    public <ID> Condition seek(Field<ID> idField) {
+        return afterId == null
+                ? DSL.trueCondition()
+                : idField.gt(idField.getDataType().convert(afterId));
+    }
+
+    /**
+     * <pre>
+     * Sets the X-Next-Cursor header for the response if the page is full, i.e. there may be more records after it
+     *
+     * Pages which are not full are the last ones, so they do not get a cursor
+     * </pre>
+     */
+    public <T> void nextCursor(HttpServletResponse response, List<T> items, ToLongFunction<T> idGetter) {
+        if (items.size() < amount)
+            return;
+
+        long lastId = idGetter.applyAsLong(items.get(items.size() - 1));
+        response.setHeader(NEXT_CURSOR_HEADER, encode(lastId));
+    }
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    // CONSTRUCTORS
+
+    /**
+     * @param number page number, starting at 0
+     */
+    public static Page of(int number, int amount) {
+        return new Page(number, amount, null);
+    }
+
+    /**
+     * @param cursor cursor from X-Next-Cursor header; if null, page number is used instead
+     * @throws InvalidRequestException if the cursor is not one that was returned by this API
+     */
+    public static Page of(int number, int amount, String cursor) {
+        return cursor == null || cursor.isEmpty()
+                ? of(number, amount)
+                : new Page(number, amount, decode(cursor));
+    }
+
+    public Page(int number, int amount, Long afterId) {
+        this.number = number;
+        this.amount = amount;
+        this.afterId = afterId;
+    }
+
+    // PRIVATE
+
+    private final int number;
+    private final int amount;
+    private final Long afterId;
+
+    private static String encode(long lastId) {
+        byte[] bytes = (CURSOR_PREFIX + lastId).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static long decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX))
+                throw cursorError(cursor);
+
+            long lastId = Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+            if (lastId <= 0)
+                throw cursorError(cursor);
+
+            return lastId;
+        } catch (IllegalArgumentException e) {
+            throw cursorError(cursor);
+        }
+    }
+
+    private static InvalidRequestException cursorError(String cursor) {
+        return new InvalidRequestException("Invalid cursor: " + cursor);
+    }
+
+    private static final String CURSOR_PREFIX = "id:";
+
+    // OBJECT OVERRIDES
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("number", number)
+                .add("amount", amount)
+                .add("afterId", afterId)
+                .toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Page)) return false;
+        Page page = (Page) o;
+        return Objects.equals(number, page.number) &&
+                Objects.equals(amount, page.amount) &&
+                Objects.equals(afterId, page.afterId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(number, amount, afterId);
+    }
+
+}
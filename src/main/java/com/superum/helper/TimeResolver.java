@@ -7,6 +7,9 @@ import org.joda.time.LocalDate;
 import org.jooq.Condition;
 import org.jooq.TableField;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * <pre>
  * Resolves epoch milliseconds from various formats
@@ -109,30 +112,25 @@ public final class TimeResolver {
      * Resolves the time using the following logic:
      *
      * 1) get LocalDate for current time, using UTC
-     * 2) find the paymentDate of this month;
-     *      a) if it's after today, find the next month's paymentDate;
-     *      b) if it's today or before today, find the previous month's paymentDate;
+     * 2) use that date to resolve the time of the payment period it belongs to
+     * </pre>
+     */
+    public static TimeResolver from(int paymentDay) {
+        return from(paymentDay, LocalDate.now(Time.defaultTimeZone()));
+    }
+
+    /**
+     * <pre>
+     * Resolves the time using the following logic:
+     *
+     * 1) find the first paymentDate which is not before given date;
+     * 2) find the paymentDate of the month before that one;
      * 3) use JodaTimeZoneHandler set to UTC, earlier payment date plus one day (so it is exclusive) and later
      * payment date to resolve time;
      * </pre>
      */
-    public static TimeResolver from(int paymentDay) {
-        LocalDate today = LocalDate.now(Time.defaultTimeZone());
-        LocalDate dayOneOfThisMonth = today.withDayOfMonth(1);
-        LocalDate paymentDate = getPaymentDate(dayOneOfThisMonth, paymentDay);
-
-        LocalDate previousPaymentDate;
-        LocalDate nextPaymentDate;
-        if (today.isAfter(paymentDate)) {
-            LocalDate dayOneOfNextMonth = dayOneOfThisMonth.plusMonths(1);
-            previousPaymentDate = paymentDate;
-            nextPaymentDate = getPaymentDate(dayOneOfNextMonth, paymentDay);
-        } else {
-            LocalDate dayOneOfPreviousMonth = dayOneOfThisMonth.minusMonths(1);
-            previousPaymentDate = getPaymentDate(dayOneOfPreviousMonth, paymentDay);
-            nextPaymentDate = paymentDate;
-        }
-        return from(Time.getDefault(), previousPaymentDate.plusDays(1), nextPaymentDate);
+    public static TimeResolver from(int paymentDay, LocalDate date) {
+        return forPaymentMonth(paymentMonthOf(date, paymentDay), paymentDay);
     }
 
     /**
@@ -144,7 +142,43 @@ public final class TimeResolver {
      * </pre>
      */
     public static TimeResolver from(LocalDate contractDate) {
-        return from(contractDate.plusDays(CONTRACT_PAYMENT_DAY_DELAY).getDayOfMonth());
+        return from(paymentDayOf(contractDate));
+    }
+
+    /**
+     * <pre>
+     * Resolves consecutive payment periods, starting with the period which firstDate belongs to, and ending with
+     * the period which lastDate belongs to; every period is resolved the same way as from(paymentDay, date)
+     *
+     * The periods do not have gaps between them; the end of every period is the start of the next one
+     * </pre>
+     * @return empty list if lastDate is before firstDate
+     */
+    public static List<TimeResolver> periods(int paymentDay, LocalDate firstDate, LocalDate lastDate) {
+        List<TimeResolver> periods = new ArrayList<>();
+        LocalDate lastMonth = paymentMonthOf(lastDate, paymentDay);
+        for (LocalDate month = paymentMonthOf(firstDate, paymentDay); !month.isAfter(lastMonth); month = month.plusMonths(1))
+            periods.add(forPaymentMonth(month, paymentDay));
+        return periods;
+    }
+
+    /**
+     * @return the given amount of consecutive payment periods, ending with the period which today (using UTC) belongs
+     * to; the last period is the same one as from(paymentDay)
+     */
+    public static List<TimeResolver> periods(int paymentDay, int count) {
+        LocalDate today = LocalDate.now(Time.defaultTimeZone());
+        LocalDate lastMonth = paymentMonthOf(today, paymentDay);
+        LocalDate firstMonth = lastMonth.minusMonths(count - 1);
+        return periods(paymentDay, getPaymentDate(firstMonth, paymentDay), today);
+    }
+
+    /**
+     * @return day of the month at which payments happen for a contract which started at given date; it is the same
+     * day that from(contractDate) uses
+     */
+    public static int paymentDayOf(LocalDate contractDate) {
+        return contractDate.plusDays(CONTRACT_PAYMENT_DAY_DELAY).getDayOfMonth();
     }
 
     /**
@@ -167,6 +201,34 @@ public final class TimeResolver {
 
     private static final int CONTRACT_PAYMENT_DAY_DELAY = 7;
 
+    /**
+     * @return TimeResolver for the payment period which ends at the paymentDate of given month
+     */
+    private static TimeResolver forPaymentMonth(LocalDate dayOneOfAMonth, int paymentDay) {
+        LocalDate previousPaymentDate = getPaymentDate(dayOneOfAMonth.minusMonths(1), paymentDay);
+        LocalDate nextPaymentDate = getPaymentDate(dayOneOfAMonth, paymentDay);
+        return from(Time.getDefault(), previousPaymentDate.plusDays(1), nextPaymentDate);
+    }
+
+    /**
+     * <pre>
+     * Payment dates never go backwards from month to month, so the first paymentDate which is not before given date
+     * belongs to either the previous, this or the next month; the previous month can only be the case when its
+     * paymentDate was moved to the first day of this month, because that month was too short
+     * </pre>
+     * @return first day of the month whose paymentDate ends the payment period which given date belongs to
+     */
+    private static LocalDate paymentMonthOf(LocalDate date, int paymentDay) {
+        LocalDate dayOneOfThisMonth = date.withDayOfMonth(1);
+        LocalDate dayOneOfPreviousMonth = dayOneOfThisMonth.minusMonths(1);
+        if (!date.isAfter(getPaymentDate(dayOneOfPreviousMonth, paymentDay)))
+            return dayOneOfPreviousMonth;
+
+        return date.isAfter(getPaymentDate(dayOneOfThisMonth, paymentDay))
+                ? dayOneOfThisMonth.plusMonths(1)
+                : dayOneOfThisMonth;
+    }
+
     private static LocalDate getPaymentDate(LocalDate dayOneOfAMonth, int paymentDay) {
         int maximumDay = dayOneOfAMonth.getChronology().dayOfMonth().getMaximumValue(dayOneOfAMonth);
         return maximumDay < paymentDay
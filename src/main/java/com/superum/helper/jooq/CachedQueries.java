@@ -0,0 +1,105 @@
+package com.superum.helper.jooq;
+
+import eu.goodlike.libraries.jooq.Queries;
+import eu.goodlike.neat.Null;
+import org.jooq.*;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Queries which read by id and check existence by id through EntityCache; everything else is simply delegated
+ * @param <R> JOOQ generated table record for a table
+ * @param <ID> primary key field type for this table
+ */
+public final class CachedQueries<R extends Record, ID> implements Queries<R, ID> {
+
+    @Override
+    public <T> Optional<T> read(ID id, Function<? super R, T> mapper) {
+        Null.check(id, mapper).ifAny("Primary key and mapper cannot be null");
+        return entityCache.read(table, partitionId.getAsInt(), id, () -> queries.read(id, Function.<R>identity()))
+                .map(mapper);
+    }
+
+    @Override
+    public boolean exists(ID id) {
+        Null.check(id).ifAny("Primary key value cannot be null");
+        return entityCache.exists(table, partitionId.getAsInt(), id, () -> queries.read(id, Function.<R>identity()),
+                () -> queries.exists(primary(id)));
+    }
+
+    @Override
+    public <T> List<T> read(int page, int amount, Condition condition, RecordMapper<? super R, T> mapper) {
+        return queries.read(page, amount, condition, mapper);
+    }
+
+    @Override
+    public <T> List<T> readJoin(int page, int amount, Condition condition, RecordMapper<Record, T> mapper,
+                                Function<SelectJoinStep<Record>, SelectWhereStep<Record>> join) {
+        return queries.readJoin(page, amount, condition, mapper, join);
+    }
+
+    @Override
+    public <T> Optional<T> readField(TableField<R, T> field, Condition condition) {
+        return queries.readField(field, condition);
+    }
+
+    @Override
+    public Result<Record> readFields(Collection<TableField<R, ?>> fields, Condition condition) {
+        return queries.readFields(fields, condition);
+    }
+
+    @Override
+    public int count(Condition condition) {
+        return queries.count(condition);
+    }
+
+    @Override
+    public boolean exists(Condition condition) {
+        return queries.exists(condition);
+    }
+
+    @Override
+    public Condition primary(ID id) {
+        return queries.primary(id);
+    }
+
+    @Override
+    public void setUniversalCondition(Supplier<Condition> universalCondition) {
+        queries.setUniversalCondition(universalCondition);
+    }
+
+    @Override
+    public Optional<Condition> getUniversalCondition() {
+        return queries.getUniversalCondition();
+    }
+
+    // CONSTRUCTORS
+
+    /**
+     * @param queries queries which are used when the cache cannot be; their universal condition must limit them to
+     *                the partition given by partitionId
+     * @param partitionId partition of the current user
+     */
+    public CachedQueries(Queries<R, ID> queries, Table<R> table, IntSupplier partitionId, EntityCache entityCache) {
+        Null.check(queries, table, partitionId, entityCache)
+                .ifAny("Queries, table, partitionId supplier and EntityCache cannot be null");
+
+        this.queries = queries;
+        this.table = table;
+        this.partitionId = partitionId;
+        this.entityCache = entityCache;
+    }
+
+    // PRIVATE
+
+    private final Queries<R, ID> queries;
+    private final Table<R> table;
+    private final IntSupplier partitionId;
+    private final EntityCache entityCache;
+
+}
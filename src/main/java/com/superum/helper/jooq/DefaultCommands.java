@@ -1,8 +1,11 @@
 package com.superum.helper.jooq;
 
+import com.superum.exception.DatabaseException;
 import com.superum.helper.field.Defined;
 import org.jooq.Record;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
 
@@ -27,6 +30,21 @@ public interface DefaultCommands<R extends Record, ID> extends DefaultSql<R, ID>
      */
     <T extends Defined<T, ID>, DTO> Optional<DTO> create(T body, int partitionId, Function<R, DTO> mapper);
 
+    /**
+     * <pre>
+     * Creates records in the table, with a single multi-row INSERT for every chunk of bodies
+     *
+     * Uses the definitions in every body to fill the fields; all bodies must define the same fields for creation,
+     * which is always the case for bodies of the same class
+     * </pre>
+     * @param mapper function, which maps the returned records back to objects of the originating class
+     * @param <T> type of the object that contains mapping definitions to this table
+     * @return objects, created by using mapper on the records returned by the database, in the same order as bodies
+     * @throws NullPointerException if bodies or mapper is null
+     * @throws DatabaseException if the created records could not be returned
+     */
+    <T extends Defined<T, ID>, DTO> List<DTO> createAll(List<T> bodies, int partitionId, Function<R, DTO> mapper);
+
     /**
      * <pre>
      * Updates a single record in the table
@@ -39,6 +57,18 @@ public interface DefaultCommands<R extends Record, ID> extends DefaultSql<R, ID>
      */
     <T extends Defined<T, ID>> int update(T body, int partitionId);
 
+    /**
+     * <pre>
+     * Updates records in the table, sending all the updates to the database as a single batch
+     *
+     * Uses the definitions in every body to fill the fields; bodies can define different fields for updating
+     * </pre>
+     * @param <T> type of the object that contains mapping definitions to this table
+     * @return amount of records updated by every body, in the same order as bodies
+     * @throws NullPointerException if bodies is null
+     */
+    <T extends Defined<T, ID>> int[] updateAll(List<T> bodies, int partitionId);
+
     /**
      * Deletes a single record from the table using a particular primary key
      * @return amount of records deleted; 0 if nothing was deleted, 1 if a single record was deleted
@@ -46,4 +76,11 @@ public interface DefaultCommands<R extends Record, ID> extends DefaultSql<R, ID>
      */
     int delete(ID id, int partitionId);
 
+    /**
+     * Deletes records from the table using their primary keys, with a single statement
+     * @return amount of records deleted
+     * @throws NullPointerException if ids is null
+     */
+    int deleteAll(Collection<ID> ids, int partitionId);
+
 }
@@ -1,5 +1,7 @@
 package com.superum.helper.jooq;
 
+import com.google.common.collect.Lists;
+import com.superum.exception.DatabaseException;
 import com.superum.helper.field.Defined;
 import com.superum.helper.field.core.MappedField;
 import eu.goodlike.neat.Null;
@@ -8,7 +10,7 @@ import org.jooq.lambda.Seq;
 import org.jooq.lambda.tuple.Tuple2;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
+import java.util.*;
 import java.util.function.Function;
 
 /**
@@ -26,37 +28,116 @@ public class DefaultCommandsImpl<R extends Record, ID> extends DefaultSqlImpl<R,
         return body.createFields().foldLeft(sql.insertInto(table).set(partitionField, partitionId),
                 (step, field) -> field.insert(step))
                 .returning().fetch().stream().findFirst()
-                .map(mapper);
+                .map(record -> {
+                    entityCache.changed(table, partitionId, record.getValue(keyField));
+                    return mapper.apply(record);
+                });
+    }
+
+    @Override
+    public <T extends Defined<T, ID>, DTO> List<DTO> createAll(List<T> bodies, int partitionId, Function<R, DTO> mapper) {
+        Null.check(bodies, mapper).ifAny("Bodies and mapper function cannot be null");
+
+        if (bodies.isEmpty())
+            return Collections.emptyList();
+
+        List<ID> ids = new ArrayList<>(bodies.size());
+        for (List<T> chunk : Lists.partition(bodies, INSERT_CHUNK_SIZE))
+            ids.addAll(insertChunk(chunk, partitionId));
+        ids.forEach(id -> entityCache.changed(table, partitionId, id));
+
+        Map<ID, R> inserted = sql.selectFrom(table)
+                .where(keyField.in(ids).and(partitionId(partitionId)))
+                .fetchMap(keyField);
+        if (inserted.size() != bodies.size())
+            throw new DatabaseException("Couldn't return records after inserting them: " + bodies);
+
+        return Seq.seq(ids).map(inserted::get).map(mapper).toList();
     }
 
     @Override
     public <T extends Defined<T, ID>> int update(T body, int partitionId) {
         Null.check(body).ifAny("Body value cannot be null");
 
-        Tuple2<Optional<MappedField<?>>, Seq<MappedField<?>>> updateFields = body.updateFields().splitAtHead();
+        return updateQuery(body, partitionId).execute();
+    }
 
-        UpdateSetFirstStep<R> updateStepFirst = sql.update(table);
-        UpdateSetMoreStep<R> updateStepMore = updateFields.v1.map(field -> field.update(updateStepFirst))
-                .orElseThrow(() -> new IllegalArgumentException("The updated body should have at least one field definition!"));
+    @Override
+    public <T extends Defined<T, ID>> int[] updateAll(List<T> bodies, int partitionId) {
+        Null.check(bodies).ifAny("Bodies cannot be null");
 
-        return updateFields.v2.foldLeft(updateStepMore, (step, field) -> field.update(step))
-                .where(idAndPartition(body.primaryField().getValue(), partitionId))
-                .execute();
+        if (bodies.isEmpty())
+            return new int[0];
+
+        List<Query> updates = Seq.seq(bodies).map(body -> updateQuery(body, partitionId)).toList();
+        return sql.batch(updates).execute();
     }
 
     @Override
     public int delete(ID id, int partitionId) {
         Null.check(id).ifAny("Primary key value cannot be null");
 
+        entityCache.changed(table, partitionId, id);
         return sql.deleteFrom(table)
                 .where(idAndPartition(id, partitionId))
                 .execute();
     }
 
+    @Override
+    public int deleteAll(Collection<ID> ids, int partitionId) {
+        Null.check(ids).ifAny("Primary key values cannot be null");
+
+        if (ids.isEmpty())
+            return 0;
+
+        ids.forEach(id -> entityCache.changed(table, partitionId, id));
+        return sql.deleteFrom(table)
+                .where(keyField.in(ids).and(partitionId(partitionId)))
+                .execute();
+    }
+
     // CONSTRUCTORS
 
-    public DefaultCommandsImpl(DSLContext sql, Table<R> table, TableField<R, ID> keyField, TableField<R, Integer> partitionField) {
+    public DefaultCommandsImpl(DSLContext sql, Table<R> table, TableField<R, ID> keyField, TableField<R, Integer> partitionField,
+                               EntityCache entityCache) {
         super(sql, table, keyField, partitionField);
+
+        Null.check(entityCache).ifAny("EntityCache cannot be null");
+        this.entityCache = entityCache;
     }
 
+    // PRIVATE
+
+    private final EntityCache entityCache;
+
+    /**
+     * A single multi-row INSERT generates consecutive ids in the order of the rows, so the ids are returned in the
+     * same order as the bodies
+     */
+    private <T extends Defined<T, ID>> List<ID> insertChunk(List<T> bodies, int partitionId) {
+        InsertSetMoreStep<R> insert = null;
+        for (T body : bodies) {
+            InsertSetMoreStep<R> row = insert == null
+                    ? sql.insertInto(table).set(partitionField, partitionId)
+                    : insert.newRecord().set(partitionField, partitionId);
+            insert = body.createFields().foldLeft(row, (step, field) -> field.insert(step));
+        }
+        return insert.returning(keyField).fetch().getValues(keyField);
+    }
+
+    private <T extends Defined<T, ID>> Query updateQuery(T body, int partitionId) {
+        Tuple2<Optional<MappedField<?>>, Seq<MappedField<?>>> updateFields = body.updateFields().splitAtHead();
+
+        UpdateSetFirstStep<R> updateStepFirst = sql.update(table);
+        UpdateSetMoreStep<R> updateStepMore = updateFields.v1.map(field -> field.update(updateStepFirst))
+                .orElseThrow(() -> new IllegalArgumentException("The updated body should have at least one field definition!"));
+
+        ID id = body.primaryField().getValue();
+        entityCache.changed(table, partitionId, id);
+        return updateFields.v2.foldLeft(updateStepMore, (step, field) -> field.update(step))
+                .where(idAndPartition(id, partitionId));
+    }
+
+    private static final int INSERT_CHUNK_SIZE = 250;
+
 }
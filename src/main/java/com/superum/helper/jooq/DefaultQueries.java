@@ -1,13 +1,16 @@
 package com.superum.helper.jooq;
 
+import com.superum.helper.Page;
 import eu.goodlike.neat.Null;
 import org.jooq.Condition;
 import org.jooq.Record;
 import org.jooq.RecordMapper;
 import org.jooq.TableField;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 
 /**
@@ -43,6 +46,17 @@ public interface DefaultQueries<R extends Record, ID> extends DefaultSql<R, ID>
         return existsForCondition(idAndPartition(id, partitionId));
     }
 
+    /**
+     * <pre>
+     * Intended for batch commands, which would otherwise call exists() for every record
+     *
+     * Uses a single query, with every id in the IN clause
+     * </pre>
+     * @return ids of records which exist in given partition; empty set if ids is empty
+     * @throws NullPointerException if ids is null
+     */
+    Set<ID> existingIds(Collection<ID> ids, int partitionId);
+
     /**
      * @return true if a record with a certain key exists in given partition; false otherwise
      * @throws NullPointerException if key or keyValue is null
@@ -53,27 +67,27 @@ public interface DefaultQueries<R extends Record, ID> extends DefaultSql<R, ID>
     }
 
     /**
-     * @return list of objects for a certain condition; paged, with offset;
-     * @throws NullPointerException if condition or mapper is null
+     * @return list of objects for a certain condition; paged, with offset or cursor;
+     * @throws NullPointerException if page, condition or mapper is null
      */
-    <T> List<T> readForCondition(int page, int amount, Condition condition, RecordMapper<R, T> mapper);
+    <T> List<T> readForCondition(Page page, Condition condition, RecordMapper<R, T> mapper);
 
     /**
-     * @return list of all objects; paged, with offset;
-     * @throws NullPointerException if mapper is null
+     * @return list of all objects; paged, with offset or cursor;
+     * @throws NullPointerException if page or mapper is null
      */
-    default <T> List<T> readAll(int page, int amount, int partitionId, RecordMapper<R, T> mapper) {
-        return readForCondition(page, amount, partitionId(partitionId), mapper);
+    default <T> List<T> readAll(Page page, int partitionId, RecordMapper<R, T> mapper) {
+        return readForCondition(page, partitionId(partitionId), mapper);
     }
 
     /**
-     * @return list of objects with a certain foreign key; paged, with offset;
-     * @throws NullPointerException if foreignKey, keyValue or mapper is null
+     * @return list of objects with a certain foreign key; paged, with offset or cursor;
+     * @throws NullPointerException if page, foreignKey, keyValue or mapper is null
      */
-    default <T, F_ID> List<T> readForForeignKey(int page, int amount, int partitionId,
+    default <T, F_ID> List<T> readForForeignKey(Page page, int partitionId,
                                                  TableField<R, F_ID> foreignKey, F_ID keyValue, RecordMapper<R, T> mapper) {
         Null.check(foreignKey, keyValue).ifAny("Foreign field and its value cannot be null");
-        return readForCondition(page, amount, foreignKey.eq(keyValue).and(partitionId(partitionId)), mapper);
+        return readForCondition(page, foreignKey.eq(keyValue).and(partitionId(partitionId)), mapper);
     }
 
     /**
@@ -1,14 +1,18 @@
 package com.superum.helper.jooq;
 
+import com.superum.helper.Page;
 import eu.goodlike.neat.Null;
 import org.jooq.*;
 
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 
 /**
- * Contains methods for commands on tables
+ * Contains methods for commands on tables; reads by id and existence checks go through EntityCache
  * @param <R> JOOQ generated table record for a table
  * @param <ID> primary key field type for this table
  */
@@ -18,12 +22,31 @@ public class DefaultQueriesImpl<R extends Record, ID> extends DefaultSqlImpl<R,
     public <T> Optional<T> read(ID id, int partitionId, Function<R, T> mapper) {
         Null.check(id, mapper).ifAny("Primary key or mapper cannot be null");
 
-        return sql.selectFrom(table)
-                .where(idAndPartition(id, partitionId))
-                .fetch().stream().findAny()
+        return entityCache.read(table, partitionId, id, () -> fetchRecord(id, partitionId))
                 .map(mapper);
     }
 
+    @Override
+    public boolean exists(ID id, int partitionId) {
+        Null.check(id).ifAny("Primary key value cannot be null");
+
+        return entityCache.exists(table, partitionId, id, () -> fetchRecord(id, partitionId),
+                () -> existsForCondition(idAndPartition(id, partitionId)));
+    }
+
+    @Override
+    public Set<ID> existingIds(Collection<ID> ids, int partitionId) {
+        Null.check(ids).ifAny("Ids cannot be null");
+
+        if (ids.isEmpty())
+            return new HashSet<>();
+
+        return new HashSet<>(sql.select(keyField)
+                .from(table)
+                .where(keyField.in(ids).and(partitionId(partitionId)))
+                .fetch(keyField));
+    }
+
     @Override
     public boolean existsForCondition(Condition condition) {
         Null.check(condition).ifAny("Condition cannot be null");
@@ -32,14 +55,14 @@ public class DefaultQueriesImpl<R extends Record, ID> extends DefaultSqlImpl<R,
     }
 
     @Override
-    public <T> List<T> readForCondition(int page, int amount, Condition condition, RecordMapper<R, T> mapper) {
-        Null.check(condition, mapper).ifAny("Condition or mapper cannot be null");
+    public <T> List<T> readForCondition(Page page, Condition condition, RecordMapper<R, T> mapper) {
+        Null.check(page, condition, mapper).ifAny("Page, condition or mapper cannot be null");
 
         return sql.selectFrom(table)
-                .where(condition)
+                .where(condition.and(page.seek(keyField)))
                 .orderBy(keyField)
-                .limit(amount)
-                .offset(page * amount)
+                .limit(page.amount())
+                .offset(page.offset())
                 .fetch()
                 .map(mapper);
     }
@@ -65,8 +88,22 @@ public class DefaultQueriesImpl<R extends Record, ID> extends DefaultSqlImpl<R,
 
     // CONSTRUCTORS
 
-    public DefaultQueriesImpl(DSLContext sql, Table<R> table, TableField<R, ID> keyField, TableField<R, Integer> partitionField) {
+    public DefaultQueriesImpl(DSLContext sql, Table<R> table, TableField<R, ID> keyField, TableField<R, Integer> partitionField,
+                              EntityCache entityCache) {
         super(sql, table, keyField, partitionField);
+
+        Null.check(entityCache).ifAny("EntityCache cannot be null");
+        this.entityCache = entityCache;
+    }
+
+    // PRIVATE
+
+    private final EntityCache entityCache;
+
+    private Optional<R> fetchRecord(ID id, int partitionId) {
+        return sql.selectFrom(table)
+                .where(idAndPartition(id, partitionId))
+                .fetch().stream().findAny();
     }
 
 }
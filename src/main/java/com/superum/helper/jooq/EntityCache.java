@@ -0,0 +1,228 @@
+package com.superum.helper.jooq;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.superum.config.ReadWriteRoutingDataSource;
+import com.superum.helper.CacheCounters;
+import org.jooq.Record;
+import org.jooq.Table;
+import org.jooq.lambda.tuple.Tuple;
+import org.jooq.lambda.tuple.Tuple3;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * <pre>
+ * Keeps recently read records of tables by (table, partition, id), so that reads by id and existence checks of
+ * queries do not have to query the database every time
+ *
+ * Only committed records are ever kept: the cache is filled by reads outside of transactions and by read-only
+ * transactions on the primary; reads of the replica only use what is already there
+ *
+ * Writing transactions (commands) never use the cache; the records they read, and the existence checks they make
+ * before changing something, always come from the database, so a command can never act on a stale record; this
+ * means the cache only speeds up read endpoints, and commands (i.e. the exists() checks of lesson, group and
+ * attendance commands) query the database every time
+ *
+ * Every command which changes a record removes it from the cache, both right away and after its transaction ends;
+ * triggers only change the timestamps of the same record, so removing the record covers them too
+ *
+ * Every table has a counter of changes; a record is only kept if the table did not change since the transaction which
+ * read it has started using the cache, so that a record which was read before a change cannot be kept after it
+ *
+ * Changes are only removed from the cache of the instance which made them; other instances keep returning the old
+ * record until it expires, so records expire soon after they were kept, which bounds how stale a query can be
+ *
+ * Records are copied when they are kept and when they are returned, so they can be changed freely
+ * </pre>
+ */
+public final class EntityCache {
+
+    /**
+     * @param loader reads the record from the database; called if the record is not in the cache
+     * @return record of given table with given id in given partition; Optional.empty() if it does not exist
+     */
+    public <R extends Record> Optional<R> read(Table<R> table, int partitionId, Object id,
+                                               Supplier<Optional<R>> loader) {
+        if (isWritingTransaction())
+            return loader.get();
+
+        Tuple3<String, Integer, Object> key = Tuple.tuple(table.getName(), partitionId, id);
+        Record cached = cache.getIfPresent(key);
+        if (cached != null)
+            return Optional.of(cached.into(table));
+
+        if (!canFill())
+            return loader.get();
+
+        long changesBeforeLoad = changesSeen(table);
+        Optional<R> loaded = loader.get();
+        loaded.ifPresent(record -> {
+            if (changesOf(table).get() == changesBeforeLoad)
+                cache.asMap().putIfAbsent(key, record.into(table));
+        });
+        return loaded;
+    }
+
+    /**
+     * @param loader reads the record from the database; called if the record is not in the cache, but can be kept
+     * @param probe checks if the record exists in the database; called if the record is not in the cache, and
+     *              could not be kept anyway, or if the check is made by a writing transaction
+     * @return true if a record of given table with given id exists in given partition, false otherwise
+     */
+    public <R extends Record> boolean exists(Table<R> table, int partitionId, Object id, Supplier<Optional<R>> loader,
+                                             BooleanSupplier probe) {
+        if (isWritingTransaction())
+            return probe.getAsBoolean();
+
+        if (canFill())
+            return read(table, partitionId, id, loader).isPresent();
+
+        return cache.getIfPresent(Tuple.tuple(table.getName(), partitionId, id)) != null || probe.getAsBoolean();
+    }
+
+    /**
+     * Removes the record of given table with given id in given partition; must be called whenever a record is
+     * created, updated or deleted
+     */
+    public void changed(Table<?> table, int partitionId, Object id) {
+        Tuple3<String, Integer, Object> key = Tuple.tuple(table.getName(), partitionId, id);
+        changed(table, () -> cache.invalidate(key));
+    }
+
+    /**
+     * Removes all records of given table in given partition; intended for changes which affect many records at once
+     */
+    public void changedAll(Table<?> table, int partitionId) {
+        String tableName = table.getName();
+        changed(table, () -> cache.asMap().keySet()
+                .removeIf(key -> key.v1.equals(tableName) && key.v2 == partitionId));
+    }
+
+    /**
+     * @return hit, miss and eviction counters of the cache
+     */
+    public CacheCounters cacheCounters() {
+        return CacheCounters.from(cache.stats());
+    }
+
+    // CONSTRUCTORS
+
+    /**
+     * @param maxRecords amount of records kept, across all tables and partitions
+     */
+    public EntityCache(ReadWriteRoutingDataSource readWriteRoutingDataSource, long maxRecords) {
+        this.readWriteRoutingDataSource = readWriteRoutingDataSource;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxRecords)
+                .expireAfterWrite(RECORD_LIFETIME_SECONDS, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        this.changes = new ConcurrentHashMap<>();
+    }
+
+    // PRIVATE
+
+    private final ReadWriteRoutingDataSource readWriteRoutingDataSource;
+    private final Cache<Tuple3<String, Integer, Object>, Record> cache;
+    private final ConcurrentMap<String, AtomicLong> changes;
+
+    private void changed(Table<?> table, Runnable invalidation) {
+        changesOf(table).incrementAndGet();
+        invalidation.run();
+
+        TransactionState state = transactionState();
+        if (state != null) {
+            state.afterCompletion.add(() -> {
+                changesOf(table).incrementAndGet();
+                invalidation.run();
+            });
+        }
+    }
+
+    private AtomicLong changesOf(Table<?> table) {
+        return changes.computeIfAbsent(table.getName(), any -> new AtomicLong());
+    }
+
+    /**
+     * @return amount of changes of the table, as it was when the current transaction has first used the cache for it
+     */
+    private long changesSeen(Table<?> table) {
+        long current = changesOf(table).get();
+        TransactionState state = transactionState();
+        return state == null
+                ? current
+                : state.changesSeen.computeIfAbsent(table.getName(), any -> current);
+    }
+
+    /**
+     * @return true if the current transaction can change something; changes are only made by such transactions
+     */
+    private boolean isWritingTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    /**
+     * @return true if the records which are read right now are committed, and not lagging behind; only called
+     * outside of writing transactions
+     */
+    private boolean canFill() {
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+                || !readWriteRoutingDataSource.isReadingReplica();
+    }
+
+    /**
+     * @return state of the current transaction, created when it is first needed; null if there is no transaction
+     */
+    private TransactionState transactionState() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive())
+            return null;
+
+        TransactionState state = (TransactionState) TransactionSynchronizationManager.getResource(this);
+        if (state != null)
+            return state;
+
+        TransactionState newState = new TransactionState();
+        TransactionSynchronizationManager.bindResource(this, newState);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void suspend() {
+                TransactionSynchronizationManager.unbindResource(EntityCache.this);
+            }
+
+            @Override
+            public void resume() {
+                TransactionSynchronizationManager.bindResource(EntityCache.this, newState);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(EntityCache.this);
+                newState.afterCompletion.forEach(Runnable::run);
+            }
+        });
+        return newState;
+    }
+
+    private static final int RECORD_LIFETIME_SECONDS = 30;
+
+    /**
+     * What the current transaction has changed and seen; it is only accessed by the thread of the transaction
+     */
+    private static final class TransactionState {
+
+        private final Map<String, Long> changesSeen = new HashMap<>();
+        private final List<Runnable> afterCompletion = new ArrayList<>();
+
+    }
+
+}
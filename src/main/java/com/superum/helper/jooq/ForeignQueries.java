@@ -1,5 +1,10 @@
 package com.superum.helper.jooq;
 
+import org.jooq.Condition;
+
+import java.util.Collection;
+import java.util.Set;
+
 /**
  * Contains methods for queries on other tables
  * @param <ID> foreign key type
@@ -12,4 +17,26 @@ public interface ForeignQueries<ID> {
      */
     boolean isUsed(ID id);
 
+    /**
+     * <pre>
+     * Intended for batch commands, which would otherwise call isUsed() for every value
+     *
+     * Every table is checked by its own query, with every value in the IN clause
+     * </pre>
+     * @return values which are used as a foreign key; empty set if ids is empty
+     * @throws NullPointerException if ids is null
+     */
+    Set<ID> usedIds(Collection<ID> ids);
+
+    /**
+     * <pre>
+     * Intended for statements which should only be executed if the value is (not) used, i.e. conditional deletes
+     *
+     * Every table is checked by its own EXISTS sub-query, so the tables are never joined
+     * </pre>
+     * @return condition which is true if a given value is used as a foreign key
+     * @throws NullPointerException if id is null
+     */
+    Condition usedCondition(ID id);
+
 }
@@ -3,25 +3,44 @@ package com.superum.helper.jooq;
 import eu.goodlike.neat.Null;
 import org.jooq.Condition;
 import org.jooq.DSLContext;
-import org.jooq.Table;
 import org.jooq.TableField;
+import org.jooq.impl.DSL;
 
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class ForeignQueriesImpl<ID> implements ForeignQueries<ID> {
 
     @Override
     public boolean isUsed(ID id) {
+        return sql.fetchExists(sql.selectOne().where(usedCondition(id)));
+    }
+
+    @Override
+    public Set<ID> usedIds(Collection<ID> ids) {
+        Null.check(ids).ifAny("Foreign key values cannot be null");
+
+        Set<ID> usedIds = new HashSet<>();
+        if (ids.isEmpty())
+            return usedIds;
+
+        for (TableField<?, ID> key : foreignKeys)
+            usedIds.addAll(sql.selectDistinct(key).from(key.getTable()).where(key.in(ids)).fetch(key));
+
+        return usedIds;
+    }
+
+    @Override
+    public Condition usedCondition(ID id) {
         Null.check(id).ifAny("Foreign key value cannot be null");
 
-        return sql.fetchExists(
-                sql.selectOne()
-                        .from(tables())
-                        .where(foreignKeys.stream()
-                                .map(key -> key.eq(id))
-                                .reduce(Condition::or)
-                                .orElseThrow(() -> new AssertionError("At least one field should have been provided to the checker!"))));
+        return foreignKeys.stream()
+                .map(key -> DSL.exists(sql.selectOne().from(key.getTable()).where(key.eq(id))))
+                .reduce(Condition::or)
+                .orElseThrow(() -> new AssertionError("At least one field should have been provided to the checker!"));
     }
 
     // CONSTRUCTORS
@@ -37,10 +56,4 @@ public class ForeignQueriesImpl<ID> implements ForeignQueries<ID> {
     private final DSLContext sql;
     private final List<TableField<?, ID>> foreignKeys;
 
-    private Table[] tables() {
-        return foreignKeys.stream()
-                .map(TableField::getTable)
-                .toArray(Table[]::new);
-    }
-
 }
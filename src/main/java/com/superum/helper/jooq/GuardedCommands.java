@@ -0,0 +1,35 @@
+package com.superum.helper.jooq;
+
+import org.jooq.Record;
+
+import java.util.function.Supplier;
+
+/**
+ * <pre>
+ * Contains methods for commands which check their own preconditions as part of the statement, instead of separate
+ * queries before it; a successful command takes a single round trip to the database
+ *
+ * When a command does nothing, a single additional query finds out which precondition failed, so that the same
+ * exceptions as before can be thrown
+ * </pre>
+ * @param <R> JOOQ generated table record for a table
+ * @param <ID> primary key field type for this table
+ */
+public interface GuardedCommands<R extends Record, ID> extends DefaultSql<R, ID> {
+
+    /**
+     * <pre>
+     * Deletes a single record from the table using a particular primary key, unless that key is still used as a
+     * foreign key in other tables
+     *
+     * Both checks are part of the DELETE statement, i.e.
+     *      DELETE FROM table WHERE id = ? AND partition_id = ? AND NOT (EXISTS (...) OR EXISTS (...))
+     * </pre>
+     * @param notFound supplies the exception to throw if the record does not exist
+     * @param unsafeDelete supplies the exception to throw if the record is still used as a foreign key
+     * @throws NullPointerException if id or any of the suppliers is null
+     */
+    void deleteUnused(ID id, int partitionId, Supplier<? extends RuntimeException> notFound,
+                      Supplier<? extends RuntimeException> unsafeDelete);
+
+}
@@ -0,0 +1,55 @@
+package com.superum.helper.jooq;
+
+import eu.goodlike.neat.Null;
+import org.jooq.DSLContext;
+import org.jooq.Record;
+import org.jooq.Table;
+import org.jooq.TableField;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.function.Supplier;
+
+/**
+ * Contains methods for commands which check their own preconditions as part of the statement
+ * @param <R> JOOQ generated table record for a table
+ * @param <ID> primary key field type for this table
+ */
+@Transactional
+public class GuardedCommandsImpl<R extends Record, ID> extends DefaultSqlImpl<R, ID> implements GuardedCommands<R, ID> {
+
+    @Override
+    public void deleteUnused(ID id, int partitionId, Supplier<? extends RuntimeException> notFound,
+                             Supplier<? extends RuntimeException> unsafeDelete) {
+        Null.check(id, notFound, unsafeDelete).ifAny("Primary key value and exception suppliers cannot be null");
+
+        entityCache.changed(table, partitionId, id);
+        int deleted = sql.deleteFrom(table)
+                .where(idAndPartition(id, partitionId))
+                .andNot(foreignQueries.usedCondition(id))
+                .execute();
+        if (deleted > 0)
+            return;
+
+        throw sql.fetchExists(table, idAndPartition(id, partitionId))
+                ? unsafeDelete.get()
+                : notFound.get();
+    }
+
+    // CONSTRUCTORS
+
+    public GuardedCommandsImpl(DSLContext sql, Table<R> table, TableField<R, ID> keyField,
+                               TableField<R, Integer> partitionField, ForeignQueries<ID> foreignQueries,
+                               EntityCache entityCache) {
+        super(sql, table, keyField, partitionField);
+
+        Null.check(foreignQueries, entityCache).ifAny("ForeignQueries and EntityCache cannot be null");
+        this.foreignQueries = foreignQueries;
+        this.entityCache = entityCache;
+    }
+
+    // PRIVATE
+
+    private final ForeignQueries<ID> foreignQueries;
+    private final EntityCache entityCache;
+
+}
@@ -1,9 +1,3 @@
-DROP DATABASE timestar_v2;
-
-CREATE DATABASE timestar_v2;
-
-USE timestar_v2;
-
 CREATE TABLE partitions (
   id INT NOT NULL UNIQUE,
   name VARCHAR(180) NOT NULL UNIQUE,
@@ -0,0 +1,11 @@
+CREATE INDEX lesson_teacher_time
+  ON lesson (partition_id, teacher_id, time_of_start);
+
+CREATE INDEX lesson_group_time
+  ON lesson (partition_id, group_id, time_of_start);
+
+CREATE INDEX lesson_time
+  ON lesson (partition_id, time_of_start);
+
+CREATE INDEX lesson_attendance_student
+  ON lesson_attendance (student_id);
@@ -0,0 +1,25 @@
+-- teacher of the lessons of a group is moved by the application in chunks, see GroupReassignment
+DROP TRIGGER update_timestamp_ensure_create_immutable_group_update_lesson;
+
+-- teacher of an inserted lesson is resolved by the application before the insert
+DROP TRIGGER create_timestamps_inserting_lesson;
+
+DELIMITER //
+CREATE TRIGGER update_timestamp_ensure_create_immutable_group
+BEFORE UPDATE ON group_of_students
+FOR EACH ROW
+  BEGIN
+    SET NEW.updated_at = ROUND(UNIX_TIMESTAMP(CURRENT_TIMESTAMP(3)) * 1000);
+    IF NEW.created_at != OLD.created_at THEN
+      SET NEW.created_at = OLD.created_at;
+    END IF;
+  END; //
+
+CREATE TRIGGER create_timestamps_inserting_lesson
+BEFORE INSERT ON lesson
+FOR EACH ROW
+  BEGIN
+    SET NEW.created_at = ROUND(UNIX_TIMESTAMP(CURRENT_TIMESTAMP(3)) * 1000);
+    SET NEW.updated_at = NEW.created_at;
+  END; //
+DELIMITER ;
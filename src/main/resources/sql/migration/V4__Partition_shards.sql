@@ -0,0 +1,39 @@
+-- shard which contains the data of the partition, see PartitionRoutingDataSource; only the primary database is read
+ALTER TABLE partitions ADD COLUMN shard VARCHAR(180) NOT NULL DEFAULT 'primary';
+
+-- rows copied by PartitionMover keep their timestamps; the mover sets @partition_move on its own connection
+DROP TRIGGER create_timestamps_inserting_group;
+DROP TRIGGER create_timestamps_inserting_student;
+DROP TRIGGER create_timestamps_inserting_lesson;
+
+DELIMITER //
+CREATE TRIGGER create_timestamps_inserting_group
+BEFORE INSERT ON group_of_students
+FOR EACH ROW
+  BEGIN
+    IF @partition_move IS NULL THEN
+      SET NEW.created_at = ROUND(UNIX_TIMESTAMP(CURRENT_TIMESTAMP(3)) * 1000);
+      SET NEW.updated_at = NEW.created_at;
+    END IF;
+  END; //
+
+CREATE TRIGGER create_timestamps_inserting_student
+BEFORE INSERT ON student
+FOR EACH ROW
+  BEGIN
+    IF @partition_move IS NULL THEN
+      SET NEW.created_at = ROUND(UNIX_TIMESTAMP(CURRENT_TIMESTAMP(3)) * 1000);
+      SET NEW.updated_at = NEW.created_at;
+    END IF;
+  END; //
+
+CREATE TRIGGER create_timestamps_inserting_lesson
+BEFORE INSERT ON lesson
+FOR EACH ROW
+  BEGIN
+    IF @partition_move IS NULL THEN
+      SET NEW.created_at = ROUND(UNIX_TIMESTAMP(CURRENT_TIMESTAMP(3)) * 1000);
+      SET NEW.updated_at = NEW.created_at;
+    END IF;
+  END; //
+DELIMITER ;
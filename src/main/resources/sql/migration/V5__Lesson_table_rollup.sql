@@ -0,0 +1,27 @@
+-- pre-aggregated lesson table sums, see TableRollup
+CREATE TABLE lesson_table_rollup (
+  partition_id INT NOT NULL,
+  teacher_id INT NOT NULL,
+  customer_id INT,
+  day_of_start BIGINT NOT NULL,
+
+  duration_in_minutes INT NOT NULL,
+  padded_cost DECIMAL(30, 4) NOT NULL,
+  KEY(partition_id, teacher_id, day_of_start),
+  FOREIGN KEY(partition_id) REFERENCES partitions(id));
+
+-- backfill for existing lessons; same aggregation as TableRollup.insertCells, the cost is padded like PaddedSumField
+INSERT INTO lesson_table_rollup
+  (partition_id, teacher_id, customer_id, day_of_start, duration_in_minutes, padded_cost)
+SELECT lesson.partition_id, lesson.teacher_id, group_of_students.customer_id,
+  lesson.time_of_start - MOD(lesson.time_of_start, 86400000),
+  SUM(lesson.duration_in_minutes),
+  SUM(CASE WHEN group_of_students.use_hourly_wage THEN teacher.hourly_wage * lesson.duration_in_minutes * 3
+           ELSE teacher.academic_wage * lesson.duration_in_minutes * 4 END)
+FROM lesson
+  JOIN teacher ON lesson.teacher_id = teacher.id
+  JOIN group_of_students ON lesson.group_id = group_of_students.id
+WHERE (group_of_students.use_hourly_wage AND teacher.hourly_wage IS NOT NULL)
+   OR (NOT group_of_students.use_hourly_wage AND teacher.academic_wage IS NOT NULL)
+GROUP BY lesson.partition_id, lesson.teacher_id, group_of_students.customer_id,
+  lesson.time_of_start - MOD(lesson.time_of_start, 86400000);
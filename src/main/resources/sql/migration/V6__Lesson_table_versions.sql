@@ -0,0 +1,6 @@
+-- version of lesson table data of every partition, used for ETags, see TableVersions
+CREATE TABLE lesson_table_version (
+  partition_id INT NOT NULL,
+  version BIGINT NOT NULL,
+  PRIMARY KEY(partition_id),
+  FOREIGN KEY(partition_id) REFERENCES partitions(id));
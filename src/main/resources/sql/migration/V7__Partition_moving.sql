@@ -0,0 +1,2 @@
+-- set while PartitionMover copies the partition to another shard; no instance of the app routes to the partition then
+ALTER TABLE partitions ADD COLUMN moving BIT NOT NULL DEFAULT 0;
@@ -22,11 +22,11 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
 import java.math.BigDecimal;
-import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
 import static eu.goodlike.libraries.spring.mockmvc.HttpResult.OK;
+import static eu.goodlike.libraries.spring.mockmvc.HttpResult.OK_NO_BODY;
 import static java.math.BigDecimal.ZERO;
 import static org.junit.Assert.assertEquals;
 
@@ -43,6 +43,46 @@ public class FullTableIT extends IntegrationTestEnvironment {
         assertEquals("Returned table should be equal to the pre-computed one", precomputedTable(), table);
     }
 
+    @Test
+    public void readingFullTableWithoutLessonIds_shouldReturnTableWithoutLessonIds() throws Exception {
+        FullTable table = mvc.performGet(DEFAULT_PATH + DEFAULT_PARAMS + "&lesson_ids=false", OK)
+                .map(Unchecked.function(this::readTable))
+                .orElseThrow(() -> new AssertionError("Should return empty table instead of null"));
+
+        assertEquals("Returned table should be equal to the pre-computed one, without lesson ids",
+                precomputedTable(false), table);
+    }
+
+    /**
+     * <pre>
+     * The teacher of the group is changed, but the test transaction never commits, so the lessons of the group are
+     * never moved; this is the same state as in the middle of a GroupReassignment
+     *
+     * Full days come from the rollup and partial days from the lessons; both of them must keep the lesson with the
+     * teacher it still belongs to
+     * </pre>
+     */
+    @Test
+    public void readingFullTableDuringReassignment_shouldKeepLessonsWithTheirTeacher() throws Exception {
+        mvc.performPut(GROUP_PATH, Fakes.group(OLD_GROUP_ID, EXTRA_TEACHER_ID, OLD_CUSTOMER_ID).withId(OLD_GROUP_ID),
+                OK_NO_BODY);
+
+        FullTable fullDays = mvc.performGet(DEFAULT_PATH + DEFAULT_PARAMS, OK)
+                .map(Unchecked.function(this::readTable))
+                .orElseThrow(() -> new AssertionError("Should return empty table instead of null"));
+
+        assertEquals("Lessons should stay with their teacher until they are moved",
+                precomputedFields(true), fullDays.getFields());
+
+        long lessonStart = Fakes.lesson(OLD_LESSON_ID).getStartTime();
+        FullTable partialDay = mvc.performGet(DEFAULT_PATH + "?start=" + lessonStart + "&end=" + (lessonStart + 1), OK)
+                .map(Unchecked.function(this::readTable))
+                .orElseThrow(() -> new AssertionError("Should return empty table instead of null"));
+
+        assertEquals("Lessons should stay with their teacher until they are moved, even for partial days",
+                precomputedFields(true).subList(0, 1), partialDay.getFields());
+    }
+
     // PRIVATE
 
     private FullTable readTable(MvcResult result) throws IOException {
@@ -50,9 +90,13 @@ public class FullTableIT extends IntegrationTestEnvironment {
     }
 
     private FullTable precomputedTable() {
+        return precomputedTable(true);
+    }
+
+    private FullTable precomputedTable(boolean withLessonIds) {
         List<FullTeacherDTO> teachers = precomputedTeachers();
         List<ValidCustomerDTO> customers = precomputedCustomers();
-        List<TableField> fields = precomputedFields();
+        List<TableField> fields = precomputedFields(withLessonIds);
         List<TableReport> teacherReports = precomputedTeacherReports(teachers);
         List<TableReport> customerReports = precomputedCustomerReports(customers);
         return new FullTable(teachers, customers, fields, teacherReports, customerReports);
@@ -66,12 +110,12 @@ public class FullTableIT extends IntegrationTestEnvironment {
         return Some.of(Fakes::customer).oneUpTo(2);
     }
 
-    private List<TableField> precomputedFields() {
+    private List<TableField> precomputedFields(boolean withLessonIds) {
         return Some.Of(Fakes::lesson).oneUpToStream(2)
                 .map(lesson -> new TableField(
                         lesson.getId().intValue(),
                         lesson.getId().intValue(),
-                        Collections.singletonList(lesson.getId()),
+                        withLessonIds ? new long[]{lesson.getId()} : null,
                         lesson.getLength(),
                         precomputedCost(lesson)))
                 .collect(Collectors.toList());
@@ -106,6 +150,7 @@ public class FullTableIT extends IntegrationTestEnvironment {
     }
 
     private static final String DEFAULT_PATH = "/timestar/api/v2/lesson/table/data/full/";
+    private static final String GROUP_PATH = "/timestar/api/v2/group/";
     private static final String DEFAULT_PARAMS = "?start=" + 0 + "&end=" + Long.MAX_VALUE;
 
 }
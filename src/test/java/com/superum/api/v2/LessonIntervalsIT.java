@@ -0,0 +1,199 @@
+package com.superum.api.v2;
+
+import com.superum.api.v2.lesson.LessonIntervals;
+import com.superum.helper.IntegrationTestEnvironment;
+import org.jooq.DSLContext;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.context.transaction.TransactionConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+
+import static com.superum.helper.TestConstants.TEST_PARTITION;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * <pre>
+ * Checks the intervals themselves, without the database: the teachers used here have no lessons, so the intervals
+ * start empty, and the database check always says the lessons overlap; this way, isOverlapping() returns false only
+ * if the intervals alone decided that there is no overlap
+ *
+ * Changes are reported in their own transactions, because they are only applied after a commit, and the transaction
+ * of the test itself is always rolled back; these transactions do not write anything
+ * </pre>
+ */
+@Transactional
+@TransactionConfiguration(defaultRollback = true)
+public class LessonIntervalsIT extends IntegrationTestEnvironment {
+
+    @Before
+    public void loadIntervals() {
+        lessonIntervals = intervals(true);
+        inMemory(TEACHER_ID, 0, 0);
+        inMemory(OTHER_TEACHER_ID, 0, 0);
+    }
+
+    @Test
+    public void overlappingTimes_shouldOverlap() {
+        committed(() -> lessonIntervals.lessonSaved(LESSON_ID, TEACHER_ID, 100, 200, TEST_PARTITION));
+
+        assertTrue("Lesson inside should overlap", inMemory(TEACHER_ID, 150, 160));
+        assertTrue("Lesson around should overlap", inMemory(TEACHER_ID, 50, 300));
+        assertTrue("Lesson ending at start should overlap", inMemory(TEACHER_ID, 50, 100));
+        assertTrue("Lesson starting at end should overlap", inMemory(TEACHER_ID, 200, 300));
+        assertFalse("Lesson before should not overlap", inMemory(TEACHER_ID, 0, 99));
+        assertFalse("Lesson after should not overlap", inMemory(TEACHER_ID, 201, 300));
+    }
+
+    @Test
+    public void longLessonStartingEarlier_shouldOverlap() {
+        committed(() -> {
+            lessonIntervals.lessonSaved(LESSON_ID, TEACHER_ID, 0, 1000, TEST_PARTITION);
+            lessonIntervals.lessonSaved(OTHER_LESSON_ID, TEACHER_ID, 2000, 2100, TEST_PARTITION);
+        });
+
+        assertTrue("Lesson inside a long lesson should overlap", inMemory(TEACHER_ID, 500, 600));
+        assertFalse("Lesson between lessons should not overlap", inMemory(TEACHER_ID, 1001, 1999));
+    }
+
+    @Test
+    public void excludedLesson_shouldNotOverlapItself() {
+        committed(() -> lessonIntervals.lessonSaved(LESSON_ID, TEACHER_ID, 100, 200, TEST_PARTITION));
+
+        assertFalse("Lesson should not overlap itself", inMemory(TEACHER_ID, 150, 250, LESSON_ID));
+        assertTrue("Other lesson should still overlap", inMemory(TEACHER_ID, 150, 250, OTHER_LESSON_ID));
+    }
+
+    @Test
+    public void changeInTransaction_shouldUseDatabaseUntilCommit() {
+        committed(() -> {
+            lessonIntervals.lessonSaved(LESSON_ID, TEACHER_ID, 100, 200, TEST_PARTITION);
+
+            assertTrue("Changed teacher should be checked in database", inMemory(TEACHER_ID, 500, 600));
+        });
+
+        assertTrue("Change should be applied after commit", inMemory(TEACHER_ID, 150, 160));
+        assertFalse("Committed teacher should use intervals again", inMemory(TEACHER_ID, 500, 600));
+    }
+
+    @Test
+    public void rolledBackChange_shouldNotBeApplied() {
+        rolledBack(() -> lessonIntervals.lessonSaved(LESSON_ID, TEACHER_ID, 100, 200, TEST_PARTITION));
+
+        assertFalse("Rolled back lesson should not overlap", inMemory(TEACHER_ID, 150, 160));
+    }
+
+    @Test
+    public void deletedLesson_shouldNotOverlap() {
+        committed(() -> lessonIntervals.lessonSaved(LESSON_ID, TEACHER_ID, 100, 200, TEST_PARTITION));
+
+        committed(() -> lessonIntervals.lessonDeleted(LESSON_ID, TEST_PARTITION));
+
+        assertFalse("Deleted lesson should not overlap", inMemory(TEACHER_ID, 150, 160));
+    }
+
+    @Test
+    public void lessonSavedForOtherTeacher_shouldBeRemovedFromPreviousTeacher() {
+        committed(() -> lessonIntervals.lessonSaved(LESSON_ID, TEACHER_ID, 100, 200, TEST_PARTITION));
+
+        committed(() -> lessonIntervals.lessonSaved(LESSON_ID, OTHER_TEACHER_ID, 100, 200, TEST_PARTITION));
+
+        assertFalse("Previous teacher should not have the lesson", inMemory(TEACHER_ID, 150, 160));
+        assertTrue("New teacher should have the lesson", inMemory(OTHER_TEACHER_ID, 150, 160));
+    }
+
+    @Test
+    public void movedLessons_shouldLoadIntervalsAgain() {
+        committed(() -> lessonIntervals.lessonSaved(LESSON_ID, TEACHER_ID, 100, 200, TEST_PARTITION));
+
+        committed(() -> lessonIntervals.lessonsMoved(TEST_PARTITION, Collections.singletonList(TEACHER_ID)));
+
+        // the lesson was never written to the database, so it is not there after loading again
+        assertFalse("Intervals should be loaded again", inMemory(TEACHER_ID, 150, 160));
+    }
+
+    @Test
+    public void withoutSingleInstance_shouldAlwaysUseDatabase() {
+        LessonIntervals multipleInstances = intervals(false);
+
+        assertTrue("Check should always use database", multipleInstances.isOverlapping(TEST_PARTITION, TEACHER_ID,
+                500, 600, null, () -> true));
+    }
+
+    @Test
+    public void withoutSingleInstance_shouldIgnoreChanges() {
+        LessonIntervals multipleInstances = intervals(false);
+
+        committed(() -> {
+            int synchronizations = TransactionSynchronizationManager.getSynchronizations().size();
+
+            multipleInstances.lessonSaved(LESSON_ID, TEACHER_ID, 100, 200, TEST_PARTITION);
+            multipleInstances.lessonDeleted(LESSON_ID, TEST_PARTITION);
+            multipleInstances.lessonsMoved(TEST_PARTITION, Collections.singletonList(TEACHER_ID));
+
+            assertEquals("Nothing should be done after commit", synchronizations,
+                    TransactionSynchronizationManager.getSynchronizations().size());
+        });
+    }
+
+    // PRIVATE
+
+    @Autowired
+    private DSLContext sql;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private LessonIntervals lessonIntervals;
+
+    private LessonIntervals intervals(boolean singleInstance) {
+        MockEnvironment env = new MockEnvironment().withProperty("db.singleInstance", String.valueOf(singleInstance));
+        return new LessonIntervals(sql, transactionManager, env);
+    }
+
+    private boolean inMemory(int teacherId, long startTime, long endTime) {
+        return inMemory(teacherId, startTime, endTime, null);
+    }
+
+    private boolean inMemory(int teacherId, long startTime, long endTime, Long excludedLessonId) {
+        return lessonIntervals.isOverlapping(TEST_PARTITION, teacherId, startTime, endTime, excludedLessonId,
+                () -> true);
+    }
+
+    private void committed(Runnable change) {
+        newTransaction().execute(status -> {
+            change.run();
+            return null;
+        });
+    }
+
+    private void rolledBack(Runnable change) {
+        newTransaction().execute(status -> {
+            change.run();
+            status.setRollbackOnly();
+            return null;
+        });
+    }
+
+    private TransactionTemplate newTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template;
+    }
+
+    private static final int TEACHER_ID = 1000001;
+    private static final int OTHER_TEACHER_ID = 1000002;
+
+    private static final long LESSON_ID = 1000001;
+    private static final long OTHER_LESSON_ID = 1000002;
+
+}
@@ -0,0 +1,150 @@
+package com.superum.api.v2;
+
+import com.superum.api.exception.InvalidRequestException;
+import com.superum.api.v3.admin.PartitionMover;
+import com.superum.config.PartitionRoutingDataSource;
+import com.superum.exception.DatabaseException;
+import com.superum.helper.IntegrationTestEnvironment;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.test.context.transaction.TransactionConfiguration;
+import org.springframework.transaction.annotation.Transactional;
+
+import static com.superum.config.PartitionRoutingDataSource.PRIMARY_SHARD;
+import static com.superum.helper.TestConstants.TEST_PARTITION;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * <pre>
+ * Checks which shard the connections are routed to; without configured shards, every partition is in the primary
+ * shard, so the test only checks the routing decision, not the actual connections
+ *
+ * Moving a partition needs at least two databases, i.e. several local MySQL instances configured in db.shards; moves
+ * are not done here, because they commit
+ * </pre>
+ */
+@Transactional
+@TransactionConfiguration(defaultRollback = true)
+public class PartitionRoutingIT extends IntegrationTestEnvironment {
+
+    @Before
+    public void newUser() {
+        originalContext = SecurityContextHolder.getContext();
+        SecurityContextHolder.setContext(new SecurityContextImpl());
+    }
+
+    @After
+    public void restoreUser() {
+        SecurityContextHolder.setContext(originalContext);
+    }
+
+    @Test
+    public void withoutUser_shouldUsePrimary() {
+        assertEquals(PRIMARY_SHARD, partitionRoutingDataSource.currentShard());
+    }
+
+    @Test
+    public void userOfPartition_shouldUseShardOfPartition() {
+        authenticate(TEST_PARTITION + ".test");
+
+        assertEquals(partitionRoutingDataSource.shardOf(TEST_PARTITION), partitionRoutingDataSource.currentShard());
+    }
+
+    @Test
+    public void userWithoutPartition_shouldUsePrimary() {
+        authenticate("anonymousUser");
+
+        assertEquals(PRIMARY_SHARD, partitionRoutingDataSource.currentShard());
+    }
+
+    @Test
+    public void unknownPartition_shouldUsePrimary() {
+        assertEquals(PRIMARY_SHARD, partitionRoutingDataSource.shardOf(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void chosenShard_shouldOverrideUser() {
+        authenticate(TEST_PARTITION + ".test");
+
+        assertEquals(PRIMARY_SHARD, partitionRoutingDataSource.onShard(PRIMARY_SHARD,
+                partitionRoutingDataSource::currentShard));
+    }
+
+    @Test(expected = DatabaseException.class)
+    public void movingPartition_shouldFail() {
+        insertMovingPartition();
+        try {
+            partitionRoutingDataSource.forPartition(MOVING_PARTITION, partitionRoutingDataSource::currentShard);
+        } finally {
+            deleteMovingPartition();
+        }
+    }
+
+    @Test
+    public void movedPartition_shouldUseShardRightAway() {
+        insertMovingPartition();
+        try {
+            try {
+                partitionRoutingDataSource.shardOf(MOVING_PARTITION);
+                fail("Partition which is being moved should not be routed");
+            } catch (DatabaseException e) {
+                // expected; the shard of a moving partition is not cached, so the end of the move is seen right away
+            }
+            primary().update("UPDATE partitions SET moving = 0 WHERE id = ?", MOVING_PARTITION);
+
+            assertEquals(PRIMARY_SHARD, partitionRoutingDataSource.shardOf(MOVING_PARTITION));
+        } finally {
+            deleteMovingPartition();
+        }
+    }
+
+    @Test(expected = InvalidRequestException.class)
+    public void movingToUnknownShard_shouldFail() {
+        partitionMover.move(TEST_PARTITION, "unknown shard");
+    }
+
+    // PRIVATE
+
+    @Autowired
+    private PartitionRoutingDataSource partitionRoutingDataSource;
+
+    @Autowired
+    private PartitionMover partitionMover;
+
+    private SecurityContext originalContext;
+
+    /**
+     * The shard map is read outside of the test transaction, so the partition is committed directly to the primary
+     * database; the test partition cannot be used, because rows of the test transaction keep it locked
+     */
+    private void insertMovingPartition() {
+        primary().update("INSERT INTO partitions (id, name, moving) VALUES (?, ?, 1)", MOVING_PARTITION,
+                MOVING_PARTITION_NAME);
+    }
+
+    private void deleteMovingPartition() {
+        primary().update("DELETE FROM partitions WHERE id = ?", MOVING_PARTITION);
+        partitionRoutingDataSource.forget(MOVING_PARTITION);
+    }
+
+    private JdbcTemplate primary() {
+        return new JdbcTemplate(partitionRoutingDataSource.poolOf(PRIMARY_SHARD));
+    }
+
+    private void authenticate(String accountUsername) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(accountUsername, "password"));
+    }
+
+    private static final int MOVING_PARTITION = 1000001;
+    private static final String MOVING_PARTITION_NAME = "Partition being moved";
+
+}
@@ -0,0 +1,234 @@
+package com.superum.api.v2;
+
+import com.google.common.collect.ImmutableMap;
+import com.superum.api.v2.lesson.LessonIntervals;
+import com.superum.api.v2.lesson.ValidLesson;
+import com.superum.api.v2.table.PaddedSumField;
+import com.superum.api.v2.table.TableDataFetcher;
+import com.superum.api.v2.table.TableReportFetcher;
+import com.superum.api.v2.table.TableRollup;
+import com.superum.api.v2.table.TableVersions;
+import com.superum.helper.Fakes;
+import com.superum.helper.IntegrationTestEnvironment;
+import com.superum.helper.TimeResolver;
+import org.jooq.*;
+import org.jooq.conf.ParamType;
+import org.jooq.impl.DSL;
+import org.jooq.impl.DefaultExecuteListener;
+import org.jooq.impl.DefaultExecuteListenerProvider;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.transaction.TransactionConfiguration;
+import org.springframework.transaction.annotation.Transactional;
+import timestar_v2.tables.records.LessonRecord;
+import timestar_v2.tables.records.LessonTableRollupRecord;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static com.superum.helper.TestConstants.TEST_PARTITION;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static timestar_v2.Keys.LESSON_ATTENDANCE_IBFK_1;
+import static timestar_v2.Tables.*;
+
+/**
+ * <pre>
+ * Checks the query plans of the hot queries (overlap check, lesson table, reports and lesson listings) with EXPLAIN;
+ * fails if a lesson table is not read using one of the expected indexes
+ *
+ * The overlap check, lesson table and reports are executed by the production code, and every statement it executes
+ * is recorded and explained; the listings are the same queries as in ValidLessonQueryServiceImpl
+ *
+ * Plenty of lessons of another teacher and group are inserted before every test, because MySQL prefers full scans
+ * for tables with only a few rows, regardless of indexes
+ * </pre>
+ */
+@Transactional
+@TransactionConfiguration(defaultRollback = true)
+public class QueryPlanIT extends IntegrationTestEnvironment {
+
+    @Before
+    public void insertFiller() {
+        InsertValuesStep6<LessonRecord, Integer, Integer, Integer, Long, Long, Integer> lessons =
+                sql.insertInto(LESSON, LESSON.PARTITION_ID, LESSON.TEACHER_ID, LESSON.GROUP_ID,
+                        LESSON.TIME_OF_START, LESSON.TIME_OF_END, LESSON.DURATION_IN_MINUTES);
+        InsertValuesStep6<LessonTableRollupRecord, Integer, Integer, Integer, Long, Integer, BigDecimal> cells =
+                sql.insertInto(LESSON_TABLE_ROLLUP, LESSON_TABLE_ROLLUP.PARTITION_ID, LESSON_TABLE_ROLLUP.TEACHER_ID,
+                        LESSON_TABLE_ROLLUP.CUSTOMER_ID, LESSON_TABLE_ROLLUP.DAY_OF_START,
+                        LESSON_TABLE_ROLLUP.DURATION_IN_MINUTES, LESSON_TABLE_ROLLUP.PADDED_COST);
+        for (int i = 0; i < FILLER_AMOUNT; i++) {
+            long startTime = FILLER_START + i * TableRollup.DAY_MILLIS;
+            lessons.values(TEST_PARTITION, EXTRA_TEACHER_ID, EXTRA_GROUP_ID, startTime, startTime + HOUR_MILLIS, 60);
+            cells.values(TEST_PARTITION, EXTRA_TEACHER_ID, EXTRA_CUSTOMER_ID, startTime, 60, BigDecimal.ONE);
+        }
+        lessons.execute();
+        cells.execute();
+
+        sql.insertInto(LESSON_ATTENDANCE, LESSON_ATTENDANCE.LESSON_ID, LESSON_ATTENDANCE.STUDENT_ID,
+                LESSON_ATTENDANCE.PARTITION_ID)
+                .select(sql.select(LESSON.ID, DSL.inline(EXTRA_STUDENT_ID), LESSON.PARTITION_ID)
+                        .from(LESSON)
+                        .where(LESSON.PARTITION_ID.eq(TEST_PARTITION)
+                                .and(LESSON.TIME_OF_START.ge(FILLER_START))))
+                .execute();
+    }
+
+    @Test
+    public void overlapCheck_shouldUseIndex() {
+        ValidLesson overlappingLesson = new ValidLesson(Fakes.lesson(OLD_LESSON_ID).withoutId());
+
+        assertUsesIndex("overlap check",
+                recording -> overlappingLesson.isOverlapping(recording, lessonIntervals, TEST_PARTITION),
+                ImmutableMap.of("lesson", Collections.singletonList(LESSON_TEACHER_TIME)));
+    }
+
+    @Test
+    public void lessonTable_shouldUseIndex() {
+        assertUsesIndex("lesson table",
+                recording -> tableDataFetcher(recording).getFieldData(
+                        Collections.singletonList(db.readFullTeacher(OLD_TEACHER_ID).get()),
+                        START_TIME + HOUR_MILLIS, END_TIME + HOUR_MILLIS, true, TEST_PARTITION),
+                ImmutableMap.of("lesson", LESSON_INDEXES,
+                        "lesson_table_rollup", Collections.singletonList(ROLLUP_INDEX)));
+    }
+
+    @Test
+    public void teacherReport_shouldUseIndex() {
+        assertUsesIndex("teacher report",
+                recording -> new TableReportFetcher(recording, paddedSumField).reportsFor(TEACHER.ID,
+                        Collections.singletonList(OLD_TEACHER_ID), TEST_PARTITION,
+                        ImmutableMap.of(OLD_TEACHER_ID, TimeResolver.from(START_TIME, END_TIME))),
+                ImmutableMap.of("lesson", LESSON_INDEXES));
+    }
+
+    @Test
+    public void customerReport_shouldUseIndex() {
+        assertUsesIndex("customer report",
+                recording -> new TableReportFetcher(recording, paddedSumField).reportsFor(GROUP_OF_STUDENTS.CUSTOMER_ID,
+                        Collections.singletonList(OLD_CUSTOMER_ID), TEST_PARTITION,
+                        ImmutableMap.of(OLD_CUSTOMER_ID, TimeResolver.from(START_TIME, END_TIME))),
+                ImmutableMap.of("lesson", LESSON_INDEXES));
+    }
+
+    @Test
+    public void lessonsForGroup_shouldUseIndex() {
+        assertUsesIndex("lessons for group",
+                recording -> recording.selectFrom(LESSON)
+                        .where(LESSON.PARTITION_ID.eq(TEST_PARTITION)
+                                .and(LESSON.GROUP_ID.eq(OLD_GROUP_ID))
+                                .and(LESSON.TIME_OF_START.between(START_TIME, END_TIME)))
+                        .orderBy(LESSON.ID)
+                        .limit(25)
+                        .fetch(),
+                ImmutableMap.of("lesson", Collections.singletonList(LESSON_GROUP_TIME)));
+    }
+
+    @Test
+    public void lessonsForStudent_shouldUseIndex() {
+        assertUsesIndex("lessons for student",
+                recording -> recording.select(LESSON.fields())
+                        .from(LESSON)
+                        .join(LESSON_ATTENDANCE).onKey(LESSON_ATTENDANCE_IBFK_1)
+                        .where(LESSON.PARTITION_ID.eq(TEST_PARTITION)
+                                .and(LESSON_ATTENDANCE.STUDENT_ID.eq(OLD_STUDENT_ID))
+                                .and(LESSON.TIME_OF_START.between(START_TIME, END_TIME)))
+                        .groupBy(LESSON.ID)
+                        .orderBy(LESSON.ID)
+                        .limit(25)
+                        .fetch(),
+                ImmutableMap.of("lesson", Arrays.asList(PRIMARY, LESSON_TIME),
+                        "lesson_attendance", Arrays.asList(LESSON_ATTENDANCE_STUDENT, LESSON_ATTENDANCE_LESSON)));
+    }
+
+    // PRIVATE
+
+    @Autowired
+    private DSLContext sql;
+
+    @Autowired
+    private PaddedSumField paddedSumField;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    @Autowired
+    private LessonIntervals lessonIntervals;
+
+    private TableDataFetcher tableDataFetcher(DSLContext sql) {
+        return new TableDataFetcher(sql, paddedSumField, new TableRollup(sql, paddedSumField, tableVersions));
+    }
+
+    /**
+     * Executes given code with a DSLContext which records every statement, then explains all of them; every row of
+     * the plans which reads one of the given tables must use one of the indexes given for that table
+     */
+    private void assertUsesIndex(String queryName, Consumer<DSLContext> production,
+                                 ImmutableMap<String, List<String>> expectedIndexes) {
+        StatementRecorder recorder = new StatementRecorder();
+        production.accept(DSL.using(sql.configuration().derive(new DefaultExecuteListenerProvider(recorder))));
+
+        boolean anyChecked = false;
+        for (String statement : recorder.statements) {
+            Result<Record> plan = sql.fetch("EXPLAIN " + statement);
+            for (Record row : plan) {
+                String table = row.getValue("table", String.class);
+                if (!expectedIndexes.containsKey(table))
+                    continue;
+
+                anyChecked = true;
+                String type = row.getValue("type", String.class);
+                String key = row.getValue("key", String.class);
+                List<String> expected = expectedIndexes.get(table);
+                String failure = "Query '" + queryName + "' reads table " + table + " using " + type + " on " + key +
+                        ", expected any of " + expected + "; statement: " + statement + "; plan: " + plan;
+                assertFalse(failure, FULL_SCANS.contains(type));
+                assertTrue(failure, key != null && expected.containsAll(Arrays.asList(key.split(","))));
+            }
+        }
+        assertTrue("Query '" + queryName + "' did not read any of " + expectedIndexes.keySet() + "; statements: " +
+                recorder.statements, anyChecked);
+    }
+
+    private static final List<String> FULL_SCANS = Arrays.asList("ALL", "index");
+
+    private static final String PRIMARY = "PRIMARY";
+    private static final String LESSON_TEACHER_TIME = "lesson_teacher_time";
+    private static final String LESSON_GROUP_TIME = "lesson_group_time";
+    private static final String LESSON_TIME = "lesson_time";
+    private static final String LESSON_ATTENDANCE_STUDENT = "lesson_attendance_student";
+    // unnamed UNIQUE KEY(lesson_id, student_id) in V1
+    private static final String LESSON_ATTENDANCE_LESSON = "lesson_id";
+    private static final List<String> LESSON_INDEXES =
+            Arrays.asList(LESSON_TEACHER_TIME, LESSON_GROUP_TIME, LESSON_TIME);
+    // unnamed KEY(partition_id, teacher_id, day_of_start) in V5
+    private static final String ROLLUP_INDEX = "partition_id";
+
+    private static final long START_TIME = 1441065600000L;
+    private static final long END_TIME = 1443657600000L;
+
+    private static final long HOUR_MILLIS = 60 * 60 * 1000L;
+    private static final long FILLER_START = END_TIME + TableRollup.DAY_MILLIS;
+    private static final int FILLER_AMOUNT = 1000;
+
+    /**
+     * Records every executed statement with its values inlined, so it can be explained
+     */
+    private static final class StatementRecorder extends DefaultExecuteListener {
+
+        @Override
+        public void executeStart(ExecuteContext ctx) {
+            if (ctx.query() != null)
+                statements.add(ctx.query().getSQL(ParamType.INLINED));
+        }
+
+        private final List<String> statements = new ArrayList<>();
+
+    }
+
+}
@@ -0,0 +1,127 @@
+package com.superum.api.v2;
+
+import com.superum.api.v2.table.TableVersions;
+import com.superum.config.PoolStats;
+import com.superum.config.ReadWriteRoutingDataSource;
+import com.superum.config.ReadWriteRoutingDataSource.Pool;
+import com.superum.helper.IntegrationTestEnvironment;
+import org.jooq.DSLContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.transaction.TransactionConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static com.superum.helper.TestConstants.TEST_PARTITION;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * <pre>
+ * Checks which pool the connections are routed to; without a configured replica, both pools are the same database,
+ * so the test only checks the routing decision, not the actual connections
+ *
+ * Every check uses its own transaction, because the transaction of the test itself is a writing one
+ * </pre>
+ */
+@Transactional
+@TransactionConfiguration(defaultRollback = true)
+public class ReadWriteRoutingIT extends IntegrationTestEnvironment {
+
+    @Before
+    public void newRequest() {
+        originalAttributes = RequestContextHolder.getRequestAttributes();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @After
+    public void restoreRequest() {
+        RequestContextHolder.setRequestAttributes(originalAttributes);
+    }
+
+    @Test
+    public void readOnlyTransaction_shouldUseReplica() {
+        assertEquals(Pool.replica, inTransaction(true));
+    }
+
+    @Test
+    public void writingTransaction_shouldUsePrimary() {
+        assertEquals(Pool.primary, inTransaction(false));
+    }
+
+    @Test
+    public void readOnlyTransactionAfterWrite_shouldUsePrimary() {
+        inTransaction(false);
+
+        assertEquals(Pool.primary, inTransaction(true));
+    }
+
+    @Test
+    public void readOnlyTransactionAfterWriteOutsideOfRequest_shouldUseReplica() {
+        RequestContextHolder.resetRequestAttributes();
+        inTransaction(false);
+
+        assertEquals(Pool.replica, inTransaction(true));
+    }
+
+    @Test
+    public void readOnlyTransactionAfterTableVersion_shouldUsePrimary() {
+        tableVersions.etag(TEST_PARTITION, "data");
+
+        assertEquals(Pool.primary, inTransaction(true));
+    }
+
+    @Test
+    public void readOnlyTransaction_shouldCountReplicaCheckout() {
+        long checkoutsBefore = replicaCheckouts();
+        inTransaction(true);
+
+        assertTrue("Replica checkout was not counted", replicaCheckouts() > checkoutsBefore);
+    }
+
+    // PRIVATE
+
+    @Autowired
+    private ReadWriteRoutingDataSource readWriteRoutingDataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    @Autowired
+    private DSLContext sql;
+
+    private RequestAttributes originalAttributes;
+
+    /**
+     * @return pool which was used by a new transaction, after it ran a query
+     */
+    private Pool inTransaction(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        template.setReadOnly(readOnly);
+        return template.execute(status -> {
+            Pool pool = readWriteRoutingDataSource.currentPool();
+            sql.selectOne().fetch();
+            return pool;
+        });
+    }
+
+    private long replicaCheckouts() {
+        return readWriteRoutingDataSource.stats().stream()
+                .filter(stats -> Pool.replica.name().equals(stats.getPool()))
+                .mapToLong(PoolStats::getCheckouts)
+                .sum();
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.superum.api.v2;
+
+import com.superum.api.v2.table.PaddedSumField;
+import com.superum.api.v2.table.TableReport;
+import com.superum.api.v2.table.TableReportFetcher;
+import com.superum.helper.IntegrationTestEnvironment;
+import com.superum.helper.TableReportFixture;
+import com.superum.helper.TimeResolver;
+import org.jooq.DSLContext;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.transaction.TransactionConfiguration;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.superum.helper.TestConstants.TEST_PARTITION;
+import static java.math.BigDecimal.ZERO;
+import static org.junit.Assert.assertEquals;
+import static timestar_v2.Tables.LESSON;
+
+/**
+ * <pre>
+ * Compares the derived table reports of TableReportFetcher against the OR-chained condition they replaced; the
+ * results must be equal
+ *
+ * The larger amount of ids does not fit into a single batch of windows; timings are measured by TableReportBenchmark
+ * in the jmh source set instead, using the same TableReportFixture
+ * </pre>
+ */
+@Transactional
+@TransactionConfiguration(defaultRollback = true)
+public class TableReportFetcherIT extends IntegrationTestEnvironment {
+
+    @Test
+    public void derivedTableReports_shouldEqualOrChainedReports() {
+        TableReportFixture fixture = new TableReportFixture(sql, paddedSumField, TEST_PARTITION);
+        fixture.insert(ID_COUNTS[ID_COUNTS.length - 1]);
+
+        for (int idCount : ID_COUNTS) {
+            List<Integer> ids = TableReportFixture.ids(idCount);
+            Map<Integer, TimeResolver> timeResolvers = TableReportFixture.windowsFor(ids);
+
+            Map<Integer, BigDecimal> derivedTable = derivedTableCosts(ids, timeResolvers);
+            Map<Integer, BigDecimal> orChain = fixture.orChainCosts(timeResolvers);
+
+            assertEquals("Both queries should find the same costs for " + idCount + " ids", orChain, derivedTable);
+        }
+    }
+
+    // PRIVATE
+
+    @Autowired
+    private DSLContext sql;
+
+    @Autowired
+    private TableReportFetcher tableReportFetcher;
+
+    @Autowired
+    private PaddedSumField paddedSumField;
+
+    private Map<Integer, BigDecimal> derivedTableCosts(List<Integer> ids, Map<Integer, TimeResolver> timeResolvers) {
+        return tableReportFetcher.reportsFor(LESSON.TEACHER_ID, ids, TEST_PARTITION, timeResolvers).stream()
+                .filter(report -> report.getCost().compareTo(ZERO) != 0)
+                .collect(Collectors.toMap(TableReport::getId, TableReport::getCost));
+    }
+
+    private static final int[] ID_COUNTS = {10, 1500};
+
+}
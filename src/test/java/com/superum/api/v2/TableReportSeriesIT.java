@@ -0,0 +1,131 @@
+package com.superum.api.v2;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.superum.api.v2.lesson.ValidLessonDTO;
+import com.superum.api.v2.table.TableReport;
+import com.superum.helper.Fakes;
+import com.superum.helper.IntegrationTestEnvironment;
+import eu.goodlike.libraries.joda.time.Time;
+import eu.goodlike.libraries.spring.mockmvc.MVC;
+import eu.goodlike.test.Fake;
+import org.joda.time.LocalDate;
+import org.jooq.lambda.Unchecked;
+import org.junit.Test;
+import org.springframework.test.context.transaction.TransactionConfiguration;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static eu.goodlike.libraries.spring.mockmvc.HttpResult.BAD;
+import static eu.goodlike.libraries.spring.mockmvc.HttpResult.OK;
+import static org.junit.Assert.assertEquals;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * <pre>
+ * The lessons of these tests are far in the future, so the payment periods they are in do not contain any lessons
+ * of the test data; every period is read before and after the lesson is added, to find out which of them it was
+ * counted in
+ * </pre>
+ */
+@Transactional
+@TransactionConfiguration(defaultRollback = true)
+public class TableReportSeriesIT extends IntegrationTestEnvironment {
+
+    @Test
+    public void lessonStartingRightAfterPaymentDate_shouldOnlyBeCountedInNextPeriod() throws Exception {
+        LocalDate paymentDate = new LocalDate(2030, 1, Fakes.teacher(OLD_TEACHER_ID).getPaymentDay());
+        String params = "?id=" + OLD_TEACHER_ID + "&start_date=" + paymentDate + "&end_date=" + paymentDate.plusDays(1);
+        List<TableReport> before = readSeries(TEACHER_PATH + params);
+
+        db.insertValidLesson(lessonAt(paymentDate.plusDays(1)));
+
+        List<TableReport> after = readSeries(TEACHER_PATH + params);
+
+        assertEquals("The periods ending on the payment date and after it should be returned", 2, after.size());
+        assertEquals("The lesson should not be paid for in the period ending on the payment date",
+                0, before.get(0).getCost().compareTo(after.get(0).getCost()));
+        assertEquals("The lesson should be paid for in the period after the payment date",
+                0, before.get(1).getCost().add(lessonCost()).compareTo(after.get(1).getCost()));
+    }
+
+    @Test
+    public void readingSeriesWithPeriodsAndDates_shouldReturn400() throws Exception {
+        mvc.performGet(TEACHER_PATH + "?id=1&periods=2&start_date=2015-01-01&end_date=2015-02-01", BAD,
+                status().isBadRequest());
+    }
+
+    @Test
+    public void readingSeriesWithoutPeriodsOrDates_shouldReturn400() throws Exception {
+        mvc.performGet(TEACHER_PATH + "?id=1", BAD, status().isBadRequest());
+        mvc.performGet(TEACHER_PATH + "?id=1&start_date=2015-01-01", BAD, status().isBadRequest());
+    }
+
+    @Test
+    public void readingSeriesWithInvalidAmountOfPeriods_shouldReturn400() throws Exception {
+        mvc.performGet(TEACHER_PATH + "?id=1&periods=0", BAD, status().isBadRequest());
+        mvc.performGet(TEACHER_PATH + "?id=1&periods=121", BAD, status().isBadRequest());
+    }
+
+    @Test
+    public void readingSeriesWithInvalidDates_shouldReturn400() throws Exception {
+        mvc.performGet(TEACHER_PATH + "?id=1&start_date=2015-02-01&end_date=2015-01-01", BAD,
+                status().isBadRequest());
+        mvc.performGet(TEACHER_PATH + "?id=1&start_date=2015-01-01&end_date=2025-01-02", BAD,
+                status().isBadRequest());
+        mvc.performGet(TEACHER_PATH + "?id=1&start_date=January&end_date=2015-02-01", BAD,
+                status().isBadRequest());
+    }
+
+    @Test
+    public void readingSeriesWithInvalidIds_shouldReturn400() throws Exception {
+        mvc.performGet(TEACHER_PATH + "?id=one&periods=2", BAD, status().isBadRequest());
+    }
+
+    @Test
+    public void readingSeriesForNonExistentIds_shouldReturn404() throws Exception {
+        mvc.performGet(TEACHER_PATH + "?id=" + NEW_TEACHER_ID + "&periods=2", BAD, status().isNotFound());
+        mvc.performGet(CUSTOMER_PATH + "?id=" + NEW_CUSTOMER_ID + "&periods=2", BAD, status().isNotFound());
+    }
+
+    // PRIVATE
+
+    private List<TableReport> readSeries(String path) throws Exception {
+        return mvc.performGet(path, OK)
+                .map(Unchecked.function(this::readReports))
+                .orElseThrow(() -> new AssertionError("Successful read should return reports"));
+    }
+
+    private List<TableReport> readReports(MvcResult result) throws IOException {
+        return MVC.from(result).to(LIST_OF_REPORTS);
+    }
+
+    private ValidLessonDTO lessonAt(LocalDate date) {
+        return ValidLessonDTO.stepBuilder()
+                .groupIdWithTeacher(OLD_GROUP_ID, OLD_TEACHER_ID)
+                .startTime(Time.getDefault().from(date).toEpochMillis())
+                .length(LESSON_LENGTH)
+                .id(NEW_LESSON_ID)
+                .build();
+    }
+
+    /**
+     * The teacher of the old group is the old teacher, whose hourly and academic wages are the same
+     */
+    private BigDecimal lessonCost() {
+        boolean usesHourlyWage = Fake.Boolean(OLD_GROUP_ID);
+        return Fake.wage(OLD_TEACHER_ID).multiply(BigDecimal.valueOf(LESSON_LENGTH))
+                .divide(BigDecimal.valueOf(usesHourlyWage ? 60 : 45), BigDecimal.ROUND_HALF_EVEN);
+    }
+
+    private static final String TEACHER_PATH = "/timestar/api/v2/lesson/table/report/teacher/series";
+    private static final String CUSTOMER_PATH = "/timestar/api/v2/lesson/table/report/customer/series";
+
+    private static final int LESSON_LENGTH = 45;
+
+    private static final TypeReference<List<TableReport>> LIST_OF_REPORTS = new TypeReference<List<TableReport>>() {};
+
+}
@@ -0,0 +1,166 @@
+package com.superum.api.v2;
+
+import com.superum.api.v2.lesson.ValidLessonDTO;
+import com.superum.api.v2.table.TableRollup;
+import com.superum.api.v2.teacher.FullTeacherDTO;
+import com.superum.config.SchemaMigrator;
+import com.superum.helper.Fakes;
+import com.superum.helper.IntegrationTestEnvironment;
+import org.jooq.DSLContext;
+import org.jooq.Record;
+import org.jooq.lambda.Seq;
+import org.jooq.lambda.tuple.Tuple;
+import org.jooq.lambda.tuple.Tuple2;
+import org.jooq.lambda.tuple.Tuple3;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.context.transaction.TransactionConfiguration;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.superum.helper.TestConstants.TEST_PARTITION;
+import static eu.goodlike.libraries.spring.mockmvc.HttpResult.OK;
+import static eu.goodlike.libraries.spring.mockmvc.HttpResult.OK_NO_BODY;
+import static org.junit.Assert.*;
+import static timestar_v2.Keys.LESSON_IBFK_1;
+import static timestar_v2.Keys.LESSON_IBFK_2;
+import static timestar_v2.Tables.*;
+
+/**
+ * <pre>
+ * Compares LESSON_TABLE_ROLLUP with sums which are calculated directly from the lessons, after the backfill of the
+ * migration and after every kind of command which refreshes the rollup
+ * </pre>
+ */
+@Transactional
+@TransactionConfiguration(defaultRollback = true)
+public class TableRollupIT extends IntegrationTestEnvironment {
+
+    @Test
+    public void backfill_shouldMatchLessons() throws IOException {
+        sql.deleteFrom(LESSON_TABLE_ROLLUP).execute();
+
+        backfillStatements().forEach(sql::execute);
+
+        assertRollupMatchesLessons();
+    }
+
+    @Test
+    public void creatingLesson_shouldMatchLessons() throws Exception {
+        ValidLessonDTO lesson = Fakes.lesson(NEW_LESSON_ID, OLD_GROUP_ID, OLD_TEACHER_ID).withoutId();
+
+        mvc.performPost(LESSON_PATH, lesson, OK);
+
+        assertRollupMatchesLessons();
+    }
+
+    @Test
+    public void updatingLesson_shouldMatchLessons() throws Exception {
+        ValidLessonDTO lesson = Fakes.lesson(NEW_LESSON_ID, OLD_GROUP_ID, OLD_TEACHER_ID).withId(OLD_LESSON_ID);
+
+        mvc.performPut(LESSON_PATH, lesson, OK_NO_BODY);
+
+        assertRollupMatchesLessons();
+    }
+
+    @Test
+    public void deletingLesson_shouldMatchLessons() throws Exception {
+        ValidLessonDTO lesson = db.insertValidLesson(Fakes.lesson(NEW_LESSON_ID, OLD_GROUP_ID, OLD_TEACHER_ID));
+
+        mvc.performDelete(LESSON_PATH + lesson.getId(), OK_NO_BODY);
+
+        assertRollupMatchesLessons();
+    }
+
+    @Test
+    public void changingTeacherWage_shouldMatchLessons() throws Exception {
+        FullTeacherDTO teacher = FullTeacherDTO.builder()
+                .id(OLD_TEACHER_ID)
+                .hourlyWage(new BigDecimal("31.4159"))
+                .academicWage(new BigDecimal("27.1828"))
+                .build();
+
+        mvc.performPut(TEACHER_PATH, teacher, OK_NO_BODY);
+
+        assertRollupMatchesLessons();
+    }
+
+    // PRIVATE
+
+    @Autowired
+    private DSLContext sql;
+
+    private List<String> backfillStatements() throws IOException {
+        String script = StreamUtils.copyToString(new ClassPathResource(ROLLUP_MIGRATION).getInputStream(),
+                StandardCharsets.UTF_8);
+        // CREATE TABLE would commit the test transaction
+        return Seq.seq(SchemaMigrator.statements(script))
+                .filter(statement -> !statement.toUpperCase().startsWith("CREATE"))
+                .toList();
+    }
+
+    /**
+     * The expected sums are calculated in Java from every lesson of the partition, without using any SQL aggregation
+     */
+    private void assertRollupMatchesLessons() {
+        Map<Tuple3<Integer, Integer, Long>, Tuple2<Integer, BigDecimal>> expected = new HashMap<>();
+        for (Record lesson : sql.select(LESSON.TEACHER_ID, GROUP_OF_STUDENTS.CUSTOMER_ID, LESSON.TIME_OF_START,
+                LESSON.DURATION_IN_MINUTES, GROUP_OF_STUDENTS.USE_HOURLY_WAGE,
+                TEACHER.HOURLY_WAGE, TEACHER.ACADEMIC_WAGE)
+                .from(LESSON)
+                .join(TEACHER).onKey(LESSON_IBFK_1)
+                .join(GROUP_OF_STUDENTS).onKey(LESSON_IBFK_2)
+                .where(LESSON.PARTITION_ID.eq(TEST_PARTITION))
+                .fetch()) {
+            boolean useHourlyWage = lesson.getValue(GROUP_OF_STUDENTS.USE_HOURLY_WAGE);
+            BigDecimal wage = useHourlyWage
+                    ? lesson.getValue(TEACHER.HOURLY_WAGE)
+                    : lesson.getValue(TEACHER.ACADEMIC_WAGE);
+            if (wage == null)
+                continue;
+
+            int minutes = lesson.getValue(LESSON.DURATION_IN_MINUTES);
+            BigDecimal paddedCost = wage.multiply(BigDecimal.valueOf(minutes * (useHourlyWage ? 3 : 4)));
+            Tuple3<Integer, Integer, Long> key = Tuple.tuple(lesson.getValue(LESSON.TEACHER_ID),
+                    lesson.getValue(GROUP_OF_STUDENTS.CUSTOMER_ID),
+                    TableRollup.dayOf(lesson.getValue(LESSON.TIME_OF_START)));
+            expected.merge(key, Tuple.tuple(minutes, paddedCost),
+                    (sum, cost) -> Tuple.tuple(sum.v1 + cost.v1, sum.v2.add(cost.v2)));
+        }
+        assertFalse("Test data should contain lessons with known wages", expected.isEmpty());
+
+        Map<Tuple3<Integer, Integer, Long>, Tuple2<Integer, BigDecimal>> rollup = new HashMap<>();
+        for (Record cell : sql.selectFrom(LESSON_TABLE_ROLLUP)
+                .where(LESSON_TABLE_ROLLUP.PARTITION_ID.eq(TEST_PARTITION))
+                .fetch()) {
+            Tuple3<Integer, Integer, Long> key = Tuple.tuple(cell.getValue(LESSON_TABLE_ROLLUP.TEACHER_ID),
+                    cell.getValue(LESSON_TABLE_ROLLUP.CUSTOMER_ID), cell.getValue(LESSON_TABLE_ROLLUP.DAY_OF_START));
+            Tuple2<Integer, BigDecimal> sameCell = rollup.put(key, Tuple.tuple(
+                    cell.getValue(LESSON_TABLE_ROLLUP.DURATION_IN_MINUTES),
+                    cell.getValue(LESSON_TABLE_ROLLUP.PADDED_COST)));
+            assertNull("Rollup should have a single row for every cell: " + key, sameCell);
+        }
+
+        assertEquals("Rollup should have the same cells as lessons", expected.keySet(), rollup.keySet());
+        expected.forEach((key, sums) -> {
+            Tuple2<Integer, BigDecimal> rollupSums = rollup.get(key);
+            assertEquals("Minutes of cell " + key + " should match lessons", sums.v1, rollupSums.v1);
+            assertEquals("Padded cost of cell " + key + " should match lessons, expected " + sums.v2 + ", found " +
+                    rollupSums.v2, 0, sums.v2.compareTo(rollupSums.v2));
+        });
+    }
+
+    private static final String LESSON_PATH = "/timestar/api/v2/lesson/";
+    private static final String TEACHER_PATH = "/timestar/api/v2/teacher/";
+
+    private static final String ROLLUP_MIGRATION = "sql/migration/V5__Lesson_table_rollup.sql";
+
+}
@@ -0,0 +1,231 @@
+package com.superum.api.v2;
+
+import com.superum.api.v2.customer.ValidCustomerCommandService;
+import com.superum.api.v2.customer.ValidCustomerDTO;
+import com.superum.api.v2.group.ValidGroupCommandService;
+import com.superum.api.v2.group.ValidGroupDTO;
+import com.superum.api.v2.lesson.ValidLessonCommandService;
+import com.superum.api.v2.lesson.ValidLessonDTO;
+import com.superum.api.v2.table.TableVersions;
+import com.superum.api.v2.teacher.FullTeacherDTO;
+import com.superum.api.v2.teacher.ValidTeacherCommandService;
+import com.superum.config.PartitionRoutingDataSource;
+import com.superum.helper.IntegrationTestEnvironment;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.transaction.TransactionConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+import static com.superum.config.PartitionRoutingDataSource.PRIMARY_SHARD;
+import static com.superum.helper.TestConstants.TEST_PARTITION;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * <pre>
+ * Versions are only incremented when a transaction commits, and the test transaction is always rolled back, so
+ * changes are made in their own transactions, which are committed or rolled back; versions and ETags are read
+ * outside of any transaction, so that they are not read from the snapshot of the test transaction
+ *
+ * Committed changes would keep the test partition locked for the rows of the test transaction, so they are made in
+ * a partition of their own; its rows are committed directly to the primary database, and deleted after every test
+ * </pre>
+ */
+@Transactional
+@TransactionConfiguration(defaultRollback = true)
+public class TableVersionsIT extends IntegrationTestEnvironment {
+
+    @Before
+    public void insertVersionedPartition() {
+        JdbcTemplate primary = primary();
+        primary.update("INSERT INTO partitions (id, name) VALUES (?, ?)",
+                VERSIONED_PARTITION, VERSIONED_PARTITION_NAME);
+        primary.update("INSERT INTO customer (id, partition_id, created_at, updated_at, start_date, name) " +
+                "VALUES (?, ?, 0, 0, '2015-01-01', 'Customer')", VERSIONED_ID, VERSIONED_PARTITION);
+        primary.update("INSERT INTO teacher (id, partition_id, email, created_at, updated_at, payment_day, " +
+                "hourly_wage, academic_wage, name) VALUES (?, ?, 'versions@test.com', 0, 0, 15, 10, 10, 'Teacher')",
+                VERSIONED_ID, VERSIONED_PARTITION);
+        primary.update("INSERT INTO group_of_students (id, partition_id, customer_id, teacher_id, use_hourly_wage, " +
+                "language_level, name) VALUES (?, ?, ?, ?, 1, 'A1', 'Group')",
+                VERSIONED_ID, VERSIONED_PARTITION, VERSIONED_ID, VERSIONED_ID);
+        primary.update("INSERT INTO lesson (id, partition_id, teacher_id, group_id, time_of_start, time_of_end, " +
+                "duration_in_minutes) VALUES (?, ?, ?, ?, 0, 2700000, 45)",
+                (long) VERSIONED_ID, VERSIONED_PARTITION, VERSIONED_ID, VERSIONED_ID);
+    }
+
+    @After
+    public void deleteVersionedPartition() {
+        JdbcTemplate primary = primary();
+        for (String table : VERSIONED_TABLES)
+            primary.update("DELETE FROM " + table + " WHERE partition_id = ?", VERSIONED_PARTITION);
+        primary.update("DELETE FROM partitions WHERE id = ?", VERSIONED_PARTITION);
+    }
+
+    @Test
+    public void sameParameters_shouldHaveSameEtag() {
+        assertEquals(tableVersions.etag(TEST_PARTITION, "data", 1, 25L),
+                tableVersions.etag(TEST_PARTITION, "data", 1, 25L));
+    }
+
+    @Test
+    public void differentParameters_shouldHaveDifferentEtag() {
+        assertNotEquals(tableVersions.etag(TEST_PARTITION, "report", "teacher", "1,2"),
+                tableVersions.etag(TEST_PARTITION, "report", "teacher,1", "2"));
+    }
+
+    @Test
+    public void changeInTransaction_shouldNotChangeVersionBeforeCommit() {
+        long version = tableVersions.version(TEST_PARTITION);
+
+        tableVersions.changed(TEST_PARTITION);
+
+        assertEquals(version, tableVersions.version(TEST_PARTITION));
+    }
+
+    @Test
+    public void committedLessonChange_shouldChangeVersion() {
+        assertChanged(() -> validLessonCommandService.update(lessonChange(), VERSIONED_PARTITION));
+    }
+
+    @Test
+    public void rolledBackLessonChange_shouldNotChangeVersion() {
+        assertNotChanged(() -> validLessonCommandService.update(lessonChange(), VERSIONED_PARTITION));
+    }
+
+    @Test
+    public void committedTeacherChange_shouldChangeVersion() {
+        assertChanged(() -> validTeacherCommandService.update(teacherChange(), VERSIONED_PARTITION));
+    }
+
+    @Test
+    public void rolledBackTeacherChange_shouldNotChangeVersion() {
+        assertNotChanged(() -> validTeacherCommandService.update(teacherChange(), VERSIONED_PARTITION));
+    }
+
+    @Test
+    public void committedGroupChange_shouldChangeVersion() {
+        assertChanged(() -> validGroupCommandService.update(groupChange(), VERSIONED_PARTITION));
+    }
+
+    @Test
+    public void rolledBackGroupChange_shouldNotChangeVersion() {
+        assertNotChanged(() -> validGroupCommandService.update(groupChange(), VERSIONED_PARTITION));
+    }
+
+    @Test
+    public void committedCustomerChange_shouldChangeVersion() {
+        assertChanged(() -> validCustomerCommandService.update(customerChange(), VERSIONED_PARTITION));
+    }
+
+    @Test
+    public void rolledBackCustomerChange_shouldNotChangeVersion() {
+        assertNotChanged(() -> validCustomerCommandService.update(customerChange(), VERSIONED_PARTITION));
+    }
+
+    // PRIVATE
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    @Autowired
+    private ValidLessonCommandService validLessonCommandService;
+
+    @Autowired
+    private ValidTeacherCommandService validTeacherCommandService;
+
+    @Autowired
+    private ValidGroupCommandService validGroupCommandService;
+
+    @Autowired
+    private ValidCustomerCommandService validCustomerCommandService;
+
+    @Autowired
+    private PartitionRoutingDataSource partitionRoutingDataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Every change of a transaction increments the version once, no matter how many tables it changed
+     */
+    private void assertChanged(Runnable change) {
+        long version = outsideTransaction(() -> tableVersions.version(VERSIONED_PARTITION));
+        String etag = outsideTransaction(() -> tableVersions.etag(VERSIONED_PARTITION, ETAG_PARAMETER));
+
+        inTransaction(change, false);
+
+        assertEquals("Committed change should increment the version", version + 1,
+                (long) outsideTransaction(() -> tableVersions.version(VERSIONED_PARTITION)));
+        assertNotEquals("Committed change should change the ETag", etag,
+                outsideTransaction(() -> tableVersions.etag(VERSIONED_PARTITION, ETAG_PARAMETER)));
+    }
+
+    private void assertNotChanged(Runnable change) {
+        long version = outsideTransaction(() -> tableVersions.version(VERSIONED_PARTITION));
+        String etag = outsideTransaction(() -> tableVersions.etag(VERSIONED_PARTITION, ETAG_PARAMETER));
+
+        inTransaction(change, true);
+
+        assertEquals("Rolled back change should not change the version", version,
+                (long) outsideTransaction(() -> tableVersions.version(VERSIONED_PARTITION)));
+        assertEquals("Rolled back change should not change the ETag", etag,
+                outsideTransaction(() -> tableVersions.etag(VERSIONED_PARTITION, ETAG_PARAMETER)));
+    }
+
+    private void inTransaction(Runnable change, boolean rollback) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        template.execute(status -> {
+            change.run();
+            if (rollback)
+                status.setRollbackOnly();
+            return null;
+        });
+    }
+
+    private <T> T outsideTransaction(Supplier<T> action) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_NOT_SUPPORTED);
+        return template.execute(status -> action.get());
+    }
+
+    private JdbcTemplate primary() {
+        return new JdbcTemplate(partitionRoutingDataSource.poolOf(PRIMARY_SHARD));
+    }
+
+    private static ValidLessonDTO lessonChange() {
+        return ValidLessonDTO.builder().id((long) VERSIONED_ID).comment(CHANGED).build();
+    }
+
+    private static FullTeacherDTO teacherChange() {
+        return FullTeacherDTO.builder().id(VERSIONED_ID).name(CHANGED).build();
+    }
+
+    private static ValidGroupDTO groupChange() {
+        return ValidGroupDTO.builder().id(VERSIONED_ID).name(CHANGED).build();
+    }
+
+    private static ValidCustomerDTO customerChange() {
+        return ValidCustomerDTO.builder().id(VERSIONED_ID).name(CHANGED).build();
+    }
+
+    private static final int VERSIONED_PARTITION = 1000002;
+    private static final String VERSIONED_PARTITION_NAME = "Partition with versions";
+    private static final int VERSIONED_ID = 1000002;
+
+    // children first, because of foreign keys
+    private static final String[] VERSIONED_TABLES = {"lesson_table_rollup", "lesson_table_version", "lesson",
+            "group_of_students", "teacher", "customer"};
+
+    private static final String CHANGED = "Changed";
+    private static final String ETAG_PARAMETER = "data";
+
+}
@@ -14,6 +14,7 @@ import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
 
 import static eu.goodlike.libraries.spring.mockmvc.HttpResult.*;
@@ -140,6 +141,49 @@ public class ValidCustomerControllerIT extends IntegrationTestEnvironment {
         assertNotInDatabase(NEW_CUSTOMER_ID);
     }
 
+    @Test
+    public void insertingCustomerBatch_shouldCreateAllCustomers() throws Exception {
+        List<ValidCustomerDTO> customers = Arrays.asList(Fakes.customer(NEW_CUSTOMER_ID).withoutId(),
+                Fakes.customer(NEW_CUSTOMER_ID + 1).withoutId());
+
+        List<ValidCustomerDTO> insertedCustomers = mvc.performPost(DEFAULT_PATH + "batch", customers, OK)
+                .map(Unchecked.function(this::readCustomers))
+                .orElseThrow(() -> new Exception("Successful insertion should return customers!"));
+
+        assertEquals("Every customer should be inserted", customers.size(), insertedCustomers.size());
+        for (int i = 0; i < customers.size(); i++) {
+            ValidCustomerDTO insertedCustomer = insertedCustomers.get(i);
+            assertEquals("Inserted customer should be equal to the original (except id), in the same order",
+                    customers.get(i).withId(insertedCustomer.getId()), insertedCustomer);
+            assertInDatabase(insertedCustomer);
+        }
+    }
+
+    @Test
+    public void insertingCustomerBatchWithId_shouldReturn400AndCreateNone() throws Exception {
+        List<ValidCustomerDTO> customers = Arrays.asList(Fakes.customer(NEW_CUSTOMER_ID).withoutId(),
+                Fakes.customer(NEW_CUSTOMER_ID + 1));
+
+        mvc.performPost(DEFAULT_PATH + "batch", customers, BAD, status().isBadRequest());
+
+        int count = mvc.performGet(DEFAULT_PATH + "count", OK)
+                .map(Unchecked.function(this::readCount))
+                .orElseThrow(() -> new Exception("Successful read should return an integer!"));
+        assertEquals("No customers should have been inserted", 2, count);
+    }
+
+    @Test
+    public void deletingCustomerBatch_shouldDeleteAllCustomers() throws Exception {
+        ValidCustomerDTO customer = db.insertValidCustomer(Fakes.customer(NEW_CUSTOMER_ID));
+        ValidCustomerDTO otherCustomer = db.insertValidCustomer(Fakes.customer(NEW_CUSTOMER_ID + 1));
+
+        mvc.performPost(DEFAULT_PATH + "batch/delete", Arrays.asList(customer.getId(), otherCustomer.getId()),
+                OK_NO_BODY);
+
+        assertNotInDatabase(customer);
+        assertNotInDatabase(otherCustomer);
+    }
+
     @Test
     public void readingCustomerById_shouldReturnCustomer() throws Exception {
         ValidCustomerDTO customer = mvc.performGet(DEFAULT_PATH + OLD_CUSTOMER_ID, OK)
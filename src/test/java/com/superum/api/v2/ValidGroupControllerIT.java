@@ -1,12 +1,14 @@
 package com.superum.api.v2;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.superum.api.v2.group.GroupReassignmentDTO;
 import com.superum.api.v2.group.ValidGroupDTO;
 import com.superum.helper.DB;
 import com.superum.helper.Fakes;
 import com.superum.helper.IntegrationTestEnvironment;
 import eu.goodlike.libraries.spring.mockmvc.MVC;
 import eu.goodlike.test.Fake;
+import org.jooq.lambda.Seq;
 import org.jooq.lambda.Unchecked;
 import org.junit.Test;
 import org.springframework.test.context.transaction.TransactionConfiguration;
@@ -14,10 +16,12 @@ import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
 
 import static eu.goodlike.libraries.spring.mockmvc.HttpResult.*;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @Transactional
@@ -171,6 +175,62 @@ public class ValidGroupControllerIT extends IntegrationTestEnvironment {
         assertNotInDatabase(NEW_GROUP_ID);
     }
 
+    @Test
+    public void creatingGroupBatch_shouldCreateAllGroups() throws Exception {
+        List<ValidGroupDTO> groups = Arrays.asList(
+                Fakes.group(NEW_GROUP_ID, OLD_TEACHER_ID, OLD_CUSTOMER_ID).withoutId(),
+                Fakes.group(NEW_GROUP_ID + 1, OTHER_TEACHER_ID, OLD_CUSTOMER_ID).withoutId());
+
+        List<ValidGroupDTO> insertedGroups = mvc.performPost(DEFAULT_PATH + "batch", groups, OK)
+                .map(Unchecked.function(this::readGroups))
+                .orElseThrow(() -> new Exception("Successful insertion should return groups!"));
+
+        assertEquals("Every group should be inserted", groups.size(), insertedGroups.size());
+        for (int i = 0; i < groups.size(); i++) {
+            ValidGroupDTO insertedGroup = insertedGroups.get(i);
+            assertEquals("Inserted group should be equal to the original (except id), in the same order",
+                    groups.get(i).withId(insertedGroup.getId()), insertedGroup);
+            assertInDatabase(insertedGroup);
+        }
+    }
+
+    @Test
+    public void creatingGroupBatchWithNonExistentTeacherId_shouldReturn404AndCreateNone() throws Exception {
+        ValidGroupDTO group = Fakes.group(NEW_GROUP_ID, OLD_TEACHER_ID, OLD_CUSTOMER_ID).withoutId();
+        List<ValidGroupDTO> groups = Arrays.asList(group,
+                Fakes.group(NEW_GROUP_ID + 1, NEW_TEACHER_ID, OLD_CUSTOMER_ID).withoutId());
+
+        mvc.performPost(DEFAULT_PATH + "batch", groups, BAD, status().isNotFound());
+
+        List<ValidGroupDTO> teacherGroups = mvc.performGet(DEFAULT_PATH + "teacher/" + OLD_TEACHER_ID, OK)
+                .map(Unchecked.function(this::readGroups))
+                .orElseThrow(() -> new Exception("Successful read should return groups!"));
+        assertFalse("No groups should have been inserted", Seq.seq(teacherGroups)
+                .anyMatch(teacherGroup -> teacherGroup.getName().equals(group.getName())));
+    }
+
+    @Test
+    public void deletingGroupBatch_shouldDeleteAllGroups() throws Exception {
+        ValidGroupDTO group = db.insertValidGroup(Fakes.group(NEW_GROUP_ID, OLD_TEACHER_ID, OLD_CUSTOMER_ID));
+        ValidGroupDTO otherGroup = db.insertValidGroup(Fakes.group(NEW_GROUP_ID + 1, OLD_TEACHER_ID, OLD_CUSTOMER_ID));
+
+        mvc.performPost(DEFAULT_PATH + "batch/delete", Arrays.asList(group.getId(), otherGroup.getId()), OK_NO_BODY);
+
+        assertNotInDatabase(group);
+        assertNotInDatabase(otherGroup);
+    }
+
+    @Test
+    public void deletingGroupBatchWithStillUsedId_shouldReturn400AndDeleteNone() throws Exception {
+        ValidGroupDTO group = db.insertValidGroup(Fakes.group(NEW_GROUP_ID, OLD_TEACHER_ID, OLD_CUSTOMER_ID));
+
+        mvc.performPost(DEFAULT_PATH + "batch/delete", Arrays.asList(group.getId(), OLD_GROUP_ID),
+                BAD, status().isBadRequest());
+
+        assertInDatabase(group);
+        assertInDatabase(OLD_GROUP_ID);
+    }
+
     @Test
     public void readingGroupById_shouldReturnGroup() throws Exception {
         ValidGroupDTO group = mvc.performGet(DEFAULT_PATH + OLD_GROUP_ID, OK)
@@ -185,6 +245,26 @@ public class ValidGroupControllerIT extends IntegrationTestEnvironment {
         mvc.performGet(DEFAULT_PATH + NEW_GROUP_ID, BAD, status().isNotFound());
     }
 
+    @Test
+    public void changingGroupTeacher_shouldMoveLessonsOnlyAfterCommit() throws Exception {
+        ValidGroupDTO group = Fakes.group(OLD_GROUP_ID, OTHER_TEACHER_ID, OLD_CUSTOMER_ID).withId(OLD_GROUP_ID);
+
+        mvc.performPut(DEFAULT_PATH, group, OK_NO_BODY);
+
+        GroupReassignmentDTO reassignment = mvc.performGet(DEFAULT_PATH + OLD_GROUP_ID + "/reassignment", OK)
+                .map(Unchecked.function(this::readReassignment))
+                .orElseThrow(() -> new Exception("Successful read should return progress!"));
+
+        assertEquals("Progress should be for the new teacher", OTHER_TEACHER_ID, reassignment.getTeacherId());
+        assertEquals("The lesson of the group should not be moved until the update commits",
+                1, reassignment.getRemainingLessons());
+    }
+
+    @Test
+    public void readingReassignmentForNonExistentGroup_shouldReturn404() throws Exception {
+        mvc.performGet(DEFAULT_PATH + NEW_GROUP_ID + "/reassignment", BAD, status().isNotFound());
+    }
+
     @Test
     public void readingAllGroups_shouldReturnGroups() throws Exception {
         List<ValidGroupDTO> groups = mvc.performGet(DEFAULT_PATH, OK)
@@ -258,6 +338,10 @@ public class ValidGroupControllerIT extends IntegrationTestEnvironment {
         return MVC.from(result).to(ValidGroupDTO.class);
     }
 
+    private GroupReassignmentDTO readReassignment(MvcResult result) throws IOException {
+        return MVC.from(result).to(GroupReassignmentDTO.class);
+    }
+
     private List<ValidGroupDTO> readGroups(MvcResult result) throws IOException {
         return MVC.from(result).to(LIST_OF_GROUPS);
     }
@@ -279,6 +363,7 @@ public class ValidGroupControllerIT extends IntegrationTestEnvironment {
     }
 
     private static final String DEFAULT_PATH = "/timestar/api/v2/group/";
+    private static final int OTHER_TEACHER_ID = 2;
 
     private static final TypeReference<List<ValidGroupDTO>> LIST_OF_GROUPS = new TypeReference<List<ValidGroupDTO>>() {};
 
@@ -7,6 +7,7 @@ import com.superum.helper.Fakes;
 import com.superum.helper.IntegrationTestEnvironment;
 import eu.goodlike.libraries.spring.mockmvc.MVC;
 import eu.goodlike.test.Fake;
+import org.jooq.lambda.Seq;
 import org.jooq.lambda.Unchecked;
 import org.junit.Test;
 import org.springframework.test.context.transaction.TransactionConfiguration;
@@ -14,12 +15,14 @@ import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.function.BiPredicate;
 
 import static eu.goodlike.libraries.spring.mockmvc.HttpResult.*;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @Transactional
@@ -201,6 +204,88 @@ public class ValidStudentControllerIT extends IntegrationTestEnvironment {
         assertNotInDatabase(NEW_STUDENT_ID);
     }
 
+    @Test
+    public void insertingStudentBatch_shouldCreateAllStudents() throws Exception {
+        List<ValidStudentDTO> students = Arrays.asList(Fakes.student(NEW_STUDENT_ID, OLD_CUSTOMER_ID).withoutId(),
+                Fakes.student(NEW_STUDENT_ID + 1, OLD_CUSTOMER_ID).withoutId());
+
+        List<ValidStudentDTO> insertedStudents = mvc.performPost(DEFAULT_PATH + "batch", students, OK)
+                .map(Unchecked.function(this::readStudents))
+                .orElseThrow(() -> new Exception("Successful insertion should return students!"));
+
+        assertEquals("Every student should be inserted", students.size(), insertedStudents.size());
+        for (int i = 0; i < students.size(); i++) {
+            ValidStudentDTO insertedStudent = insertedStudents.get(i);
+            assertEquals("Inserted student should be equal to the original (except id and code), in the same order",
+                    students.get(i).withId(insertedStudent.getId()).withCode(insertedStudent.getCode()),
+                    insertedStudent);
+            assertInDatabase(insertedStudent);
+        }
+    }
+
+    @Test
+    public void insertingStudentBatchWithNonExistentCustomerId_shouldReturn404AndCreateNone() throws Exception {
+        ValidStudentDTO student = Fakes.student(NEW_STUDENT_ID, OLD_CUSTOMER_ID).withoutId();
+        List<ValidStudentDTO> students = Arrays.asList(student,
+                Fakes.student(NEW_STUDENT_ID + 1, NEW_CUSTOMER_ID).withoutId());
+
+        mvc.performPost(DEFAULT_PATH + "batch", students, BAD, status().isNotFound());
+
+        List<ValidStudentDTO> customerStudents = mvc.performGet(DEFAULT_PATH + "customer/" + OLD_CUSTOMER_ID, OK)
+                .map(Unchecked.function(this::readStudents))
+                .orElseThrow(() -> new Exception("Successful read should return students!"));
+        assertFalse("No students should have been inserted", Seq.seq(customerStudents)
+                .anyMatch(customerStudent -> customerStudent.getEmail().equals(student.getEmail())));
+    }
+
+    @Test
+    public void updatingStudentBatch_shouldUpdateAllStudents() throws Exception {
+        ValidStudentDTO otherStudent = db.insertValidStudent(Fakes.student(NEW_STUDENT_ID, OLD_CUSTOMER_ID));
+        List<ValidStudentDTO> students = Arrays.asList(
+                Fakes.student(NEW_STUDENT_ID + 1, OLD_CUSTOMER_ID).withId(OLD_STUDENT_ID),
+                Fakes.student(NEW_STUDENT_ID + 2, OLD_CUSTOMER_ID).withId(otherStudent.getId()));
+
+        mvc.performPut(DEFAULT_PATH + "batch", students, OK_NO_BODY);
+
+        students.forEach(student -> assertInDatabase(student, this::customEquals));
+    }
+
+    @Test
+    public void updatingStudentBatchWithNonExistentId_shouldReturn404AndUpdateNone() throws Exception {
+        ValidStudentDTO oldStudent = db.readValidStudent(OLD_STUDENT_ID)
+                .orElseThrow(() -> new Exception("Old student should exist!"));
+        List<ValidStudentDTO> students = Arrays.asList(
+                Fakes.student(NEW_STUDENT_ID, OLD_CUSTOMER_ID).withId(OLD_STUDENT_ID),
+                Fakes.student(NEW_STUDENT_ID + 1, OLD_CUSTOMER_ID).withId(NEW_STUDENT_ID + 1));
+
+        mvc.performPut(DEFAULT_PATH + "batch", students, BAD, status().isNotFound());
+
+        assertInDatabase(oldStudent);
+    }
+
+    @Test
+    public void deletingStudentBatch_shouldDeleteAllStudents() throws Exception {
+        ValidStudentDTO student = db.insertValidStudent(Fakes.student(NEW_STUDENT_ID, OLD_CUSTOMER_ID));
+        ValidStudentDTO otherStudent = db.insertValidStudent(Fakes.student(NEW_STUDENT_ID + 1, OLD_CUSTOMER_ID));
+
+        mvc.performPost(DEFAULT_PATH + "batch/delete", Arrays.asList(student.getId(), otherStudent.getId()),
+                OK_NO_BODY);
+
+        assertNotInDatabase(student);
+        assertNotInDatabase(otherStudent);
+    }
+
+    @Test
+    public void deletingStudentBatchWithStillUsedId_shouldReturn400AndDeleteNone() throws Exception {
+        ValidStudentDTO student = db.insertValidStudent(Fakes.student(NEW_STUDENT_ID, OLD_CUSTOMER_ID));
+
+        mvc.performPost(DEFAULT_PATH + "batch/delete", Arrays.asList(student.getId(), OLD_STUDENT_ID),
+                BAD, status().isBadRequest());
+
+        assertInDatabase(student);
+        assertInDatabase(OLD_STUDENT_ID);
+    }
+
     @Test
     public void readingStudentById_shouldReturnStudent() throws Exception {
         ValidStudentDTO readStudent = mvc.performGet(DEFAULT_PATH + OLD_STUDENT_ID, OK)
@@ -5,6 +5,7 @@ import com.superum.api.v2.teacher.FullTeacherDTO;
 import com.superum.helper.DB;
 import com.superum.helper.Fakes;
 import com.superum.helper.IntegrationTestEnvironment;
+import com.superum.helper.Page;
 import eu.goodlike.libraries.spring.mockmvc.MVC;
 import eu.goodlike.test.Fake;
 import org.jooq.lambda.Unchecked;
@@ -14,10 +15,13 @@ import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
 
 import static eu.goodlike.libraries.spring.mockmvc.HttpResult.*;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @Transactional
@@ -189,6 +193,44 @@ public class ValidTeacherControllerIT extends IntegrationTestEnvironment {
         assertNotInDatabase(NEW_TEACHER_ID);
     }
 
+    @Test
+    public void insertingTeacherBatch_shouldCreateAllTeachers() throws Exception {
+        List<FullTeacherDTO> teachers = Arrays.asList(Fakes.teacher(NEW_TEACHER_ID).withoutId(),
+                Fakes.teacher(NEW_TEACHER_ID + 1).withoutId());
+
+        List<FullTeacherDTO> insertedTeachers = mvc.performPost(DEFAULT_PATH + "batch", teachers, OK)
+                .map(Unchecked.function(this::readTeachers))
+                .orElseThrow(() -> new Exception("Successful insertion should return teachers!"));
+
+        assertEquals("Every teacher should be inserted", teachers.size(), insertedTeachers.size());
+        for (int i = 0; i < teachers.size(); i++) {
+            FullTeacherDTO insertedTeacher = insertedTeachers.get(i);
+            assertEquals("Inserted teacher should be equal to the original (except id), in the same order",
+                    teachers.get(i).withId(insertedTeacher.getId()), insertedTeacher);
+            assertInDatabase(insertedTeacher);
+        }
+    }
+
+    @Test
+    public void insertingTeacherBatchWithDuplicateEmail_shouldReturn409AndCreateNone() throws Exception {
+        List<FullTeacherDTO> teachers = Arrays.asList(Fakes.teacher(NEW_TEACHER_ID).withoutId(),
+                Fakes.teacher(OLD_TEACHER_ID).withoutId());
+
+        mvc.performPost(DEFAULT_PATH + "batch", teachers, BAD, status().isConflict());
+
+        assertTeacherCount("No teachers should have been inserted", 2);
+    }
+
+    @Test
+    public void insertingTeacherBatchWithSameEmailTwice_shouldReturn409AndCreateNone() throws Exception {
+        List<FullTeacherDTO> teachers = Arrays.asList(Fakes.teacher(NEW_TEACHER_ID).withoutId(),
+                Fakes.teacher(NEW_TEACHER_ID).withoutId());
+
+        mvc.performPost(DEFAULT_PATH + "batch", teachers, BAD, status().isConflict());
+
+        assertTeacherCount("No teachers should have been inserted", 2);
+    }
+
     @Test
     public void readingTeacherById_shouldReturnTeacher() throws Exception {
         FullTeacherDTO teacher = mvc.performGet(DEFAULT_PATH + OLD_TEACHER_ID, OK)
@@ -213,6 +255,26 @@ public class ValidTeacherControllerIT extends IntegrationTestEnvironment {
         teachers.forEach(this::assertInDatabase);
     }
 
+    @Test
+    public void readingTeachersWithCursor_shouldReturnSamePageAsPageNumber() throws Exception {
+        MvcResult firstPage = mvc.performGet(DEFAULT_PATH + "?per_page=1", OK)
+                .orElseThrow(() -> new AssertionError("Should return first page"));
+        String cursor = firstPage.getResponse().getHeader(Page.NEXT_CURSOR_HEADER);
+
+        assertNotNull("Full page should have a cursor for the next page", cursor);
+
+        List<FullTeacherDTO> teachersAfterCursor = mvc.performGet(DEFAULT_PATH + "?per_page=1&cursor=" + cursor, OK)
+                .map(Unchecked.function(this::readTeachers))
+                .orElseThrow(() -> new AssertionError("Should return empty list instead of null"));
+
+        List<FullTeacherDTO> teachersOnSecondPage = mvc.performGet(DEFAULT_PATH + "?per_page=1&page=2", OK)
+                .map(Unchecked.function(this::readTeachers))
+                .orElseThrow(() -> new AssertionError("Should return empty list instead of null"));
+
+        assertEquals("Cursor should point to the second page", teachersOnSecondPage, teachersAfterCursor);
+        assertNotEquals("Second page should not repeat the first one", readTeachers(firstPage), teachersAfterCursor);
+    }
+
     @Test
     public void countingAllTeachers_shouldReturn2() throws Exception {
         int count = mvc.performGet(DEFAULT_PATH + "count", OK)
@@ -232,6 +294,13 @@ public class ValidTeacherControllerIT extends IntegrationTestEnvironment {
         return MVC.from(result).to(LIST_OF_TEACHERS);
     }
 
+    private void assertTeacherCount(String message, int expectedCount) throws Exception {
+        int count = mvc.performGet(DEFAULT_PATH + "count", OK)
+                .map(Unchecked.function(this::readCount))
+                .orElseThrow(() -> new Exception("Successful read should return an integer!"));
+        assertEquals(message, expectedCount, count);
+    }
+
     private void assertNotInDatabase(FullTeacherDTO teacher) {
         assertNotInDatabase(DB::readFullTeacher, teacher.getId());
     }
@@ -0,0 +1,158 @@
+package com.superum.api.v2.table;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * <pre>
+ * Checks PaddedSum against adding the same values up as BigDecimal and dividing the result by the padding, which is
+ * what PaddedSum replaces; the results must be equal including the scale, so BigDecimal.equals() is used
+ *
+ * Values are given as unscaled longs, so that the amount of padding they contain is easy to see: 90 is exactly half
+ * of the padding, so a sum ending in 90 is a tie, which ROUND_HALF_EVEN rounds to the even neighbour
+ * </pre>
+ */
+public class PaddedSumTest {
+
+    @Test
+    public void emptySum_shouldBeZero() {
+        assertUnpadded(PaddedSum.empty());
+        assertUnpadded(PaddedSum.empty().add((BigDecimal) null));
+        assertUnpadded(PaddedSum.of(null));
+    }
+
+    @Test
+    public void nullValue_shouldBeIgnored() {
+        assertUnpadded(PaddedSum.of(value(540, 4)).add((BigDecimal) null), value(540, 4));
+    }
+
+    @Test
+    public void exactTies_shouldRoundToEven() {
+        for (long tie : TIES)
+            assertUnpadded(PaddedSum.of(value(tie, 4)), value(tie, 4));
+    }
+
+    @Test
+    public void valuesAroundTies_shouldRoundToNearest() {
+        for (long tie : TIES)
+            for (long unscaledValue = tie - 2; unscaledValue <= tie + 2; unscaledValue++)
+                assertUnpadded(PaddedSum.of(value(unscaledValue, 4)), value(unscaledValue, 4));
+    }
+
+    @Test
+    public void negativeValues_shouldRoundLikeBigDecimal() {
+        for (long unscaledValue = -1000; unscaledValue < 0; unscaledValue++)
+            assertUnpadded(PaddedSum.of(value(unscaledValue, 4)), value(unscaledValue, 4));
+    }
+
+    @Test
+    public void mixedSigns_shouldRoundLikeBigDecimal() {
+        assertUnpadded(PaddedSum.of(value(1000, 4)).add(value(-1090, 4)), value(1000, 4), value(-1090, 4));
+        assertUnpadded(PaddedSum.of(value(-360, 4)).add(value(90, 4)), value(-360, 4), value(90, 4));
+    }
+
+    @Test
+    public void mixedScales_shouldUseLargestScale() {
+        List<BigDecimal> values = Arrays.asList(value(27, 0), value(-9, 1), value(12345, 4), value(90, 2));
+
+        PaddedSum sum = PaddedSum.empty();
+        for (BigDecimal value : values)
+            sum.add(value);
+
+        assertUnpadded(sum, values.toArray(new BigDecimal[values.size()]));
+        assertEquals("Sum should have the largest scale of its values", 4, sum.unpadded().scale());
+    }
+
+    @Test
+    public void mergedSums_shouldEqualSumOfAllValues() {
+        PaddedSum first = PaddedSum.of(value(270, 4)).add(value(-45, 2));
+        PaddedSum second = PaddedSum.of(value(33, 1)).add(value(-1, 4));
+
+        assertUnpadded(first.add(second), value(270, 4), value(-45, 2), value(33, 1), value(-1, 4));
+    }
+
+    @Test
+    public void sumExceedingLong_shouldSwitchToBigDecimal() {
+        PaddedSum sum = PaddedSum.of(value(Long.MAX_VALUE - 10, 4)).add(value(Long.MAX_VALUE - 10, 4));
+
+        assertTrue("Sum should no longer fit into a long", sum.isOverflow());
+        assertUnpadded(sum, value(Long.MAX_VALUE - 10, 4), value(Long.MAX_VALUE - 10, 4));
+    }
+
+    @Test
+    public void negativeSumExceedingLong_shouldSwitchToBigDecimal() {
+        PaddedSum sum = PaddedSum.of(value(Long.MIN_VALUE + 90, 4)).add(value(-181, 4));
+
+        assertTrue("Sum should no longer fit into a long", sum.isOverflow());
+        assertUnpadded(sum, value(Long.MIN_VALUE + 90, 4), value(-181, 4));
+    }
+
+    @Test
+    public void rescaleExceedingLong_shouldSwitchToBigDecimal() {
+        PaddedSum sum = PaddedSum.of(value(Long.MAX_VALUE / 10, 0)).add(value(90, 4));
+
+        assertTrue("Rescaled sum should no longer fit into a long", sum.isOverflow());
+        assertUnpadded(sum, value(Long.MAX_VALUE / 10, 0), value(90, 4));
+    }
+
+    @Test
+    public void valueExceedingLong_shouldSwitchToBigDecimal() {
+        BigDecimal huge = new BigDecimal(BigInteger.valueOf(Long.MAX_VALUE).multiply(BigInteger.TEN), 4);
+        PaddedSum sum = PaddedSum.of(value(90, 4)).add(huge);
+
+        assertTrue("Sum should no longer fit into a long", sum.isOverflow());
+        assertUnpadded(sum, value(90, 4), huge);
+    }
+
+    @Test
+    public void valuesNearLongLimit_shouldStayLong() {
+        for (long unscaledValue : LONG_LIMITS) {
+            PaddedSum sum = PaddedSum.of(value(unscaledValue, 4));
+
+            assertFalse("Sum of a single long should fit into a long", sum.isOverflow());
+            assertUnpadded(sum, value(unscaledValue, 4));
+        }
+    }
+
+    @Test
+    public void sumAfterOverflow_shouldStayBigDecimal() {
+        PaddedSum sum = PaddedSum.of(value(Long.MAX_VALUE, 4)).add(value(Long.MAX_VALUE, 4))
+                .add(value(-Long.MAX_VALUE, 4)).add(value(-Long.MAX_VALUE, 4)).add(value(270, 4));
+
+        assertTrue("Sum should stay BigDecimal once it overflows", sum.isOverflow());
+        assertUnpadded(sum, value(Long.MAX_VALUE, 4), value(Long.MAX_VALUE, 4), value(-Long.MAX_VALUE, 4),
+                value(-Long.MAX_VALUE, 4), value(270, 4));
+    }
+
+    // PRIVATE
+
+    private static BigDecimal value(long unscaledValue, int scale) {
+        return BigDecimal.valueOf(unscaledValue, scale);
+    }
+
+    private static void assertUnpadded(PaddedSum sum, BigDecimal... values) {
+        BigDecimal padded = BigDecimal.ZERO;
+        for (BigDecimal value : values)
+            padded = padded.add(value);
+
+        assertEquals("Padded sum should equal BigDecimal sum", padded, sum.padded());
+        assertEquals("Unpadded sum should equal BigDecimal division",
+                padded.divide(PADDING, BigDecimal.ROUND_HALF_EVEN), sum.unpadded());
+    }
+
+    private static final BigDecimal PADDING = BigDecimal.valueOf(180);
+
+    private static final long[] TIES = {90, 270, -90, -270, 450, -450};
+    private static final long[] LONG_LIMITS = {
+            Long.MAX_VALUE, Long.MAX_VALUE - 90, Long.MIN_VALUE, Long.MIN_VALUE + 90
+    };
+
+}
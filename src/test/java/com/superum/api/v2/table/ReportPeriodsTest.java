@@ -0,0 +1,60 @@
+package com.superum.api.v2.table;
+
+import com.superum.helper.TimeResolver;
+import eu.goodlike.libraries.joda.time.Time;
+import org.joda.time.LocalDate;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * <pre>
+ * Checks that both kinds of rules resolve the same periods as TimeResolver would for a single date; the periods
+ * themselves are checked by TimeResolverTest
+ * </pre>
+ */
+public class ReportPeriodsTest {
+
+    @Test
+    public void lastPeriods_shouldEndWithCurrentPeriod() {
+        List<TimeResolver> periods = ReportPeriods.last(COUNT).forPaymentDay(PAYMENT_DAY);
+
+        assertEquals("There should be as many periods as requested", COUNT, periods.size());
+        assertSamePeriod(TimeResolver.from(PAYMENT_DAY), periods.get(COUNT - 1));
+        assertSamePeriod(TimeResolver.from(PAYMENT_DAY, LocalDate.now(Time.defaultTimeZone()).minusMonths(COUNT - 1)),
+                periods.get(0));
+    }
+
+    @Test
+    public void periodsBetweenDates_shouldCoverBothDates() {
+        List<TimeResolver> periods = ReportPeriods.between(FIRST_DATE, LAST_DATE).forPaymentDay(PAYMENT_DAY);
+
+        assertEquals("Periods ending on Feb 15, Mar 15 and Apr 15 should be returned", 3, periods.size());
+        assertSamePeriod(TimeResolver.from(PAYMENT_DAY, FIRST_DATE), periods.get(0));
+        assertSamePeriod(TimeResolver.from(PAYMENT_DAY, LAST_DATE), periods.get(2));
+    }
+
+    @Test
+    public void periodsBetweenPaymentDates_shouldNotIncludeNextPeriod() {
+        List<TimeResolver> periods = ReportPeriods.between(FIRST_DATE, FIRST_DATE.withDayOfMonth(PAYMENT_DAY))
+                .forPaymentDay(PAYMENT_DAY);
+
+        assertEquals("Only the period ending on the payment date should be returned", 1, periods.size());
+    }
+
+    // PRIVATE
+
+    private static void assertSamePeriod(TimeResolver expected, TimeResolver actual) {
+        assertEquals("Periods should start at the same time", expected.getStartTime(), actual.getStartTime());
+        assertEquals("Periods should end at the same time", expected.getEndTime(), actual.getEndTime());
+    }
+
+    private static final int COUNT = 3;
+    private static final int PAYMENT_DAY = 15;
+
+    private static final LocalDate FIRST_DATE = LocalDate.parse("2015-02-01");
+    private static final LocalDate LAST_DATE = LocalDate.parse("2015-04-10");
+
+}
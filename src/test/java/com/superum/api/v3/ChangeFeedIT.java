@@ -0,0 +1,217 @@
+package com.superum.api.v3;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.superum.api.v3.change.Change;
+import com.superum.api.v3.change.ChangeAction;
+import com.superum.api.v3.change.ChangeFeed;
+import com.superum.api.v3.change.ChangedTable;
+import com.superum.helper.IntegrationTestEnvironment;
+import org.jooq.lambda.Seq;
+import org.jooq.lambda.Unchecked;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.transaction.TransactionConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UnsupportedEncodingException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
+
+import static com.superum.helper.TestConstants.TEST_PARTITION;
+import static org.junit.Assert.*;
+
+/**
+ * <pre>
+ * Subscribes mock responses to a separate feed; changes are written to them by the writer thread of the feed, so
+ * every check waits until the expected change is written
+ *
+ * To check that a change was not written, another change (a marker) is published afterwards; changes are written
+ * in the order they are published, so once the marker is written, the other change would have been written too
+ * </pre>
+ */
+@Transactional
+@TransactionConfiguration(defaultRollback = true)
+public class ChangeFeedIT extends IntegrationTestEnvironment {
+
+    @Before
+    public void newFeed() {
+        changeFeed = new ChangeFeed();
+    }
+
+    @After
+    public void shutdownFeed() {
+        changeFeed.shutdown();
+    }
+
+    @Test
+    public void changeInTransaction_shouldBeWrittenOnlyAfterCommit() {
+        MockHttpServletResponse response = subscribe(TEST_PARTITION, null);
+
+        committed(() -> {
+            changeFeed.publish(TEST_PARTITION, ChangedTable.lesson, ChangeAction.created, CHANGED_KEY);
+            publishMarkerOutsideTransaction(TEST_PARTITION);
+            waitFor("Marker should be written", () -> keys(response).contains(MARKER_KEY));
+
+            assertFalse("Change should not be written before commit", keys(response).contains(CHANGED_KEY));
+        });
+
+        waitFor("Change should be written after commit", () -> keys(response).contains(CHANGED_KEY));
+    }
+
+    @Test
+    public void rolledBackChange_shouldNotBeWritten() {
+        MockHttpServletResponse response = subscribe(TEST_PARTITION, null);
+
+        rolledBack(() -> changeFeed.publish(TEST_PARTITION, ChangedTable.lesson, ChangeAction.created, CHANGED_KEY));
+        publishMarkerOutsideTransaction(TEST_PARTITION);
+
+        waitFor("Marker should be written", () -> keys(response).contains(MARKER_KEY));
+        assertFalse("Rolled back change should not be written", keys(response).contains(CHANGED_KEY));
+    }
+
+    @Test
+    public void changeOfOtherPartition_shouldNotBeWritten() {
+        MockHttpServletResponse response = subscribe(TEST_PARTITION, null);
+
+        committed(() -> changeFeed.publish(OTHER_PARTITION, ChangedTable.lesson, ChangeAction.created, CHANGED_KEY));
+        publishMarkerOutsideTransaction(TEST_PARTITION);
+
+        waitFor("Marker should be written", () -> keys(response).contains(MARKER_KEY));
+        assertFalse("Change of other partition should not be written", keys(response).contains(CHANGED_KEY));
+    }
+
+    @Test
+    public void resumingAfterChange_shouldWriteOnlyLaterChanges() {
+        MockHttpServletResponse response = subscribe(TEST_PARTITION, null);
+        committed(() -> changeFeed.publish(TEST_PARTITION, ChangedTable.lesson, ChangeAction.created, CHANGED_KEY));
+        waitFor("Change should be written", () -> keys(response).contains(CHANGED_KEY));
+        String lastChangeId = changes(response).get(0).getId();
+        committed(() -> changeFeed.publish(TEST_PARTITION, ChangedTable.teacher, ChangeAction.updated, MARKER_KEY));
+
+        MockHttpServletResponse resumed = subscribe(TEST_PARTITION, lastChangeId);
+
+        waitFor("Missed change should be written", () -> keys(resumed).contains(MARKER_KEY));
+        assertFalse("Received change should not be written again", keys(resumed).contains(CHANGED_KEY));
+    }
+
+    @Test
+    public void resumingAfterUnknownChange_shouldReset() {
+        MockHttpServletResponse response = subscribe(TEST_PARTITION, "0-1");
+
+        waitFor("Reset should be written", () -> content(response).contains("event: reset"));
+    }
+
+    @Test
+    public void completedStream_shouldBeRemoved() {
+        MockAsyncContext asyncContext = asyncContext();
+        changeFeed.subscribe(TEST_PARTITION, null, asyncContext);
+        assertEquals("Stream should be subscribed", 1, changeFeed.subscriberCount(TEST_PARTITION));
+
+        asyncContext.complete();
+
+        waitFor("Completed stream should be removed", () -> changeFeed.subscriberCount(TEST_PARTITION) == 0);
+    }
+
+    // PRIVATE
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ChangeFeed changeFeed;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private MockHttpServletResponse subscribe(int partitionId, String lastChangeId) {
+        MockAsyncContext asyncContext = asyncContext();
+        changeFeed.subscribe(partitionId, lastChangeId, asyncContext);
+        return (MockHttpServletResponse) asyncContext.getResponse();
+    }
+
+    private MockAsyncContext asyncContext() {
+        return new MockAsyncContext(new MockHttpServletRequest(), new MockHttpServletResponse());
+    }
+
+    /**
+     * Another thread has no transaction, so the marker is published right away, even if this thread is in one
+     */
+    private void publishMarkerOutsideTransaction(int partitionId) {
+        CompletableFuture.runAsync(() -> changeFeed.publish(partitionId, ChangedTable.teacher, ChangeAction.updated,
+                MARKER_KEY)).join();
+    }
+
+    private List<Long> keys(MockHttpServletResponse response) {
+        return Seq.seq(changes(response)).map(Change::getKey).toList();
+    }
+
+    private List<Change> changes(MockHttpServletResponse response) {
+        return Seq.of(content(response).split("\n"))
+                .filter(line -> line.startsWith(DATA_PREFIX))
+                .map(line -> line.substring(DATA_PREFIX.length()))
+                .filter(data -> !data.equals("{}"))
+                .map(Unchecked.function(data -> objectMapper.readValue(data, Change.class)))
+                .toList();
+    }
+
+    private String content(MockHttpServletResponse response) {
+        try {
+            return response.getContentAsString();
+        } catch (UnsupportedEncodingException e) {
+            throw new AssertionError("Response should use a supported encoding", e);
+        }
+    }
+
+    private void waitFor(String message, BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline)
+                fail(message);
+
+            try {
+                Thread.sleep(POLL_MILLIS);
+            } catch (InterruptedException e) {
+                throw new AssertionError("Interrupted while waiting: " + message, e);
+            }
+        }
+    }
+
+    private void committed(Runnable change) {
+        newTransaction().execute(status -> {
+            change.run();
+            return null;
+        });
+    }
+
+    private void rolledBack(Runnable change) {
+        newTransaction().execute(status -> {
+            change.run();
+            status.setRollbackOnly();
+            return null;
+        });
+    }
+
+    private TransactionTemplate newTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template;
+    }
+
+    private static final int OTHER_PARTITION = 1000001;
+
+    private static final long CHANGED_KEY = 1000001;
+    private static final long MARKER_KEY = 1000002;
+
+    private static final String DATA_PREFIX = "data: ";
+
+    private static final long WAIT_MILLIS = 5000;
+    private static final long POLL_MILLIS = 50;
+
+}
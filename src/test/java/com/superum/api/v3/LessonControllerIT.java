@@ -1,8 +1,12 @@
 package com.superum.api.v3;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.superum.api.v2.attendance.ValidLessonAttendanceDTO;
+import com.superum.api.v3.lesson.dto.BatchLessonResult;
+import com.superum.api.v3.lesson.dto.CalendarLesson;
 import com.superum.api.v3.lesson.dto.FetchedLesson;
 import com.superum.api.v3.lesson.dto.SuppliedLesson;
+import com.superum.api.v3.lesson.dto.SuppliedLessonSeries;
 import com.superum.helper.DB;
 import com.superum.helper.Fakes;
 import com.superum.helper.IntegrationTestEnvironment;
@@ -16,9 +20,17 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
 
 import static eu.goodlike.libraries.spring.mockmvc.HttpResult.*;
+import static java.time.DayOfWeek.MONDAY;
+import static java.time.DayOfWeek.WEDNESDAY;
 import static java.time.temporal.ChronoUnit.MINUTES;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -68,6 +80,54 @@ public class LessonControllerIT extends IntegrationTestEnvironment {
         mvc.performPost(DEFAULT_PATH, lesson, BAD, status().isConflict());
     }
 
+    @Test
+    public void creatingLessonBatch_shouldCreateOnlyValidLessons() throws Exception {
+        SuppliedLesson validLesson = Fakes.suppliedLesson(NEW_LESSON_ID, OLD_GROUP_ID);
+        SuppliedLesson overlappingLesson = SuppliedLesson.builder()
+                .withGroupId(OLD_GROUP_ID)
+                .withStartTime(Fake.time(OLD_LESSON_ID))
+                .withLength(Fake.duration(NEW_LESSON_ID))
+                .build();
+        SuppliedLesson lessonWithNonExistentGroup = Fakes.suppliedLesson(NEW_LESSON_ID, NEW_GROUP_ID);
+
+        List<BatchLessonResult> results = mvc.performPost(DEFAULT_PATH + "batch",
+                Arrays.asList(validLesson, overlappingLesson, lessonWithNonExistentGroup), OK)
+                .map(Unchecked.function(this::readBatchResults))
+                .orElseThrow(() -> new Exception("Successful batch should return results!"));
+
+        assertEquals("Every lesson should have a result", 3, results.size());
+
+        FetchedLesson insertedLesson = results.get(0).getLesson();
+        assertTrue("Inserted lesson should have come from the original", db.originCheck(insertedLesson, validLesson, true));
+        assertInDatabase(insertedLesson);
+
+        assertEquals("Overlapping lesson should fail with conflict", 409, results.get(1).getStatus());
+        assertEquals("Lesson for non-existent group should fail with not found", 404, results.get(2).getStatus());
+    }
+
+    @Test
+    public void creatingLessonSeries_shouldCreateLessonForEveryDate() throws Exception {
+        SuppliedLessonSeries series = new SuppliedLessonSeries(OLD_GROUP_ID, ZoneId.of("Europe/Vilnius"),
+                LocalDate.of(2030, 1, 7), LocalDate.of(2030, 1, 20), EnumSet.of(MONDAY, WEDNESDAY), 18, 0,
+                Fake.duration(NEW_LESSON_ID), Fake.comment(NEW_LESSON_ID), Collections.singleton(LocalDate.of(2030, 1, 9)));
+
+        List<FetchedLesson> lessons = mvc.performPost(DEFAULT_PATH + "series", series, OK)
+                .map(Unchecked.function(this::readLessons))
+                .orElseThrow(() -> new Exception("Successful series should return lessons!"));
+
+        assertEquals("Series should have a lesson on 7th, 14th and 16th", 3, lessons.size());
+        lessons.forEach(this::assertInDatabase);
+    }
+
+    @Test
+    public void creatingLessonSeriesWithNonExistentGroupId_shouldReturn404() throws Exception {
+        SuppliedLessonSeries series = new SuppliedLessonSeries(NEW_GROUP_ID, ZoneId.of("Europe/Vilnius"),
+                LocalDate.of(2030, 1, 7), LocalDate.of(2030, 1, 20), EnumSet.of(MONDAY), 18, 0,
+                Fake.duration(NEW_LESSON_ID), null, null);
+
+        mvc.performPost(DEFAULT_PATH + "series", series, BAD, status().isNotFound());
+    }
+
     @Test
     public void updatingLessonWithId_shouldUpdateLesson() throws Exception {
         SuppliedLesson lesson = Fakes.suppliedLesson(NEW_LESSON_ID, OLD_GROUP_ID);
@@ -244,6 +304,30 @@ public class LessonControllerIT extends IntegrationTestEnvironment {
         mvc.performGet(DEFAULT_PATH + "student/" + NEW_STUDENT_ID + DEFAULT_PARAMS, BAD, status().isNotFound());
     }
 
+    @Test
+    public void readingCalendarForTeacher_shouldReturnLessonsWithAttendance() throws Exception {
+        FetchedLesson lesson = db.readFetchedLesson(OLD_LESSON_ID)
+                .orElseThrow(() -> new AssertionError("Lesson should be in database"));
+        String params = "?start=" + lesson.getStartTime() + "&end=" + lesson.getEndTime();
+
+        List<CalendarLesson> calendar = mvc.performGet(DEFAULT_PATH + "calendar/teacher/" + OLD_TEACHER_ID + params, OK)
+                .map(Unchecked.function(this::readCalendar))
+                .orElseThrow(() -> new AssertionError("Should return empty list instead of null"));
+
+        assertEquals("When returning calendar, 1 object should be returned", 1, calendar.size());
+        CalendarLesson calendarLesson = calendar.get(0);
+        assertEquals("Calendar should contain the lesson", lesson, calendarLesson.getLesson());
+        assertEquals("Calendar should contain the attendance of the lesson",
+                db.readValidLessonAttendance(OLD_LESSON_ID).map(ValidLessonAttendanceDTO::getStudentIds)
+                        .orElseThrow(() -> new AssertionError("Attendance should be in database")),
+                new HashSet<>(calendarLesson.getAttendeeIds()));
+    }
+
+    @Test
+    public void readingCalendarForNonExistentTeacher_shouldReturn404() throws Exception {
+        mvc.performGet(DEFAULT_PATH + "calendar/teacher/" + NEW_TEACHER_ID, BAD, status().isNotFound());
+    }
+
     // PRIVATE
 
     private FetchedLesson readLesson(MvcResult result) throws IOException {
@@ -254,6 +338,14 @@ public class LessonControllerIT extends IntegrationTestEnvironment {
         return MVC.from(result).to(LIST_OF_LESSONS);
     }
 
+    private List<CalendarLesson> readCalendar(MvcResult result) throws IOException {
+        return MVC.from(result).to(LIST_OF_CALENDAR_LESSONS);
+    }
+
+    private List<BatchLessonResult> readBatchResults(MvcResult result) throws IOException {
+        return MVC.from(result).to(LIST_OF_RESULTS);
+    }
+
     private void assertNotInDatabase(FetchedLesson lesson) {
         assertNotInDatabase(DB::readFetchedLesson, lesson.getId());
     }
@@ -278,5 +370,7 @@ public class LessonControllerIT extends IntegrationTestEnvironment {
     private static final String DEFAULT_PARAMS = "?start=" + 0 + "&end=" + Long.MAX_VALUE;
 
     private static final TypeReference<List<FetchedLesson>> LIST_OF_LESSONS = new TypeReference<List<FetchedLesson>>() {};
+    private static final TypeReference<List<CalendarLesson>> LIST_OF_CALENDAR_LESSONS = new TypeReference<List<CalendarLesson>>() {};
+    private static final TypeReference<List<BatchLessonResult>> LIST_OF_RESULTS = new TypeReference<List<BatchLessonResult>>() {};
 
 }
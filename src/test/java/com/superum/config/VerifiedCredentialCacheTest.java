@@ -0,0 +1,147 @@
+package com.superum.config;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * <pre>
+ * Accounts are kept in a map instead of the database, so that a password can be changed without telling the cache,
+ * the same way another instance of the app would change it
+ *
+ * Password checks are counted, to know whether credentials were verified again or taken from the cache
+ * </pre>
+ */
+public class VerifiedCredentialCacheTest {
+
+    @Before
+    public void setup() {
+        passwordHashes = new HashMap<>();
+        staleReads = new ArrayDeque<>();
+        passwordChecks = 0;
+
+        cache = new VerifiedCredentialCache();
+        cache.setUserDetailsService(this::readAccount);
+        cache.setPasswordEncoder(countingEncoder());
+
+        passwordHashes.put(USERNAME, encoder.encode(OLD_PASSWORD));
+    }
+
+    @Test
+    public void sameCredentials_shouldBeVerifiedOnce() {
+        authenticate(OLD_PASSWORD);
+        authenticate(OLD_PASSWORD);
+
+        assertEquals("Credentials should only be verified once", 1, passwordChecks);
+    }
+
+    @Test(expected = BadCredentialsException.class)
+    public void wrongPassword_shouldFail() {
+        authenticate(OLD_PASSWORD);
+
+        authenticate(NEW_PASSWORD);
+    }
+
+    @Test
+    public void passwordChangedWithoutInvalidation_shouldRejectOldPassword() {
+        authenticate(OLD_PASSWORD);
+
+        passwordHashes.put(USERNAME, encoder.encode(NEW_PASSWORD));
+
+        assertRejected(OLD_PASSWORD);
+        assertTrue("New password should be accepted", authenticate(NEW_PASSWORD).isAuthenticated());
+    }
+
+    @Test
+    public void verificationWhichReadAccountBeforeChange_shouldNotBeUsedAfterIt() {
+        String oldHash = passwordHashes.get(USERNAME);
+        passwordHashes.put(USERNAME, encoder.encode(NEW_PASSWORD));
+        cache.invalidate(Collections.singletonList(USERNAME));
+
+        // this authentication read the account before the change, but finished after the invalidation
+        staleReads.add(oldHash);
+        authenticate(OLD_PASSWORD);
+
+        assertRejected(OLD_PASSWORD);
+    }
+
+    // missing accounts are reported as bad credentials, so that existing usernames cannot be guessed
+    @Test(expected = BadCredentialsException.class)
+    public void deletedAccount_shouldFail() {
+        authenticate(OLD_PASSWORD);
+
+        passwordHashes.remove(USERNAME);
+
+        authenticate(OLD_PASSWORD);
+    }
+
+    // PRIVATE
+
+    private VerifiedCredentialCache cache;
+    private Map<String, String> passwordHashes;
+    private Deque<String> staleReads;
+    private int passwordChecks;
+
+    private final PasswordEncoder encoder = new BCryptPasswordEncoder(BCRYPT_STRENGTH);
+
+    private User readAccount(String username) {
+        String passwordHash = staleReads.isEmpty() ? passwordHashes.get(username) : staleReads.removeFirst();
+        if (passwordHash == null)
+            throw new UsernameNotFoundException("No account with username: " + username);
+
+        return new User(username, passwordHash,
+                AuthorityUtils.createAuthorityList(SecurityConfig.Role.ADMIN.fullName()));
+    }
+
+    private PasswordEncoder countingEncoder() {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return encoder.encode(rawPassword);
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                passwordChecks++;
+                return encoder.matches(rawPassword, encodedPassword);
+            }
+        };
+    }
+
+    private Authentication authenticate(String password) {
+        return cache.authenticate(new UsernamePasswordAuthenticationToken(USERNAME, password));
+    }
+
+    private void assertRejected(String password) {
+        try {
+            authenticate(password);
+        } catch (BadCredentialsException e) {
+            return;
+        }
+        throw new AssertionError("Password should be rejected: " + password);
+    }
+
+    private static final String USERNAME = "0.admin";
+    private static final String OLD_PASSWORD = "old password";
+    private static final String NEW_PASSWORD = "new password";
+
+    // the lowest strength BCrypt allows, so that tests stay fast
+    private static final int BCRYPT_STRENGTH = 4;
+
+}
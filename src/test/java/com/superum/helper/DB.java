@@ -5,9 +5,11 @@ import com.superum.api.v2.attendance.ValidLessonAttendanceDTO;
 import com.superum.api.v2.customer.ValidCustomerDTO;
 import com.superum.api.v2.group.ValidGroupDTO;
 import com.superum.api.v2.grouping.ValidGroupingDTO;
+import com.superum.api.v2.lesson.LessonIntervals;
 import com.superum.api.v2.lesson.ValidLesson;
 import com.superum.api.v2.lesson.ValidLessonDTO;
 import com.superum.api.v2.student.ValidStudentDTO;
+import com.superum.api.v2.table.TableRollup;
 import com.superum.api.v2.teacher.FullTeacherDTO;
 import com.superum.api.v3.lesson.LessonTransformer;
 import com.superum.api.v3.lesson.dto.FetchedLesson;
@@ -61,11 +63,14 @@ public class DB {
                 .set(LESSON.PARTITION_ID, TEST_PARTITION)
                 .set(LESSON.ID, lessonId)
                 .set(LESSON.GROUP_ID, lesson.getGroupId())
+                .set(LESSON.TEACHER_ID, groupTeacherId(lesson.getGroupId()))
                 .set(LESSON.TIME_OF_START, lesson.getStartTime())
                 .set(LESSON.TIME_OF_END, endTime)
                 .set(LESSON.DURATION_IN_MINUTES, lesson.getLength())
                 .set(LESSON.COMMENT, lesson.getComment())
                 .execute();
+        tableRollup.refreshLesson(lessonId, TEST_PARTITION);
+        lessonIntervals.lessonSaved(lessonId, TEST_PARTITION);
 
         return readFetchedLesson(lessonId)
                 .orElseThrow(() -> new RuntimeException("Couldn't insert lesson"));
@@ -184,11 +189,14 @@ public class DB {
                 .set(LESSON.PARTITION_ID, TEST_PARTITION)
                 .set(LESSON.ID, lesson.getId())
                 .set(LESSON.GROUP_ID, lesson.getGroupId())
+                .set(LESSON.TEACHER_ID, groupTeacherId(lesson.getGroupId()))
                 .set(LESSON.TIME_OF_START, lesson.getStartTime())
                 .set(LESSON.TIME_OF_END, ValidLesson.calculateEndTime(lesson.getStartTime(), lesson.getLength()))
                 .set(LESSON.DURATION_IN_MINUTES, lesson.getLength())
                 .set(LESSON.COMMENT, lesson.getComment())
                 .execute();
+        tableRollup.refreshLesson(lesson.getId(), TEST_PARTITION);
+        lessonIntervals.lessonSaved(lesson.getId(), TEST_PARTITION);
 
         return readValidLesson(lesson.getId())
                 .orElseThrow(() -> new RuntimeException("Couldn't insert lesson"));
@@ -301,20 +309,32 @@ public class DB {
     // CONSTRUCTORS
 
     @Autowired
-    public DB(DSLContext sql, LessonTransformer lessonTransformer) {
+    public DB(DSLContext sql, LessonTransformer lessonTransformer, TableRollup tableRollup,
+              LessonIntervals lessonIntervals) {
         this.sql = sql;
         this.lessonTransformer = lessonTransformer;
+        this.tableRollup = tableRollup;
+        this.lessonIntervals = lessonIntervals;
     }
 
     // PRIVATE
 
     private final DSLContext sql;
     private final LessonTransformer lessonTransformer;
+    private final TableRollup tableRollup;
+    private final LessonIntervals lessonIntervals;
 
     private java.sql.Date toSql(LocalDate startDate) {
         return startDate == null ? null : Time.convert(startDate).toSqlDate();
     }
 
+    private Integer groupTeacherId(Integer groupId) {
+        return sql.select(GROUP_OF_STUDENTS.TEACHER_ID)
+                .from(GROUP_OF_STUDENTS)
+                .where(GROUP_OF_STUDENTS.ID.eq(groupId))
+                .fetchOne(GROUP_OF_STUDENTS.TEACHER_ID);
+    }
+
     private void insertCustomers() {
         Some.of(Fakes::customer).oneUpTo(2)
                 .forEach(this::insertValidCustomer);
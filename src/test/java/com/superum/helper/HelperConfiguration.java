@@ -1,11 +1,14 @@
 package com.superum.helper;
 
+import com.superum.api.v2.lesson.LessonIntervals;
+import com.superum.api.v2.table.TableRollup;
 import com.superum.api.v3.lesson.LessonRepository;
 import com.superum.api.v3.lesson.LessonTransformer;
 import com.superum.api.v3.lesson.impl.LessonRepositoryImpl;
 import com.superum.api.v3.lesson.impl.LessonTransformerImpl;
 import com.superum.config.DefaultSqlConfigV3;
 import com.superum.config.PersistenceContext;
+import com.superum.helper.jooq.EntityCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -18,7 +21,7 @@ public class HelperConfiguration {
 
     @Bean
     public DB db() {
-        return new DB(persistenceContext.dsl(), lessonTransformer());
+        return new DB(persistenceContext.dsl(), lessonTransformer(), tableRollup, lessonIntervals);
     }
 
     @Bean
@@ -30,7 +33,7 @@ public class HelperConfiguration {
     @Bean
     @Primary
     public LessonRepository lessonRepository() {
-        return new LessonRepositoryImpl(persistenceContext.dsl());
+        return new LessonRepositoryImpl(persistenceContext.dsl(), lessonIntervals, entityCache);
     }
 
     // PRIVATE
@@ -41,4 +44,13 @@ public class HelperConfiguration {
     @Autowired
     private DefaultSqlConfigV3 sqlConfig;
 
+    @Autowired
+    private TableRollup tableRollup;
+
+    @Autowired
+    private LessonIntervals lessonIntervals;
+
+    @Autowired
+    private EntityCache entityCache;
+
 }
@@ -0,0 +1,125 @@
+package com.superum.helper;
+
+import com.superum.api.v2.table.PaddedSumField;
+import eu.goodlike.test.Fake;
+import org.jooq.Condition;
+import org.jooq.DSLContext;
+import org.jooq.lambda.Seq;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static timestar_v2.Keys.LESSON_IBFK_1;
+import static timestar_v2.Keys.LESSON_IBFK_2;
+import static timestar_v2.Tables.*;
+
+/**
+ * <pre>
+ * Data and queries for comparing the derived table reports of TableReportFetcher against the OR-chained condition
+ * they replaced; TableReportFetcherIT checks that both find the same costs, TableReportBenchmark (jmh source set)
+ * measures how long they take
+ *
+ * Every id is a teacher with a group and a single lesson of its own; ids start at 1000, so they must be free
+ *
+ * Every other id gets a window which ends exactly when its lesson starts, so it does not contain the lesson and
+ * the windows cannot be ignored; the end of a window is exclusive
+ * </pre>
+ */
+public final class TableReportFixture {
+
+    /**
+     * Inserts a teacher, a group and a lesson for every one of the first idCount ids
+     */
+    public void insert(int idCount) {
+        List<Integer> ids = ids(idCount);
+
+        Seq.seq(ids)
+                .foldLeft(sql.insertInto(TEACHER, TEACHER.PARTITION_ID, TEACHER.ID, TEACHER.HOURLY_WAGE,
+                                TEACHER.ACADEMIC_WAGE, TEACHER.CREATED_AT, TEACHER.UPDATED_AT),
+                        (step, id) -> step.values(partitionId, id, Fake.wage(id), Fake.wage(id), 0L, 0L))
+                .execute();
+
+        Seq.seq(ids)
+                .foldLeft(sql.insertInto(GROUP_OF_STUDENTS, GROUP_OF_STUDENTS.PARTITION_ID, GROUP_OF_STUDENTS.ID,
+                                GROUP_OF_STUDENTS.TEACHER_ID, GROUP_OF_STUDENTS.USE_HOURLY_WAGE,
+                                GROUP_OF_STUDENTS.LANGUAGE_LEVEL, GROUP_OF_STUDENTS.NAME),
+                        (step, id) -> step.values(partitionId, id, id, Fake.Boolean(id),
+                                Fake.languageLevel(id), Fake.name(id)))
+                .execute();
+
+        Seq.seq(ids)
+                .foldLeft(sql.insertInto(LESSON, LESSON.PARTITION_ID, LESSON.ID, LESSON.GROUP_ID, LESSON.TEACHER_ID,
+                                LESSON.TIME_OF_START, LESSON.TIME_OF_END, LESSON.DURATION_IN_MINUTES),
+                        (step, id) -> step.values(partitionId, (long) id, id, id,
+                                lessonTime(id), lessonTime(id) + LESSON_LENGTH * 60000L, LESSON_LENGTH))
+                .execute();
+    }
+
+    /**
+     * @return costs of the lessons in given windows, using a single query with an (id AND window) condition for every
+     * id, chained with OR; ids without any lessons in their window are left out
+     */
+    public Map<Integer, BigDecimal> orChainCosts(Map<Integer, TimeResolver> timeResolvers) {
+        Condition condition = Seq.seq(timeResolvers)
+                .map(t2 -> LESSON.TEACHER_ID.eq(t2.v1)
+                        .and(LESSON.TIME_OF_START.ge(t2.v2.getStartTime()))
+                        .and(LESSON.TIME_OF_START.lt(t2.v2.getEndTime())))
+                .reduce(Condition::or)
+                .orElseThrow(() -> new IllegalArgumentException("There should always be ids to compare"));
+
+        return sql.select(LESSON.TEACHER_ID, paddedSumField.field())
+                .from(LESSON)
+                .join(TEACHER).onKey(LESSON_IBFK_1)
+                .join(GROUP_OF_STUDENTS).onKey(LESSON_IBFK_2)
+                .where(condition.and(LESSON.PARTITION_ID.eq(partitionId)))
+                .groupBy(LESSON.TEACHER_ID)
+                .fetch().stream()
+                .collect(Collectors.toMap(record -> record.getValue(LESSON.TEACHER_ID),
+                        paddedSumField::valueForRecord));
+    }
+
+    /**
+     * @return the first idCount ids
+     */
+    public static List<Integer> ids(int idCount) {
+        return IntStream.range(FIRST_ID, FIRST_ID + idCount).boxed().collect(Collectors.toList());
+    }
+
+    /**
+     * @return window of every given id
+     */
+    public static Map<Integer, TimeResolver> windowsFor(List<Integer> ids) {
+        return ids.stream().collect(Collectors.toMap(id -> id, TableReportFixture::windowFor));
+    }
+
+    // CONSTRUCTORS
+
+    public TableReportFixture(DSLContext sql, PaddedSumField paddedSumField, int partitionId) {
+        this.sql = sql;
+        this.paddedSumField = paddedSumField;
+        this.partitionId = partitionId;
+    }
+
+    // PRIVATE
+
+    private final DSLContext sql;
+    private final PaddedSumField paddedSumField;
+    private final int partitionId;
+
+    private static TimeResolver windowFor(int id) {
+        return id % 2 == 0
+                ? TimeResolver.from(null, null, null, lessonTime(id), lessonTime(id) + 1)
+                : TimeResolver.from(null, null, null, 0L, lessonTime(id));
+    }
+
+    private static long lessonTime(int id) {
+        return id * 3600000L;
+    }
+
+    private static final int FIRST_ID = 1000;
+    private static final int LESSON_LENGTH = 45;
+
+}
@@ -0,0 +1,136 @@
+package com.superum.helper;
+
+import eu.goodlike.libraries.joda.time.Time;
+import org.joda.time.LocalDate;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * <pre>
+ * Checks the payment periods of teachers and customers; the dates are chosen around February, because a payment
+ * date which does not exist in a short month is moved to the first day of the next month
+ *
+ * 2015 is not a leap year, 2016 is
+ * </pre>
+ */
+public class TimeResolverTest {
+
+    @Test
+    public void dateBeforePaymentDate_shouldBelongToPeriodEndingThisMonth() {
+        assertPeriod(TimeResolver.from(15, date(2015, 3, 10)), date(2015, 2, 16), date(2015, 3, 15));
+    }
+
+    @Test
+    public void paymentDate_shouldBelongToPeriodEndingThatDay() {
+        assertPeriod(TimeResolver.from(15, date(2015, 3, 15)), date(2015, 2, 16), date(2015, 3, 15));
+    }
+
+    @Test
+    public void dateAfterPaymentDate_shouldBelongToPeriodEndingNextMonth() {
+        assertPeriod(TimeResolver.from(15, date(2015, 3, 16)), date(2015, 3, 16), date(2015, 4, 15));
+    }
+
+    @Test
+    public void paymentDayMissingFromFebruary_shouldMoveToDayOneOfMarch() {
+        for (int paymentDay = 29; paymentDay <= 31; paymentDay++) {
+            assertPeriod(TimeResolver.from(paymentDay, date(2015, 2, 28)),
+                    date(2015, 1, paymentDay + 1), date(2015, 3, 1));
+            assertPeriod(TimeResolver.from(paymentDay, date(2015, 3, 1)),
+                    date(2015, 1, paymentDay + 1), date(2015, 3, 1));
+            assertPeriod(TimeResolver.from(paymentDay, date(2015, 3, 2)),
+                    date(2015, 3, 2), date(2015, 3, paymentDay));
+        }
+    }
+
+    @Test
+    public void paymentDay29InLeapYear_shouldStayInFebruary() {
+        assertPeriod(TimeResolver.from(29, date(2016, 2, 29)), date(2016, 1, 30), date(2016, 2, 29));
+        assertPeriod(TimeResolver.from(29, date(2016, 3, 1)), date(2016, 3, 1), date(2016, 3, 29));
+    }
+
+    @Test
+    public void periodsAcrossFebruary_shouldCoverEveryDayOnce() {
+        for (int year = 2015; year <= 2016; year++)
+            for (int paymentDay = 28; paymentDay <= 31; paymentDay++) {
+                List<TimeResolver> periods = TimeResolver.periods(paymentDay, date(year, 1, 1), date(year, 4, 30));
+                assertContinuous(periods);
+
+                for (LocalDate day = date(year, 1, 1); !day.isAfter(date(year, 4, 30)); day = day.plusDays(1))
+                    assertEquals("Day " + day + " should belong to one period, for payment day " + paymentDay,
+                            1, periodsContaining(periods, day));
+            }
+    }
+
+    @Test
+    public void periodsBetweenDates_shouldStartAndEndWithPeriodsOfThoseDates() {
+        List<TimeResolver> periods = TimeResolver.periods(31, date(2015, 1, 15), date(2015, 4, 15));
+
+        assertEquals("Periods ending on Jan 31, Mar 1, Mar 31 and May 1 should be returned", 4, periods.size());
+        assertPeriod(periods.get(0), date(2015, 1, 1), date(2015, 1, 31));
+        assertPeriod(periods.get(3), date(2015, 4, 1), date(2015, 5, 1));
+    }
+
+    @Test
+    public void periodsWithLastDateBeforeFirstDate_shouldBeEmpty() {
+        List<TimeResolver> periods = TimeResolver.periods(15, date(2015, 3, 1), date(2015, 2, 1));
+
+        assertTrue("No periods should be returned", periods.isEmpty());
+    }
+
+    @Test
+    public void periodsByCount_shouldEndWithCurrentPeriod() {
+        for (int paymentDay : PAYMENT_DAYS)
+            for (int count = 1; count <= 24; count++) {
+                List<TimeResolver> periods = TimeResolver.periods(paymentDay, count);
+
+                assertEquals("There should be " + count + " periods for payment day " + paymentDay,
+                        count, periods.size());
+                assertContinuous(periods);
+
+                TimeResolver current = TimeResolver.from(paymentDay);
+                TimeResolver last = periods.get(periods.size() - 1);
+                assertEquals("The last period should start with the current one",
+                        current.getStartTime(), last.getStartTime());
+                assertEquals("The last period should end with the current one",
+                        current.getEndTime(), last.getEndTime());
+            }
+    }
+
+    // PRIVATE
+
+    private static LocalDate date(int year, int month, int day) {
+        LocalDate dayOne = new LocalDate(year, month, 1);
+        return dayOne.plusDays(day - 1);
+    }
+
+    private static long millis(LocalDate date) {
+        return Time.getDefault().from(date).toEpochMillis();
+    }
+
+    /**
+     * The end of a period is exclusive, it is the start of the day after the payment date
+     */
+    private static void assertPeriod(TimeResolver period, LocalDate firstDay, LocalDate paymentDate) {
+        assertEquals("Period should start on " + firstDay, millis(firstDay), period.getStartTime());
+        assertEquals("Period should end after " + paymentDate, millis(paymentDate.plusDays(1)), period.getEndTime());
+    }
+
+    private static void assertContinuous(List<TimeResolver> periods) {
+        for (int i = 1; i < periods.size(); i++)
+            assertEquals("Every period should start where the previous one ended",
+                    periods.get(i - 1).getEndTime(), periods.get(i).getStartTime());
+    }
+
+    private static long periodsContaining(List<TimeResolver> periods, LocalDate day) {
+        long start = millis(day);
+        return periods.stream()
+                .filter(period -> period.getStartTime() <= start && start < period.getEndTime())
+                .count();
+    }
+
+    private static final int[] PAYMENT_DAYS = {1, 15, 28, 29, 30, 31};
+
+}
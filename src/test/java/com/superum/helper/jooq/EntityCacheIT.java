@@ -0,0 +1,139 @@
+package com.superum.helper.jooq;
+
+import com.superum.config.ReadWriteRoutingDataSource;
+import com.superum.helper.IntegrationTestEnvironment;
+import org.jooq.DSLContext;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.transaction.TransactionConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import timestar_v2.tables.records.CustomerRecord;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static com.superum.helper.TestConstants.TEST_PARTITION;
+import static org.junit.Assert.*;
+import static timestar_v2.Tables.CUSTOMER;
+
+/**
+ * <pre>
+ * Uses a separate cache, with records which are never written to the database; the loaders count how many times
+ * the database would have been read
+ *
+ * The transaction of the test itself is a writing one, so the cache is filled outside of any transaction
+ * </pre>
+ */
+@Transactional
+@TransactionConfiguration(defaultRollback = true)
+public class EntityCacheIT extends IntegrationTestEnvironment {
+
+    @Before
+    public void newCache() {
+        entityCache = new EntityCache(readWriteRoutingDataSource, MAX_RECORDS);
+        loads = 0;
+    }
+
+    @Test
+    public void readOutsideTransaction_shouldBeCached() {
+        outsideTransaction(() -> read(CUSTOMER_NAME));
+
+        Optional<CustomerRecord> customer = outsideTransaction(() -> read(OTHER_NAME));
+
+        assertEquals("Record should be read from the database once", 1, loads);
+        assertEquals("Cached record should be returned", CUSTOMER_NAME, customer.get().getName());
+    }
+
+    @Test
+    public void readInWritingTransaction_shouldUseDatabase() {
+        outsideTransaction(() -> read(CUSTOMER_NAME));
+
+        Optional<CustomerRecord> customer = read(OTHER_NAME);
+
+        assertEquals("Record should be read from the database again", 2, loads);
+        assertEquals("Record from the database should be returned", OTHER_NAME, customer.get().getName());
+    }
+
+    @Test
+    public void existsInWritingTransaction_shouldUseDatabase() {
+        outsideTransaction(() -> read(CUSTOMER_NAME));
+
+        boolean exists = entityCache.exists(CUSTOMER, TEST_PARTITION, CUSTOMER_ID, () -> load(CUSTOMER_NAME),
+                () -> false);
+
+        assertFalse("Existence should be checked in the database", exists);
+    }
+
+    @Test
+    public void changedRecord_shouldBeReadAgain() {
+        outsideTransaction(() -> read(CUSTOMER_NAME));
+
+        outsideTransaction(() -> {
+            entityCache.changed(CUSTOMER, TEST_PARTITION, CUSTOMER_ID);
+            return null;
+        });
+        Optional<CustomerRecord> customer = outsideTransaction(() -> read(OTHER_NAME));
+
+        assertEquals("Record should be read from the database again", 2, loads);
+        assertEquals("Changed record should be returned", OTHER_NAME, customer.get().getName());
+    }
+
+    @Test
+    public void recordReadBeforeChange_shouldNotBeKept() {
+        Optional<CustomerRecord> customer = outsideTransaction(() -> entityCache.read(CUSTOMER, TEST_PARTITION,
+                CUSTOMER_ID, () -> {
+                    Optional<CustomerRecord> loaded = load(CUSTOMER_NAME);
+                    entityCache.changed(CUSTOMER, TEST_PARTITION, CUSTOMER_ID);
+                    return loaded;
+                }));
+        assertTrue("Record should still be returned", customer.isPresent());
+
+        outsideTransaction(() -> read(OTHER_NAME));
+
+        assertEquals("Record read before the change should not be kept", 2, loads);
+    }
+
+    // PRIVATE
+
+    @Autowired
+    private DSLContext sql;
+
+    @Autowired
+    private ReadWriteRoutingDataSource readWriteRoutingDataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private EntityCache entityCache;
+    private int loads;
+
+    private Optional<CustomerRecord> read(String name) {
+        return entityCache.read(CUSTOMER, TEST_PARTITION, CUSTOMER_ID, () -> load(name));
+    }
+
+    private Optional<CustomerRecord> load(String name) {
+        loads++;
+        CustomerRecord customer = sql.newRecord(CUSTOMER);
+        customer.setId(CUSTOMER_ID);
+        customer.setPartitionId(TEST_PARTITION);
+        customer.setName(name);
+        return Optional.of(customer);
+    }
+
+    private <T> T outsideTransaction(Supplier<T> action) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_NOT_SUPPORTED);
+        return template.execute(status -> action.get());
+    }
+
+    private static final long MAX_RECORDS = 100;
+
+    private static final int CUSTOMER_ID = 1000001;
+    private static final String CUSTOMER_NAME = "Cached";
+    private static final String OTHER_NAME = "Changed";
+
+}
@@ -0,0 +1,176 @@
+package com.superum.helper.jooq;
+
+import com.google.common.collect.ImmutableSet;
+import com.superum.api.v2.customer.UnsafeCustomerDeleteException;
+import com.superum.api.v2.group.UnsafeGroupDeleteException;
+import com.superum.api.v2.group.ValidGroupCommandService;
+import com.superum.api.v2.teacher.UnsafeTeacherDeleteException;
+import com.superum.api.v3.customer.CustomerCommands;
+import com.superum.api.v3.teacher.TeacherCommands;
+import com.superum.helper.DB;
+import com.superum.helper.Fakes;
+import com.superum.helper.IntegrationTestEnvironment;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.transaction.TransactionConfiguration;
+import org.springframework.transaction.annotation.Transactional;
+
+import static com.superum.helper.TestConstants.TEST_PARTITION;
+
+/**
+ * <pre>
+ * Checks the deletes which refuse to delete records that are still used as foreign keys:
+ *      teachers, customers : GuardedCommands.deleteUnused(), through the commands of APIv3
+ *      groups              : ForeignQueries.isUsed(), through the command service of APIv2
+ *      many groups         : ForeignQueries.usedIds(), through the command service of APIv2
+ *
+ * Every table which uses a record is checked separately, so a record used by only one of them is tested too
+ *
+ * APIv3 commands read the partition from the current user, so the tests run as the test account
+ * </pre>
+ */
+@Transactional
+@TransactionConfiguration(defaultRollback = true)
+public class GuardedDeleteIT extends IntegrationTestEnvironment {
+
+    @Before
+    public void authenticate() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new TestingAuthenticationToken(Fakes.partitionAccount().accountUsername(), null));
+    }
+
+    @After
+    public void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void deletingUsedTeacher_shouldThrowAndKeepTeacher() {
+        assertUnsafe(() -> teacherCommands.delete(OLD_TEACHER_ID), UnsafeTeacherDeleteException.class);
+
+        assertInDatabase(DB::readFullTeacher, OLD_TEACHER_ID);
+    }
+
+    @Test
+    public void deletingTeacherUsedOnlyByGroup_shouldThrowAndKeepTeacher() {
+        db.insertFullTeacher(Fakes.teacher(NEW_TEACHER_ID));
+        db.insertValidGroup(Fakes.group(NEW_GROUP_ID, NEW_TEACHER_ID, OLD_CUSTOMER_ID));
+
+        assertUnsafe(() -> teacherCommands.delete(NEW_TEACHER_ID), UnsafeTeacherDeleteException.class);
+
+        assertInDatabase(DB::readFullTeacher, NEW_TEACHER_ID);
+    }
+
+    @Test
+    public void deletingUnusedTeacher_shouldDeleteTeacher() {
+        db.insertFullTeacher(Fakes.teacher(NEW_TEACHER_ID));
+
+        teacherCommands.delete(NEW_TEACHER_ID);
+
+        assertNotInDatabase(DB::readFullTeacher, NEW_TEACHER_ID);
+    }
+
+    @Test
+    public void deletingUsedCustomer_shouldThrowAndKeepCustomer() {
+        assertUnsafe(() -> customerCommands.delete(OLD_CUSTOMER_ID), UnsafeCustomerDeleteException.class);
+
+        assertInDatabase(DB::readValidCustomer, OLD_CUSTOMER_ID);
+    }
+
+    @Test
+    public void deletingCustomerUsedOnlyByGroup_shouldThrowAndKeepCustomer() {
+        db.insertValidCustomer(Fakes.customer(NEW_CUSTOMER_ID));
+        db.insertValidGroup(Fakes.group(NEW_GROUP_ID, OLD_TEACHER_ID, NEW_CUSTOMER_ID));
+
+        assertUnsafe(() -> customerCommands.delete(NEW_CUSTOMER_ID), UnsafeCustomerDeleteException.class);
+
+        assertInDatabase(DB::readValidCustomer, NEW_CUSTOMER_ID);
+    }
+
+    @Test
+    public void deletingUnusedCustomer_shouldDeleteCustomer() {
+        db.insertValidCustomer(Fakes.customer(NEW_CUSTOMER_ID));
+
+        customerCommands.delete(NEW_CUSTOMER_ID);
+
+        assertNotInDatabase(DB::readValidCustomer, NEW_CUSTOMER_ID);
+    }
+
+    @Test
+    public void deletingUsedGroup_shouldThrowAndKeepGroup() {
+        assertUnsafe(() -> validGroupCommandService.delete(OLD_GROUP_ID, TEST_PARTITION),
+                UnsafeGroupDeleteException.class);
+
+        assertInDatabase(DB::readValidGroup, OLD_GROUP_ID);
+    }
+
+    @Test
+    public void deletingGroupUsedOnlyByStudent_shouldThrowAndKeepGroup() {
+        db.insertValidGroup(Fakes.group(NEW_GROUP_ID, OLD_TEACHER_ID, OLD_CUSTOMER_ID));
+        db.insertValidGrouping(Fakes.grouping(NEW_GROUP_ID, OLD_STUDENT_ID));
+
+        assertUnsafe(() -> validGroupCommandService.delete(NEW_GROUP_ID, TEST_PARTITION),
+                UnsafeGroupDeleteException.class);
+
+        assertInDatabase(DB::readValidGroup, NEW_GROUP_ID);
+    }
+
+    @Test
+    public void deletingUnusedGroup_shouldDeleteGroup() {
+        db.insertValidGroup(Fakes.group(NEW_GROUP_ID, OLD_TEACHER_ID, OLD_CUSTOMER_ID));
+
+        validGroupCommandService.delete(NEW_GROUP_ID, TEST_PARTITION);
+
+        assertNotInDatabase(DB::readValidGroup, NEW_GROUP_ID);
+    }
+
+    @Test
+    public void deletingGroupsWhenOneIsUsed_shouldThrowAndKeepGroups() {
+        db.insertValidGroup(Fakes.group(NEW_GROUP_ID, OLD_TEACHER_ID, OLD_CUSTOMER_ID));
+
+        assertUnsafe(() -> validGroupCommandService.deleteAll(ImmutableSet.of(NEW_GROUP_ID, OLD_GROUP_ID),
+                TEST_PARTITION), UnsafeGroupDeleteException.class);
+
+        assertInDatabase(DB::readValidGroup, OLD_GROUP_ID);
+        assertInDatabase(DB::readValidGroup, NEW_GROUP_ID);
+    }
+
+    @Test
+    public void deletingUnusedGroups_shouldDeleteGroups() {
+        db.insertValidGroup(Fakes.group(NEW_GROUP_ID, OLD_TEACHER_ID, OLD_CUSTOMER_ID));
+        db.insertValidGroup(Fakes.group(NEW_GROUP_ID + 1, OLD_TEACHER_ID, OLD_CUSTOMER_ID));
+
+        validGroupCommandService.deleteAll(ImmutableSet.of(NEW_GROUP_ID, NEW_GROUP_ID + 1), TEST_PARTITION);
+
+        assertNotInDatabase(DB::readValidGroup, NEW_GROUP_ID);
+        assertNotInDatabase(DB::readValidGroup, NEW_GROUP_ID + 1);
+    }
+
+    // PRIVATE
+
+    @Autowired
+    private TeacherCommands teacherCommands;
+
+    @Autowired
+    private CustomerCommands customerCommands;
+
+    @Autowired
+    private ValidGroupCommandService validGroupCommandService;
+
+    private void assertUnsafe(Runnable delete, Class<? extends RuntimeException> unsafeDelete) {
+        try {
+            delete.run();
+        } catch (RuntimeException e) {
+            if (unsafeDelete.isInstance(e))
+                return;
+
+            throw new AssertionError("Delete should have thrown " + unsafeDelete.getSimpleName(), e);
+        }
+        throw new AssertionError("Delete should have thrown " + unsafeDelete.getSimpleName());
+    }
+
+}